@@ -32,6 +32,7 @@ import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Repository;
@@ -40,6 +41,8 @@ import org.springframework.stereotype.Service;
 import javax.lang.model.type.NullType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.ff4j.utils.MappingUtil.instanceFlippingStrategy;
 import static org.ff4j.utils.MappingUtil.toMap;
@@ -48,6 +51,11 @@ import static org.ff4j.utils.MappingUtil.toMap;
  * At runtime check presence of annotation @{Flip}, then evaluate if the related feature id is enabled.
  * If the feature is enabled, the implementation is route to the correct implementation. 
  * 
+ * Annotation and alternatives are resolved once per method and target class into {@link FlipMetadata}, which is
+ * handed to {@link #check(FlipMetadata, MethodInvocation)}, {@link #getFlippingContext(FlipMetadata, MethodInvocation)},
+ * {@link #invokeAlterBean(MethodInvocation, FlipMetadata)} and {@link #invokeAlterClazz(MethodInvocation, FlipMetadata)}.
+ * These are invoked for each call and can be overridden.
+ * 
  * @author Cedrick LUNVEN (@clunven)
  */
 @Component("ff.advisor")
@@ -64,45 +72,90 @@ public class FeatureAdvisor implements MethodInterceptor {
     @Autowired
     private FF4j ff4j;
 
+    /** Resolved annotations and targets by method and target class. */
+    private final Map<MethodClassKey, FlipMetadata> metadataCache = new ConcurrentHashMap<MethodClassKey, FlipMetadata>();
+
+    /**
+     * Everything computed once for a method of a target class.
+     */
+    protected static final class FlipMetadata {
+
+        /** Not annotated. */
+        private static final FlipMetadata NO_FLIP = new FlipMetadata(null);
+
+        /** Annotation, null if method is not flipped. */
+        private final Flip flip;
+
+        /** Index of {@link FlippingExecutionContext} parameter or -1. */
+        private int contextParameterIndex = -1;
+
+        /** Strategy overriding the one in store, initialized once. */
+        private FlippingStrategy strategy;
+
+        /** Alter bean or alter class is defined in annotation. */
+        private boolean hasAlternative;
+
+        /** Alter bean exists in context. */
+        private boolean usingAlterBean;
+
+        /** Alter class is defined. */
+        private boolean usingAlterClazz;
+
+        /** Invoked bean is already the alternative, no check required. */
+        private boolean alreadyAlter;
+
+        /** Alternative singleton, resolved once. */
+        private volatile Object alterTarget;
+
+        private FlipMetadata(Flip flip) {
+            this.flip = flip;
+        }
+
+        /**
+         * Getter accessor for attribute 'flip'.
+         *
+         * @return
+         *       current value of 'flip'
+         */
+        public Flip getFlip() {
+            return flip;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public Object invoke(final MethodInvocation mi) throws Throwable {
-        Flip ff4jAnnotation = getFF4jAnnotation(mi);
+        FlipMetadata metadata = getFlipMetadata(mi);
+        Flip ff4jAnnotation = metadata.flip;
         
         // Method is annotated
         if (ff4jAnnotation != null) {
-        	
-        	String alterBean    = ff4jAnnotation.alterBean();
-        	Class<?> alterClazz = ff4jAnnotation.alterClazz();
 
-        	if(Util.hasLength(alterBean) || Util.isValidClass(alterClazz)) {
-
-        	    boolean usingAlterBean = Util.hasLength(alterBean) && appCtx.containsBean(alterBean);
-        	    boolean usingAlterClazz = Util.isValidClass(alterClazz);
+        	if (metadata.hasAlternative) {
 
         	    // if the alterBean or alterClazz is invoked, then checking the FeatureToggle is useless
-        	    if((usingAlterBean && alterBean.equals(getExecutedBeanName(mi))) || (usingAlterClazz && alterClazz == getExecutedClass(mi))) {
+        	    if (metadata.alreadyAlter) {
                     // no need to check FeatureToggle
                     return mi.proceed();
                 }
 
-                boolean isFeatureToggled = check(ff4jAnnotation, mi);
+                boolean isFeatureToggled = check(metadata, mi);
 
                 // Feature is 'ON'
                 if (isFeatureToggled) {
                     // Do we use the alter bean defined in the annotation ?
-                    if (usingAlterBean) {
-                        return invokeAlterBean(mi, alterBean);
+                    if (metadata.usingAlterBean) {
+                        return invokeAlterBean(mi, metadata);
                     }
 
                     // Or else do we use the alter class defined in the annotation ?
-                    if (usingAlterClazz) {
-                        return invokeAlterClazz(mi, ff4jAnnotation);
+                    if (metadata.usingAlterClazz) {
+                        return invokeAlterClazz(mi, metadata);
                     }
                 }
             } else {
                 // Would like to skip if feature is Disable
-        	    if(!check(ff4jAnnotation, mi)) {
+        	    if(!check(metadata, mi)) {
         	        return null;
                 }
             }
@@ -110,31 +163,103 @@ public class FeatureAdvisor implements MethodInterceptor {
         // No feature toggle (no annotation nor feature OFF)
         return mi.proceed();
     }
-   
+
     /**
-     * Call if Flipped based on different parameters of the annotation
+     * Access metadata of the method of current target class, resolved on first invocation.
+     *
+     * @param mi
+     *      current invocation
+     * @return
+     *      resolved metadata
+     */
+    private FlipMetadata getFlipMetadata(MethodInvocation mi) {
+        Object target = mi.getThis();
+        MethodClassKey key = new MethodClassKey(mi.getMethod(), target == null ? null : AopUtils.getTargetClass(target));
+        FlipMetadata metadata = metadataCache.get(key);
+        if (metadata == null) {
+            metadata = resolveFlipMetadata(mi);
+            metadataCache.put(key, metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * Compute metadata for current invocation.
+     *
+     * @param mi
+     *      current invocation
+     * @return
+     *      resolved metadata
+     */
+    private FlipMetadata resolveFlipMetadata(MethodInvocation mi) {
+        Flip ff = getFF4jAnnotation(mi);
+        if (ff == null) {
+            return FlipMetadata.NO_FLIP;
+        }
+        FlipMetadata metadata = new FlipMetadata(ff);
+        if (ff.contextLocation() == ContextLocation.PARAMETER) {
+            metadata.contextParameterIndex = getContextParameterIndex(mi.getMethod());
+        }
+        if (ff.flippingStrategy() != NullType.class) {
+            metadata.strategy = instanceFlippingStrategy(ff.name(), 
+                    ff.flippingStrategy().getName(), toMap(ff.flippingInitParams()));
+        }
+        String alterBean    = ff.alterBean();
+        Class<?> alterClazz = ff.alterClazz();
+        if (Util.hasLength(alterBean) || Util.isValidClass(alterClazz)) {
+            metadata.hasAlternative  = true;
+            metadata.usingAlterBean  = Util.hasLength(alterBean) && appCtx.containsBean(alterBean);
+            metadata.usingAlterClazz = Util.isValidClass(alterClazz);
+            metadata.alreadyAlter    = (metadata.usingAlterBean && alterBean.equals(getExecutedBeanName(mi))) 
+                    || (metadata.usingAlterClazz && alterClazz == getExecutedClass(mi));
+        }
+        return metadata;
+    }
+
+    /**
+     * We are looking for the first parameter (not argument!) that is an instance of FlippingExecutionContext.
+     *
+     * @param method
+     *      current method
+     * @return
+     *      index of parameter or -1
+     */
+    private static int getContextParameterIndex(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int p = 0; p < parameterTypes.length; p++) {
+            if (FlippingExecutionContext.class.isAssignableFrom(parameterTypes[p])) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Call if Flipped based on different parameters of the annotation.
+     * 
+     * Invoked for each call of a flipped method, the strategy defined in annotation is instantiated once per method
+     * and target class.
      * 
-     * @param ff
-     *            annotation over current method
-     * @param context
+     * @param metadata
+     *            annotation over current method and what has been resolved from it
+     * @param mi
+     *            current invocation
      * @return if flippinf should be considere
      */
-    protected boolean check(Flip ff, MethodInvocation mi) {
+    protected boolean check(FlipMetadata metadata, MethodInvocation mi) {
         // Retrieve optional context with ThreadLocal
-        FlippingExecutionContext context = getFlippingContext(ff, mi);
+        FlippingExecutionContext context = getFlippingContext(metadata, mi);
         
         // Check ff4j
-        String featureId = ff.name();
-        if (ff.flippingStrategy() != NullType.class) {
-            String fsClassName  = ff.flippingStrategy().getName();
-            FlippingStrategy fs = instanceFlippingStrategy(featureId, fsClassName, toMap(ff.flippingInitParams()));
-            return getFf4j().checkOverridingStrategy(featureId, fs, context);
+        String featureId = metadata.flip.name();
+        if (metadata.strategy != null) {
+            return getFf4j().checkOverridingStrategy(featureId, metadata.strategy, context);
         }
         return getFf4j().check(featureId, context);
     }
     
     /**
-     * Pick annotation from method or class.
+     * Pick annotation from method or class, invoked once per method and target class.
      *
      * @param method
      *      current method
@@ -159,25 +284,19 @@ public class FeatureAdvisor implements MethodInterceptor {
     /**
      * Retriveve {@link FlippingExecutionContext} from FF4J or as parameter.
      * 
-     * @param ff
-     *      current annotation
+     * @param metadata
+     *      current annotation and what has been resolved from it
      * @param mi
      *      invocation
      * @return
      */
-    protected FlippingExecutionContext getFlippingContext(Flip ff, MethodInvocation mi) {
-        switch (ff.contextLocation()) {
+    protected FlippingExecutionContext getFlippingContext(FlipMetadata metadata, MethodInvocation mi) {
+        switch (metadata.flip.contextLocation()) {
             case FF4J:
                 return getFf4j().getCurrentContext();
             case PARAMETER:
-                // We are looking for the first parameter (not argument!) 
-                // that is an instance of FlippingExecutionContext
-                int p = 0;
-                for (Class<?> cls : mi.getMethod().getParameterTypes()) {
-                    if (FlippingExecutionContext.class.isAssignableFrom(cls)) {
-                        return FlippingExecutionContext.class.cast(mi.getArguments()[p]);
-                    }
-                    p++;
+                if (metadata.contextParameterIndex >= 0) {
+                    return FlippingExecutionContext.class.cast(mi.getArguments()[metadata.contextParameterIndex]);
                 }
             case NONE:
             default: return null;
@@ -253,18 +372,26 @@ public class FeatureAdvisor implements MethodInterceptor {
      * 
      * @param mi
      *      current method invocation
-     * @param alterBean
-     *      target bean
+     * @param metadata
+     *      annotation holding target bean, and the bean once looked up
      * @return
      *      return of invocation
      * @throws Throwable
      *      erros occured
      */
-    protected Object invokeAlterBean(final MethodInvocation mi, String alterBeanName) throws Throwable {
+    protected Object invokeAlterBean(final MethodInvocation mi, FlipMetadata metadata) throws Throwable {
         Method method = mi.getMethod();
+        String alterBeanName = metadata.flip.alterBean();
         try {
             LOGGER.debug("FeatureFlipping on method:{} class:{}", method.getName(), method.getDeclaringClass().getName());
-            Object alterbean = appCtx.getBean(alterBeanName, method.getDeclaringClass());
+            // Singleton is looked up once per method and target class
+            Object alterbean = metadata.alterTarget;
+            if (alterbean == null) {
+                alterbean = appCtx.getBean(alterBeanName, method.getDeclaringClass());
+                if (appCtx.isSingleton(alterBeanName)) {
+                    metadata.alterTarget = alterbean;
+                }
+            }
             return method.invoke(alterbean, mi.getArguments());
         } catch (InvocationTargetException invocationTargetException) {
             if(!ff4j.isAlterBeanThrowInvocationTargetException() && invocationTargetException.getCause() != null) {
@@ -281,28 +408,36 @@ public class FeatureAdvisor implements MethodInterceptor {
      *
      * @param mi
      *      method invocation
-     * @param ff
-     *      ff4j annotation
+     * @param metadata
+     *      ff4j annotation, and the bean once found in context
      * @return
      *      object returned by the 
      * @throws Throwable
      *      error during invocation
      */
-    protected Object invokeAlterClazz(final MethodInvocation mi, Flip ff) throws Throwable {
-        Class<?> alterClazz     = ff.alterClazz();
+    protected Object invokeAlterClazz(final MethodInvocation mi, FlipMetadata metadata) throws Throwable {
+        Class<?> alterClazz     = metadata.flip.alterClazz();
         Method   method         = mi.getMethod();
         Class<?> declaringClass = method.getDeclaringClass();
         try {
+            // Singleton bean found in context is kept once per method and target class
+            if (metadata.alterTarget != null) {
+                return method.invoke(metadata.alterTarget, mi.getArguments());
+            }
             // Spring context may have a bean of expected type and priority of get instance
-            for (Object bean : appCtx.getBeansOfType(declaringClass).values()) {
+            for (Map.Entry<String, ?> entry : appCtx.getBeansOfType(declaringClass).entrySet()) {
+                Object bean = entry.getValue();
                 // Correct bean implementing the same class, or proxy of existing class
                 if (AopUtils.isJdkDynamicProxy(bean) &&  ((Advised) bean).getTargetSource().getTarget().getClass().equals(alterClazz) ||
                     AopProxyUtils.ultimateTargetClass(bean).equals(alterClazz)) {
+                    if (appCtx.isSingleton(entry.getKey())) {
+                        metadata.alterTarget = bean;
+                    }
                     return mi.getMethod().invoke(bean, mi.getArguments());
                 }
             }
             // Otherwise instanciate manually
-            return mi.getMethod().invoke(ff.alterClazz().newInstance(), mi.getArguments());
+            return mi.getMethod().invoke(alterClazz.newInstance(), mi.getArguments());
         } catch (IllegalAccessException e) {
             throw makeIllegalArgumentException("ff4j-aop: Cannot invoke " + method.getName() + " on alterbean " + declaringClass
                     + " please check visibility", e);
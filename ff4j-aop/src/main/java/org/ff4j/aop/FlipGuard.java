@@ -0,0 +1,93 @@
+package org.ff4j.aop;
+
+/*-
+ * #%L
+ * ff4j-aop
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.FF4j;
+import org.ff4j.FeatureHandle;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.core.FlippingStrategy;
+
+/**
+ * Precomputed check of a feature for one method of a generated proxy (see {@link FlipProxyFactory}).
+ */
+public final class FlipGuard {
+
+    /** Current ff4j. */
+    private final FF4j ff4j;
+
+    /** Feature uid. */
+    private final String featureName;
+
+    /** Pre-resolved feature. */
+    private final FeatureHandle handle;
+
+    /** Overriding strategy or null. */
+    private final FlippingStrategy strategy;
+
+    /** Use context of ff4j (thread local). */
+    private final boolean useFF4jContext;
+
+    /**
+     * Constructor with all attributes.
+     *
+     * @param ff4j
+     *      current ff4j
+     * @param featureName
+     *      feature uid
+     * @param strategy
+     *      overriding strategy (optional)
+     * @param useFF4jContext
+     *      read the execution context from ff4j instead of parameters
+     */
+    public FlipGuard(FF4j ff4j, String featureName, FlippingStrategy strategy, boolean useFF4jContext) {
+        this.ff4j           = ff4j;
+        this.featureName    = featureName;
+        this.handle         = ff4j.handle(featureName);
+        this.strategy       = strategy;
+        this.useFF4jContext = useFF4jContext;
+    }
+
+    /**
+     * Evaluate feature.
+     *
+     * @param context
+     *      context passed as parameter or null
+     * @return
+     *      if feature is toggled
+     */
+    public boolean isOn(FlippingExecutionContext context) {
+        FlippingExecutionContext ctx = useFF4jContext ? ff4j.getCurrentContext() : context;
+        if (strategy != null) {
+            return ff4j.checkOverridingStrategy(featureName, strategy, ctx);
+        }
+        return handle.check(ctx);
+    }
+
+    /**
+     * Getter accessor for attribute 'featureName'.
+     *
+     * @return
+     *       current value of 'featureName'
+     */
+    public String getFeatureName() {
+        return featureName;
+    }
+}
@@ -0,0 +1,385 @@
+package org.ff4j.aop;
+
+/*-
+ * #%L
+ * ff4j-aop
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.ff4j.utils.MappingUtil.instanceFlippingStrategy;
+import static org.ff4j.utils.MappingUtil.toMap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.lang.model.type.NullType;
+
+import org.ff4j.FF4j;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.core.FlippingStrategy;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * Optional alternative to {@link FeatureAutoProxy} and {@link FeatureAdvisor} for hot paths : generate at startup a class
+ * implementing an interface annotated with {@link Flip} (on the interface or its methods) which calls the primary or
+ * alternative implementation directly, without interceptor chain nor reflection.
+ * 
+ * <pre>
+ * GreetingService service = FlipProxyFactory.createProxy(GreetingService.class, ff4j, englishImpl, frenchImpl);
+ * </pre>
+ * 
+ * For each flipped method, when the feature is enabled the alternative is invoked, otherwise the primary. Without 
+ * alternative the primary is invoked when the feature is enabled and a default value (null, 0, false) is returned 
+ * when disabled, like {@link FeatureAdvisor}. Methods not flipped are delegated to the primary. Execution context is
+ * read from ff4j or from the first {@link FlippingExecutionContext} parameter according to {@link Flip#contextLocation()}.
+ */
+public final class FlipProxyFactory {
+
+    /** Suffix of generated classes. */
+    private static final String PROXY_SUFFIX = "$$FF4jFlipProxy";
+
+    /** Field for primary implementation. */
+    private static final String FIELD_PRIMARY = "primary";
+
+    /** Field for alternative implementation. */
+    private static final String FIELD_ALTERNATIVE = "alternative";
+
+    /** Prefix of fields for guards. */
+    private static final String FIELD_GUARD = "guard";
+
+    /** Internal name of {@link FlipGuard}. */
+    private static final String GUARD_TYPE = Type.getInternalName(FlipGuard.class);
+
+    /** Descriptor of {@link FlipGuard#isOn(FlippingExecutionContext)}. */
+    private static final String GUARD_ISON_DESC = Type.getMethodDescriptor(Type.BOOLEAN_TYPE, Type.getType(FlippingExecutionContext.class));
+
+    /** Generated classes by interface (methods with flip are resolved in the same order). */
+    private static final Map<Class<?>, Class<?>> PROXY_CLASSES = new ConcurrentHashMap<Class<?>, Class<?>>();
+
+    /**
+     * Hide default constructor.
+     */
+    private FlipProxyFactory() {
+    }
+
+    /**
+     * Create proxy for interface.
+     *
+     * @param iface
+     *      interface annotated with {@link Flip}
+     * @param ff4j
+     *      current ff4j
+     * @param primary
+     *      implementation invoked when feature is disabled (or enabled without alternative)
+     * @param alternative
+     *      implementation invoked when feature is enabled, optional
+     * @return
+     *      generated proxy
+     */
+    public static <T> T createProxy(Class<T> iface, FF4j ff4j, T primary, T alternative) {
+        if (iface == null || !iface.isInterface()) {
+            throw new IllegalArgumentException("ff4j-aop: proxies can only be generated for interfaces");
+        }
+        if (ff4j == null || primary == null) {
+            throw new IllegalArgumentException("ff4j-aop: ff4j and primary implementation are required");
+        }
+        List<Method> methods = getProxiedMethods(iface);
+        FlipGuard[] guards   = new FlipGuard[methods.size()];
+        for (int i = 0; i < guards.length; i++) {
+            Flip flip = getFlip(iface, methods.get(i));
+            if (flip != null) {
+                guards[i] = createGuard(ff4j, flip);
+            }
+        }
+        Class<?> proxyClass = PROXY_CLASSES.computeIfAbsent(iface, FlipProxyFactory::defineProxyClass);
+        try {
+            // Only at creation, calls are then direct
+            Object proxy = proxyClass.getConstructor(iface, iface, FlipGuard[].class).newInstance(primary, alternative, guards);
+            return iface.cast(proxy);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("ff4j-aop: Cannot instantiate proxy for " + iface.getName(), e);
+        }
+    }
+
+    /**
+     * Abstract methods of interface, in a stable order.
+     *
+     * @param iface
+     *      current interface
+     * @return
+     *      methods to implement
+     */
+    private static List<Method> getProxiedMethods(Class<?> iface) {
+        // same signature may be inherited from several interfaces
+        Map<String, Method> methods = new TreeMap<String, Method>();
+        for (Method method : iface.getMethods()) {
+            if (!Modifier.isStatic(method.getModifiers())) {
+                methods.putIfAbsent(method.getName() + Type.getMethodDescriptor(method), method);
+            }
+        }
+        return new ArrayList<Method>(methods.values());
+    }
+
+    /**
+     * Annotation of method or interface.
+     *
+     * @param iface
+     *      current interface
+     * @param method
+     *      current method
+     * @return
+     *      annotation or null
+     */
+    private static Flip getFlip(Class<?> iface, Method method) {
+        Flip flip = AnnotatedElementUtils.findMergedAnnotation(method, Flip.class);
+        if (flip == null) {
+            flip = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Flip.class);
+        }
+        if (flip == null) {
+            flip = AnnotatedElementUtils.findMergedAnnotation(iface, Flip.class);
+        }
+        return flip;
+    }
+
+    /**
+     * Precompute check for annotation.
+     *
+     * @param ff4j
+     *      current ff4j
+     * @param flip
+     *      annotation
+     * @return
+     *      guard
+     */
+    private static FlipGuard createGuard(FF4j ff4j, Flip flip) {
+        FlippingStrategy strategy = null;
+        if (flip.flippingStrategy() != NullType.class) {
+            strategy = instanceFlippingStrategy(flip.name(), flip.flippingStrategy().getName(), toMap(flip.flippingInitParams()));
+        }
+        return new FlipGuard(ff4j, flip.name(), strategy, flip.contextLocation() == ContextLocation.FF4J);
+    }
+
+    /**
+     * Generate and define proxy class in the package of the interface.
+     *
+     * @param iface
+     *      current interface
+     * @return
+     *      proxy class
+     */
+    private static Class<?> defineProxyClass(Class<?> iface) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(iface, MethodHandles.lookup());
+            return lookup.defineClass(generateProxyClass(iface));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("ff4j-aop: Cannot define proxy for " + iface.getName(), e);
+        }
+    }
+
+    /**
+     * Bytecode of proxy class.
+     *
+     * @param iface
+     *      current interface
+     * @return
+     *      class file
+     */
+    private static byte[] generateProxyClass(Class<?> iface) {
+        String ifaceName = Type.getInternalName(iface);
+        String ifaceDesc = Type.getDescriptor(iface);
+        String className = ifaceName + PROXY_SUFFIX;
+        List<Method> methods = getProxiedMethods(iface);
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, 
+                "java/lang/Object", new String[] { ifaceName });
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, FIELD_PRIMARY, ifaceDesc, null, null).visitEnd();
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, FIELD_ALTERNATIVE, ifaceDesc, null, null).visitEnd();
+        for (int i = 0; i < methods.size(); i++) {
+            cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, FIELD_GUARD + i, "L" + GUARD_TYPE + ";", null, null).visitEnd();
+        }
+        generateConstructor(cw, className, ifaceDesc, methods.size());
+        for (int i = 0; i < methods.size(); i++) {
+            generateMethod(cw, className, ifaceName, ifaceDesc, methods.get(i), getFlip(iface, methods.get(i)), i);
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Constructor (primary, alternative, guards).
+     */
+    private static void generateConstructor(ClassWriter cw, String className, String ifaceDesc, int guardCount) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", 
+                "(" + ifaceDesc + ifaceDesc + "[L" + GUARD_TYPE + ";)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, className, FIELD_PRIMARY, ifaceDesc);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, className, FIELD_ALTERNATIVE, ifaceDesc);
+        for (int i = 0; i < guardCount; i++) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            mv.visitLdcInsn(i);
+            mv.visitInsn(Opcodes.AALOAD);
+            mv.visitFieldInsn(Opcodes.PUTFIELD, className, FIELD_GUARD + i, "L" + GUARD_TYPE + ";");
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Implementation of an interface method.
+     * 
+     * <pre>
+     * if (guard == null) return primary.m(args);
+     * if (guard.isOn(ctx)) return (alternative != null ? alternative : primary).m(args);
+     * return alternative != null ? primary.m(args) : default;
+     * </pre>
+     */
+    private static void generateMethod(ClassWriter cw, String className, String ifaceName, String ifaceDesc, 
+            Method method, Flip flip, int idx) {
+        String desc = Type.getMethodDescriptor(method);
+        String[] exceptions = new String[method.getExceptionTypes().length];
+        for (int i = 0; i < exceptions.length; i++) {
+            exceptions[i] = Type.getInternalName(method.getExceptionTypes()[i]);
+        }
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, method.getName(), desc, null, exceptions);
+        mv.visitCode();
+        Label noGuard     = new Label();
+        Label invokeAlter = new Label();
+        Label off         = new Label();
+        Label offAlter    = new Label();
+        String guardField = FIELD_GUARD + idx;
+
+        // guard == null : method not flipped
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, className, guardField, "L" + GUARD_TYPE + ";");
+        mv.visitJumpInsn(Opcodes.IFNULL, noGuard);
+
+        // guard.isOn(context)
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, className, guardField, "L" + GUARD_TYPE + ";");
+        int contextSlot = getContextSlot(method, flip);
+        if (contextSlot < 0) {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        } else {
+            mv.visitVarInsn(Opcodes.ALOAD, contextSlot);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(FlippingExecutionContext.class));
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, GUARD_TYPE, "isOn", GUARD_ISON_DESC, false);
+        mv.visitJumpInsn(Opcodes.IFEQ, off);
+
+        // ON : alternative if any, otherwise primary
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, className, FIELD_ALTERNATIVE, ifaceDesc);
+        mv.visitJumpInsn(Opcodes.IFNONNULL, invokeAlter);
+        mv.visitJumpInsn(Opcodes.GOTO, noGuard);
+        mv.visitLabel(invokeAlter);
+        invokeDelegate(mv, className, ifaceName, ifaceDesc, FIELD_ALTERNATIVE, method);
+
+        // OFF : primary if an alternative exists, otherwise default value
+        mv.visitLabel(off);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, className, FIELD_ALTERNATIVE, ifaceDesc);
+        mv.visitJumpInsn(Opcodes.IFNONNULL, offAlter);
+        returnDefaultValue(mv, Type.getReturnType(method));
+        mv.visitLabel(offAlter);
+
+        // primary
+        mv.visitLabel(noGuard);
+        invokeDelegate(mv, className, ifaceName, ifaceDesc, FIELD_PRIMARY, method);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Local variable slot of the first {@link FlippingExecutionContext} parameter, -1 if context is not a parameter.
+     */
+    private static int getContextSlot(Method method, Flip flip) {
+        if (flip == null || flip.contextLocation() != ContextLocation.PARAMETER) {
+            return -1;
+        }
+        int slot = 1;
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (FlippingExecutionContext.class.isAssignableFrom(parameterType)) {
+                return slot;
+            }
+            slot += Type.getType(parameterType).getSize();
+        }
+        return -1;
+    }
+
+    /**
+     * Load delegate and arguments, invoke interface method and return its result.
+     */
+    private static void invokeDelegate(MethodVisitor mv, String className, String ifaceName, String ifaceDesc, String field, Method method) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, className, field, ifaceDesc);
+        int slot = 1;
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            Type type = Type.getType(parameterType);
+            mv.visitVarInsn(type.getOpcode(Opcodes.ILOAD), slot);
+            slot += type.getSize();
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, ifaceName, method.getName(), Type.getMethodDescriptor(method), true);
+        mv.visitInsn(Type.getReturnType(method).getOpcode(Opcodes.IRETURN));
+    }
+
+    /**
+     * Return null, 0 or false.
+     */
+    private static void returnDefaultValue(MethodVisitor mv, Type returnType) {
+        switch (returnType.getSort()) {
+            case Type.VOID:
+                mv.visitInsn(Opcodes.RETURN);
+                return;
+            case Type.LONG:
+                mv.visitInsn(Opcodes.LCONST_0);
+                break;
+            case Type.FLOAT:
+                mv.visitInsn(Opcodes.FCONST_0);
+                break;
+            case Type.DOUBLE:
+                mv.visitInsn(Opcodes.DCONST_0);
+                break;
+            case Type.OBJECT:
+            case Type.ARRAY:
+                mv.visitInsn(Opcodes.ACONST_NULL);
+                break;
+            default:
+                mv.visitInsn(Opcodes.ICONST_0);
+        }
+        mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+    }
+}
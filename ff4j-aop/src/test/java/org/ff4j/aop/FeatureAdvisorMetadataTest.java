@@ -0,0 +1,163 @@
+package org.ff4j.aop;
+
+/*-
+ * #%L
+ * ff4j-aop
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.ff4j.FF4j;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.strategy.AbstractFlipStrategy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Annotation, strategy and alternatives are resolved by {@link FeatureAdvisor} once per method and target class.
+ */
+public class FeatureAdvisorMetadataTest {
+
+    /** Flipped service. */
+    public interface CountingService {
+
+        @Flip(name = "counting", alterBean = "counting.alter", flippingStrategy = CountingStrategy.class)
+        String sayHello(String name);
+    }
+
+    /** Primary implementation. */
+    public static class CountingServicePrimary implements CountingService {
+        @Override
+        public String sayHello(String name) {
+            return "Hello " + name;
+        }
+    }
+
+    /** Alternative implementation. */
+    public static class CountingServiceAlter implements CountingService {
+        @Override
+        public String sayHello(String name) {
+            return "Bonjour " + name;
+        }
+    }
+
+    /** Strategy counting its instances. */
+    public static class CountingStrategy extends AbstractFlipStrategy {
+
+        private static final long serialVersionUID = 1L;
+
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public CountingStrategy() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public boolean evaluate(String featureName, FeatureStore store, FlippingExecutionContext executionContext) {
+            return true;
+        }
+    }
+
+    /** Context counting lookups of alter bean. */
+    private static class CountingContext extends GenericApplicationContext {
+
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        @Override
+        public <T> T getBean(String name, Class<T> requiredType) {
+            lookups.incrementAndGet();
+            return super.getBean(name, requiredType);
+        }
+    }
+
+    private FF4j ff4j;
+
+    private CountingContext appCtx;
+
+    @Before
+    public void init() {
+        CountingStrategy.INSTANCES.set(0);
+        ff4j = new FF4j();
+        ff4j.createFeature(new Feature("counting", true));
+        appCtx = new CountingContext();
+        appCtx.registerBean("counting.primary", CountingServicePrimary.class);
+        appCtx.registerBean("counting.alter", CountingServiceAlter.class);
+        appCtx.refresh();
+    }
+
+    private CountingService createProxy(FeatureAdvisor advisor) {
+        ReflectionTestUtils.setField(advisor, "appCtx", appCtx);
+        advisor.setFf4j(ff4j);
+        ProxyFactory factory = new ProxyFactory(appCtx.getBean("counting.primary"));
+        factory.addInterface(CountingService.class);
+        factory.addAdvice(advisor);
+        return (CountingService) factory.getProxy();
+    }
+
+    @Test
+    public void testMetadataResolvedOnce() {
+        final AtomicInteger resolutions = new AtomicInteger();
+        CountingService service = createProxy(new FeatureAdvisor() {
+            @Override
+            protected Flip getFF4jAnnotation(MethodInvocation mi) {
+                resolutions.incrementAndGet();
+                return super.getFF4jAnnotation(mi);
+            }
+        });
+        int lookupsBefore = appCtx.lookups.get();
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals("Bonjour CLU", service.sayHello("CLU"));
+        }
+        Assert.assertEquals(1, resolutions.get());
+        Assert.assertEquals(1, CountingStrategy.INSTANCES.get());
+        Assert.assertEquals(1, appCtx.lookups.get() - lookupsBefore);
+        ff4j.disable("counting");
+        Assert.assertEquals("Hello CLU", service.sayHello("CLU"));
+        Assert.assertEquals(1, resolutions.get());
+        Assert.assertEquals(1, CountingStrategy.INSTANCES.get());
+    }
+
+    @Test
+    public void testOverriddenMethodsInvoked() {
+        final AtomicInteger checks = new AtomicInteger();
+        final AtomicInteger alters = new AtomicInteger();
+        CountingService service = createProxy(new FeatureAdvisor() {
+            @Override
+            protected boolean check(FlipMetadata metadata, MethodInvocation mi) {
+                Assert.assertEquals("counting", metadata.getFlip().name());
+                return checks.incrementAndGet() > 1 && super.check(metadata, mi);
+            }
+            @Override
+            protected Object invokeAlterBean(MethodInvocation mi, FlipMetadata metadata) throws Throwable {
+                alters.incrementAndGet();
+                return super.invokeAlterBean(mi, metadata);
+            }
+        });
+        Assert.assertEquals("Hello CLU", service.sayHello("CLU"));
+        Assert.assertEquals("Bonjour CLU", service.sayHello("CLU"));
+        Assert.assertEquals(2, checks.get());
+        Assert.assertEquals(1, alters.get());
+    }
+}
@@ -0,0 +1,204 @@
+package org.ff4j.aop;
+
+/*-
+ * #%L
+ * ff4j-aop
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ff4j.FF4j;
+import org.ff4j.aop.test.greeting.GreetingService;
+import org.ff4j.aop.test.greeting.GreetingServiceEnglishImpl;
+import org.ff4j.aop.test.greeting.GreetingServiceFrenchImpl;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.strategy.AbstractFlipStrategy;
+import org.ff4j.utils.Util;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Testing of {@link FlipProxyFactory}.
+ */
+public class FlipProxyFactoryTest {
+
+    /** Every kind of return and parameters (generated bytecode differs). */
+    public interface TypedService {
+
+        @Flip(name = "typed")
+        int increment(int value);
+
+        @Flip(name = "typed")
+        boolean isActive();
+
+        @Flip(name = "typed")
+        long add(long a, long b);
+
+        @Flip(name = "typed")
+        void record(String value);
+
+        @Flip(name = "typed-context", contextLocation = ContextLocation.PARAMETER, flippingStrategy = RegionStrategy.class)
+        String describe(long offset, double ratio, FlippingExecutionContext context);
+    }
+
+    /** Toggled for region 'EU' only. */
+    public static class RegionStrategy extends AbstractFlipStrategy {
+
+        /** Serial. */
+        private static final long serialVersionUID = 1L;
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean evaluate(String featureName, FeatureStore store, FlippingExecutionContext executionContext) {
+            return executionContext != null && "EU".equals(executionContext.getString("region"));
+        }
+    }
+
+    /** Implementation labelled to know which one has been invoked. */
+    public static class TypedServiceImpl implements TypedService {
+
+        private final int delta;
+
+        private final String label;
+
+        private final List<String> records = new ArrayList<String>();
+
+        public TypedServiceImpl(int delta, String label) {
+            this.delta = delta;
+            this.label = label;
+        }
+
+        public int increment(int value) {
+            return value + delta;
+        }
+
+        public boolean isActive() {
+            return delta > 1;
+        }
+
+        public long add(long a, long b) {
+            return a + b + delta;
+        }
+
+        public void record(String value) {
+            records.add(value);
+        }
+
+        public String describe(long offset, double ratio, FlippingExecutionContext context) {
+            return label + ":" + offset + ":" + ratio;
+        }
+    }
+
+    @Test
+    public void testProxyWithAlternative() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("language-french", false));
+        GreetingService greeting = FlipProxyFactory.createProxy(GreetingService.class, ff4j, 
+                new GreetingServiceEnglishImpl(), new GreetingServiceFrenchImpl());
+        Assert.assertFalse(greeting instanceof GreetingServiceEnglishImpl);
+        Assert.assertEquals("Hello CLU", greeting.sayHello("CLU"));
+        Assert.assertEquals("Hi CLU", greeting.sayHelloWithClass("CLU"));
+        ff4j.enable("language-french");
+        Assert.assertEquals("Bonjour CLU", greeting.sayHello("CLU"));
+        Assert.assertEquals("Salut CLU", greeting.sayHelloWithClass("CLU"));
+    }
+
+    @Test
+    public void testProxyWithoutAlternative() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("language-french", false));
+        GreetingService greeting = FlipProxyFactory.createProxy(GreetingService.class, ff4j, 
+                new GreetingServiceEnglishImpl(), null);
+        Assert.assertNull(greeting.sayHello("CLU"));
+        ff4j.enable("language-french");
+        Assert.assertEquals("Hello CLU", greeting.sayHello("CLU"));
+        // Same generated class for the interface
+        Assert.assertSame(greeting.getClass(), FlipProxyFactory.createProxy(GreetingService.class, ff4j, 
+                new GreetingServiceEnglishImpl(), new GreetingServiceFrenchImpl()).getClass());
+    }
+
+    @Test
+    public void testPrimitiveReturns() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("typed", false));
+        TypedService typed = FlipProxyFactory.createProxy(TypedService.class, ff4j, 
+                new TypedServiceImpl(1, "primary"), new TypedServiceImpl(100, "alternative"));
+        Assert.assertEquals(2, typed.increment(1));
+        Assert.assertFalse(typed.isActive());
+        Assert.assertEquals(5000000001L, typed.add(2000000000L, 3000000000L));
+        ff4j.enable("typed");
+        Assert.assertEquals(101, typed.increment(1));
+        Assert.assertTrue(typed.isActive());
+        Assert.assertEquals(5000000100L, typed.add(2000000000L, 3000000000L));
+    }
+
+    @Test
+    public void testVoidReturn() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("typed", false));
+        TypedServiceImpl primary     = new TypedServiceImpl(1, "primary");
+        TypedServiceImpl alternative = new TypedServiceImpl(100, "alternative");
+        TypedService typed = FlipProxyFactory.createProxy(TypedService.class, ff4j, primary, alternative);
+        typed.record("off");
+        ff4j.enable("typed");
+        typed.record("on");
+        Assert.assertEquals(Util.list("off"), primary.records);
+        Assert.assertEquals(Util.list("on"), alternative.records);
+    }
+
+    @Test
+    public void testDefaultReturnsWithoutAlternative() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("typed", false));
+        TypedServiceImpl primary = new TypedServiceImpl(2, "primary");
+        TypedService typed = FlipProxyFactory.createProxy(TypedService.class, ff4j, primary, null);
+        Assert.assertEquals(0, typed.increment(1));
+        Assert.assertFalse(typed.isActive());
+        Assert.assertEquals(0L, typed.add(1L, 2L));
+        typed.record("off");
+        Assert.assertTrue(primary.records.isEmpty());
+        ff4j.enable("typed");
+        Assert.assertEquals(3, typed.increment(1));
+        Assert.assertTrue(typed.isActive());
+        Assert.assertEquals(5L, typed.add(1L, 2L));
+        typed.record("on");
+        Assert.assertEquals(Util.list("on"), primary.records);
+    }
+
+    @Test
+    public void testContextAsParameter() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("typed-context", true));
+        TypedService typed = FlipProxyFactory.createProxy(TypedService.class, ff4j, 
+                new TypedServiceImpl(1, "primary"), new TypedServiceImpl(100, "alternative"));
+        FlippingExecutionContext context = new FlippingExecutionContext();
+        context.putString("region", "EU");
+        Assert.assertEquals("alternative:7:0.5", typed.describe(7L, 0.5, context));
+        context.putString("region", "US");
+        Assert.assertEquals("primary:7:0.5", typed.describe(7L, 0.5, context));
+        Assert.assertEquals("primary:7:0.5", typed.describe(7L, 0.5, null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testProxyRequiresInterface() {
+        FlipProxyFactory.createProxy(GreetingServiceEnglishImpl.class, new FF4j(), new GreetingServiceEnglishImpl(), null);
+    }
+}
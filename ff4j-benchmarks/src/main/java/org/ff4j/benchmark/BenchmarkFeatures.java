@@ -0,0 +1,154 @@
+package org.ff4j.benchmark;
+
+/*-
+ * #%L
+ * ff4j-benchmarks
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.core.FlippingStrategy;
+import org.ff4j.strategy.ClientFilterStrategy;
+import org.ff4j.strategy.PonderationStrategy;
+import org.ff4j.strategy.WhiteListStrategy;
+import org.ff4j.strategy.el.ExpressionFlipStrategy;
+import org.ff4j.strategy.time.OfficeHourStrategy;
+
+/**
+ * Build the datasets shared by benchmarks.
+ */
+final class BenchmarkFeatures {
+    
+    /** No strategy, only the enable flag is evaluated. */
+    static final String NONE = "none";
+    
+    /** {@link PonderationStrategy}. */
+    static final String PONDERATION = "ponderation";
+    
+    /** {@link ExpressionFlipStrategy}. */
+    static final String EXPRESSION = "expression";
+    
+    /** {@link OfficeHourStrategy}. */
+    static final String OFFICEHOUR = "officehour";
+    
+    /** {@link ClientFilterStrategy}. */
+    static final String CLIENTFILTER = "clientfilter";
+    
+    /** {@link WhiteListStrategy}. */
+    static final String WHITELIST = "whitelist";
+    
+    /** Client expected by filter strategies. */
+    static final String CLIENT = "client-2";
+    
+    /** Clients granted by filter strategies. */
+    private static final String CLIENTS = "client-0,client-1,client-2,client-3";
+    
+    /** Open all day long. */
+    private static final String ALL_DAY = "00:00-23:59";
+    
+    /** Hide default constructor. */
+    private BenchmarkFeatures() {
+    }
+    
+    /**
+     * Uid of the feature at index.
+     *
+     * @param idx
+     *      index of feature
+     * @return
+     *      feature uid
+     */
+    static String uid(int idx) {
+        return "f" + idx;
+    }
+    
+    /**
+     * Create enabled features, half of them in a group, all using the same kind of strategy.
+     *
+     * @param count
+     *      number of features
+     * @param strategy
+     *      strategy name (see constants)
+     * @return
+     *      features by uid
+     */
+    static Map<String, Feature> features(int count, String strategy) {
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (int i = 0; i < count; i++) {
+            Feature f = new Feature(uid(i), true, "benchmark feature " + i);
+            if (i % 2 == 0) {
+                f.setGroup("g" + (i % 10));
+            }
+            f.setFlippingStrategy(strategy(strategy, uid(i), count));
+            features.put(f.getUid(), f);
+        }
+        return features;
+    }
+    
+    /**
+     * Instanciate strategy by its name.
+     *
+     * @param name
+     *      strategy name (see constants)
+     * @param uid
+     *      current feature
+     * @param count
+     *      number of features in store
+     * @return
+     *      initialized strategy or null
+     */
+    static FlippingStrategy strategy(String name, String uid, int count) {
+        if (NONE.equals(name)) {
+            return null;
+        } else if (PONDERATION.equals(name)) {
+            return new PonderationStrategy(0.5);
+        } else if (EXPRESSION.equals(name)) {
+            // reference other features, those have the same strategy and are not evaluated recursively
+            return new ExpressionFlipStrategy(uid, uid(1 % count) + " & " + uid(2 % count) + " | !" + uid(3 % count));
+        } else if (OFFICEHOUR.equals(name)) {
+            Map<String, String> params = new HashMap<String, String>();
+            for (String day : new String[] {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"}) {
+                params.put(day, ALL_DAY);
+            }
+            OfficeHourStrategy ohs = new OfficeHourStrategy();
+            ohs.init(uid, params);
+            return ohs;
+        } else if (CLIENTFILTER.equals(name)) {
+            return new ClientFilterStrategy(CLIENTS);
+        } else if (WHITELIST.equals(name)) {
+            return new WhiteListStrategy(CLIENTS);
+        }
+        throw new IllegalArgumentException("Unknown strategy '" + name + "'");
+    }
+    
+    /**
+     * Execution context expected by filter strategies.
+     *
+     * @return
+     *      execution context
+     */
+    static FlippingExecutionContext executionContext() {
+        FlippingExecutionContext context = new FlippingExecutionContext();
+        context.putString(ClientFilterStrategy.CLIENT_HOSTNAME, CLIENT);
+        return context;
+    }
+}
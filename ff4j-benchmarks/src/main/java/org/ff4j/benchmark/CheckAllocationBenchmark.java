@@ -0,0 +1,125 @@
+package org.ff4j.benchmark;
+
+/*-
+ * #%L
+ * ff4j-benchmarks
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.ff4j.FF4j;
+import org.ff4j.audit.repository.AggregatedEventRepository;
+import org.ff4j.cache.InMemoryCacheManager;
+import org.ff4j.core.Feature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure the allocation of {@link FF4j#check(String)} on the hot path.
+ * 
+ * Run with the GC profiler and look at <code>gc.alloc.rate.norm</code>, expected value is ~0 B/op for every mode:
+ * <pre>
+ * java -jar target/benchmarks.jar CheckAllocationBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckAllocationBenchmark {
+    
+    /** Feature enabled. */
+    private static final String FEATURE_ON = "on";
+    
+    /** Feature disabled. */
+    private static final String FEATURE_OFF = "off";
+    
+    /** Store only, audit with counters, cache proxy. */
+    @Param({"plain", "audit", "cache"})
+    public String mode;
+    
+    /** Instance under test. */
+    private FF4j ff4j;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        ff4j = new FF4j();
+        if ("audit".equals(mode)) {
+            // repository must be set before first use as the publisher is created at init
+            ff4j.setEventRepository(new AggregatedEventRepository());
+            ff4j.audit(true);
+        }
+        ff4j.createFeature(new Feature(FEATURE_ON, true));
+        ff4j.createFeature(new Feature(FEATURE_OFF, false));
+        if ("cache".equals(mode)) {
+            ff4j.cache(new InMemoryCacheManager());
+            // warm the cache
+            ff4j.check(FEATURE_ON);
+            ff4j.check(FEATURE_OFF);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ff4j.stop();
+    }
+    
+    @Benchmark
+    public boolean checkEnabled() {
+        return ff4j.check(FEATURE_ON);
+    }
+    
+    @Benchmark
+    public boolean checkDisabled() {
+        return ff4j.check(FEATURE_OFF);
+    }
+    
+    /**
+     * Run from the IDE with the GC profiler.
+     *
+     * @param args
+     *      command line arguments
+     * @throws RunnerException
+     *      error during execution
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(CheckAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
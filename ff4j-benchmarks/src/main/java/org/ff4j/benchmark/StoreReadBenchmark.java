@@ -0,0 +1,129 @@
+package org.ff4j.benchmark;
+
+/*-
+ * #%L
+ * ff4j-benchmarks
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.store.InMemoryFeatureStore;
+import org.ff4j.store.JdbcFeatureStore;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads on {@link InMemoryFeatureStore} and {@link JdbcFeatureStore} backed by an embedded HSQLDB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoreReadBenchmark {
+    
+    /** In memory store. */
+    private static final String INMEMORY = "inmemory";
+    
+    /** Jdbc store. */
+    private static final String JDBC = "jdbc";
+    
+    /** Store implementation. */
+    @Param({INMEMORY, JDBC})
+    public String store;
+    
+    /** Number of features in store. */
+    @Param({"10", "100", "1000"})
+    public int featureCount;
+    
+    /** Store under test. */
+    private FeatureStore featureStore;
+    
+    /** Embedded database, only for jdbc. */
+    private JDBCDataSource dataSource;
+    
+    /** Uid of the feature read. */
+    private String uid;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        if (JDBC.equals(store)) {
+            dataSource = new JDBCDataSource();
+            dataSource.setUrl("jdbc:hsqldb:mem:ff4j-benchmark");
+            dataSource.setUser("sa");
+            dataSource.setPassword("");
+            JdbcFeatureStore jdbcStore = new JdbcFeatureStore(dataSource);
+            jdbcStore.createSchema();
+            featureStore = jdbcStore;
+        } else {
+            featureStore = new InMemoryFeatureStore();
+        }
+        for (Feature f : BenchmarkFeatures.features(featureCount, BenchmarkFeatures.PONDERATION).values()) {
+            featureStore.create(f);
+        }
+        uid = BenchmarkFeatures.uid(featureCount / 2);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (dataSource != null) {
+            try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+                st.execute("SHUTDOWN");
+            }
+        }
+    }
+    
+    @Benchmark
+    public Feature read() {
+        return featureStore.read(uid);
+    }
+    
+    @Benchmark
+    public boolean exist() {
+        return featureStore.exist(uid);
+    }
+    
+    @Benchmark
+    public Map<String, Feature> readAll() {
+        return featureStore.readAll();
+    }
+    
+    @Benchmark
+    public Map<String, Feature> readGroup() {
+        return featureStore.readGroup("g0");
+    }
+}
@@ -0,0 +1,164 @@
+package org.ff4j.benchmark;
+
+/*-
+ * #%L
+ * ff4j-benchmarks
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.ff4j.FF4j;
+import org.ff4j.cache.InMemoryCacheManager;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingExecutionContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of {@link FF4j#check(String, FlippingExecutionContext)} for each strategy, with or without cache proxy,
+ * with audit off, synchronous or asynchronous and for several store sizes.
+ * 
+ * Benchmark <code>check</code> runs on a single thread and <code>checkContended</code> on 4 threads, use
+ * <code>-t</code> to try other thread counts:
+ * <pre>
+ * java -jar target/benchmarks.jar StrategyCheckBenchmark -p strategy=expression -p audit=off
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyCheckBenchmark {
+    
+    /** Strategy of every feature. */
+    @Param({BenchmarkFeatures.NONE, BenchmarkFeatures.PONDERATION, BenchmarkFeatures.EXPRESSION, 
+            BenchmarkFeatures.OFFICEHOUR, BenchmarkFeatures.CLIENTFILTER, BenchmarkFeatures.WHITELIST})
+    public String strategy;
+    
+    /** Use {@link InMemoryCacheManager} through cache proxy. */
+    @Param({"false", "true"})
+    public boolean cache;
+    
+    /** Audit off, synchronous (wait for repository) or asynchronous (buffered). */
+    @Param({"off", "sync", "async"})
+    public String audit;
+    
+    /** Number of features in store. */
+    @Param({"10", "1000"})
+    public int featureCount;
+    
+    /** Instance under test. */
+    private FF4j ff4j;
+    
+    /** Uids of features, precomputed. */
+    private String[] uids;
+    
+    /**
+     * Each thread walks through features with its own cursor and context.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        
+        /** Execution context of thread. */
+        private final FlippingExecutionContext context = BenchmarkFeatures.executionContext();
+        
+        /** Current feature index. */
+        private int index;
+        
+        /**
+         * Next index.
+         *
+         * @param size
+         *      number of features
+         * @return
+         *      index of next feature to check
+         */
+        int next(int size) {
+            index = (index + 1) % size;
+            return index;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        ff4j = new FF4j();
+        if ("sync".equals(audit)) {
+            ff4j.audit(true);
+        } else if ("async".equals(audit)) {
+            ff4j.auditAsync();
+        }
+        uids = new String[featureCount];
+        int idx = 0;
+        for (Feature f : BenchmarkFeatures.features(featureCount, strategy).values()) {
+            ff4j.createFeature(f);
+            uids[idx++] = f.getUid();
+        }
+        if (cache) {
+            ff4j.cache(new InMemoryCacheManager());
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ff4j.stop();
+    }
+    
+    @Benchmark
+    public boolean check(Cursor cursor) {
+        return ff4j.check(uids[cursor.next(uids.length)], cursor.context);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public boolean checkContended(Cursor cursor) {
+        return ff4j.check(uids[cursor.next(uids.length)], cursor.context);
+    }
+    
+    /**
+     * Run from the IDE.
+     *
+     * @param args
+     *      command line arguments
+     * @throws RunnerException
+     *      error during execution
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(StrategyCheckBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,86 @@
+package org.ff4j.benchmark;
+
+/*-
+ * #%L
+ * ff4j-benchmarks
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.ff4j.conf.XmlConfig;
+import org.ff4j.conf.XmlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to load a configuration file with {@link XmlParser}, strategies are instanciated and initialized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlParserBenchmark {
+    
+    /** Strategy of every feature. */
+    @Param({BenchmarkFeatures.NONE, BenchmarkFeatures.EXPRESSION, BenchmarkFeatures.OFFICEHOUR, BenchmarkFeatures.WHITELIST})
+    public String strategy;
+    
+    /** Number of features in file. */
+    @Param({"10", "100", "1000"})
+    public int featureCount;
+    
+    /** Parser under test. */
+    private final XmlParser parser = new XmlParser();
+    
+    /** Content of configuration file. */
+    private byte[] xml;
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = parser.exportFeatures(BenchmarkFeatures.features(featureCount, strategy))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        xml = out.toByteArray();
+    }
+    
+    @Benchmark
+    public XmlConfig load() {
+        return parser.parseConfigurationFile(new ByteArrayInputStream(xml));
+    }
+}
@@ -24,21 +24,33 @@ import static org.ff4j.audit.EventConstants.ACTION_CHECK_OFF;
 import static org.ff4j.audit.EventConstants.ACTION_CHECK_OK;
 import static org.ff4j.audit.EventConstants.SOURCE_JAVA;
 
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
+import org.ff4j.audit.AsyncEventPublisher;
+import org.ff4j.audit.Event;
 import org.ff4j.audit.EventBuilder;
 import org.ff4j.audit.EventPublisher;
 import org.ff4j.audit.proxy.FeatureStoreAuditProxy;
 import org.ff4j.audit.proxy.PropertyStoreAuditProxy;
+import org.ff4j.audit.repository.AggregatedEventRepository;
 import org.ff4j.audit.repository.EventRepository;
 import org.ff4j.audit.repository.InMemoryEventRepository;
 import org.ff4j.cache.FF4JCacheManager;
 import org.ff4j.cache.FF4jCacheProxy;
+import org.ff4j.cache.Store2SnapshotPollingScheduler;
 import org.ff4j.conf.FF4jConfiguration;
 import org.ff4j.conf.FF4jConfigurationParser;
 import org.ff4j.conf.XmlConfig;
@@ -52,7 +64,9 @@ import org.ff4j.property.Property;
 import org.ff4j.property.store.InMemoryPropertyStore;
 import org.ff4j.property.store.PropertyStore;
 import org.ff4j.security.AuthorizationsManager;
+import org.ff4j.store.FeatureStoreSnapshot;
 import org.ff4j.store.InMemoryFeatureStore;
+import org.ff4j.utils.Util;
 
 /**
  * Principal class stands as public api to work with FF4J.
@@ -102,6 +116,14 @@ public class FF4j {
    
     /** Security policy to limit access through ACL with {@link AuthorizationsManager}. */
     private AuthorizationsManager authorizationsManager = null;
+    
+    // -- Snapshot --
+    
+    /** Immutable copy of the features used to evaluate, null when the snapshot mode is disabled. */
+    private volatile FeatureStoreSnapshot featureSnapshot = null;
+    
+    /** Optional poller to refresh the snapshot. */
+    private Store2SnapshotPollingScheduler snapshotScheduler = null;
 
     // -- Audit --
     
@@ -113,10 +135,16 @@ public class FF4j {
 
     /** Event Publisher (thread pool, executor) to send data into {@link EventRepository} */
     private EventPublisher eventPublisher = null;
+    
+    /** Publish events through a non blocking {@link AsyncEventPublisher}. */
+    private boolean enableAuditAsync = false;
    
     /** This attribute indicates to stop the event publisher. */
     private volatile boolean shutdownEventPublisher;
 
+    /** Close stores, event repository and cache manager holding resources when ff4j is stopped. */
+    private boolean shutdownStores = false;
+
     // -- Settings --
     
     /** Post Processing like audit enable. */
@@ -223,7 +251,24 @@ public class FF4j {
      * @return current feature status
      */
     public boolean check(String featureID, FlippingExecutionContext executionContext) {
-        Feature fp = getFeature(featureID);
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        return evaluate(featureID, readFeatureToEvaluate(featureID, snapshot), snapshot, executionContext);
+    }
+    
+    /**
+     * Evaluate a feature already read (shared by {@link #check(String, FlippingExecutionContext)} and {@link FeatureHandle}).
+     *
+     * @param featureID
+     *            feature unique identifier.
+     * @param fp
+     *            feature to evaluate
+     * @param snapshot
+     *            current snapshot (can be null)
+     * @param executionContext
+     *            current execution context
+     * @return current feature status
+     */
+    boolean evaluate(String featureID, Feature fp, FeatureStoreSnapshot snapshot, FlippingExecutionContext executionContext) {
         boolean flipped = fp.isEnable();
 
         // If authorization manager provided, apply security filter
@@ -233,11 +278,14 @@ public class FF4j {
 
         // If custom strategy has been defined, delegate flipping to
         if (flipped && fp.getFlippingStrategy() != null) {
-            flipped = fp.getFlippingStrategy().evaluate(featureID, getFeatureStore(), executionContext);
+            flipped = fp.getFlippingStrategy().evaluate(featureID, 
+                    (snapshot != null) ? snapshot : getFeatureStore(), executionContext);
         }
         
-        // Update current context
-        flippingExecutionContext.set(executionContext);
+        // Update current context (avoid ThreadLocal write when unchanged)
+        if (flippingExecutionContext.get() != executionContext) {
+            flippingExecutionContext.set(executionContext);
+        }
         
         // Any access is logged into audit system
         publishCheck(featureID, flipped);
@@ -255,6 +303,13 @@ public class FF4j {
      */
     private void publishCheck(String uid, boolean checked) {
         if (isEnableAudit()) {
+            EventRepository target = getEventPublisher().getRepository();
+            if (target instanceof AggregatedEventRepository) {
+                // Counters only, no event is created
+                ((AggregatedEventRepository) target).hit(uid, checked, getSource(), 
+                        (getAuthorizationsManager() != null) ? getAuthorizationsManager().getCurrentUserName() : null);
+                return;
+            }
             getEventPublisher().publish(new EventBuilder(this)
                         .feature(uid)
                         .action(checked ? ACTION_CHECK_OK : ACTION_CHECK_OFF)
@@ -289,15 +344,199 @@ public class FF4j {
      *      check strategy
      */
     public boolean checkOverridingStrategy(String featureID, FlippingStrategy strategy, FlippingExecutionContext executionContext) {
-        Feature fp = getFeature(featureID);
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        Feature fp = readFeatureToEvaluate(featureID, snapshot);
         boolean flipped = fp.isEnable() && isAllowed(fp);
         if (strategy != null) {
-            flipped = flipped && strategy.evaluate(featureID, getFeatureStore(), executionContext);
+            flipped = flipped && strategy.evaluate(featureID, 
+                    (snapshot != null) ? snapshot : getFeatureStore(), executionContext);
         }
         publishCheck(featureID, flipped);
         return flipped;
     }
 
+    /**
+     * Evaluate several features at once with the execution context of current thread.
+     * 
+     * @param featureIDs
+     *            features unique identifiers.
+     * @return statuses of features, unknown features are not flipped
+     */
+    public FeatureCheckResult checkAll(Collection<String> featureIDs) {
+        return checkAll(featureIDs, flippingExecutionContext.get());
+    }
+
+    /**
+     * Evaluate several features at once : features are read from store (or snapshot) in a single call, the
+     * authorization manager is invoked once for each distinct set of permissions and audit events are published
+     * as a batch.
+     * 
+     * @param featureIDs
+     *            features unique identifiers.
+     * @param executionContext
+     *            current execution context
+     * @return statuses of features, unknown features are not flipped
+     */
+    public FeatureCheckResult checkAll(Collection<String> featureIDs, FlippingExecutionContext executionContext) {
+        Util.assertNotNull(featureIDs);
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        Set<String> uids = new LinkedHashSet<String>(featureIDs);
+        Map<String, Feature> features = (snapshot != null) ? snapshot.read(uids) : getFeatureStore().read(uids);
+        Feature[] toEvaluate = new Feature[uids.size()];
+        int i = 0;
+        boolean created = false;
+        for (String uid : uids) {
+            Feature fp = features.get(uid);
+            if (fp == null && autocreate && uid != null) {
+                fp = getFeature(uid);
+                created = true;
+            }
+            toEvaluate[i++] = fp;
+        }
+        if (created) {
+            refreshSnapshotIfEnabled();
+        }
+        return evaluateAll(uids.toArray(new String[0]), toEvaluate, snapshot, executionContext);
+    }
+
+    /**
+     * Evaluate features of a group with the execution context of current thread.
+     * 
+     * @param groupName
+     *            target group
+     * @return statuses of features of the group
+     */
+    public FeatureCheckResult checkGroup(String groupName) {
+        return checkGroup(groupName, flippingExecutionContext.get());
+    }
+
+    /**
+     * Evaluate features of a group, see {@link #checkAll(Collection, FlippingExecutionContext)}.
+     * 
+     * @param groupName
+     *            target group
+     * @param executionContext
+     *            current execution context
+     * @return statuses of features of the group, ordered by uid
+     */
+    public FeatureCheckResult checkGroup(String groupName, FlippingExecutionContext executionContext) {
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        Map<String, Feature> group = new TreeMap<String, Feature>(
+                ((snapshot != null) ? snapshot : getFeatureStore()).readGroup(groupName));
+        return evaluateAll(group.keySet().toArray(new String[0]), 
+                group.values().toArray(new Feature[0]), snapshot, executionContext);
+    }
+
+    /**
+     * Evaluate features already read.
+     *
+     * @param uids
+     *            features unique identifiers
+     * @param features
+     *            features to evaluate (null if not found)
+     * @param snapshot
+     *            current snapshot (can be null)
+     * @param executionContext
+     *            current execution context
+     * @return statuses of features
+     */
+    private FeatureCheckResult evaluateAll(String[] uids, Feature[] features, 
+            FeatureStoreSnapshot snapshot, FlippingExecutionContext executionContext) {
+        BitSet flipped = new BitSet(uids.length);
+        BitSet found   = new BitSet(uids.length);
+        FeatureStore store = (snapshot != null) ? snapshot : getFeatureStore();
+        AuthorizationsManager authManager = getAuthorizationsManager();
+        Map<Set<String>, Boolean> allowedPermissions = null;
+        for (int i = 0; i < uids.length; i++) {
+            Feature fp = features[i];
+            if (fp == null) {
+                continue;
+            }
+            found.set(i);
+            boolean state = fp.isEnable();
+            // Security : same permissions, same answer within a call
+            if (state && authManager != null && !fp.getPermissions().isEmpty()) {
+                if (allowedPermissions == null) {
+                    allowedPermissions = new HashMap<Set<String>, Boolean>();
+                }
+                Boolean allowed = allowedPermissions.get(fp.getPermissions());
+                if (allowed == null) {
+                    allowed = authManager.isAllowed(new HashSet<>(fp.getPermissions()));
+                    allowedPermissions.put(new HashSet<>(fp.getPermissions()), allowed);
+                }
+                state = allowed;
+            }
+            if (state && fp.getFlippingStrategy() != null) {
+                state = fp.getFlippingStrategy().evaluate(uids[i], store, executionContext);
+            }
+            if (state) {
+                flipped.set(i);
+            }
+        }
+        if (flippingExecutionContext.get() != executionContext) {
+            flippingExecutionContext.set(executionContext);
+        }
+        publishChecks(uids, flipped, found);
+        return new FeatureCheckResult(uids, flipped, found);
+    }
+
+    /**
+     * Send events of a bulk evaluation to audit if expected.
+     *
+     * @param uids
+     *      features unique identifiers
+     * @param flipped
+     *      flipped features
+     * @param found
+     *      existing features
+     */
+    private void publishChecks(String[] uids, BitSet flipped, BitSet found) {
+        if (!isEnableAudit() || found.isEmpty()) {
+            return;
+        }
+        EventRepository target = getEventPublisher().getRepository();
+        if (target instanceof AggregatedEventRepository) {
+            AggregatedEventRepository aggregated = (AggregatedEventRepository) target;
+            String user = (getAuthorizationsManager() != null) ? getAuthorizationsManager().getCurrentUserName() : null;
+            for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+                aggregated.hit(uids[i], flipped.get(i), getSource(), user);
+            }
+            return;
+        }
+        List<Event> events = new ArrayList<Event>(found.cardinality());
+        for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+            events.add(new EventBuilder(this)
+                        .feature(uids[i])
+                        .action(flipped.get(i) ? ACTION_CHECK_OK : ACTION_CHECK_OFF)
+                        .build());
+        }
+        getEventPublisher().publishAll(events);
+    }
+
+    /**
+     * Read feature to evaluate, from the snapshot if enabled.
+     *
+     * @param featureID
+     *            feature unique identifier.
+     * @param snapshot
+     *            current snapshot (can be null)
+     * @return
+     *            target feature
+     */
+    private Feature readFeatureToEvaluate(String featureID, FeatureStoreSnapshot snapshot) {
+        if (snapshot != null) {
+            Feature fp = snapshot.readAll().get(featureID);
+            if (fp != null) {
+                return fp;
+            }
+            // Not in the snapshot, use the store (feature not found or autocreate)
+            fp = getFeature(featureID);
+            refreshSnapshotIfEnabled();
+            return fp;
+        }
+        return getFeature(featureID);
+    }
+
     /**
      * Load SecurityProvider roles (e.g : SpringSecurity GrantedAuthorities)
      * 
@@ -356,6 +595,7 @@ public class FF4j {
             	throw exception;
             }
         }
+        refreshSnapshotIfEnabled();
         return this;
     }
 
@@ -368,6 +608,7 @@ public class FF4j {
      */
     public FF4j enableGroup(String groupName) {
         getFeatureStore().enableGroup(groupName);
+        refreshSnapshotIfEnabled();
         return this;
     }
 
@@ -380,6 +621,7 @@ public class FF4j {
      */
     public FF4j disableGroup(String groupName) {
         getFeatureStore().disableGroup(groupName);
+        refreshSnapshotIfEnabled();
         return this;
     }
     
@@ -391,6 +633,7 @@ public class FF4j {
      */
     public FF4j createFeature(Feature fp) {
         getFeatureStore().create(fp);
+        refreshSnapshotIfEnabled();
         return this;
     }
     
@@ -462,6 +705,7 @@ public class FF4j {
              	throw exception;
              }
         }
+        refreshSnapshotIfEnabled();
         return this;
     }
 
@@ -572,6 +816,7 @@ public class FF4j {
      */
     public FF4j importFeatures(Collection < Feature> features) {
         getFeatureStore().importFeatures(features);
+        refreshSnapshotIfEnabled();
         return this;
     }
     
@@ -645,6 +890,16 @@ public class FF4j {
          setEnableAudit(val);
          return this;
     }
+    
+    /**
+     * Enable auditing, events are buffered and written by a background thread, check() never waits for the repository.
+     * 
+     * @return current instance
+     */
+    public FF4j auditAsync() {
+        setEnableAuditAsync(true);
+        return audit(true);
+    }
 
     /**
      * Delete feature name.
@@ -654,9 +909,76 @@ public class FF4j {
      */
     public FF4j delete(String fpId) {
         getFeatureStore().delete(fpId);
+        refreshSnapshotIfEnabled();
         return this;
     }
     
+    /**
+     * Handle on a feature for repeated checks. In snapshot mode the feature is resolved once per snapshot, checks 
+     * then skip the lookup by uid until features change. Otherwise the handle delegates to {@link #check(String)}.
+     *
+     * @param featureID
+     *            feature unique identifier.
+     * @return handle on the feature
+     */
+    public FeatureHandle handle(String featureID) {
+        Util.assertHasLength(featureID);
+        return new FeatureHandle(this, featureID);
+    }
+    
+    /**
+     * Evaluate features against an immutable snapshot of the store, swapped when features are updated through ff4j.
+     * 
+     * @return current instance
+     */
+    public FF4j snapshot() {
+        setEnableSnapshot(true);
+        return this;
+    }
+    
+    /**
+     * Evaluate features against an immutable snapshot of the store, swapped when features are updated through ff4j
+     * and rebuilt from the store on a fixed delay to catch external changes.
+     * 
+     * @param pollingDelay
+     *      delay between two refresh in milliseconds
+     * @return current instance
+     */
+    public FF4j snapshot(long pollingDelay) {
+        snapshot();
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.stop();
+            }
+            snapshotScheduler = new Store2SnapshotPollingScheduler(this);
+            snapshotScheduler.setInitialDelay(pollingDelay);
+            snapshotScheduler.start(pollingDelay);
+        }
+        return this;
+    }
+    
+    /**
+     * Rebuild the snapshot from the feature store and swap it, in-flight evaluations complete with the previous one.
+     * 
+     * @return current instance
+     */
+    public FF4j refreshSnapshot() {
+        // Serialized, a refresh cannot override a more recent one
+        synchronized (this) {
+            featureSnapshot = new FeatureStoreSnapshot(getFeatureStore());
+        }
+        return this;
+    }
+    
+    /**
+     * Swap the snapshot after a write operation.
+     */
+    private void refreshSnapshotIfEnabled() {
+        if (featureSnapshot != null) {
+            refreshSnapshot();
+        }
+    }
+
     /**
      * Delete new Property.
      * 
@@ -680,6 +1002,7 @@ public class FF4j {
         FF4jCacheProxy cp = new FF4jCacheProxy(getFeatureStore(), getPropertiesStore(), cm);
         setFeatureStore(cp);
         setPropertiesStore(cp);
+        refreshSnapshotIfEnabled();
         return this;
     }
     
@@ -752,6 +1075,7 @@ public class FF4j {
      */
     public void setFeatureStore(FeatureStore fbs) {
         this.featureStore = fbs;
+        refreshSnapshotIfEnabled();
     }
 
     /**
@@ -823,7 +1147,9 @@ public class FF4j {
         
         // Event Publisher
         if (eventPublisher == null) {
-            eventPublisher = new EventPublisher(eventRepository);
+            eventPublisher = enableAuditAsync ? 
+                    new AsyncEventPublisher(eventRepository) : 
+                    new EventPublisher(eventRepository);
             this.shutdownEventPublisher = true;
         }
         
@@ -920,6 +1246,16 @@ public class FF4j {
         return this.flippingExecutionContext.get();
     }
 
+    /**
+     * Execution context of current thread, without creating it.
+     *
+     * @return
+     *      current context or null
+     */
+    FlippingExecutionContext peekCurrentContext() {
+        return flippingExecutionContext.get();
+    }
+
     /**
      * Override flipping execution context.
      *
@@ -998,6 +1334,72 @@ public class FF4j {
     	initialized = false;
     }
     
+    /**
+     * Getter accessor for attribute 'enableAuditAsync'.
+     *
+     * @return
+     *       current value of 'enableAuditAsync'
+     */
+    public boolean isEnableAuditAsync() {
+        return enableAuditAsync;
+    }
+
+    /**
+     * Setter accessor for attribute 'enableAuditAsync'.
+     *
+     * @param enableAuditAsync
+     * 		new value for 'enableAuditAsync '
+     */
+    public void setEnableAuditAsync(boolean enableAuditAsync) {
+        if (this.enableAuditAsync != enableAuditAsync && eventPublisher != null && shutdownEventPublisher) {
+            // publisher created by ff4j, replaced with the expected implementation at next init
+            eventPublisher.stop();
+            eventPublisher = null;
+        }
+        this.enableAuditAsync = enableAuditAsync;
+        initialized = false;
+    }
+    
+    /**
+     * Getter accessor for attribute 'enableSnapshot'.
+     *
+     * @return
+     *       current value of 'enableSnapshot'
+     */
+    public boolean isEnableSnapshot() {
+        return featureSnapshot != null;
+    }
+
+    /**
+     * Setter accessor for attribute 'enableSnapshot'.
+     *
+     * @param enableSnapshot
+     * 		new value for 'enableSnapshot '
+     */
+    public void setEnableSnapshot(boolean enableSnapshot) {
+        if (enableSnapshot) {
+            refreshSnapshot();
+        } else {
+            synchronized (this) {
+                if (snapshotScheduler != null) {
+                    snapshotScheduler.stop();
+                    snapshotScheduler = null;
+                }
+                featureSnapshot = null;
+            }
+        }
+    }
+    
+    /**
+     * Getter accessor for attribute 'featureSnapshot'.
+     *
+     * @return
+     *       current value of 'featureSnapshot', null if snapshot mode is disabled
+     */
+    public FeatureStoreSnapshot getFeatureSnapshot() {
+        return featureSnapshot;
+    }
+    
     /**
      * Required for spring namespace and 'fileName' attribute on ff4j tag.
      *
@@ -1020,12 +1422,98 @@ public class FF4j {
 
     /**
      * Shuts down the event publisher if we actually started it (As opposed to
-     * having it dependency-injected).
+     * having it dependency-injected). Events buffered by the event repository ({@link Flushable}) are always sent.
+     * Stores, event repository and cache manager holding resources ({@link AutoCloseable}) are closed only if
+     * enabled with {@link #shutdownStores()}.
      */
     public void stop() {
         if (this.eventPublisher != null && this.shutdownEventPublisher) {
             this.eventPublisher.stop();
         }
+        flush(eventRepository);
+        synchronized (this) {
+            if (this.snapshotScheduler != null) {
+                this.snapshotScheduler.stop();
+                this.snapshotScheduler = null;
+            }
+        }
+        if (shutdownStores) {
+            // An injected publisher may still write events
+            if (this.eventPublisher == null || this.shutdownEventPublisher) {
+                close(eventRepository);
+            }
+            FF4jCacheProxy cacheProxy = getCacheProxy();
+            if (cacheProxy != null) {
+                close(cacheProxy.getCacheManager());
+            }
+            close(getConcretePropertyStore(pStore));
+            close(getConcreteFeatureStore(featureStore));
+        }
+    }
+    
+    /**
+     * Release resources of a store, errors do not prevent others to be closed.
+     *
+     * @param store
+     *      current store
+     */
+    private void close(Object store) {
+        if (store instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) store).close();
+            } catch (Exception e) {
+                System.err.println("Cannot close " + store.getClass().getName());
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Send buffered data of a store, errors do not prevent ff4j to stop.
+     *
+     * @param store
+     *      current store
+     */
+    private void flush(Object store) {
+        if (store instanceof Flushable) {
+            try {
+                ((Flushable) store).flush();
+            } catch (Exception e) {
+                System.err.println("Cannot flush " + store.getClass().getName());
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Close stores, event repository and cache manager implementing {@link AutoCloseable} when ff4j is stopped,
+     * to be used when they are not shared with other components.
+     * 
+     * @return current instance
+     */
+    public FF4j shutdownStores() {
+        setShutdownStores(true);
+        return this;
+    }
+
+    /**
+     * Getter accessor for attribute 'shutdownStores'.
+     *
+     * @return
+     *       current value of 'shutdownStores'
+     */
+    public boolean isShutdownStores() {
+        return shutdownStores;
+    }
+
+    /**
+     * Setter accessor for attribute 'shutdownStores'.
+     *
+     * @param shutdownStores
+     *      new value for 'shutdownStores '
+     */
+    public void setShutdownStores(boolean shutdownStores) {
+        this.shutdownStores = shutdownStores;
     }
 
     /**
@@ -0,0 +1,189 @@
+package org.ff4j;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable result of a bulk evaluation ({@link FF4j#checkAll(java.util.Collection)}, {@link FF4j#checkGroup(String)}).
+ * 
+ * Features are indexed in evaluation order and states are kept in two bitsets : one bit when the feature is flipped,
+ * one bit when the feature exists.
+ */
+public final class FeatureCheckResult implements Serializable {
+
+    /** Serial. */
+    private static final long serialVersionUID = -3061739925727468937L;
+
+    /** Evaluated features, in order. */
+    private final String[] uids;
+
+    /** Flipped features. */
+    private final BitSet flipped;
+
+    /** Features found in store. */
+    private final BitSet found;
+
+    /** Index of features, built on first lookup by uid. */
+    private transient Map<String, Integer> index;
+
+    /**
+     * Constructor.
+     *
+     * @param uids
+     *      evaluated features
+     * @param flipped
+     *      bit set when feature is flipped
+     * @param found
+     *      bit set when feature exists
+     */
+    FeatureCheckResult(String[] uids, BitSet flipped, BitSet found) {
+        this.uids    = uids;
+        this.flipped = flipped;
+        this.found   = found;
+    }
+
+    /**
+     * Position of feature in result.
+     *
+     * @param uid
+     *      feature unique identifier
+     * @return
+     *      index or -1 if the feature has not been evaluated
+     */
+    public int indexOf(String uid) {
+        Map<String, Integer> idx = index;
+        if (idx == null) {
+            idx = new HashMap<String, Integer>(uids.length * 2);
+            for (int i = 0; i < uids.length; i++) {
+                idx.put(uids[i], i);
+            }
+            index = idx;
+        }
+        Integer i = idx.get(uid);
+        return (i == null) ? -1 : i;
+    }
+
+    /**
+     * Status of a feature.
+     *
+     * @param uid
+     *      feature unique identifier
+     * @return
+     *      if the feature is flipped, false if not evaluated
+     */
+    public boolean isFlipped(String uid) {
+        int i = indexOf(uid);
+        return i >= 0 && flipped.get(i);
+    }
+
+    /**
+     * Status of a feature.
+     *
+     * @param i
+     *      position of the feature
+     * @return
+     *      if the feature is flipped
+     */
+    public boolean isFlipped(int i) {
+        return flipped.get(i);
+    }
+
+    /**
+     * Check if a feature has been found in store.
+     *
+     * @param uid
+     *      feature unique identifier
+     * @return
+     *      if the feature exists
+     */
+    public boolean exist(String uid) {
+        int i = indexOf(uid);
+        return i >= 0 && found.get(i);
+    }
+
+    /**
+     * Number of evaluated features.
+     *
+     * @return
+     *      number of features
+     */
+    public int size() {
+        return uids.length;
+    }
+
+    /**
+     * Number of flipped features.
+     *
+     * @return
+     *      number of features flipped
+     */
+    public int countFlipped() {
+        return flipped.cardinality();
+    }
+
+    /**
+     * Getter accessor for attribute 'featureIds'.
+     *
+     * @return
+     *       evaluated features, in order
+     */
+    public List<String> getFeatureIds() {
+        return Collections.unmodifiableList(Arrays.asList(uids));
+    }
+
+    /**
+     * Statuses as a bitset (copy), bit i is set when feature i is flipped.
+     *
+     * @return
+     *      bitset of statuses
+     */
+    public BitSet toBitSet() {
+        return (BitSet) flipped.clone();
+    }
+
+    /**
+     * Statuses as a map.
+     *
+     * @return
+     *      unmodifiable map feature uid / flipped
+     */
+    public Map<String, Boolean> toMap() {
+        Map<String, Boolean> map = new LinkedHashMap<String, Boolean>(uids.length * 2);
+        for (int i = 0; i < uids.length; i++) {
+            map.put(uids[i], flipped.get(i));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
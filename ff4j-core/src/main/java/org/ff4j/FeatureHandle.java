@@ -0,0 +1,125 @@
+package org.ff4j;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.store.FeatureStoreSnapshot;
+
+/**
+ * Pre-resolved reference to a feature, obtained with {@link FF4j#handle(String)}, for repeated checks.
+ * 
+ * When snapshot mode is enabled ({@link FF4j#snapshot()}), the feature is resolved once for each snapshot : a check
+ * reads the current snapshot (volatile), compares it with the one the handle points to and evaluates the feature
+ * directly. Every update of features swaps the snapshot and the handle is re-pointed on next check. Without snapshot
+ * the handle delegates to {@link FF4j#check(String, FlippingExecutionContext)}.
+ */
+public final class FeatureHandle {
+
+    /** Owner. */
+    private final FF4j ff4j;
+
+    /** Feature uid. */
+    private final String uid;
+
+    /** Feature resolved from a snapshot. */
+    private volatile ResolvedFeature resolved;
+
+    /**
+     * Feature with the snapshot it has been read from.
+     */
+    private static final class ResolvedFeature {
+
+        /** Source snapshot. */
+        private final FeatureStoreSnapshot snapshot;
+
+        /** Feature in snapshot (immutable). */
+        private final Feature feature;
+
+        private ResolvedFeature(FeatureStoreSnapshot snapshot, Feature feature) {
+            this.snapshot = snapshot;
+            this.feature  = feature;
+        }
+    }
+
+    /**
+     * Constructor, see {@link FF4j#handle(String)}.
+     *
+     * @param ff4j
+     *      owner
+     * @param uid
+     *      feature uid
+     */
+    FeatureHandle(FF4j ff4j, String uid) {
+        this.ff4j = ff4j;
+        this.uid  = uid;
+    }
+
+    /**
+     * Ask if flipped with the execution context of current thread.
+     *
+     * @return current feature status
+     */
+    public boolean check() {
+        return check(ff4j.peekCurrentContext());
+    }
+
+    /**
+     * Ask if flipped.
+     *
+     * @param executionContext
+     *      current execution context
+     * @return current feature status
+     */
+    public boolean check(FlippingExecutionContext executionContext) {
+        FeatureStoreSnapshot snapshot = ff4j.getFeatureSnapshot();
+        if (snapshot == null) {
+            return ff4j.check(uid, executionContext);
+        }
+        ResolvedFeature current = resolved;
+        if (current == null || current.snapshot != snapshot) {
+            Feature feature = snapshot.readAll().get(uid);
+            if (feature == null) {
+                // not found or autocreate, handled by ff4j
+                return ff4j.check(uid, executionContext);
+            }
+            current  = new ResolvedFeature(snapshot, feature);
+            resolved = current;
+        }
+        return ff4j.evaluate(uid, current.feature, snapshot, executionContext);
+    }
+
+    /**
+     * Getter accessor for attribute 'uid'.
+     *
+     * @return
+     *       current value of 'uid'
+     */
+    public String getUid() {
+        return uid;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "FeatureHandle[" + uid + "]";
+    }
+}
@@ -0,0 +1,319 @@
+package org.ff4j.audit;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.ff4j.audit.repository.EventRepository;
+
+/**
+ * Publisher sending events to the {@link EventRepository} without blocking the caller.
+ * 
+ * <p>Events are pushed into a bounded {@link EventRingBuffer}, a single drain thread
+ * collects them by batches and writes them to the repository. When the buffer is full
+ * the {@link EventOverflowPolicy} decides what to do with the event.</p>
+ */
+public class AsyncEventPublisher extends EventPublisher {
+    
+    /** DEFAULT. */
+    public static final int DEFAULT_BUFFER_CAPACITY = 8192;
+    
+    /** DEFAULT. */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    
+    /** DEFAULT. */
+    public static final long DEFAULT_IDLE_WAIT = 10L;
+    
+    /** DEFAULT. */
+    public static final EventOverflowPolicy DEFAULT_OVERFLOW_POLICY = EventOverflowPolicy.DROP_NEWEST;
+    
+    /** Pending events. */
+    private final EventRingBuffer buffer;
+    
+    /** Maximum number of events sent in a single batch. */
+    private final int batchSize;
+    
+    /** What to do when buffer is full. */
+    private final EventOverflowPolicy overflowPolicy;
+    
+    /** Time to wait (in milliseconds) when there is nothing to drain. */
+    private final long idleWait;
+    
+    /** Thread draining the buffer. */
+    private final Thread drainThread;
+    
+    /** Flag to stop drain thread. */
+    private volatile boolean running = true;
+    
+    /** Events accepted into the buffer. */
+    private final LongAdder publishedCount = new LongAdder();
+    
+    /** Events lost because buffer was full or publisher stopped. */
+    private final LongAdder droppedCount = new LongAdder();
+    
+    /** Events written into the repository. */
+    private final LongAdder savedCount = new LongAdder();
+    
+    /** Events rejected by the repository. */
+    private final LongAdder failedCount = new LongAdder();
+    
+    /**
+     * Default constructor.
+     */
+    public AsyncEventPublisher(EventRepository er) {
+        this(er, DEFAULT_BUFFER_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_OVERFLOW_POLICY);
+    }
+    
+    /**
+     * Constructor with buffer settings.
+     */
+    public AsyncEventPublisher(EventRepository er, int capacity, int batchSize, EventOverflowPolicy policy) {
+        this(er, capacity, batchSize, policy, DEFAULT_IDLE_WAIT);
+    }
+    
+    /**
+     * Full constructor.
+     *
+     * @param er
+     *      the event repository to use
+     * @param capacity
+     *      buffer capacity (rounded to next power of 2)
+     * @param batchSize
+     *      maximum number of events sent to repository at once
+     * @param policy
+     *      behaviour when buffer is full
+     * @param idleWait
+     *      time to wait (in milliseconds) when buffer is empty
+     */
+    public AsyncEventPublisher(EventRepository er, int capacity, int batchSize, EventOverflowPolicy policy, long idleWait) {
+        super(er, (ExecutorService) null, timeout);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size should be greater than 0");
+        }
+        this.buffer         = new EventRingBuffer(capacity);
+        this.batchSize      = batchSize;
+        this.overflowPolicy = (policy == null) ? DEFAULT_OVERFLOW_POLICY : policy;
+        this.idleWait       = idleWait;
+        this.drainThread    = new PublisherThreadFactory().newThread(this::drain);
+        this.drainThread.start();
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void publish(Event e) {
+        if (e == null) {
+            return;
+        }
+        if (!running) {
+            droppedCount.increment();
+            return;
+        }
+        if (buffer.offer(e)) {
+            publishedCount.increment();
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                publishDropOldest(e);
+            break;
+            case BLOCK:
+                publishBlocking(e);
+            break;
+            case DROP_NEWEST:
+            default:
+                droppedCount.increment();
+            break;
+        }
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void publishAll(Collection<Event> events) {
+        if (events != null) {
+            for (Event e : events) {
+                publish(e);
+            }
+        }
+    }
+    
+    /**
+     * Evict oldest events until the new one fit in the buffer.
+     *
+     * @param e
+     *      current event
+     */
+    private void publishDropOldest(Event e) {
+        while (true) {
+            if (buffer.poll() != null) {
+                droppedCount.increment();
+            }
+            if (buffer.offer(e)) {
+                publishedCount.increment();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Wait for the drain thread to free a slot.
+     *
+     * @param e
+     *      current event
+     */
+    private void publishBlocking(Event e) {
+        while (!buffer.offer(e)) {
+            if (!running) {
+                droppedCount.increment();
+                return;
+            }
+            LockSupport.unpark(drainThread);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        publishedCount.increment();
+    }
+    
+    /**
+     * Loop executed by drain thread.
+     */
+    private void drain() {
+        List<Event> batch = new ArrayList<Event>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                if (running) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleWait));
+                }
+                continue;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+    
+    /**
+     * Send a batch of events to the repository.
+     *
+     * @param batch
+     *      events to save
+     */
+    protected void flush(List<Event> batch) {
+        try {
+            if (getRepository().saveEvents(batch)) {
+                savedCount.add(batch.size());
+            } else {
+                failedCount.add(batch.size());
+            }
+        } catch (RuntimeException re) {
+            // Do not propagate error, it's monitoring (aside business logic)
+            failedCount.add(batch.size());
+        }
+    }
+    
+    /**
+     * Stops the drain thread, pending events are flushed before.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Getter accessor for attribute 'overflowPolicy'.
+     *
+     * @return
+     *       current value of 'overflowPolicy'
+     */
+    public EventOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+    
+    /**
+     * Getter accessor for attribute 'batchSize'.
+     *
+     * @return
+     *       current value of 'batchSize'
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Number of events waiting in the buffer.
+     *
+     * @return
+     *      pending events
+     */
+    public int getPendingEventCount() {
+        return buffer.size();
+    }
+    
+    /**
+     * Number of events accepted into the buffer.
+     *
+     * @return
+     *      published events
+     */
+    public long getPublishedEventCount() {
+        return publishedCount.sum();
+    }
+    
+    /**
+     * Number of events lost (buffer full or publisher stopped).
+     *
+     * @return
+     *      dropped events
+     */
+    public long getDroppedEventCount() {
+        return droppedCount.sum();
+    }
+    
+    /**
+     * Number of events written into the repository.
+     *
+     * @return
+     *      saved events
+     */
+    public long getSavedEventCount() {
+        return savedCount.sum();
+    }
+    
+    /**
+     * Number of events the repository could not save.
+     *
+     * @return
+     *      failed events
+     */
+    public long getFailedEventCount() {
+        return failedCount.sum();
+    }
+    
+}
@@ -20,6 +20,7 @@ package org.ff4j.audit;
  * #L%
  */
 
+import java.util.Collection;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
@@ -136,6 +137,24 @@ public class EventPublisher {
         }
     }
 
+    /**
+     * Publish several events to repository with a single submission.
+     * 
+     * @param events
+     *            events.
+     */
+    public void publishAll(Collection<Event> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        try {
+            final Future<Boolean> check = executor.submit(() -> repository.saveEvents(events));
+            check.get(submitTimeout, TimeUnit.MILLISECONDS);
+        } catch (Exception e1) {
+            // Do not propagate error, it's monitoring (aside business logic)
+        }
+    }
+
     /**
      * Stops the event publisher. If we started an executor service, it will
      * be shutdown here.
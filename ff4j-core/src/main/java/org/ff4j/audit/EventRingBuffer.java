@@ -0,0 +1,184 @@
+package org.ff4j.audit;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer holding {@link Event} before they are sent to the repository.
+ * 
+ * <p>Each slot carries a sequence number telling if it is ready to be written or read, producers and
+ * consumers only compete with a CAS on their cursor. Capacity is rounded to the next power of 2.</p>
+ */
+public class EventRingBuffer {
+    
+    /** Mask to compute slot index from position. */
+    private final int mask;
+    
+    /** Events. */
+    private final AtomicReferenceArray<Event> slots;
+    
+    /** Sequence for each slot. */
+    private final AtomicLongArray sequences;
+    
+    /** Next position to write. */
+    private final AtomicLong tail = new AtomicLong(0);
+    
+    /** Next position to read. */
+    private final AtomicLong head = new AtomicLong(0);
+    
+    /**
+     * Constructor with capacity.
+     *
+     * @param requestedCapacity
+     *      expected capacity (rounded to next power of 2)
+     */
+    public EventRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1) {
+            throw new IllegalArgumentException("Capacity should be greater than 0");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity);
+        if (capacity < requestedCapacity) {
+            capacity = capacity << 1;
+        }
+        this.mask      = capacity - 1;
+        this.slots     = new AtomicReferenceArray<Event>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Add an event at the end of the buffer.
+     *
+     * @param evt
+     *      current event
+     * @return
+     *      false if the buffer is full
+     */
+    public boolean offer(Event evt) {
+        long pos = tail.get();
+        while (true) {
+            int idx  = (int) (pos & mask);
+            long seq = sequences.get(idx);
+            long dif = seq - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(idx, evt);
+                    sequences.set(idx, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (dif < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+    
+    /**
+     * Remove the oldest event of the buffer.
+     *
+     * @return
+     *      oldest event or null if buffer is empty
+     */
+    public Event poll() {
+        long pos = head.get();
+        while (true) {
+            int idx  = (int) (pos & mask);
+            long seq = sequences.get(idx);
+            long dif = seq - (pos + 1);
+            if (dif == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    Event evt = slots.get(idx);
+                    slots.lazySet(idx, null);
+                    sequences.set(idx, pos + mask + 1);
+                    return evt;
+                }
+                pos = head.get();
+            } else if (dif < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+    
+    /**
+     * Move up to maxElements events into target collection.
+     *
+     * @param target
+     *      collection to populate
+     * @param maxElements
+     *      maximum number of events to move
+     * @return
+     *      number of events moved
+     */
+    public int drainTo(Collection<Event> target, int maxElements) {
+        int count = 0;
+        Event evt;
+        while (count < maxElements && (evt = poll()) != null) {
+            target.add(evt);
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Approximative number of events in the buffer.
+     *
+     * @return
+     *      pending events
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        if (size < 0) {
+            return 0;
+        }
+        return (int) Math.min(size, capacity());
+    }
+    
+    /**
+     * If the buffer is empty.
+     *
+     * @return
+     *      no event pending
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    /**
+     * Real capacity of the buffer.
+     *
+     * @return
+     *      capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+    
+}
@@ -219,6 +219,12 @@ public class FeatureStoreAuditProxy implements FeatureStore {
         return target.readAll();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> read(Collection<String> featureUids) {
+        return target.read(featureUids);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean existGroup(String groupName) {
@@ -0,0 +1,485 @@
+package org.ff4j.audit.repository;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ff4j.audit.Event;
+import org.ff4j.audit.EventConstants;
+import org.ff4j.audit.EventQueryDefinition;
+import org.ff4j.audit.EventSeries;
+import org.ff4j.audit.MutableHitCount;
+import org.ff4j.audit.chart.Serie;
+import org.ff4j.audit.chart.TimeSeriesChart;
+import org.ff4j.utils.IOUtil;
+import org.ff4j.utils.Util;
+
+/**
+ * Implementation of {@link EventRepository} keeping counters instead of events for feature usage.
+ * 
+ * <p>Each check is counted into a minute bucket and an hour bucket, per feature (OK and OFF) and, for
+ * checks OK, per source, host and user. Events related to the audit trail (create, update, delete...) 
+ * are still stored individually into a delegate repository.</p>
+ * 
+ * <p>As no individual usage event is kept, {@link #searchFeatureUsageEvents(EventQueryDefinition)} returns
+ * an empty series and filters on a dimension only apply to the counters of this dimension.</p>
+ */
+public class AggregatedEventRepository extends AbstractEventRepository {
+    
+    /** One minute. */
+    private static final long MINUTE = 60 * 1000L;
+    
+    /** One hour. */
+    private static final long HOUR = 60 * MINUTE;
+    
+    /** Default retention for minute buckets. */
+    public static final long DEFAULT_MINUTE_RETENTION = 24 * HOUR;
+    
+    /** Default retention for hour buckets. */
+    public static final long DEFAULT_HOUR_RETENTION = 31 * 24 * HOUR;
+    
+    /** User when not provided. */
+    private static final String ANONYMOUS = "anonymous";
+    
+    /** Store for audit trail. */
+    private EventRepository auditTrailRepository;
+    
+    /** Counters per minute. */
+    private final HitCountSeries minuteSeries;
+    
+    /** Counters per hour. */
+    private final HitCountSeries hourSeries;
+    
+    /** Resolved once, used when counting without event. */
+    private String hostName;
+    
+    /**
+     * Default constructor, audit trail kept in memory.
+     */
+    public AggregatedEventRepository() {
+        this(new InMemoryEventRepository());
+    }
+    
+    /**
+     * Constructor with a dedicated store for audit trail.
+     *
+     * @param auditTrailRepository
+     *      repository for audit trail events
+     */
+    public AggregatedEventRepository(EventRepository auditTrailRepository) {
+        this(auditTrailRepository, DEFAULT_MINUTE_RETENTION, DEFAULT_HOUR_RETENTION);
+    }
+    
+    /**
+     * Full constructor.
+     *
+     * @param auditTrailRepository
+     *      repository for audit trail events
+     * @param minuteRetention
+     *      how long (in milliseconds) minute buckets are kept
+     * @param hourRetention
+     *      how long (in milliseconds) hour buckets are kept
+     */
+    public AggregatedEventRepository(EventRepository auditTrailRepository, long minuteRetention, long hourRetention) {
+        Util.assertNotNull(auditTrailRepository);
+        this.auditTrailRepository = auditTrailRepository;
+        this.minuteSeries = new HitCountSeries(MINUTE, minuteRetention);
+        this.hourSeries   = new HitCountSeries(HOUR, hourRetention);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void createSchema() {
+        auditTrailRepository.createSchema();
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public boolean saveEvent(Event e) {
+        Util.assertEvent(e);
+        if (EventConstants.ACTION_CHECK_OK.equalsIgnoreCase(e.getAction())) {
+            hit(e.getName(), true, e.getSource(), e.getHostName(), e.getUser(), e.getTimestamp());
+            return true;
+        } else if (EventConstants.ACTION_CHECK_OFF.equalsIgnoreCase(e.getAction())) {
+            hit(e.getName(), false, e.getSource(), e.getHostName(), e.getUser(), e.getTimestamp());
+            return true;
+        }
+        return auditTrailRepository.saveEvent(e);
+    }
+    
+    /**
+     * Count a feature check without creating any {@link Event}.
+     *
+     * @param uid
+     *      feature unique identifier
+     * @param checkOk
+     *      result of the check
+     * @param source
+     *      source of the check (JAVA_API, WEB_API...)
+     * @param user
+     *      current user if any
+     */
+    public void hit(String uid, boolean checkOk, String source, String user) {
+        hit(uid, checkOk, source, getHostName(), user, System.currentTimeMillis());
+    }
+    
+    /**
+     * Count a feature check.
+     *
+     * @param uid
+     *      feature unique identifier
+     * @param checkOk
+     *      result of the check
+     * @param source
+     *      source of the check (JAVA_API, WEB_API...)
+     * @param host
+     *      host where check happened
+     * @param user
+     *      current user if any
+     * @param timestamp
+     *      time of the check
+     */
+    public void hit(String uid, boolean checkOk, String source, String host, String user, long timestamp) {
+        minuteSeries.getBucket(timestamp).hit(uid, checkOk, source, host, user);
+        hourSeries.getBucket(timestamp).hit(uid, checkOk, source, host, user);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, MutableHitCount> getFeatureUsageHitCount(EventQueryDefinition query) {
+        Map<String, MutableHitCount> hitRatio = new TreeMap<String, MutableHitCount>();
+        for (HitCountBucket bucket : getSeries(query).getBuckets(query)) {
+            for (Map.Entry<String, LongAdder> counter : bucket.featureOk.entrySet()) {
+                if (query.matchName(counter.getKey())) {
+                    incrementHitCount(hitRatio, counter.getKey(), counter.getValue());
+                }
+            }
+        }
+        return hitRatio;
+    }
+    
+    /**
+     * Count checks OFF for each feature.
+     *
+     * @param query
+     *      current query
+     * @return
+     *      hit count for each feature
+     */
+    public Map<String, MutableHitCount> getFeatureCheckOffHitCount(EventQueryDefinition query) {
+        Map<String, MutableHitCount> hitRatio = new TreeMap<String, MutableHitCount>();
+        for (HitCountBucket bucket : getSeries(query).getBuckets(query)) {
+            for (Map.Entry<String, LongAdder> counter : bucket.featureOff.entrySet()) {
+                if (query.matchName(counter.getKey())) {
+                    incrementHitCount(hitRatio, counter.getKey(), counter.getValue());
+                }
+            }
+        }
+        return hitRatio;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, MutableHitCount> getHostHitCount(EventQueryDefinition query) {
+        Map<String, MutableHitCount> hitRatio = new TreeMap<String, MutableHitCount>();
+        for (HitCountBucket bucket : getSeries(query).getBuckets(query)) {
+            for (Map.Entry<String, LongAdder> counter : bucket.hosts.entrySet()) {
+                if (query.matchHost(counter.getKey())) {
+                    incrementHitCount(hitRatio, counter.getKey(), counter.getValue());
+                }
+            }
+        }
+        return hitRatio;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, MutableHitCount> getSourceHitCount(EventQueryDefinition query) {
+        Map<String, MutableHitCount> hitRatio = new TreeMap<String, MutableHitCount>();
+        for (HitCountBucket bucket : getSeries(query).getBuckets(query)) {
+            for (Map.Entry<String, LongAdder> counter : bucket.sources.entrySet()) {
+                if (query.matchSource(counter.getKey())) {
+                    incrementHitCount(hitRatio, counter.getKey(), counter.getValue());
+                }
+            }
+        }
+        return hitRatio;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, MutableHitCount> getUserHitCount(EventQueryDefinition query) {
+        Map<String, MutableHitCount> hitRatio = new TreeMap<String, MutableHitCount>();
+        for (HitCountBucket bucket : getSeries(query).getBuckets(query)) {
+            for (Map.Entry<String, LongAdder> counter : bucket.users.entrySet()) {
+                incrementHitCount(hitRatio, counter.getKey(), counter.getValue());
+            }
+        }
+        return hitRatio;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public TimeSeriesChart getFeatureUsageHistory(EventQueryDefinition query, TimeUnit units) {
+        TimeSeriesChart tsc = new TimeSeriesChart(query.getFrom(), query.getTo(), units);
+        for (HitCountBucket bucket : getSeries(query).getBuckets(query)) {
+            String slotName = tsc.getSdf().format(new Date(Math.max(bucket.start, query.getFrom())));
+            for (Map.Entry<String, LongAdder> counter : bucket.featureOk.entrySet()) {
+                String currentFeatureName = counter.getKey();
+                if (query.matchName(currentFeatureName)) {
+                    if (!tsc.getSeries().containsKey(currentFeatureName)) {
+                        tsc.createNewSerie(currentFeatureName);
+                    }
+                    MutableHitCount mhc = tsc.getSeries().get(currentFeatureName).getValue().get(slotName);
+                    if (mhc != null) {
+                        mhc.incBy((int) counter.getValue().sum());
+                    }
+                }
+            }
+        }
+        // Recolor series
+        List < String > colors = Util.generateHSVGradient("ee1100", "442299", tsc.getSeries().size());
+        int idxColor = 0;
+        for (Map.Entry<String, Serie<Map<String, MutableHitCount>>> serie : tsc.getSeries().entrySet()) {
+            serie.getValue().setColor(colors.get(idxColor));
+            idxColor++;
+        }
+        return tsc;
+    }
+    
+    /**
+     * Individual usage events are not kept.
+     *
+     * @return
+     *      empty series
+     */
+    @Override
+    public EventSeries searchFeatureUsageEvents(EventQueryDefinition query) {
+        return new EventSeries();
+    }
+    
+    /**
+     * Purge counters, any bucket overlapping the period is removed.
+     *
+     * @param query
+     *      current query
+     */
+    @Override
+    public void purgeFeatureUsage(EventQueryDefinition query) {
+        minuteSeries.purge(query);
+        hourSeries.purge(query);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Event getEventByUUID(String uuid, Long timestamp) {
+        return auditTrailRepository.getEventByUUID(uuid, timestamp);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public EventSeries getAuditTrail(EventQueryDefinition query) {
+        return auditTrailRepository.getAuditTrail(query);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void purgeAuditTrail(EventQueryDefinition query) {
+        auditTrailRepository.purgeAuditTrail(query);
+    }
+    
+    /**
+     * Minute buckets are used if still available for the whole period, hour buckets otherwize.
+     *
+     * @param query
+     *      current query
+     * @return
+     *      series to use
+     */
+    private HitCountSeries getSeries(EventQueryDefinition query) {
+        if (query.getFrom() >= System.currentTimeMillis() - minuteSeries.retention) {
+            return minuteSeries;
+        }
+        return hourSeries;
+    }
+    
+    /**
+     * Add counter value to hit ratio.
+     */
+    private void incrementHitCount(Map<String, MutableHitCount> hitRatio, String key, LongAdder counter) {
+        int value = (int) counter.sum();
+        if (value > 0) {
+            if (!hitRatio.containsKey(key)) {
+                hitRatio.put(key, new MutableHitCount());
+            }
+            hitRatio.get(key).incBy(value);
+        }
+    }
+    
+    /**
+     * Getter accessor for attribute 'hostName'.
+     *
+     * @return
+     *       current value of 'hostName'
+     */
+    public String getHostName() {
+        if (hostName == null) {
+            hostName = IOUtil.resolveHostName();
+        }
+        return hostName;
+    }
+    
+    /**
+     * Getter accessor for attribute 'auditTrailRepository'.
+     *
+     * @return
+     *       current value of 'auditTrailRepository'
+     */
+    public EventRepository getAuditTrailRepository() {
+        return auditTrailRepository;
+    }
+    
+    /**
+     * Buckets of a given width.
+     */
+    private static final class HitCountSeries {
+        
+        /** Width of a bucket. */
+        private final long duration;
+        
+        /** How long buckets are kept. */
+        private final long retention;
+        
+        /** Buckets by start time. */
+        private final Map<Long, HitCountBucket> buckets = new ConcurrentHashMap<Long, HitCountBucket>();
+        
+        /** Most recent bucket, avoid map lookup for the common case. */
+        private volatile HitCountBucket current;
+        
+        private HitCountSeries(long duration, long retention) {
+            this.duration  = duration;
+            this.retention = retention;
+        }
+        
+        private HitCountBucket getBucket(long timestamp) {
+            long start = timestamp - (timestamp % duration);
+            HitCountBucket bucket = current;
+            if (bucket != null && bucket.start == start) {
+                return bucket;
+            }
+            bucket = buckets.computeIfAbsent(start, HitCountBucket::new);
+            HitCountBucket last = current;
+            if (last == null || start > last.start) {
+                current = bucket;
+                // Rollover, remove expired buckets
+                long limit = start - retention;
+                buckets.keySet().removeIf(bucketStart -> bucketStart < limit);
+            }
+            return bucket;
+        }
+        
+        private Iterable<HitCountBucket> getBuckets(EventQueryDefinition query) {
+            long from = query.getFrom();
+            long to   = query.getTo();
+            Map<Long, HitCountBucket> result = new TreeMap<Long, HitCountBucket>();
+            for (HitCountBucket bucket : buckets.values()) {
+                if (bucket.start <= to && bucket.start + duration > from) {
+                    result.put(bucket.start, bucket);
+                }
+            }
+            return result.values();
+        }
+        
+        private void purge(EventQueryDefinition query) {
+            for (HitCountBucket bucket : getBuckets(query)) {
+                if (query.getNamesFilter() == null || query.getNamesFilter().isEmpty()) {
+                    buckets.remove(bucket.start);
+                } else {
+                    for (String name : query.getNamesFilter()) {
+                        bucket.featureOk.remove(name);
+                        bucket.featureOff.remove(name);
+                    }
+                }
+            }
+            HitCountBucket last = current;
+            if (last != null && !buckets.containsKey(last.start)) {
+                current = null;
+            }
+        }
+    }
+    
+    /**
+     * Counters for a time slot.
+     */
+    private static final class HitCountBucket {
+        
+        /** Start of the slot. */
+        private final long start;
+        
+        /** Checks OK per feature. */
+        private final Map<String, LongAdder> featureOk = new ConcurrentHashMap<String, LongAdder>();
+        
+        /** Checks OFF per feature. */
+        private final Map<String, LongAdder> featureOff = new ConcurrentHashMap<String, LongAdder>();
+        
+        /** Checks OK per source. */
+        private final Map<String, LongAdder> sources = new ConcurrentHashMap<String, LongAdder>();
+        
+        /** Checks OK per host. */
+        private final Map<String, LongAdder> hosts = new ConcurrentHashMap<String, LongAdder>();
+        
+        /** Checks OK per user. */
+        private final Map<String, LongAdder> users = new ConcurrentHashMap<String, LongAdder>();
+        
+        private HitCountBucket(long start) {
+            this.start = start;
+        }
+        
+        private void hit(String uid, boolean checkOk, String source, String host, String user) {
+            if (!checkOk) {
+                increment(featureOff, uid);
+                return;
+            }
+            increment(featureOk, uid);
+            increment(sources, source);
+            increment(hosts, host);
+            increment(users, Util.hasLength(user) ? user : ANONYMOUS);
+        }
+        
+        private static void increment(Map<String, LongAdder> counters, String key) {
+            if (key == null) {
+                return;
+            }
+            LongAdder counter = counters.get(key);
+            if (counter == null) {
+                counter = counters.computeIfAbsent(key, k -> new LongAdder());
+            }
+            counter.increment();
+        }
+    }
+    
+}
@@ -36,6 +36,8 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -173,6 +175,66 @@ public class JdbcEventRepository extends AbstractEventRepository {
         return true;
     }
     
+    /** {@inheritDoc} */
+    @Override
+    public boolean saveEvents(Collection<Event> events) {
+        if (events == null || events.isEmpty()) {
+            return true;
+        }
+        Connection        sqlConn = null;
+        PreparedStatement stmt = null;
+        try {
+            // Single connection and statement for the whole batch
+            sqlConn = dataSource.getConnection();
+            sqlConn.setAutoCommit(false);
+            stmt = sqlConn.prepareStatement(getQueryBuilder().sqlSaveAudit());
+            for (Event evt : events) {
+                Util.assertEvent(evt);
+                stmt.setString(1, evt.getUuid());
+                stmt.setTimestamp(2, new java.sql.Timestamp(evt.getTimestamp()));
+                stmt.setString(3, evt.getType());
+                stmt.setString(4, evt.getName());
+                stmt.setString(5, evt.getAction());
+                stmt.setString(6, evt.getHostName());
+                stmt.setString(7, evt.getSource());
+                stmt.setLong(8, evt.getDuration());
+                setNullableString(stmt, 9, evt.getUser());
+                setNullableString(stmt, 10, evt.getValue());
+                setNullableString(stmt, 11, evt.getCustomKeys().isEmpty() ? null : MappingUtil.fromMap(evt.getCustomKeys()));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            sqlConn.commit();
+        } catch(Exception exc) {
+            rollback(sqlConn);
+            throw new AuditAccessException("Cannot insert events into DB (" + exc.getClass() + ") "+ exc.getCause(), exc);
+        } finally {
+           closeStatement(stmt);
+           closeConnection(sqlConn);
+        }
+        return true;
+    }
+    
+    /**
+     * Set optional string parameter.
+     *
+     * @param stmt
+     *      current statement
+     * @param idx
+     *      parameter index
+     * @param value
+     *      value (can be empty)
+     * @throws SQLException
+     *      error when setting parameter
+     */
+    private void setNullableString(PreparedStatement stmt, int idx, String value) throws SQLException {
+        if (Util.hasLength(value)) {
+            stmt.setString(idx, value);
+        } else {
+            stmt.setNull(idx, Types.VARCHAR);
+        }
+    }
+    
     /** {@inheritDoc} */
     @Override
     public Event getEventByUUID(String uuid, Long timestamp) {
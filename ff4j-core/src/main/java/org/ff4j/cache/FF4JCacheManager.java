@@ -21,6 +21,7 @@ package org.ff4j.cache;
  */
 
 import java.util.Set;
+import java.util.function.Function;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
@@ -97,6 +98,63 @@ public interface FF4JCacheManager {
      */
     Property<?> getProperty(String featureId);
     
+    /**
+     * Return {@link Feature} stored in cache, load it with the loader and put it in cache when not found.
+     * Implementations may ensure the loader is invoked once for concurrent requests on the same key.
+     * 
+     * @param featureId
+     *            target feature identifier
+     * @param loader
+     *            read feature in the store, errors are propagated
+     * @return target feature
+     */
+    default Feature getFeature(String featureId, Function<String, Feature> loader) {
+        Feature fp = null;
+        try {
+            fp = getFeature(featureId);
+        } catch(RuntimeException re) {
+            // Cache errors should NOT impact main behaviour
+            onException(re);
+        }
+        if (null == fp) {
+            fp = loader.apply(featureId);
+            try {
+                putFeature(fp);
+            } catch(RuntimeException re) {
+                onException(re);
+            }
+        }
+        return fp;
+    }
+    
+    /**
+     * Return {@link Property} stored in cache, load it with the loader and put it in cache when not found.
+     * Implementations may ensure the loader is invoked once for concurrent requests on the same key.
+     * 
+     * @param propertyName
+     *            target property name
+     * @param loader
+     *            read property in the store, errors are propagated
+     * @return target property
+     */
+    default Property<?> getProperty(String propertyName, Function<String, Property<?>> loader) {
+        Property<?> p = null;
+        try {
+            p = getProperty(propertyName);
+        } catch(RuntimeException re) {
+            onException(re);
+        }
+        if (null == p) {
+            p = loader.apply(propertyName);
+            try {
+                putProperty(p);
+            } catch(RuntimeException re) {
+                onException(re);
+            }
+        }
+        return p;
+    }
+    
     /**
      * List feature names in cache.
      *
@@ -20,15 +20,20 @@ package org.ff4j.cache;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Collection;
-
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.property.Property;
 import org.ff4j.property.store.PropertyStore;
+import org.ff4j.store.FeatureStoreSnapshot;
 import org.ff4j.utils.Util;
 
 /**
@@ -53,6 +58,18 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     
     /** Daemon to fetch data from target store to cache on a fixed delay basis. */
     private Store2CachePollingScheduler store2CachePoller = null;
+    
+    /** All features of the target store, published by the poller; null when not known to be complete. */
+    private volatile FeatureStoreSnapshot featureSnapshot = null;
+    
+    /** Incremented by each feature modification through the proxy, a snapshot read before is discarded. */
+    private final AtomicLong featureWriteCount = new AtomicLong();
+    
+    /** Read features missing in cache from target store (created once, not on each read). */
+    private final Function<String, Feature> featureLoader = uid -> getTargetFeatureStore().read(uid);
+    
+    /** Read properties missing in cache from target store (created once, not on each read). */
+    private final Function<String, Property<?>> propertyLoader = name -> getTargetPropertyStore().readProperty(name);
 
     /**
      * Allow Ioc and defeine default constructor.
@@ -71,7 +88,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
         this.cacheManager        = cache;
         this.targetFeatureStore  = fStore;
         this.targetPropertyStore = pStore;
-        this.store2CachePoller   = new Store2CachePollingScheduler(fStore, pStore, cache);
+        this.store2CachePoller   = new Store2CachePollingScheduler(fStore, pStore, cache, this);
     }
     
     /**
@@ -92,6 +109,55 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
             throw new IllegalStateException("The poller has not been initialize, please check");
         }
         getStore2CachePoller().stop();
+        // Not refreshed anymore
+        invalidateFeatureSnapshot();
+    }
+    
+    /**
+     * Publish the complete content of the target store, it is ignored if a feature has been modified through the
+     * proxy since the number of writes has been read.
+     *
+     * @param snapshot
+     *      all features of the target store
+     * @param writeCount
+     *      value of {@link #getFeatureWriteCount()} before reading the target store
+     * @return
+     *      if the snapshot has been published
+     */
+    public synchronized boolean publishFeatureSnapshot(FeatureStoreSnapshot snapshot, long writeCount) {
+        if (featureWriteCount.get() != writeCount) {
+            return false;
+        }
+        this.featureSnapshot = snapshot;
+        return true;
+    }
+    
+    /**
+     * Features are modified, bulk reads go to the target store until next snapshot.
+     */
+    private synchronized void invalidateFeatureSnapshot() {
+        featureWriteCount.incrementAndGet();
+        featureSnapshot = null;
+    }
+    
+    /**
+     * Getter accessor for attribute 'featureWriteCount'.
+     *
+     * @return
+     *       current value of 'featureWriteCount'
+     */
+    public long getFeatureWriteCount() {
+        return featureWriteCount.get();
+    }
+    
+    /**
+     * Getter accessor for attribute 'featureSnapshot'.
+     *
+     * @return
+     *       complete snapshot of features, null if not available
+     */
+    public FeatureStoreSnapshot getFeatureSnapshot() {
+        return featureSnapshot;
     }
 
     /** {@inheritDoc} */
@@ -99,6 +165,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     public void enable(String featureId) {
         // Reach target
         getTargetFeatureStore().enable(featureId);
+        invalidateFeatureSnapshot();
         
         // Modification => flush cache
         try {
@@ -113,6 +180,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     public void disable(String featureId) {
         // Reach target
         getTargetFeatureStore().disable(featureId);
+        invalidateFeatureSnapshot();
         
         // Modification => flush cache
         try {
@@ -126,6 +194,10 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     @Override
     public boolean exist(String featureId) {
         Util.assertHasLength(featureId);
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        if (snapshot != null) {
+            return snapshot.exist(featureId);
+        }
         try {
             // not in cache but maybe created from last access
             if (getCacheManager().getFeature(featureId) == null) {
@@ -150,6 +222,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     @Override
     public void create(Feature fp) {
         getTargetFeatureStore().create(fp);
+        invalidateFeatureSnapshot();
         try {
             getCacheManager().putFeature(fp);
         } catch(RuntimeException re) {
@@ -160,28 +233,54 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     /** {@inheritDoc} */
     @Override
     public Feature read(String featureUid) {
-        Feature fp = null;
-        try {
-            fp = getCacheManager().getFeature(featureUid);
-        } catch(RuntimeException re) {
-            // Cache errors should NOT impact main behaviour
-            getCacheManager().onException(re);
+        // not in cache but may has been created from now, cache errors do not impact main behaviour
+        return getCacheManager().getFeature(featureUid, featureLoader);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> read(Collection<String> featureUids) {
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        if (snapshot != null) {
+            return snapshot.read(featureUids);
         }
-        // not in cache but may has been created from now
-        if (null == fp) {
-            fp = getTargetFeatureStore().read(featureUid);
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        List<String> missing = new ArrayList<String>();
+        for (String uid : featureUids) {
+            Feature fp = null;
             try {
-                getCacheManager().putFeature(fp);
+                fp = getCacheManager().getFeature(uid);
             } catch(RuntimeException re) {
                 getCacheManager().onException(re);
             }
+            if (fp != null) {
+                features.put(uid, fp);
+            } else if (uid != null) {
+                missing.add(uid);
+            }
         }
-        return fp;
+        // Features not in cache are read with a single call
+        if (!missing.isEmpty()) {
+            for (Feature fp : getTargetFeatureStore().read(missing).values()) {
+                features.put(fp.getUid(), fp);
+                try {
+                    getCacheManager().putFeature(fp);
+                } catch(RuntimeException re) {
+                    getCacheManager().onException(re);
+                }
+            }
+        }
+        return features;
     }
 
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        if (snapshot != null) {
+            // Complete and read-only
+            return snapshot.readAll();
+        }
         // Cannot be sure of whole cache - do not test any feature one-by-one : accessing FeatureStore
         return getTargetFeatureStore().readAll();
     }
@@ -189,6 +288,10 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        if (snapshot != null) {
+            return snapshot.readAllGroups();
+        }
         // Cannot be sure of whole cache - do not test any feature one-by-one : accessing FeatureStore
         return getTargetFeatureStore().readAllGroups();
     }
@@ -198,6 +301,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     public void delete(String featureId) {
         // Access target store
         getTargetFeatureStore().delete(featureId);
+        invalidateFeatureSnapshot();
         
         // even is not present, evict won't failed
         try {
@@ -211,6 +315,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     @Override
     public void update(Feature fp) {
         getTargetFeatureStore().update(fp);
+        invalidateFeatureSnapshot();
         
         // even is not present, evict won't failed
         try {
@@ -224,6 +329,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     @Override
     public void grantRoleOnFeature(String featureId, String roleName) {
         getTargetFeatureStore().grantRoleOnFeature(featureId, roleName);
+        invalidateFeatureSnapshot();
         try {
             getCacheManager().evictFeature(featureId);
         } catch(RuntimeException re) {
@@ -235,6 +341,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     @Override
     public void removeRoleFromFeature(String featureId, String roleName) {
         getTargetFeatureStore().removeRoleFromFeature(featureId, roleName);
+        invalidateFeatureSnapshot();
         try {
             getCacheManager().evictFeature(featureId);
         } catch(RuntimeException re) {
@@ -246,6 +353,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     @Override
     public void enableGroup(String groupName) {
         getTargetFeatureStore().enableGroup(groupName);
+        invalidateFeatureSnapshot();
 
         // Cannot know wich feature to work with (exceptional event) : flush cache
         try {
@@ -259,6 +367,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     @Override
     public void disableGroup(String groupName) {
         getTargetFeatureStore().disableGroup(groupName);
+        invalidateFeatureSnapshot();
         // Cannot know wich feature to work with (exceptional event) : flush cache
         try {
             getCacheManager().clearFeatures();
@@ -270,6 +379,11 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     /** {@inheritDoc} */
     @Override
     public boolean existGroup(String groupName) {
+        Util.assertHasLength(groupName);
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        if (snapshot != null) {
+            return snapshot.existGroup(groupName);
+        }
         // Cache cannot help you
         return getTargetFeatureStore().existGroup(groupName);
     }
@@ -277,6 +391,11 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readGroup(String groupName) {
+        Util.assertHasLength(groupName);
+        FeatureStoreSnapshot snapshot = featureSnapshot;
+        if (snapshot != null) {
+            return snapshot.readGroup(groupName);
+        }
         // Cache cannot help you
         return getTargetFeatureStore().readGroup(groupName);
     }
@@ -285,6 +404,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     @Override
     public void addToGroup(String featureId, String groupName) {
         getTargetFeatureStore().addToGroup(featureId, groupName);
+        invalidateFeatureSnapshot();
         try {
             getCacheManager().evictFeature(featureId);
         } catch(RuntimeException re) {
@@ -296,6 +416,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     @Override
     public void removeFromGroup(String featureId, String groupName) {
         getTargetFeatureStore().removeFromGroup(featureId, groupName);
+        invalidateFeatureSnapshot();
         try {
             getCacheManager().evictFeature(featureId);
         } catch(RuntimeException re) {
@@ -404,23 +525,8 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
     /** {@inheritDoc} */
     @Override
     public Property<?> readProperty(String name) {
-        Property<?> p = null;
-        try {
-            p = getCacheManager().getProperty(name);
-        } catch(RuntimeException re) {
-            getCacheManager().onException(re);
-        }
-        
-        // not in cache but may has been created from now
-        if (null == p) {
-            p = getTargetPropertyStore().readProperty(name);
-            try {
-                getCacheManager().putProperty(p);
-            } catch(RuntimeException re) {
-                getCacheManager().onException(re);
-            }
-        }
-        return p;
+        // not in cache but may has been created from now, cache errors do not impact main behaviour
+        return getCacheManager().getProperty(name, propertyLoader);
     }
     
     /** {@inheritDoc} */
@@ -516,6 +622,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
         getTargetPropertyStore().clear();
         // Cache Operations : As modification, flush cache for this
         getTargetFeatureStore().clear();
+        invalidateFeatureSnapshot();
     }
     
     /** {@inheritDoc} */
@@ -536,6 +643,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
             getCacheManager().onException(re);
         }
         getTargetFeatureStore().importFeatures(features);
+        invalidateFeatureSnapshot();
     }
 
     /**
@@ -546,6 +654,7 @@ public class FF4jCacheProxy implements FeatureStore, PropertyStore {
      */
     public void setTargetFeatureStore(FeatureStore targetFeatureStore) {
         this.targetFeatureStore = targetFeatureStore;
+        invalidateFeatureSnapshot();
     }
 
     /**
@@ -21,11 +21,23 @@ package org.ff4j.cache;
  */
 
 
+
 import static org.ff4j.cache.InMemoryCacheEntry.DEFAULT_TTL;
+import static org.ff4j.cache.InMemoryCacheEntry.TO_MILLIS;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 import org.ff4j.core.Feature;
 import org.ff4j.property.Property;
@@ -33,6 +45,10 @@ import org.ff4j.property.Property;
 /**
  * Proposition of inmemory cache implementation.
  * 
+ * Thread-safe and bounded: entries expire after write (time-to-live), the oldest written entries are evicted when the
+ * maximum size is reached. When a loader is provided a missing key is loaded once for all concurrent readers and,
+ * if refresh-after-write is set, an old entry is served while a single background refresh runs.
+ * 
  * Warn : DO NOT USE THIS CACHE WHEN WORKING WITH EXTERNAL FEATURESTORE (as Database) and cluster application : EACH NODE GOT ITS
  * MEMORY AND AN MODIFICATION IN STORE WON'T REFRESH THIS CACHE. Please use REDIS/MEMCACHED implementations.
  * 
@@ -42,23 +58,76 @@ public class InMemoryCacheManager implements FF4JCacheManager {
 
     /** cache name if several caches within memory. */
     public static final String DEFAULT_CACHENAME = "ff4j-cache";
+    
+    /** Default maximum number of entries (per cache). */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
 
     /** Cached Feature Map */
-    private final Map<String, InMemoryCacheEntry<Feature>> featuresCache = 
-            new WeakHashMap<String, InMemoryCacheEntry<Feature>>();
+    private final CacheRegion<Feature> featuresCache;
     
     /** Cached Property Map */
-    private final Map<String, InMemoryCacheEntry<Property<?>>> propertyCache = 
-            new WeakHashMap<String, InMemoryCacheEntry<Property<?>>>();
+    private final CacheRegion<Property<?>> propertyCache;
 
+    /** Time to live in seconds. */
     private final long timeToLive;
+    
+    /** Refresh after write in seconds, 0 means disabled. */
+    private final long refreshAfterWrite;
 
+    /**
+     * Default constructor.
+     */
     public InMemoryCacheManager() {
         this(DEFAULT_TTL);
     }
 
+    /**
+     * Parameterized constructor.
+     *
+     * @param timeToLive
+     *      time to live in seconds
+     */
     public InMemoryCacheManager(long timeToLive) {
-        this.timeToLive = timeToLive;
+        this(timeToLive, 0, DEFAULT_MAXIMUM_SIZE);
+    }
+    
+    /**
+     * Parameterized constructor.
+     *
+     * @param timeToLive
+     *      time to live (expire after write) in seconds
+     * @param refreshAfterWrite
+     *      age in seconds after which a read triggers a background refresh, 0 to disable
+     * @param maximumSize
+     *      maximum number of features and properties kept (each)
+     */
+    public InMemoryCacheManager(long timeToLive, long refreshAfterWrite, int maximumSize) {
+        this(timeToLive, refreshAfterWrite, maximumSize, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Parameterized constructor.
+     *
+     * @param timeToLive
+     *      time to live (expire after write) in seconds
+     * @param refreshAfterWrite
+     *      age in seconds after which a read triggers a background refresh, 0 to disable
+     * @param maximumSize
+     *      maximum number of features and properties kept (each)
+     * @param refreshExecutor
+     *      executor running background refreshes
+     */
+    public InMemoryCacheManager(long timeToLive, long refreshAfterWrite, int maximumSize, Executor refreshExecutor) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("ff4j-core: Cache maximum size must be positive");
+        }
+        if (refreshExecutor == null) {
+            throw new IllegalArgumentException("ff4j-core: Refresh executor cannot be null");
+        }
+        this.timeToLive        = timeToLive;
+        this.refreshAfterWrite = refreshAfterWrite;
+        this.featuresCache     = new CacheRegion<>(this, maximumSize, refreshExecutor);
+        this.propertyCache     = new CacheRegion<>(this, maximumSize, refreshExecutor);
     }
        
     /** {@inheritDoc} */
@@ -70,34 +139,34 @@ public class InMemoryCacheManager implements FF4JCacheManager {
     /** {@inheritDoc} */
     @Override
     public Set<String> listCachedFeatureNames() {
-        return featuresCache.keySet();
+        return featuresCache.entries.keySet();
     }
 
     /** {@inheritDoc} */
     @Override
     public void clearFeatures() {
-        getFeaturesCache().clear();
+        featuresCache.clear();
     }
 
     /** {@inheritDoc} */
     @Override
     public void clearProperties() {
-        getPropertyCache().clear();
+        propertyCache.clear();
     }
 
     /** {@inheritDoc} */
     @Override
     public void evictFeature(String featureId) {
-        if (getFeaturesCache().containsKey(featureId)) {
-            getFeaturesCache().remove(featureId);
+        if (featureId != null) {
+            featuresCache.evict(featureId);
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public void evictProperty(String propertyName) {
-        if (getPropertyCache().containsKey(propertyName)) {
-            getPropertyCache().remove(propertyName);
+        if (propertyName != null) {
+            propertyCache.evict(propertyName);
         }
     }
 
@@ -115,7 +184,7 @@ public class InMemoryCacheManager implements FF4JCacheManager {
         if (feat.getUid() == null || feat.getUid().isEmpty()) {
             throw new IllegalArgumentException("ff4j-core: Cannot insert feature with null identifier into cache");
         }
-        getFeaturesCache().put(feat.getUid(), new InMemoryCacheEntry<Feature>(feat, timeToLive));
+        featuresCache.write(feat.getUid(), new InMemoryCacheEntry<Feature>(feat, timeToLive));
     }
 
     /** {@inheritDoc} */
@@ -132,43 +201,37 @@ public class InMemoryCacheManager implements FF4JCacheManager {
         if (prop.getName() == null || prop.getName().isEmpty()) {
             throw new IllegalArgumentException("ff4j-core: Cannot insert property with null identifier into cache");
         }
-        getPropertyCache().put(prop.getName(), new InMemoryCacheEntry<Property<?>>(prop, timeToLive));
+        propertyCache.write(prop.getName(), new InMemoryCacheEntry<Property<?>>(prop, timeToLive));
     }
 
     /** {@inheritDoc} */
     @Override
     public Feature getFeature(String featureId) {
-        InMemoryCacheEntry<Feature> cacheEntry = getFeaturesCache().get(featureId);
-        if (cacheEntry != null) {
-            if (cacheEntry.hasReachTimeToLive()) {
-                evictFeature(featureId);
-            } else {
-                // return cached value
-                return cacheEntry.getEntry();
-            }
-        }
-        return null;
+        return featuresCache.get(featureId, null);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Feature getFeature(String featureId, Function<String, Feature> loader) {
+        return featuresCache.get(featureId, loader);
     }
 
     /** {@inheritDoc} */
     @Override
     public Property<?> getProperty(String pName) {
-        InMemoryCacheEntry<Property<?>> cacheEntry = getPropertyCache().get(pName);
-        if (cacheEntry != null) {
-            if (cacheEntry.hasReachTimeToLive()) {
-                evictProperty(pName);
-            } else {
-                // return cached value
-                return cacheEntry.getEntry();
-            }
-        }
-        return null;
+        return propertyCache.get(pName, null);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Property<?> getProperty(String pName, Function<String, Property<?>> loader) {
+        return propertyCache.get(pName, loader);
     }
 
     /** {@inheritDoc} */
     @Override
     public Set<String> listCachedPropertyNames() {
-        return propertyCache.keySet();
+        return propertyCache.entries.keySet();
     }
 
     /** {@inheritDoc} */
@@ -182,6 +245,26 @@ public class InMemoryCacheManager implements FF4JCacheManager {
     public Object getPropertyNativeCache() {
         return getPropertyCache();
     }
+    
+    /**
+     * Statistics of the features cache.
+     *
+     * @return
+     *       current statistics
+     */
+    public InMemoryCacheStats getFeatureStats() {
+        return featuresCache.stats();
+    }
+    
+    /**
+     * Statistics of the properties cache.
+     *
+     * @return
+     *       current statistics
+     */
+    public InMemoryCacheStats getPropertyStats() {
+        return propertyCache.stats();
+    }
 
     /**
      * Getter accessor for attribute 'featuresCache'.
@@ -190,7 +273,7 @@ public class InMemoryCacheManager implements FF4JCacheManager {
      *       current value of 'featuresCache'
      */
     public Map<String, InMemoryCacheEntry<Feature>> getFeaturesCache() {
-        return featuresCache;
+        return featuresCache.entries;
     }
 
     /**
@@ -200,7 +283,275 @@ public class InMemoryCacheManager implements FF4JCacheManager {
      *       current value of 'propertyCache'
      */
     public Map<String, InMemoryCacheEntry<Property<?>>> getPropertyCache() {
-        return propertyCache;
-    }   
+        return propertyCache.entries;
+    }
+    
+    /**
+     * Getter accessor for attribute 'timeToLive'.
+     *
+     * @return
+     *       current value of 'timeToLive'
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+    
+    /**
+     * Getter accessor for attribute 'refreshAfterWrite'.
+     *
+     * @return
+     *       current value of 'refreshAfterWrite'
+     */
+    public long getRefreshAfterWrite() {
+        return refreshAfterWrite;
+    }
+    
+    /**
+     * Entries of one type (features or properties) with loading, eviction and statistics.
+     *
+     * @param <V>
+     *      cached value
+     */
+    private static final class CacheRegion<V> {
+        
+        /** Owner, for settings and error handling. */
+        private final InMemoryCacheManager owner;
+        
+        /** Cached values. */
+        private final ConcurrentHashMap<String, InMemoryCacheEntry<V>> entries = new ConcurrentHashMap<>();
+        
+        /** Loads or refreshes in progress, at most one per key. Removed on evict so that a late load is not stored. */
+        private final ConcurrentHashMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+        
+        /** Entries in write order, can contain replaced or removed entries. */
+        private final ConcurrentLinkedQueue<Map.Entry<String, InMemoryCacheEntry<V>>> writeOrder = new ConcurrentLinkedQueue<>();
+        
+        /** Size of the write order queue (size() is linear on the queue). */
+        private final AtomicInteger writeOrderSize = new AtomicInteger();
+        
+        /** A thread is removing stale items from the write order. */
+        private final AtomicBoolean compacting = new AtomicBoolean();
+        
+        /** Maximum number of entries. */
+        private final int maximumSize;
+        
+        /** Run refreshes. */
+        private final Executor refreshExecutor;
+        
+        /** Statistics. */
+        private final LongAdder hitCount = new LongAdder();
+        private final LongAdder missCount = new LongAdder();
+        private final LongAdder loadSuccessCount = new LongAdder();
+        private final LongAdder loadFailureCount = new LongAdder();
+        private final LongAdder totalLoadTime = new LongAdder();
+        private final LongAdder refreshCount = new LongAdder();
+        private final LongAdder evictionCount = new LongAdder();
+        
+        private CacheRegion(InMemoryCacheManager owner, int maximumSize, Executor refreshExecutor) {
+            this.owner           = owner;
+            this.maximumSize     = maximumSize;
+            this.refreshExecutor = refreshExecutor;
+        }
+        
+        /**
+         * Read a value, load it if missing and a loader is provided.
+         */
+        private V get(String key, Function<String, V> loader) {
+            if (key == null) {
+                // Not cacheable, let the store validate
+                return (loader == null) ? null : loader.apply(key);
+            }
+            InMemoryCacheEntry<V> cacheEntry = entries.get(key);
+            if (cacheEntry != null) {
+                if (!cacheEntry.hasReachTimeToLive()) {
+                    hitCount.increment();
+                    if (loader != null && owner.refreshAfterWrite > 0 && 
+                            System.currentTimeMillis() - cacheEntry.getInsertedDate() >= owner.refreshAfterWrite * TO_MILLIS) {
+                        refresh(key, loader, cacheEntry);
+                    }
+                    return cacheEntry.getEntry();
+                }
+                entries.remove(key, cacheEntry);
+            }
+            missCount.increment();
+            return (loader == null) ? null : load(key, loader);
+        }
+        
+        /**
+         * Single flight loading: first thread loads, others wait for its result.
+         */
+        private V load(String key, Function<String, V> loader) {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+            if (running != null) {
+                return await(running);
+            }
+            try {
+                // Loaded by another thread in between
+                InMemoryCacheEntry<V> cacheEntry = entries.get(key);
+                if (cacheEntry != null && !cacheEntry.hasReachTimeToLive()) {
+                    future.complete(cacheEntry.getEntry());
+                    return cacheEntry.getEntry();
+                }
+                V value = loadAndPut(key, loader, future, null);
+                future.complete(value);
+                return value;
+            } catch(RuntimeException re) {
+                future.completeExceptionally(re);
+                throw re;
+            } finally {
+                inFlight.remove(key, future);
+            }
+        }
+        
+        /**
+         * Background refresh, current value is served until replaced. Skipped if a load is in progress.
+         */
+        private void refresh(String key, Function<String, V> loader, InMemoryCacheEntry<V> current) {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(key, future) != null) {
+                return;
+            }
+            refreshCount.increment();
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        future.complete(loadAndPut(key, loader, future, current));
+                    } catch(RuntimeException re) {
+                        // Keep the stale value, it expires with its time-to-live
+                        future.completeExceptionally(re);
+                        owner.onException(re);
+                    } finally {
+                        inFlight.remove(key, future);
+                    }
+                });
+            } catch(RuntimeException rejected) {
+                inFlight.remove(key, future);
+                owner.onException(rejected);
+            }
+        }
+        
+        /**
+         * Invoke loader and cache the result, the value is not stored if the entry has been evicted or updated in
+         * between (the loaded value could be older).
+         */
+        private V loadAndPut(String key, Function<String, V> loader, CompletableFuture<V> future, InMemoryCacheEntry<V> refreshed) {
+            long start = System.nanoTime();
+            V value;
+            try {
+                value = loader.apply(key);
+            } catch(RuntimeException re) {
+                loadFailureCount.increment();
+                totalLoadTime.add(System.nanoTime() - start);
+                throw re;
+            }
+            loadSuccessCount.increment();
+            totalLoadTime.add(System.nanoTime() - start);
+            if (value != null) {
+                InMemoryCacheEntry<V> cacheEntry = new InMemoryCacheEntry<V>(value, owner.timeToLive);
+                if (refreshed == null) {
+                    // Atomic with evict and write, which unregister the load before changing the entry
+                    inFlight.computeIfPresent(key, (k, running) -> {
+                        if (running == future) {
+                            put(k, cacheEntry);
+                        }
+                        return running;
+                    });
+                } else if (entries.replace(key, refreshed, cacheEntry)) {
+                    track(key, cacheEntry);
+                }
+            }
+            return value;
+        }
+        
+        /**
+         * Wait for the load of another thread.
+         */
+        private V await(CompletableFuture<V> running) {
+            try {
+                return running.join();
+            } catch(CompletionException ce) {
+                if (ce.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ce.getCause();
+                }
+                throw ce;
+            }
+        }
+        
+        /**
+         * Insert value given by caller, a load in progress for this key is not stored anymore.
+         */
+        private void write(String key, InMemoryCacheEntry<V> cacheEntry) {
+            inFlight.remove(key);
+            put(key, cacheEntry);
+        }
+        
+        /**
+         * Remove value, a load in progress for this key is not stored anymore.
+         */
+        private void evict(String key) {
+            inFlight.remove(key);
+            entries.remove(key);
+        }
+        
+        /**
+         * Insert value.
+         */
+        private void put(String key, InMemoryCacheEntry<V> cacheEntry) {
+            entries.put(key, cacheEntry);
+            track(key, cacheEntry);
+        }
+        
+        /**
+         * Record write order and evict the oldest written entries above maximum size.
+         */
+        private void track(String key, InMemoryCacheEntry<V> cacheEntry) {
+            writeOrder.offer(new SimpleImmutableEntry<>(key, cacheEntry));
+            int queued = writeOrderSize.incrementAndGet();
+            while (entries.size() > maximumSize) {
+                Map.Entry<String, InMemoryCacheEntry<V>> oldest = writeOrder.poll();
+                if (oldest == null) {
+                    break;
+                }
+                writeOrderSize.decrementAndGet();
+                if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                    evictionCount.increment();
+                }
+            }
+            // Replaced values stay in the queue, purge them from time to time
+            if (queued > 2 * maximumSize && compacting.compareAndSet(false, true)) {
+                try {
+                    writeOrder.removeIf(item -> {
+                        boolean stale = entries.get(item.getKey()) != item.getValue();
+                        if (stale) {
+                            writeOrderSize.decrementAndGet();
+                        }
+                        return stale;
+                    });
+                } finally {
+                    compacting.set(false);
+                }
+            }
+        }
+        
+        /**
+         * Remove all entries.
+         */
+        private void clear() {
+            inFlight.clear();
+            entries.clear();
+            writeOrder.clear();
+            writeOrderSize.set(0);
+        }
+        
+        /**
+         * Copy of counters.
+         */
+        private InMemoryCacheStats stats() {
+            return new InMemoryCacheStats(hitCount.sum(), missCount.sum(), 
+                    loadSuccessCount.sum(), loadFailureCount.sum(), totalLoadTime.sum(), 
+                    refreshCount.sum(), evictionCount.sum());
+        }
+    }
 
 }
@@ -0,0 +1,179 @@
+package org.ff4j.cache;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+
+/**
+ * Statistics of {@link InMemoryCacheManager} (features or properties) at a given time.
+ */
+public final class InMemoryCacheStats implements Serializable {
+
+    /** serial. */
+    private static final long serialVersionUID = 4107467358063419215L;
+
+    /** Value found in cache. */
+    private final long hitCount;
+
+    /** Value not found in cache (or expired). */
+    private final long missCount;
+
+    /** Successful loads from the store. */
+    private final long loadSuccessCount;
+
+    /** Failed loads from the store. */
+    private final long loadFailureCount;
+
+    /** Total time spent loading, in nanoseconds. */
+    private final long totalLoadTime;
+
+    /** Background refresh triggered. */
+    private final long refreshCount;
+
+    /** Entries evicted because of the size bound. */
+    private final long evictionCount;
+
+    /**
+     * Parameterized constructor.
+     */
+    public InMemoryCacheStats(long hitCount, long missCount, long loadSuccessCount, 
+            long loadFailureCount, long totalLoadTime, long refreshCount, long evictionCount) {
+        this.hitCount         = hitCount;
+        this.missCount        = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime    = totalLoadTime;
+        this.refreshCount     = refreshCount;
+        this.evictionCount    = evictionCount;
+    }
+
+    /**
+     * Number of read (hits and misses).
+     *
+     * @return
+     *      number of requests
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Ratio of requests served from the cache, 1 if no request.
+     *
+     * @return
+     *      hit rate
+     */
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        return (requestCount == 0) ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Average time spent loading a value, in nanoseconds.
+     *
+     * @return
+     *      average load time
+     */
+    public double getAverageLoadPenalty() {
+        long loadCount = loadSuccessCount + loadFailureCount;
+        return (loadCount == 0) ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'hitCount'.
+     *
+     * @return
+     *       current value of 'hitCount'
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'missCount'.
+     *
+     * @return
+     *       current value of 'missCount'
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'loadSuccessCount'.
+     *
+     * @return
+     *       current value of 'loadSuccessCount'
+     */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'loadFailureCount'.
+     *
+     * @return
+     *       current value of 'loadFailureCount'
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'totalLoadTime'.
+     *
+     * @return
+     *       current value of 'totalLoadTime'
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * Getter accessor for attribute 'refreshCount'.
+     *
+     * @return
+     *       current value of 'refreshCount'
+     */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'evictionCount'.
+     *
+     * @return
+     *       current value of 'evictionCount'
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "{\"hitCount\":" + hitCount + ",\"missCount\":" + missCount 
+                + ",\"hitRate\":" + getHitRate() 
+                + ",\"loadSuccessCount\":" + loadSuccessCount + ",\"loadFailureCount\":" + loadFailureCount 
+                + ",\"averageLoadPenalty\":" + getAverageLoadPenalty() 
+                + ",\"refreshCount\":" + refreshCount + ",\"evictionCount\":" + evictionCount + "}";
+    }
+}
@@ -22,6 +22,7 @@ package org.ff4j.cache;
 
 import java.io.Serializable;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -30,7 +31,10 @@ import org.ff4j.core.FeatureStore;
 import org.ff4j.property.store.PropertyStore;
 
 /**
- * Poll target stores on a fixed delay basis and fill cache to avoid reaching TTL of key.
+ * Poll target stores and fill cache to avoid reaching TTL of key.
+ * 
+ * While the stores do not change the delay between two polls is doubled, up to the maximum polling delay, and it is
+ * reset to the polling delay as soon as a change is detected.
  * 
  * @author Cedrick LUNVEN (@clunven)
  */
@@ -45,8 +49,14 @@ public class Store2CachePollingScheduler implements Serializable{
     /** initial delay at start. */
     private long initialDelay = 0;
     
+    /** Maximum delay when stores are idle, the polling delay if lower. */
+    private long maxPollingDelay = 60000;
+    
+    /** delay before next poll. */
+    private volatile long currentDelay;
+    
     /** Scheduler for the worker. */
-    private ScheduledExecutorService executor;
+    private volatile ScheduledExecutorService executor;
     
     /** Current runnable. */
     private Store2CachePollingWorker worker;
@@ -62,7 +72,23 @@ public class Store2CachePollingScheduler implements Serializable{
      *      current cache manager
      */
     public Store2CachePollingScheduler(FeatureStore sf, PropertyStore sp, FF4JCacheManager cp) {
-        worker = new Store2CachePollingWorker(sf, sp, cp);
+        this(sf, sp, cp, null);
+    }
+    
+    /**
+     * Parameterized constructor.
+     *
+     * @param sf
+     *      source feature store
+     * @param sp
+     *      source property store
+     * @param cp
+     *      current cache manager
+     * @param fcp
+     *      cache proxy receiving complete snapshots of features (optional)
+     */
+    public Store2CachePollingScheduler(FeatureStore sf, PropertyStore sp, FF4JCacheManager cp, FF4jCacheProxy fcp) {
+        worker = new Store2CachePollingWorker(sf, sp, cp, fcp);
         executor = Executors.newScheduledThreadPool(1, new ThreadFactory() {
             @Override
             public Thread newThread(Runnable r) {
@@ -102,7 +128,32 @@ public class Store2CachePollingScheduler implements Serializable{
      * Start polling.
      */
     public void start() {
-        executor.scheduleWithFixedDelay(worker, initialDelay, pollingDelay, TimeUnit.MILLISECONDS);
+        currentDelay = pollingDelay;
+        executor.schedule(this::pollAndReschedule, initialDelay, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Poll stores, then schedule next poll with a longer delay if nothing changed.
+     */
+    private void pollAndReschedule() {
+        try {
+            if (worker.poll()) {
+                currentDelay = pollingDelay;
+            } else {
+                currentDelay = Math.max(pollingDelay, Math.min(currentDelay * 2, maxPollingDelay));
+            }
+        } catch (Exception ex) {
+            // Work in background (worker) failed 'silently', retry with same delay
+            ex.printStackTrace();
+        }
+        ScheduledExecutorService scheduler = executor;
+        if (scheduler != null && !scheduler.isShutdown()) {
+            try {
+                scheduler.schedule(this::pollAndReschedule, currentDelay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException stopped) {
+                // stopped in between
+            }
+        }
     }
     
     /** Stop Polling. */
@@ -132,6 +183,35 @@ public class Store2CachePollingScheduler implements Serializable{
         this.pollingDelay = pollingDelay;
     }
 
+    /**
+     * Getter accessor for attribute 'maxPollingDelay'.
+     *
+     * @return
+     *       current value of 'maxPollingDelay'
+     */
+    public long getMaxPollingDelay() {
+        return maxPollingDelay;
+    }
+
+    /**
+     * Setter accessor for attribute 'maxPollingDelay', use polling delay to disable the backoff.
+     * @param maxPollingDelay
+     * 		new value for 'maxPollingDelay '
+     */
+    public void setMaxPollingDelay(long maxPollingDelay) {
+        this.maxPollingDelay = maxPollingDelay;
+    }
+    
+    /**
+     * Getter accessor for attribute 'currentDelay'.
+     *
+     * @return
+     *       delay before next poll
+     */
+    public long getCurrentDelay() {
+        return currentDelay;
+    }
+
     /**
      * Getter accessor for attribute 'initialDelay'.
      *
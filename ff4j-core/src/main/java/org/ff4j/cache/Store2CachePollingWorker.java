@@ -20,16 +20,26 @@ package org.ff4j.cache;
  * #L%
  */
 
+
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 
+import org.ff4j.audit.proxy.FeatureStoreAuditProxy;
+import org.ff4j.audit.proxy.PropertyStoreAuditProxy;
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.property.Property;
 import org.ff4j.property.store.PropertyStore;
+import org.ff4j.store.FeatureStoreSnapshot;
+import org.ff4j.store.VersionedStore;
 
 /**
  * Working thread to poll and fetch data from store and copy to local cache.
+ * 
+ * Polling is incremental: if the store is a {@link VersionedStore} and its version did not change the store is not read
+ * at all, otherwise content is compared with previous poll and only new, updated or deleted items are written to cache.
  *
  * @author Cedrick LUNVEN (@clunven)
  */
@@ -44,12 +54,30 @@ public class Store2CachePollingWorker implements Runnable, Serializable {
     /** Property store. */
     private PropertyStore sourcePropertyStore;
     
-    /** Target feature store to be proxified to cache features. */
+    /** Target cache when there is no proxy, otherwise the current cache manager of the proxy is used. */
     private FF4JCacheManager cacheManager;
 
     /** Cache proxy. */
     private FF4jCacheProxy ff4JCacheProxy;
     
+    /** Version of feature store at last poll, null if unknown. */
+    private Long featureStoreVersion;
+    
+    /** Version of property store at last poll, null if unknown. */
+    private Long propertyStoreVersion;
+    
+    /** Features (as json) at last poll, null before first poll. */
+    private Map<String, String> lastFeatures;
+    
+    /** Properties (as json) at last poll, null before first poll. */
+    private Map<String, String> lastProperties;
+    
+    /** Features at last poll, given to the proxy. */
+    private transient FeatureStoreSnapshot lastSnapshot;
+    
+    /** Cache filled at last poll, a new one is filled entirely. */
+    private transient FF4JCacheManager lastCacheManager;
+    
     /**
      * Parameterized constructor.
      *
@@ -61,9 +89,26 @@ public class Store2CachePollingWorker implements Runnable, Serializable {
      *      target cache
      */
     public Store2CachePollingWorker(FeatureStore sf, PropertyStore sp, FF4JCacheManager cp) {
+        this(sf, sp, cp, null);
+    }
+    
+    /**
+     * Parameterized constructor.
+     *
+     * @param sf
+     *      source feature store
+     * @param sp
+     *      source property store
+     * @param cp
+     *      target cache, ignored when a proxy is given (its current cache manager is used)
+     * @param fcp
+     *      cache proxy receiving complete snapshots of features (optional)
+     */
+    public Store2CachePollingWorker(FeatureStore sf, PropertyStore sp, FF4JCacheManager cp, FF4jCacheProxy fcp) {
         this.sourceFeatureStore  = sf;
         this.sourcePropertyStore = sp;
         this.cacheManager        = cp;
+        this.ff4JCacheProxy      = fcp;
     }
 
     /**
@@ -73,53 +118,151 @@ public class Store2CachePollingWorker implements Runnable, Serializable {
      *      cache proxy
      */
     public Store2CachePollingWorker(FF4jCacheProxy fcp) {
-        this(fcp.getTargetFeatureStore(),fcp.getTargetPropertyStore(),null);
-        this.ff4JCacheProxy      = fcp;
+        this(fcp.getTargetFeatureStore(), fcp.getTargetPropertyStore(), null, fcp);
     }
 
     
     /** {@inheritDoc} */
     @Override
     public void run() {
-
         try {
-            FF4JCacheManager cacheManager;
-            if (ff4JCacheProxy!=null) {
-                cacheManager = new InMemoryCacheManager();
-            } else {
-                cacheManager = this.cacheManager;
+            poll();
+        } catch (Exception ex) {
+            // Work in background (worker) failed 'silently'
+            ex.printStackTrace();
+        }
+    }
+    
+    /**
+     * Synchronize cache with the stores.
+     *
+     * @return
+     *      if a modification has been detected in the stores
+     */
+    public synchronized boolean poll() {
+        // Cache manager of the proxy can be replaced after the worker has been created
+        FF4JCacheManager cacheManager = (ff4JCacheProxy != null) ? ff4JCacheProxy.getCacheManager() : this.cacheManager;
+        if (cacheManager != lastCacheManager) {
+            featureStoreVersion  = null;
+            propertyStoreVersion = null;
+            lastFeatures         = null;
+            lastProperties       = null;
+            lastCacheManager     = cacheManager;
+        }
+        boolean changed = false;
+        if (sourceFeatureStore != null) {
+            changed = pollFeatures(cacheManager);
+        }
+        if (sourcePropertyStore != null) {
+            changed = pollProperties(cacheManager) || changed;
+        }
+        return changed;
+    }
+    
+    /**
+     * Copy modified features to cache.
+     *
+     * @param cacheManager
+     *      target cache
+     * @return
+     *      if features changed since last poll
+     */
+    private boolean pollFeatures(FF4JCacheManager cacheManager) {
+        // Read writes count then version before content, a write in between is caught at next poll
+        long writeCount = (ff4JCacheProxy != null) ? ff4JCacheProxy.getFeatureWriteCount() : 0;
+        Long version = getVersion(sourceFeatureStore);
+        if (version != null && version.equals(featureStoreVersion)) {
+            // Unchanged, proxy snapshot may have been discarded by a write not modifying content
+            if (ff4JCacheProxy != null && lastSnapshot != null && ff4JCacheProxy.getFeatureSnapshot() == null) {
+                ff4JCacheProxy.publishFeatureSnapshot(lastSnapshot, writeCount);
             }
-
-            if (sourceFeatureStore != null) {
-                // Access the store, if failed an error is raised and cache is not cleared.
-                Map < String, Feature > mapOfFeatures = sourceFeatureStore.readAll();
-                // Clear cache
-                cacheManager.clearFeatures();
-                // Fill Cache
-                for (Feature f : mapOfFeatures.values()) {
-                    cacheManager.putFeature(f);
-                }
+            return false;
+        }
+        // Access the store, if failed an error is raised and cache is not modified.
+        Map < String, Feature > mapOfFeatures = sourceFeatureStore.readAll();
+        Map < String, String > currentFeatures = new HashMap<>();
+        boolean changed = (lastFeatures == null);
+        for (Feature f : mapOfFeatures.values()) {
+            String json = f.toJson();
+            currentFeatures.put(f.getUid(), json);
+            boolean modified = (lastFeatures == null) || !json.equals(lastFeatures.get(f.getUid()));
+            // Also put values expired from cache since last poll
+            if (modified || cacheManager.getFeature(f.getUid()) == null) {
+                cacheManager.putFeature(f);
             }
-            
-            if (sourcePropertyStore != null) {
-                // Access the store, if failed an error is raised and cache is not cleared.
-                Map < String, Property<?> > mapOfProperties = sourcePropertyStore.readAllProperties();
-                // Clear cache
-                cacheManager.clearProperties();
-                // Fill Cache
-                for (Property<?> p : mapOfProperties.values()) {
-                    cacheManager.putProperty(p);
-                }
+            changed = changed || modified;
+        }
+        // Deleted features, at first poll anything not in the store
+        for (String uid : new ArrayList<>((lastFeatures == null) ? 
+                cacheManager.listCachedFeatureNames() : lastFeatures.keySet())) {
+            if (!currentFeatures.containsKey(uid)) {
+                cacheManager.evictFeature(uid);
+                changed = true;
             }
-
-            if (ff4JCacheProxy!=null) {
-                ff4JCacheProxy.setCacheManager(cacheManager);
+        }
+        lastFeatures        = currentFeatures;
+        featureStoreVersion = version;
+        if (ff4JCacheProxy != null && (changed || lastSnapshot == null || ff4JCacheProxy.getFeatureSnapshot() == null)) {
+            lastSnapshot = new FeatureStoreSnapshot(mapOfFeatures);
+            ff4JCacheProxy.publishFeatureSnapshot(lastSnapshot, writeCount);
+        }
+        return changed;
+    }
+    
+    /**
+     * Copy modified properties to cache.
+     *
+     * @param cacheManager
+     *      target cache
+     * @return
+     *      if properties changed since last poll
+     */
+    private boolean pollProperties(FF4JCacheManager cacheManager) {
+        Long version = getVersion(sourcePropertyStore);
+        if (version != null && version.equals(propertyStoreVersion)) {
+            return false;
+        }
+        // Access the store, if failed an error is raised and cache is not modified.
+        Map < String, Property<?> > mapOfProperties = sourcePropertyStore.readAllProperties();
+        Map < String, String > currentProperties = new HashMap<>();
+        boolean changed = (lastProperties == null);
+        for (Property<?> p : mapOfProperties.values()) {
+            String json = p.toJson();
+            currentProperties.put(p.getName(), json);
+            boolean modified = (lastProperties == null) || !json.equals(lastProperties.get(p.getName()));
+            if (modified || cacheManager.getProperty(p.getName()) == null) {
+                cacheManager.putProperty(p);
             }
-            
-        } catch (Exception ex) {
-            // Work in background (worker) failed 'silently'
-            ex.printStackTrace();
+            changed = changed || modified;
+        }
+        for (String name : new ArrayList<>((lastProperties == null) ? 
+                cacheManager.listCachedPropertyNames() : lastProperties.keySet())) {
+            if (!currentProperties.containsKey(name)) {
+                cacheManager.evictProperty(name);
+                changed = true;
+            }
+        }
+        lastProperties       = currentProperties;
+        propertyStoreVersion = version;
+        return changed;
+    }
+    
+    /**
+     * Read change token if the store (behind audit proxy if any) provides one.
+     *
+     * @param store
+     *      target store
+     * @return
+     *      version or null if not supported
+     */
+    private static Long getVersion(Object store) {
+        Object target = store;
+        if (target instanceof FeatureStoreAuditProxy) {
+            target = ((FeatureStoreAuditProxy) target).getTarget();
+        } else if (target instanceof PropertyStoreAuditProxy) {
+            target = ((PropertyStoreAuditProxy) target).getTarget();
         }
+        return (target instanceof VersionedStore) ? ((VersionedStore) target).getVersion() : null;
     }
 
 }
@@ -0,0 +1,121 @@
+package org.ff4j.cache;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.ff4j.FF4j;
+
+/**
+ * Poll the feature store on a fixed delay basis and swap the {@link FF4j} feature snapshot, changes not performed
+ * through ff4j (other nodes, direct store access) become visible after at most one delay.
+ */
+public class Store2SnapshotPollingScheduler {
+    
+    /** polling delay. */
+    private long pollingDelay = 10000;
+    
+    /** initial delay at start. */
+    private long initialDelay = 0;
+    
+    /** Scheduler for the worker. */
+    private ScheduledExecutorService executor;
+    
+    /** Target ff4j instance. */
+    private final FF4j ff4j;
+    
+    /**
+     * Parameterized constructor.
+     *
+     * @param ff4j
+     *      ff4j instance working with a snapshot
+     */
+    public Store2SnapshotPollingScheduler(FF4j ff4j) {
+        this.ff4j = ff4j;
+        this.executor = Executors.newScheduledThreadPool(1, r -> {
+            Thread t = new Thread(r, "FF4j_Store2SnapshotPollingWorker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    
+    /**
+     * Start polling with the target delay (milliseconds).
+     */
+    public void start(long delay) {
+        this.pollingDelay = delay;
+        start();
+    }
+    
+    /**
+     * Start polling.
+     */
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                ff4j.refreshSnapshot();
+            } catch (RuntimeException ex) {
+                // Store unreachable, keep serving the previous snapshot
+                ex.printStackTrace();
+            }
+        }, initialDelay, pollingDelay, TimeUnit.MILLISECONDS);
+    }
+    
+    /** Stop Polling. */
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'pollingDelay'.
+     *
+     * @return
+     *       current value of 'pollingDelay'
+     */
+    public long getPollingDelay() {
+        return pollingDelay;
+    }
+
+    /**
+     * Getter accessor for attribute 'initialDelay'.
+     *
+     * @return
+     *       current value of 'initialDelay'
+     */
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+
+    /**
+     * Setter accessor for attribute 'initialDelay'.
+     * @param initialDelay
+     * 		new value for 'initialDelay '
+     */
+    public void setInitialDelay(long initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+    
+}
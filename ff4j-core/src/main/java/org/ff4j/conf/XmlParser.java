@@ -41,6 +41,7 @@ import org.ff4j.core.Feature;
 import org.ff4j.core.FlippingStrategy;
 import org.ff4j.property.Property;
 import org.ff4j.property.PropertyString;
+import org.ff4j.strategy.FlippingStrategyCache;
 import org.ff4j.utils.MappingUtil;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -444,11 +445,6 @@ public final class XmlParser implements FF4jConfigurationParser<XmlConfig>{
         try {
             // Attribute CLASS
             String clazzName = nnm.getNamedItem(FLIPSTRATEGY_ATTCLASS).getNodeValue();
-            Class<?> typeClass = Class.forName(clazzName);
-            if (!FlippingStrategy.class.isAssignableFrom(typeClass)) {
-                throw new IllegalArgumentException("Cannot create flipstrategy <" + clazzName + "> invalid type");
-            }
-            flipStrategy = (FlippingStrategy) typeClass.newInstance();
 
             // LIST OF PARAMS
             Map<String, String> parameters = new LinkedHashMap<String, String>();
@@ -477,7 +473,7 @@ public final class XmlParser implements FF4jConfigurationParser<XmlConfig>{
                 }
             }
 
-            flipStrategy.init(uid, parameters);
+            flipStrategy = FlippingStrategyCache.newInstance(uid, clazzName, parameters, null);
         } catch (Exception e) {
             throw new IllegalArgumentException("An error occurs during flipstrategy parsing TAG" + uid, e);
         }
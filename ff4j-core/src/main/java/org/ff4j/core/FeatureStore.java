@@ -21,10 +21,13 @@ package org.ff4j.core;
  */
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 
 import java.util.Map;
 import java.util.Set;
 
+import org.ff4j.exception.FeatureNotFoundException;
+
 /**
  * Repository to persist {@link Feature}(s)
  * 
@@ -78,6 +81,27 @@ public interface FeatureStore {
      */
     Map<String, Feature> readAll();
 
+    /**
+     * Read several features at once, stores should read them with as few calls as possible.
+     * 
+     * @param featureUids
+     *            unique feature identifiers
+     * @return features by uid, unknown identifiers are skipped
+     */
+    default Map<String, Feature> read(Collection<String> featureUids) {
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (String uid : featureUids) {
+            if (uid != null && !features.containsKey(uid)) {
+                try {
+                    features.put(uid, read(uid));
+                } catch (FeatureNotFoundException fnfe) {
+                    // Unknown features are skipped
+                }
+            }
+        }
+        return features;
+    }
+
     /**
      * Remove fliPoint from store.
      * 
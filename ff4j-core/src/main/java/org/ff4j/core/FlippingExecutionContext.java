@@ -20,20 +20,58 @@ package org.ff4j.core;
  * #L%
  */
 
+import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 
 /**
  * Pojo holding an execution context to perform {@link FlippingStrategy} evaluations.
+ * 
+ * Parameters are kept in a small open-addressing array map : keys are compared by reference first (constants are
+ * interned by the JVM) and int, long, double and boolean values are stored in primitive slots without boxing when
+ * set with the primitive methods. A context can be emptied with {@link #reset()} and reused for the next request.
  *
  * @author Cedrick Lunven (@clunven)
  */
 public class FlippingExecutionContext {
 
-    /** Current Parameter Map. */
-    private transient Map<String, Object> parameters = new HashMap<String, Object>();
+    /** Initial number of slots (power of 2). */
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /** Slot holds an object. */
+    private static final byte KIND_OBJECT = 0;
+
+    /** Slot holds an int. */
+    private static final byte KIND_INT = 1;
+
+    /** Slot holds a long. */
+    private static final byte KIND_LONG = 2;
+
+    /** Slot holds a double (raw bits). */
+    private static final byte KIND_DOUBLE = 3;
+
+    /** Slot holds a boolean. */
+    private static final byte KIND_BOOLEAN = 4;
+
+    /** Keys, null for empty slot. */
+    private String[] keys = new String[DEFAULT_CAPACITY];
+
+    /** Hash of keys. */
+    private int[] hashes = new int[DEFAULT_CAPACITY];
+
+    /** Kind of value in slot. */
+    private byte[] kinds = new byte[DEFAULT_CAPACITY];
+
+    /** Object values. */
+    private Object[] objects = new Object[DEFAULT_CAPACITY];
+
+    /** Primitive values. */
+    private long[] primitives = new long[DEFAULT_CAPACITY];
+
+    /** Number of parameters. */
+    private int size;
 
     /**
      * Default Constructor.
@@ -47,7 +85,11 @@ public class FlippingExecutionContext {
      *            initialisation for parameters.
      */
     public FlippingExecutionContext(Map<String, Object> init) {
-        this.parameters = init;
+        if (init != null) {
+            for (Map.Entry<String, Object> entry : init.entrySet()) {
+                addValue(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
     /**
@@ -57,7 +99,153 @@ public class FlippingExecutionContext {
      *            An existing execution context to copy.
      */
     public FlippingExecutionContext(FlippingExecutionContext executionContext) {
-        this.parameters.putAll(executionContext.parameters);
+        this.keys       = executionContext.keys.clone();
+        this.hashes     = executionContext.hashes.clone();
+        this.kinds      = executionContext.kinds.clone();
+        this.objects    = executionContext.objects.clone();
+        this.primitives = executionContext.primitives.clone();
+        this.size       = executionContext.size;
+    }
+
+    /**
+     * Spread hash of key.
+     *
+     * @param key
+     *            current key
+     * @return hash
+     */
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Slot of key, or empty slot where it should be inserted.
+     *
+     * @param key
+     *            current key
+     * @param hash
+     *            hash of key
+     * @return index of slot
+     */
+    private int slot(String key, int hash) {
+        int mask = keys.length - 1;
+        int idx  = hash & mask;
+        String current;
+        while ((current = keys[idx]) != null) {
+            if (current == key || (hashes[idx] == hash && current.equals(key))) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return idx;
+    }
+
+    /**
+     * Slot of existing key.
+     *
+     * @param key
+     *            current key
+     * @return index of slot or -1
+     */
+    private int indexOf(String key) {
+        if (key == null || size == 0) {
+            return -1;
+        }
+        int idx = slot(key, hash(key));
+        return keys[idx] == null ? -1 : idx;
+    }
+
+    /**
+     * Slot to write key, table grows when half full.
+     *
+     * @param key
+     *            current key
+     * @return index of slot
+     */
+    private int prepareWrite(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Parameter key cannot be null");
+        }
+        int hash = hash(key);
+        int idx  = slot(key, hash);
+        if (keys[idx] == null) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+                idx = slot(key, hash);
+            }
+            keys[idx]   = key;
+            hashes[idx] = hash;
+            size++;
+        }
+        return idx;
+    }
+
+    /**
+     * Double the number of slots.
+     */
+    private void resize() {
+        String[] oldKeys       = keys;
+        int[]    oldHashes     = hashes;
+        byte[]   oldKinds      = kinds;
+        Object[] oldObjects    = objects;
+        long[]   oldPrimitives = primitives;
+        int capacity = oldKeys.length * 2;
+        keys       = new String[capacity];
+        hashes     = new int[capacity];
+        kinds      = new byte[capacity];
+        objects    = new Object[capacity];
+        primitives = new long[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int idx = slot(oldKeys[i], oldHashes[i]);
+                keys[idx]       = oldKeys[i];
+                hashes[idx]     = oldHashes[i];
+                kinds[idx]      = oldKinds[i];
+                objects[idx]    = oldObjects[i];
+                primitives[idx] = oldPrimitives[i];
+            }
+        }
+    }
+
+    /**
+     * Value of slot, primitives are boxed.
+     *
+     * @param idx
+     *            index of slot
+     * @return value
+     */
+    private Object valueAt(int idx) {
+        switch (kinds[idx]) {
+            case KIND_INT:
+                return (int) primitives[idx];
+            case KIND_LONG:
+                return primitives[idx];
+            case KIND_DOUBLE:
+                return Double.longBitsToDouble(primitives[idx]);
+            case KIND_BOOLEAN:
+                return primitives[idx] != 0;
+            default:
+                return objects[idx];
+        }
+    }
+
+    /**
+     * Slot of a parameter, check presence if required.
+     *
+     * @param key
+     *            current key
+     * @param required
+     *            if value is required
+     * @return index of slot or -1
+     */
+    private int requiredIndexOf(String key, boolean required) {
+        int idx = indexOf(key);
+        if (idx < 0 && required) {
+            throw new IllegalArgumentException("Parameter '" + key
+                    + "' has not been found but it's required to evaluate strategy");
+        }
+        return idx;
     }
 
     /**
@@ -68,14 +256,8 @@ public class FlippingExecutionContext {
      * @return object if present in map
      */
     public Object getValue(String key, boolean required) {
-        if (!parameters.containsKey(key)) {
-            if (required) {
-                throw new IllegalArgumentException("Parameter '" + key
-                        + "' has not been found but it's required to evaluate strategy");
-            }
-            return null;
-        }
-        return parameters.get(key);
+        int idx = requiredIndexOf(key, required);
+        return idx < 0 ? null : valueAt(idx);
     }
 
     /**
@@ -86,7 +268,7 @@ public class FlippingExecutionContext {
      * @return if the parameter exist
      */
     public boolean containsKey(String key) {
-        return parameters.containsKey(key);
+        return indexOf(key) >= 0;
     }
 
     /**
@@ -98,7 +280,45 @@ public class FlippingExecutionContext {
      *            target value
      */
     public void addValue(String key, Object value) {
-        parameters.put(key, value);
+        int idx = prepareWrite(key);
+        kinds[idx]      = KIND_OBJECT;
+        objects[idx]    = value;
+        primitives[idx] = 0;
+    }
+
+    /**
+     * Store a primitive value.
+     *
+     * @param key
+     *            target key
+     * @param kind
+     *            kind of primitive
+     * @param value
+     *            value as long
+     */
+    private void addPrimitive(String key, byte kind, long value) {
+        int idx = prepareWrite(key);
+        kinds[idx]      = kind;
+        objects[idx]    = null;
+        primitives[idx] = value;
+    }
+
+    /**
+     * Remove all parameters, arrays are kept to reuse the context unless they have grown (back to initial size).
+     */
+    public void reset() {
+        if (keys.length > DEFAULT_CAPACITY) {
+            keys       = new String[DEFAULT_CAPACITY];
+            hashes     = new int[DEFAULT_CAPACITY];
+            kinds      = new byte[DEFAULT_CAPACITY];
+            objects    = new Object[DEFAULT_CAPACITY];
+            primitives = new long[DEFAULT_CAPACITY];
+            size = 0;
+        } else if (size > 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(objects, null);
+            size = 0;
+        }
     }
 
     /**
@@ -300,13 +520,151 @@ public class FlippingExecutionContext {
         this.addValue(key, value);
     }
 
+    /**
+     * Convenient method to add a parameter of type int without boxing.
+     * 
+     * @param key
+     *            current ley of the parameters
+     * @param value
+     *            value of the parameter
+     */
+    public void putInt(String key, int value) {
+        addPrimitive(key, KIND_INT, value);
+    }
+
+    /**
+     * Convenient method to add a parameter of type long without boxing.
+     * 
+     * @param key
+     *            current ley of the parameters
+     * @param value
+     *            value of the parameter
+     */
+    public void putLong(String key, long value) {
+        addPrimitive(key, KIND_LONG, value);
+    }
+
+    /**
+     * Convenient method to add a parameter of type double without boxing.
+     * 
+     * @param key
+     *            current ley of the parameters
+     * @param value
+     *            value of the parameter
+     */
+    public void putDouble(String key, double value) {
+        addPrimitive(key, KIND_DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Convenient method to add a parameter of type boolean without boxing.
+     * 
+     * @param key
+     *            current ley of the parameters
+     * @param value
+     *            value of the parameter
+     */
+    public void putBoolean(String key, boolean value) {
+        addPrimitive(key, KIND_BOOLEAN, value ? 1 : 0);
+    }
+
+    /**
+     * Read an int without boxing.
+     * 
+     * @param key
+     *            current key
+     * @param defaultValue
+     *            value if parameter is absent or null
+     * @return value of parameter
+     */
+    public int getIntValue(String key, int defaultValue) {
+        int idx = indexOf(key);
+        if (idx >= 0 && kinds[idx] == KIND_INT) {
+            return (int) primitives[idx];
+        }
+        Integer value = getInt(key, false);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Read a long without boxing.
+     * 
+     * @param key
+     *            current key
+     * @param defaultValue
+     *            value if parameter is absent or null
+     * @return value of parameter
+     */
+    public long getLongValue(String key, long defaultValue) {
+        int idx = indexOf(key);
+        if (idx >= 0 && kinds[idx] == KIND_LONG) {
+            return primitives[idx];
+        }
+        Object o = getValue(key, false);
+        if (o != null && !(o instanceof Long)) {
+            throw new IllegalArgumentException("Cannot convert parameter to Long");
+        }
+        return o == null ? defaultValue : (Long) o;
+    }
+
+    /**
+     * Read a double without boxing.
+     * 
+     * @param key
+     *            current key
+     * @param defaultValue
+     *            value if parameter is absent or null
+     * @return value of parameter
+     */
+    public double getDoubleValue(String key, double defaultValue) {
+        int idx = indexOf(key);
+        if (idx >= 0 && kinds[idx] == KIND_DOUBLE) {
+            return Double.longBitsToDouble(primitives[idx]);
+        }
+        Double value = getDouble(key, false);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Read a boolean without boxing.
+     * 
+     * @param key
+     *            current key
+     * @param defaultValue
+     *            value if parameter is absent or null
+     * @return value of parameter
+     */
+    public boolean getBooleanValue(String key, boolean defaultValue) {
+        int idx = indexOf(key);
+        if (idx >= 0 && kinds[idx] == KIND_BOOLEAN) {
+            return primitives[idx] != 0;
+        }
+        Boolean value = getBoolean(key, false);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Copy of parameters as a map (primitives are boxed).
+     *
+     * @return parameters
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                map.put(keys[i], valueAt(i));
+            }
+        }
+        return map;
+    }
+
     /**
      * Check if the current flipping execution is empty or not.
      *
      * @return {@code true} if execution context is empty, false otherwise.
      */
     public boolean isEmpty() {
-        return parameters.isEmpty();
+        return size == 0;
     }
 
     @Override
@@ -317,7 +675,18 @@ public class FlippingExecutionContext {
 
         if (obj instanceof FlippingExecutionContext) {
             FlippingExecutionContext ctx = (FlippingExecutionContext) obj;
-            return Objects.equals(parameters, ctx.parameters);
+            if (size != ctx.size) {
+                return false;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    int idx = ctx.indexOf(keys[i]);
+                    if (idx < 0 || !Objects.equals(valueAt(i), ctx.valueAt(idx))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
         }
 
         return false;
@@ -325,6 +694,13 @@ public class FlippingExecutionContext {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(parameters);
+        // same as Map.hashCode()
+        int h = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                h += keys[i].hashCode() ^ Objects.hashCode(valueAt(i));
+            }
+        }
+        return h;
     }
 }
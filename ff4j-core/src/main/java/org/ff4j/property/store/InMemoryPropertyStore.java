@@ -24,10 +24,12 @@ import java.io.InputStream;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.ff4j.conf.FF4jConfiguration;
 import org.ff4j.conf.XmlParser;
 import org.ff4j.property.Property;
+import org.ff4j.store.VersionedStore;
 import org.ff4j.utils.Util;
 
 /**
@@ -35,10 +37,13 @@ import org.ff4j.utils.Util;
  *
  * @author Cedrick Lunven (@clunven)
  */
-public class InMemoryPropertyStore extends AbstractPropertyStore {
+public class InMemoryPropertyStore extends AbstractPropertyStore implements VersionedStore {
 
     /** InMemory Feature Map */
     private Map<String, Property<?>> properties = new LinkedHashMap<String, Property<?>>();
+    
+    /** Incremented on each modification. */
+    private final AtomicLong version = new AtomicLong();
 
     /** FileName used to retrieve properties. */
     private String fileName;
@@ -113,6 +118,7 @@ public class InMemoryPropertyStore extends AbstractPropertyStore {
             throw new IllegalArgumentException("Cannot parse stream with properties");
         }
         this.properties = new XmlParser().parseConfigurationFile(xmlIN).getProperties();
+        version.incrementAndGet();
     }
     
     /** {@inheritDoc} */
@@ -130,6 +136,7 @@ public class InMemoryPropertyStore extends AbstractPropertyStore {
         assertPropertyNotExist(value.getName());
         // Create
         properties.put(value.getName(), value);
+        version.incrementAndGet();
     }
 
     /** {@inheritDoc} */
@@ -145,6 +152,7 @@ public class InMemoryPropertyStore extends AbstractPropertyStore {
         assertPropertyExist(name);
         // Delete
         properties.remove(name);
+        version.incrementAndGet();
     }
     
     /** {@inheritDoc} */
@@ -162,6 +170,13 @@ public class InMemoryPropertyStore extends AbstractPropertyStore {
         if (properties != null) {
             properties.clear();
         }
+        version.incrementAndGet();
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public long getVersion() {
+        return version.get();
     }
     
     /** {@inheritDoc} */
@@ -177,6 +192,7 @@ public class InMemoryPropertyStore extends AbstractPropertyStore {
      */
     public void setProperties(Map<String, Property<?>> properties) {
         this.properties = properties;
+        version.incrementAndGet();
     }
     
     /**
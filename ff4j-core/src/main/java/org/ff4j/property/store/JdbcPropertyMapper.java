@@ -23,7 +23,7 @@ package org.ff4j.property.store;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -56,7 +56,9 @@ public class JdbcPropertyMapper {
         String fixedValues   = rs.getString(COL_PROPERTY_FIXED);
         Set < String > value = null;
         if (fixedValues != null) {
-            value = new HashSet<String>(Arrays.asList(fixedValues.split(",")));
+            String[] values = fixedValues.split(",");
+            value = new HashSet<String>(values.length * 2);
+            Collections.addAll(value, values);
         }
         return PropertyFactory.createProperty(propertyName, propertyType, propertyValue, description, value);
     }
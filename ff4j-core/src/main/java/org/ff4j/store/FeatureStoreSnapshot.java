@@ -0,0 +1,239 @@
+package org.ff4j.store;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.exception.GroupNotFoundException;
+
+/**
+ * Immutable copy of a {@link FeatureStore} at a given time.
+ * 
+ * Features are copied (strategies are instantiated and initialized once) and indexed per uid and per group. As nothing
+ * changes after construction, reads do not lock and cost the same whatever the backend of the source store. A new
+ * snapshot is built and swapped when the source changes, write operations are not supported.
+ */
+public class FeatureStoreSnapshot extends AbstractFeatureStore {
+    
+    /** Error message for write operations. */
+    private static final String READ_ONLY = "Snapshot is read-only, update the source store and refresh the snapshot";
+
+    /** Features indexed by uid. */
+    private final Map<String, Feature> features;
+    
+    /** Features indexed by group name. */
+    private final Map<String, Map<String, Feature>> groups;
+    
+    /** Creation time. */
+    private final long creationDate;
+    
+    /**
+     * Copy all features of the source store.
+     *
+     * @param source
+     *      source feature store
+     */
+    public FeatureStoreSnapshot(FeatureStore source) {
+        this(source.readAll());
+    }
+    
+    /**
+     * Copy the target features.
+     *
+     * @param source
+     *      features to copy
+     */
+    public FeatureStoreSnapshot(Map<String, Feature> source) {
+        Map<String, Feature> mapOfFeatures = new LinkedHashMap<>();
+        Map<String, Map<String, Feature>> mapOfGroups = new HashMap<>();
+        if (source != null) {
+            for (Feature f : source.values()) {
+                Feature copy = new Feature(f);
+                mapOfFeatures.put(copy.getUid(), copy);
+                String group = copy.getGroup();
+                if (group != null && !group.isEmpty()) {
+                    mapOfGroups.computeIfAbsent(group, g -> new HashMap<>()).put(copy.getUid(), copy);
+                }
+            }
+        }
+        for (Map.Entry<String, Map<String, Feature>> group : mapOfGroups.entrySet()) {
+            group.setValue(Collections.unmodifiableMap(group.getValue()));
+        }
+        this.features     = Collections.unmodifiableMap(mapOfFeatures);
+        this.groups       = Collections.unmodifiableMap(mapOfGroups);
+        this.creationDate = System.currentTimeMillis();
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String uid) {
+        return features.containsKey(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature read(String uid) {
+        Feature feature = features.get(uid);
+        if (feature == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return feature;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> read(Collection<String> featureUids) {
+        Map<String, Feature> mapOfFeatures = new LinkedHashMap<>();
+        for (String uid : featureUids) {
+            Feature feature = (uid == null) ? null : features.get(uid);
+            if (feature != null) {
+                mapOfFeatures.put(uid, feature);
+            }
+        }
+        return mapOfFeatures;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll() {
+        return features;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public boolean existGroup(String groupName) {
+        return groups.containsKey(groupName);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readGroup(String groupName) {
+        Map<String, Feature> group = groups.get(groupName);
+        if (group == null) {
+            throw new GroupNotFoundException(groupName);
+        }
+        return group;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> readAllGroups() {
+        return new HashSet<>(groups.keySet());
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void create(Feature fp) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void delete(String fpId) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void update(Feature fp) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void enable(String uid) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void disable(String uid) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void enableGroup(String groupName) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void disableGroup(String groupName) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void grantRoleOnFeature(String flipId, String roleName) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeRoleFromFeature(String flipId, String roleName) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void addToGroup(String featureId, String groupName) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeFromGroup(String featureId, String groupName) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void importFeatures(Collection<Feature> features) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    /**
+     * Getter accessor for attribute 'creationDate'.
+     *
+     * @return
+     *       current value of 'creationDate'
+     */
+    public long getCreationDate() {
+        return creationDate;
+    }
+    
+}
@@ -23,23 +23,26 @@ package org.ff4j.store;
 import static org.ff4j.utils.Util.assertHasLength;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.ff4j.conf.FF4jConfiguration;
 import org.ff4j.conf.XmlParser;
 import org.ff4j.core.Feature;
+import org.ff4j.exception.FeatureNotFoundException;
 
 /**
  * Storing states of feature inmemory with initial values. Could be used mostly for testing purpose.
  * 
  * @author Cedrick Lunven (@clunven)
  */
-public class InMemoryFeatureStore extends AbstractFeatureStore {
+public class InMemoryFeatureStore extends AbstractFeatureStore implements VersionedStore {
 
     /** XML File where features are load. */
     private String fileName = null;
@@ -49,6 +52,9 @@ public class InMemoryFeatureStore extends AbstractFeatureStore {
 
     /** Group structure for features. */
     private Map<String, Set<String>> featureGroups = new HashMap<String, Set<String>>();
+    
+    /** Incremented on each modification. */
+    private final AtomicLong version = new AtomicLong();
 
     /** Default constructor. */
     public InMemoryFeatureStore() {}
@@ -128,6 +134,7 @@ public class InMemoryFeatureStore extends AbstractFeatureStore {
      * Group is an attribute of the feature and the group structure is rebuild from it.
      */
     private void buildGroupsFromFeatures() {
+        version.incrementAndGet();
         // Reinit if required
         featureGroups = new HashMap<String, Set<String>>();
         for (Entry<String, Feature> item : featuresMap.entrySet()) {
@@ -185,6 +192,7 @@ public class InMemoryFeatureStore extends AbstractFeatureStore {
         assertFeatureExist(uid);
         assertHasLength(roleName);
         featuresMap.get(uid).getPermissions().add(roleName);
+        version.incrementAndGet();
     }
 
     /** {@inheritDoc} */
@@ -192,6 +200,7 @@ public class InMemoryFeatureStore extends AbstractFeatureStore {
         assertFeatureExist(uid);
         assertHasLength(roleName);
         featuresMap.get(uid).getPermissions().remove(roleName);
+        version.incrementAndGet();
     }
 
     /** {@inheritDoc} */
@@ -204,18 +213,38 @@ public class InMemoryFeatureStore extends AbstractFeatureStore {
     public void enable(String uid) {
         assertFeatureExist(uid);
         featuresMap.get(uid).enable();
+        version.incrementAndGet();
     }
 
     /** {@inheritDoc} */    
     public void disable(String uid) {
         assertFeatureExist(uid);
         featuresMap.get(uid).disable();
+        version.incrementAndGet();
     }
 
     /** {@inheritDoc} */
     public Feature read(String uid) {
-        assertFeatureExist(uid);
-        return featuresMap.get(uid);
+        assertHasLength(uid);
+        // Single lookup, feature cannot be null in map
+        Feature feature = featuresMap.get(uid);
+        if (feature == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return feature;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> read(Collection<String> featureUids) {
+        Map<String, Feature> mapOfFeatures = new LinkedHashMap<>();
+        for (String uid : featureUids) {
+            Feature feature = (uid == null) ? null : featuresMap.get(uid);
+            if (feature != null) {
+                mapOfFeatures.put(uid, feature);
+            }
+        }
+        return mapOfFeatures;
     }
 
     /** {@inheritDoc} */
@@ -282,6 +311,13 @@ public class InMemoryFeatureStore extends AbstractFeatureStore {
     @Override
     public void clear() {
        featuresMap.clear();
+       version.incrementAndGet();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getVersion() {
+        return version.get();
     }
 
     /** {@inheritDoc} */
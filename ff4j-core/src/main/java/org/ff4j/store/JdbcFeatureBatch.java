@@ -0,0 +1,263 @@
+package org.ff4j.store;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.ff4j.utils.JdbcUtils.closeStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.ff4j.core.Feature;
+import org.ff4j.property.Property;
+import org.ff4j.utils.MappingUtil;
+
+/**
+ * Rows to write for a set of features, grouped by statement to be executed as JDBC batches.
+ * 
+ * Features are compared with their current value in database and only the rows that changed are written. Batches
+ * are executed in a fixed order: deletions first, then features before their roles and properties.
+ */
+public class JdbcFeatureBatch {
+    
+    /** Parameters of each statement, in execution order. */
+    private final Map<String, List<Object[]>> batches = new LinkedHashMap<String, List<Object[]>>();
+    
+    /** Queries. */
+    private final List<Object[]> deleteProperties, deleteRoles, createFeatures, updateFeatures, createRoles, createProperties;
+    
+    /**
+     * Initialization with the queries to use.
+     *
+     * @param qb
+     *      query builder
+     */
+    public JdbcFeatureBatch(JdbcQueryBuilder qb) {
+        deleteProperties = statement(qb.deleteFeatureProperty());
+        deleteRoles      = statement(qb.deleteFeatureRole());
+        createFeatures   = statement(qb.createFeature());
+        updateFeatures   = statement(qb.updateFeature());
+        createRoles      = statement(qb.addRoleToFeature());
+        createProperties = statement(qb.createFeatureProperty());
+    }
+    
+    private List<Object[]> statement(String query) {
+        List<Object[]> rows = new ArrayList<Object[]>();
+        batches.put(query, rows);
+        return rows;
+    }
+    
+    /**
+     * Add rows to write a feature.
+     *
+     * @param current
+     *      current value in database, null if the feature does not exist yet
+     * @param fp
+     *      new value of the feature
+     */
+    public void write(Feature current, Feature fp) {
+        String uid = fp.getUid();
+        if (current == null) {
+            Object[] row = featureRow(fp);
+            createFeatures.add(new Object[] {uid, row[0], row[1], row[2], row[3], row[4]});
+        } else if (!sameFeatureRow(current, fp)) {
+            Object[] row = featureRow(fp);
+            updateFeatures.add(new Object[] {row[0], row[1], row[2], row[3], row[4], uid});
+        }
+        
+        // Roles
+        Set<String> currentRoles = (current == null) ? null : current.getPermissions();
+        if (currentRoles != null) {
+            for (String role : currentRoles) {
+                if (fp.getPermissions() == null || !fp.getPermissions().contains(role)) {
+                    deleteRoles.add(new Object[] {uid, role});
+                }
+            }
+        }
+        if (fp.getPermissions() != null) {
+            for (String role : fp.getPermissions()) {
+                if (currentRoles == null || !currentRoles.contains(role)) {
+                    createRoles.add(new Object[] {uid, role});
+                }
+            }
+        }
+        
+        // Custom properties, a modified property is deleted then created again
+        Map<String, Property<?>> currentProps = (current == null) ? null : current.getCustomProperties();
+        Map<String, Property<?>> newProps     = fp.getCustomProperties();
+        if (currentProps != null) {
+            for (Property<?> pp : currentProps.values()) {
+                Property<?> newProp = (newProps == null) ? null : newProps.get(pp.getName());
+                if (newProp == null || !sameProperty(pp, newProp)) {
+                    deleteProperties.add(new Object[] {pp.getName(), uid});
+                }
+            }
+        }
+        if (newProps != null) {
+            for (Property<?> pp : newProps.values()) {
+                Property<?> currentProp = (currentProps == null) ? null : currentProps.get(pp.getName());
+                if (currentProp == null || !sameProperty(currentProp, pp)) {
+                    addProperty(uid, pp);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Add rows to write a set of features.
+     *
+     * @param current
+     *      current features in database by uid
+     * @param features
+     *      new values of the features
+     */
+    public void writeAll(Map<String, Feature> current, Collection<Feature> features) {
+        for (Feature fp : features) {
+            write(current.get(fp.getUid()), fp);
+        }
+    }
+    
+    /**
+     * Add row to create a custom property.
+     *
+     * @param uid
+     *      feature unique identifier
+     * @param pp
+     *      property to create
+     */
+    public void addProperty(String uid, Property<?> pp) {
+        createProperties.add(new Object[] {pp.getName(), pp.getType(), pp.asString(), 
+                pp.getDescription(), fixedValues(pp), uid});
+    }
+    
+    /**
+     * Execute batches on a connection, transaction is handled by caller.
+     *
+     * @param sqlConn
+     *      current sql connection
+     * @throws SQLException
+     *      error during sql operation
+     */
+    public void execute(Connection sqlConn) throws SQLException {
+        for (Map.Entry<String, List<Object[]>> batch : batches.entrySet()) {
+            if (batch.getValue().isEmpty()) {
+                continue;
+            }
+            PreparedStatement ps = null;
+            try {
+                ps = sqlConn.prepareStatement(batch.getKey());
+                for (Object[] row : batch.getValue()) {
+                    for (int i = 0; i < row.length; i++) {
+                        // Nullable columns are all strings, some drivers reject untyped nulls
+                        if (row[i] == null) {
+                            ps.setNull(i + 1, Types.VARCHAR);
+                        } else {
+                            ps.setObject(i + 1, row[i]);
+                        }
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            } finally {
+                closeStatement(ps);
+            }
+        }
+    }
+    
+    /**
+     * Check if there is nothing to write.
+     *
+     * @return
+     *      true if all batches are empty
+     */
+    public boolean isEmpty() {
+        for (List<Object[]> rows : batches.values()) {
+            if (!rows.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Getter accessor for attribute 'batches'.
+     *
+     * @return
+     *       current value of 'batches'
+     */
+    public Map<String, List<Object[]>> getBatches() {
+        return batches;
+    }
+    
+    /**
+     * Columns of feature table (ENABLE, DESCRIPTION, STRATEGY, EXPRESSION, GROUPNAME).
+     */
+    private static Object[] featureRow(Feature fp) {
+        String strategyColumn   = null;
+        String expressionColumn = null;
+        if (fp.getFlippingStrategy() != null) {
+            strategyColumn   = fp.getFlippingStrategy().getClass().getName();
+            expressionColumn = MappingUtil.fromMap(fp.getFlippingStrategy().getInitParams());
+        }
+        return new Object[] {fp.isEnable() ? 1 : 0, fp.getDescription(), strategyColumn, expressionColumn, fp.getGroup()};
+    }
+    
+    private static boolean sameFeatureRow(Feature f1, Feature f2) {
+        if (f1.isEnable() != f2.isEnable() 
+                || !Objects.equals(f1.getDescription(), f2.getDescription())
+                || !Objects.equals(f1.getGroup(), f2.getGroup())) {
+            return false;
+        }
+        if (f1.getFlippingStrategy() == null || f2.getFlippingStrategy() == null) {
+            return f1.getFlippingStrategy() == f2.getFlippingStrategy();
+        }
+        return f1.getFlippingStrategy().getClass() == f2.getFlippingStrategy().getClass()
+                && Objects.equals(f1.getFlippingStrategy().getInitParams(), f2.getFlippingStrategy().getInitParams());
+    }
+    
+    private static boolean sameProperty(Property<?> p1, Property<?> p2) {
+        return Objects.equals(p1.getType(), p2.getType())
+                && Objects.equals(p1.asString(), p2.asString())
+                && Objects.equals(p1.getDescription(), p2.getDescription())
+                && Objects.equals(fixedValuesSet(p1), fixedValuesSet(p2));
+    }
+    
+    private static Set<?> fixedValuesSet(Property<?> pp) {
+        return (pp.getFixedValues() == null || pp.getFixedValues().isEmpty()) ? null : pp.getFixedValues();
+    }
+    
+    private static String fixedValues(Property<?> pp) {
+        if (pp.getFixedValues() == null || pp.getFixedValues().isEmpty()) {
+            return null;
+        }
+        String fixedValues = pp.getFixedValues().toString();
+        return fixedValues.substring(1, fixedValues.length() - 1);
+    }
+    
+}
@@ -21,6 +21,7 @@ package org.ff4j.store;
  */
 
 import static org.ff4j.store.JdbcStoreConstants.COL_FEAT_GROUPNAME;
+import static org.ff4j.store.JdbcStoreConstants.COL_PROPERTY_FEATID;
 import static org.ff4j.store.JdbcStoreConstants.COL_ROLE_FEATID;
 import static org.ff4j.store.JdbcStoreConstants.COL_ROLE_ROLENAME;
 import static org.ff4j.utils.JdbcUtils.buildStatement;
@@ -37,9 +38,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -49,10 +54,10 @@ import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.exception.FeatureAccessException;
 import org.ff4j.exception.FeatureAlreadyExistException;
+import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.property.Property;
 import org.ff4j.property.store.JdbcPropertyMapper;
 import org.ff4j.utils.JdbcUtils;
-import org.ff4j.utils.MappingUtil;
 import org.ff4j.utils.Util;
 
 /**
@@ -70,6 +75,9 @@ public class JdbcFeatureStore extends AbstractFeatureStore {
     public static final String CANNOT_UPDATE_FEATURES_DATABASE_SQL_ERROR =
     		"Cannot update features database, SQL ERROR";
 
+    /** Maximum number of uids bound in a single IN clause. */
+    private static final int MAX_IN_PARAMETERS = 500;
+
     /** Access to storage. */
     private DataSource dataSource;
 
@@ -212,68 +220,12 @@ public class JdbcFeatureStore extends AbstractFeatureStore {
     @Override
     public void create(Feature fp) {
     	assertFeatureNotNull(fp);
-    	Connection sqlConn = null;
-        PreparedStatement ps = null;
-        Boolean previousAutoCommit = null;
-        try {
-
-            // Create connection
-            sqlConn = getDataSource().getConnection();
-            if (exist(fp.getUid())) {
-                throw new FeatureAlreadyExistException(fp.getUid());
-            }
-
-            // Begin TX
-            previousAutoCommit = sqlConn.getAutoCommit();
-            sqlConn.setAutoCommit(false);
-
-            // Create feature
-            ps = sqlConn.prepareStatement(getQueryBuilder().createFeature());
-            ps.setString(1, fp.getUid());
-            ps.setInt(2, fp.isEnable() ? 1 : 0);
-            ps.setString(3, fp.getDescription());
-            String strategyColumn = null;
-            String expressionColumn = null;
-            if (fp.getFlippingStrategy() != null) {
-                strategyColumn   = fp.getFlippingStrategy().getClass().getName();
-                expressionColumn = MappingUtil.fromMap(fp.getFlippingStrategy().getInitParams());
-            }
-            ps.setString(4, strategyColumn);
-            ps.setString(5, expressionColumn);
-            ps.setString(6, fp.getGroup());
-            ps.executeUpdate();
-            closeStatement(ps);
-            ps = null;
-
-            // Create roles
-            for (String role : fp.getPermissions()) {
-                ps = sqlConn.prepareStatement(getQueryBuilder().addRoleToFeature());
-                ps.setString(1, fp.getUid());
-                ps.setString(2, role);
-                ps.executeUpdate();
-                closeStatement(ps);
-                ps = null;
-            }
-
-            // Create customproperties
-            if (fp.getCustomProperties() != null && !fp.getCustomProperties().isEmpty()) {
-                for (Property<?> pp : fp.getCustomProperties().values()) {
-                    ps = createCustomProperty(sqlConn, fp.getUid(), pp);
-                    closeStatement(ps);
-                    ps = null;
-                }
-            }
-
-            // Commit
-            sqlConn.commit();
-
-        } catch (SQLException sqlEX) {
-            rollback(sqlConn);
-            throw new FeatureAccessException(CANNOT_UPDATE_FEATURES_DATABASE_SQL_ERROR, sqlEX);
-        } finally {
-            closeStatement(ps);
-            closeConnection(sqlConn, previousAutoCommit);
+        if (exist(fp.getUid())) {
+            throw new FeatureAlreadyExistException(fp.getUid());
         }
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(getQueryBuilder());
+        batch.write(null, fp);
+        executeBatch(batch);
     }
 
     /** {@inheritDoc} */
@@ -352,15 +304,106 @@ public class JdbcFeatureStore extends AbstractFeatureStore {
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        return readFeatures(getQueryBuilder().getAllFeatures(), 
+                getQueryBuilder().getAllRoles(), 
+                getQueryBuilder().getAllFeatureProperties());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> read(Collection<String> featureUids) {
+        Util.assertNotNull(featureUids);
+        Connection sqlConn = null;
+        try {
+            sqlConn = dataSource.getConnection();
+            return readFeatures(sqlConn, featureUids);
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException(CANNOT_CHECK_FEATURE_EXISTENCE_ERROR_RELATED_TO_DATABASE, sqlEX);
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /**
+     * Read the features with expected uids, with three queries for each chunk of {@link #MAX_IN_PARAMETERS} uids.
+     *
+     * @param sqlConn
+     *            current connection
+     * @param featureUids
+     *            features to read, unknown ones are skipped
+     * @return
+     *            features by uid
+     * @throws SQLException
+     *            error when reading features
+     */
+    private Map<String, Feature> readFeatures(Connection sqlConn, Collection<String> featureUids) throws SQLException {
+        List<String> uids = new ArrayList<String>(new LinkedHashSet<String>(featureUids));
+        uids.remove(null);
+        Map<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        for (int from = 0; from < uids.size(); from += MAX_IN_PARAMETERS) {
+            String[] chunk = uids.subList(from, Math.min(from + MAX_IN_PARAMETERS, uids.size())).toArray(new String[0]);
+            mapFP.putAll(readFeatures(sqlConn, 
+                    getQueryBuilder().getFeatures(chunk.length), 
+                    getQueryBuilder().getRolesOfFeatures(chunk.length), 
+                    getQueryBuilder().getFeaturePropertiesOfFeatures(chunk.length), chunk));
+        }
+        return mapFP;
+    }
+
+    /**
+     * Read a set of features with a fixed number of queries (features, roles then custom properties), whatever the
+     * number of features.
+     *
+     * @param featuresQuery
+     *            query to select features
+     * @param rolesQuery
+     *            query to select roles of these features
+     * @param propertiesQuery
+     *            query to select custom properties of these features
+     * @param params
+     *            parameters of the queries
+     * @return
+     *            features by uid
+     */
+    private Map<String, Feature> readFeatures(String featuresQuery, String rolesQuery, String propertiesQuery, String... params) {
         Connection sqlConn = null;
+        try {
+            sqlConn = dataSource.getConnection();
+            return readFeatures(sqlConn, featuresQuery, rolesQuery, propertiesQuery, params);
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException(CANNOT_CHECK_FEATURE_EXISTENCE_ERROR_RELATED_TO_DATABASE, sqlEX);
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /**
+     * Read a set of features on an existing connection, which is left open.
+     *
+     * @param sqlConn
+     *            current connection
+     * @param featuresQuery
+     *            query to select features
+     * @param rolesQuery
+     *            query to select roles of these features
+     * @param propertiesQuery
+     *            query to select custom properties of these features
+     * @param params
+     *            parameters of the queries
+     * @return
+     *            features by uid
+     * @throws SQLException
+     *            error when reading features
+     */
+    private Map<String, Feature> readFeatures(Connection sqlConn, String featuresQuery, String rolesQuery, String propertiesQuery, String... params)
+    throws SQLException {
+        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
 
         	// Returns features
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(getQueryBuilder().getAllFeatures());
+            ps = prepareStatement(sqlConn, featuresQuery, params);
             rs = ps.executeQuery();
             while (rs.next()) {
                 Feature f = JDBC_FEATURE_MAPPER.mapFeature(rs);
@@ -370,44 +413,63 @@ public class JdbcFeatureStore extends AbstractFeatureStore {
             rs = null;
             closeStatement(ps);
             ps = null;
+            if (mapFP.isEmpty()) {
+                return mapFP;
+            }
 
             // Returns Roles
-            ps = sqlConn.prepareStatement(getQueryBuilder().getAllRoles());
+            ps = prepareStatement(sqlConn, rolesQuery, params);
             rs = ps.executeQuery();
             while (rs.next()) {
-                String uid = rs.getString(COL_ROLE_FEATID);
-                mapFP.get(uid).getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
+                Feature f = mapFP.get(rs.getString(COL_ROLE_FEATID));
+                if (f != null) {
+                    f.getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
+                }
             }
             closeResultSet(rs);
             rs = null;
             closeStatement(ps);
             ps = null;
 
-            // Read custom properties for each feature
-            for (Feature f : mapFP.values()) {
-                ps = sqlConn.prepareStatement(getQueryBuilder().getFeatureProperties());
-                ps.setString(1, f.getUid());
-                rs = ps.executeQuery();
-                while (rs.next()) {
+            // Read custom properties of all features at once
+            ps = prepareStatement(sqlConn, propertiesQuery, params);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                Feature f = mapFP.get(rs.getString(COL_PROPERTY_FEATID));
+                if (f != null) {
                     f.addProperty(JDBC_PROPERTY_MAPPER.map(rs));
                 }
-                closeResultSet(rs);
-                rs = null;
-                closeStatement(ps);
-                ps = null;
             }
-
             return mapFP;
 
-        } catch (SQLException sqlEX) {
-            throw new FeatureAccessException(CANNOT_CHECK_FEATURE_EXISTENCE_ERROR_RELATED_TO_DATABASE, sqlEX);
         } finally {
             closeResultSet(rs);
             closeStatement(ps);
-            closeConnection(sqlConn);
         }
     }
 
+    /**
+     * Prepare statement with its parameters.
+     *
+     * @param sqlConn
+     *            current connection
+     * @param query
+     *            sql query
+     * @param params
+     *            parameters (can be empty)
+     * @return
+     *            statement
+     * @throws SQLException
+     *            error when preparing statement
+     */
+    private PreparedStatement prepareStatement(Connection sqlConn, String query, String... params) throws SQLException {
+        PreparedStatement ps = sqlConn.prepareStatement(query);
+        for (int i = 0; i < params.length; i++) {
+            ps.setString(i + 1, params[i]);
+        }
+        return ps;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
@@ -440,61 +502,101 @@ public class JdbcFeatureStore extends AbstractFeatureStore {
     @Override
     public void update(Feature fp) {
     	assertFeatureNotNull(fp);
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
+        writeFeatures(Collections.singletonList(fp), true);
+    }
+
+    /**
+     * Import features with a single transaction, features already present are updated with their differences only.
+     *
+     * @param features
+     *      features to import
+     */
+    @Override
+    public void importFeatures(Collection<Feature> features) {
+        if (features == null || features.isEmpty()) {
+            return;
+        }
+        writeFeatures(features, false);
+    }
 
+    /**
+     * Write features within a single transaction, their current rows are read in the same transaction (only for
+     * these features) to write the differences only.
+     *
+     * @param features
+     *      features to write
+     * @param updateOnly
+     *      features must exist already
+     */
+    private void writeFeatures(Collection<Feature> features, boolean updateOnly) {
+        List<String> uids = new ArrayList<String>();
+        for (Feature fp : features) {
+            uids.add(fp.getUid());
+        }
+        Connection sqlConn = null;
+        Boolean previousAutoCommit = null;
         try {
-            sqlConn = dataSource.getConnection();
-            Feature fpExist = read(fp.getUid());
-            int enable = 0;
-            if (fp.isEnable()) {
-                enable = 1;
-            }
-            String fStrategy = null;
-            String fExpression = null;
-            if (fp.getFlippingStrategy() != null) {
-                fStrategy = fp.getFlippingStrategy().getClass().getName();
-                fExpression = MappingUtil.fromMap(fp.getFlippingStrategy().getInitParams());
-            }
-            update(getQueryBuilder().updateFeature(),
-            		enable, fp.getDescription(), fStrategy, fExpression, fp.getGroup(), fp.getUid());
+            sqlConn = getDataSource().getConnection();
 
-            // ROLES
+            // Begin TX
+            previousAutoCommit = sqlConn.getAutoCommit();
+            sqlConn.setAutoCommit(false);
 
-            // To be deleted (not in new value but was at first)
-            Set<String> toBeDeleted = new HashSet<String>();
-            toBeDeleted.addAll(fpExist.getPermissions());
-            toBeDeleted.removeAll(fp.getPermissions());
-            for (String roleToBeDelete : toBeDeleted) {
-                removeRoleFromFeature(fpExist.getUid(), roleToBeDelete);
+            Map<String, Feature> current = readFeatures(sqlConn, uids);
+            if (updateOnly) {
+                for (String uid : uids) {
+                    if (!current.containsKey(uid)) {
+                        throw new FeatureNotFoundException(uid);
+                    }
+                }
             }
+            JdbcFeatureBatch batch = new JdbcFeatureBatch(getQueryBuilder());
+            batch.writeAll(current, features);
+            batch.execute(sqlConn);
 
-            // To be created : in second but not in first
-            Set<String> toBeAdded = new HashSet<String>();
-            toBeAdded.addAll(fp.getPermissions());
-            toBeAdded.removeAll(fpExist.getPermissions());
-            for (String addee : toBeAdded) {
-                grantRoleOnFeature(fpExist.getUid(), addee);
-            }
+            // Commit
+            sqlConn.commit();
 
-            // REMOVE EXISTING CUSTOM PROPERTIES
-            ps = sqlConn.prepareStatement(getQueryBuilder().deleteAllFeatureCustomProperties());
-            ps.setString(1, fpExist.getUid());
-            ps.executeUpdate();
-            closeStatement(ps);
-            ps = null;
+        } catch (SQLException sqlEX) {
+            rollback(sqlConn);
+            throw new FeatureAccessException(CANNOT_UPDATE_FEATURES_DATABASE_SQL_ERROR, sqlEX);
+        } catch (RuntimeException re) {
+            rollback(sqlConn);
+            throw re;
+        } finally {
+            closeConnection(sqlConn, previousAutoCommit);
+        }
+    }
+
+    /**
+     * Execute batched statements within a transaction.
+     *
+     * @param batch
+     *      rows to write
+     */
+    private void executeBatch(JdbcFeatureBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Connection sqlConn = null;
+        Boolean previousAutoCommit = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+
+            // Begin TX
+            previousAutoCommit = sqlConn.getAutoCommit();
+            sqlConn.setAutoCommit(false);
+
+            batch.execute(sqlConn);
+
+            // Commit
+            sqlConn.commit();
 
-            // CREATE CUSTOM PROPERTIES
-            for (Property<?> property : fp.getCustomProperties().values()) {
-                ps = createCustomProperty(sqlConn, fp.getUid(), property);
-                closeStatement(ps);
-                ps = null;
-            }
         } catch (SQLException sqlEX) {
-            throw new FeatureAccessException(CANNOT_CHECK_FEATURE_EXISTENCE_ERROR_RELATED_TO_DATABASE, sqlEX);
+            rollback(sqlConn);
+            throw new FeatureAccessException(CANNOT_UPDATE_FEATURES_DATABASE_SQL_ERROR, sqlEX);
         } finally {
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            closeConnection(sqlConn, previousAutoCommit);
         }
     }
 
@@ -541,67 +643,11 @@ public class JdbcFeatureStore extends AbstractFeatureStore {
     public void createCustomProperties(String uid, Collection <Property<?> > props) {
         Util.assertNotNull(uid);
         if (props == null) return;
-
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        Boolean previousAutoCommit = null;
-
-        try {
-            sqlConn = dataSource.getConnection();
-
-            // Begin TX
-            previousAutoCommit = sqlConn.getAutoCommit();
-            sqlConn.setAutoCommit(false);
-
-            // Queries
-            for (Property<?> pp : props) {
-                ps = createCustomProperty(sqlConn, uid, pp);
-                closeStatement(ps);
-                ps = null;
-            }
-
-            // End TX
-            sqlConn.commit();
-
-        } catch (SQLException sqlEX) {
-            rollback(sqlConn);
-            throw new FeatureAccessException(CANNOT_CHECK_FEATURE_EXISTENCE_ERROR_RELATED_TO_DATABASE, sqlEX);
-        } finally {
-            closeStatement(ps);
-            closeConnection(sqlConn, previousAutoCommit);
-        }
-    }
-
-    /**
-     * Create SQL statement to create property.
-     *
-     * @param sqlConn
-     * 		current sql connection
-     * @param featureId
-     * 		current unique feature identifier
-     * @param pp
-     * 		pojo property
-     * @return
-     * 		statement sql to be executed
-     * @throws SQLException
-     * 		error during sql operation
-     */
-    private PreparedStatement createCustomProperty(Connection sqlConn, String featureId, Property<?> pp)
-    throws SQLException {
-        PreparedStatement ps = sqlConn.prepareStatement(getQueryBuilder().createFeatureProperty());
-        ps.setString(1, pp.getName());
-        ps.setString(2, pp.getType());
-        ps.setString(3, pp.asString());
-        ps.setString(4, pp.getDescription());
-        if (pp.getFixedValues() != null && !pp.getFixedValues().isEmpty()) {
-            String fixedValues = pp.getFixedValues().toString();
-            ps.setString(5, fixedValues.substring(1, fixedValues.length() - 1));
-        } else {
-            ps.setString(5, null);
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(getQueryBuilder());
+        for (Property<?> pp : props) {
+            batch.addProperty(uid, pp);
         }
-        ps.setString(6, featureId);
-        ps.executeUpdate();
-        return ps;
+        executeBatch(batch);
     }
 
     /** {@inheritDoc} */
@@ -645,63 +691,9 @@ public class JdbcFeatureStore extends AbstractFeatureStore {
     @Override
     public Map<String, Feature> readGroup(String groupName) {
     	assertGroupExist(groupName);
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
-        try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(getQueryBuilder().getFeatureOfGroup());
-            ps.setString(1, groupName);
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                Feature f = JDBC_FEATURE_MAPPER.mapFeature(rs);
-                mapFP.put(f.getUid(), f);
-            }
-            closeResultSet(rs);
-            rs = null;
-            closeStatement(ps);
-            ps = null;
-
-            // Returns Roles
-            ps = sqlConn.prepareStatement(getQueryBuilder().getAllRoles());
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                String uid = rs.getString(COL_ROLE_FEATID);
-                // only feature in the group must be processed
-                if (mapFP.containsKey(uid)) {
-                    mapFP.get(uid).getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
-                }
-            }
-            closeResultSet(rs);
-            rs = null;
-            closeStatement(ps);
-            ps = null;
-
-            // Read custom properties for each feature
-            for (Feature f : mapFP.values()) {
-                ps = sqlConn.prepareStatement(getQueryBuilder().getFeatureProperties());
-                ps.setString(1, f.getUid());
-                rs = ps.executeQuery();
-                while (rs.next()) {
-                    f.addProperty(JDBC_PROPERTY_MAPPER.map(rs));
-                }
-                closeResultSet(rs);
-                rs = null;
-                closeStatement(ps);
-                ps = null;
-            }
-
-            return mapFP;
-
-        } catch (SQLException sqlEX) {
-            throw new FeatureAccessException(CANNOT_CHECK_FEATURE_EXISTENCE_ERROR_RELATED_TO_DATABASE, sqlEX);
-        } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
-        }
+        return readFeatures(getQueryBuilder().getFeatureOfGroup(), 
+                getQueryBuilder().getRolesOfGroup(), 
+                getQueryBuilder().getFeaturePropertiesOfGroup(), groupName);
     }
 
     /** {@inheritDoc} */
@@ -281,6 +281,16 @@ public class JdbcQueryBuilder {
 		return sb.toString();
 	}
 	
+	public String getFeatures(int count) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT FEAT_UID,ENABLE,DESCRIPTION,STRATEGY,EXPRESSION,GROUPNAME FROM ");
+		sb.append(getSchemaPattern());
+		sb.append(getTableNameFeatures());
+		sb.append(" WHERE FEAT_UID IN ");
+		sb.append(parameters(count));
+		return sb.toString();
+	}
+	
 	public String getFeature() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("SELECT FEAT_UID,ENABLE,DESCRIPTION,STRATEGY,EXPRESSION,GROUPNAME FROM ");
@@ -433,8 +443,60 @@ public class JdbcQueryBuilder {
 		return sb.toString(); 
 	}
 	
+	public String getRolesOfFeatures(int count) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT FEAT_UID,ROLE_NAME FROM ");
+		sb.append(getSchemaPattern());
+		sb.append(getTableNameRoles());
+		sb.append(" WHERE FEAT_UID IN ");
+		sb.append(parameters(count));
+		return sb.toString(); 
+	}
+	
+	public String getRolesOfGroup() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT FEAT_UID,ROLE_NAME FROM ");
+		sb.append(getSchemaPattern());
+		sb.append(getTableNameRoles());
+		sb.append(" WHERE FEAT_UID IN (SELECT FEAT_UID FROM ");
+		sb.append(getSchemaPattern());
+		sb.append(getTableNameFeatures());
+		sb.append(" WHERE GROUPNAME = ?)");
+		return sb.toString(); 
+	}
+	
     // ------- Properties -------------
     
+	public String getAllFeatureProperties() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID FROM ");
+		sb.append(getSchemaPattern());
+		sb.append(getTableNameCustomProperties());
+		return sb.toString();
+	}
+	
+	public String getFeaturePropertiesOfFeatures(int count) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID FROM ");
+		sb.append(getSchemaPattern());
+		sb.append(getTableNameCustomProperties());
+		sb.append(" WHERE FEAT_UID IN ");
+		sb.append(parameters(count));
+		return sb.toString();
+	}
+	
+	public String getFeaturePropertiesOfGroup() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID FROM ");
+		sb.append(getSchemaPattern());
+		sb.append(getTableNameCustomProperties());
+		sb.append(" WHERE FEAT_UID IN (SELECT FEAT_UID FROM ");
+		sb.append(getSchemaPattern());
+		sb.append(getTableNameFeatures());
+		sb.append(" WHERE GROUPNAME = ?)");
+		return sb.toString();
+	}
+	
 	public String getFeatureProperties() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID FROM ");
@@ -680,7 +742,19 @@ public class JdbcQueryBuilder {
 	    sb.append(")");
 	    return sb.toString();
 	}
-	
+
+	private String parameters(int count) {
+	    StringBuilder sb = new StringBuilder("(");
+	    for (int i = 0; i < count; i++) {
+	        if (i > 0) {
+	            sb.append(",");
+	        }
+	        sb.append("?");
+	    }
+	    sb.append(")");
+	    return sb.toString();
+	}
+
     public String buildWhereClause(EventQueryDefinition qDef, boolean filterForCheck, boolean filterAuditTrail) {
         StringBuilder sb = new StringBuilder();
         sb.append(" WHERE (" + COL_EVENT_TIME + "> ?) ");
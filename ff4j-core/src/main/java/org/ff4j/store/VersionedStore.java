@@ -0,0 +1,38 @@
+package org.ff4j.store;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Store able to provide a cheap change token (version counter, last modification date, content hash...).
+ * 
+ * Pollers compare the token with the previous one and skip reading the store when nothing changed.
+ */
+public interface VersionedStore {
+    
+    /**
+     * Current change token, any write operation on the store changes it.
+     *
+     * @return
+     *      current version
+     */
+    long getVersion();
+    
+}
@@ -0,0 +1,262 @@
+package org.ff4j.strategy;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ff4j.core.FeatureStore;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.utils.Murmur3;
+
+/**
+ * Deterministic percentage rollout : a key read in the {@link FlippingExecutionContext} (a user identifier for instance)
+ * is hashed with the feature uid (murmur3) into one of {@link #BUCKET_COUNT} buckets. The same key always gets the same 
+ * answer for a feature, there is no random and no lock.
+ * 
+ * Either a weight is provided (ratio of keys for which the feature is enabled like {@link PonderationStrategy}) 
+ * or several variants with their percentages for A/B/n testing : <code>control:50,blue:25,green:25</code>. Keys 
+ * outside all variants (total lower than 100) see the feature disabled. Use {@link #getVariant(String, FlippingExecutionContext)}
+ * to know the variant assigned to a key.
+ */
+public class BucketingStrategy extends AbstractFlipStrategy implements Serializable {
+
+    /** Serial number. */
+    private static final long serialVersionUID = 6093466313263823318L;
+
+    /** Number of buckets, percentages are defined with 2 decimals. */
+    public static final int BUCKET_COUNT = 10000;
+
+    /** Key in execution context to hash. */
+    public static final String PARAM_BUCKET_KEY = "bucketKey";
+
+    /** Ratio of enabled keys. */
+    public static final String PARAM_WEIGHT = "weight";
+
+    /** Variants with their percentages. */
+    public static final String PARAM_VARIANTS = "variants";
+
+    /** Default key in context. */
+    public static final String DEFAULT_BUCKET_KEY = "userId";
+
+    /** Variant name when only a weight is defined. */
+    public static final String DEFAULT_VARIANT = "on";
+
+    /** Separator between variants. */
+    private static final String VARIANT_SEPARATOR = ",";
+
+    /** Separator between variant name and percentage. */
+    private static final String WEIGHT_SEPARATOR = ":";
+
+    /** Key in execution context. */
+    private String bucketKey = DEFAULT_BUCKET_KEY;
+
+    /** Variant names. */
+    private String[] variantNames = { DEFAULT_VARIANT };
+
+    /** Upper bounds (exclusive) of variants in bucket space, ascending. */
+    private int[] variantBounds = { BUCKET_COUNT / 2 };
+
+    /** Feature used to compute seed. */
+    private String seedFeature;
+
+    /** Hash of feature uid, seed for keys. */
+    private int seed;
+
+    /**
+     * Default Constructor.
+     */
+    public BucketingStrategy() {}
+
+    /**
+     * Parameterized constructor.
+     * 
+     * @param bucketKey
+     *            key in execution context to hash
+     * @param weight
+     *            ratio of keys for which feature is enabled
+     */
+    public BucketingStrategy(String bucketKey, double weight) {
+        getInitParams().put(PARAM_BUCKET_KEY, bucketKey);
+        getInitParams().put(PARAM_WEIGHT, String.valueOf(weight));
+        this.bucketKey = bucketKey;
+        parseWeight(weight);
+    }
+
+    /**
+     * Parameterized constructor for A/B/n testing.
+     * 
+     * @param bucketKey
+     *            key in execution context to hash
+     * @param variants
+     *            variants names and percentages (sum should not exceed 100)
+     */
+    public BucketingStrategy(String bucketKey, Map<String, Double> variants) {
+        getInitParams().put(PARAM_BUCKET_KEY, bucketKey);
+        StringBuilder expression = new StringBuilder();
+        for (Map.Entry<String, Double> variant : variants.entrySet()) {
+            if (expression.length() > 0) {
+                expression.append(VARIANT_SEPARATOR);
+            }
+            expression.append(variant.getKey()).append(WEIGHT_SEPARATOR).append(variant.getValue());
+        }
+        getInitParams().put(PARAM_VARIANTS, expression.toString());
+        this.bucketKey = bucketKey;
+        parseVariants(expression.toString());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void init(String featureName, Map<String, String> initParams) {
+        super.init(featureName, initParams);
+        if (initParams != null) {
+            if (initParams.containsKey(PARAM_BUCKET_KEY)) {
+                this.bucketKey = initParams.get(PARAM_BUCKET_KEY);
+            }
+            if (initParams.containsKey(PARAM_VARIANTS)) {
+                parseVariants(initParams.get(PARAM_VARIANTS));
+            } else if (initParams.containsKey(PARAM_WEIGHT)) {
+                parseWeight(Double.parseDouble(initParams.get(PARAM_WEIGHT)));
+            }
+        }
+        this.seed        = Murmur3.hash32(featureName, 0);
+        this.seedFeature = featureName;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean evaluate(String featureName, FeatureStore currentStore, FlippingExecutionContext executionContext) {
+        return getVariant(featureName, executionContext) != null;
+    }
+
+    /**
+     * Variant assigned to the key of execution context.
+     *
+     * @param featureName
+     *            current feature
+     * @param executionContext
+     *            context holding the bucket key
+     * @return
+     *            variant name or null if key is missing or outside all variants
+     */
+    public String getVariant(String featureName, FlippingExecutionContext executionContext) {
+        if (executionContext == null || !executionContext.containsKey(bucketKey)) {
+            return null;
+        }
+        Object key = executionContext.getValue(bucketKey, false);
+        if (key == null) {
+            return null;
+        }
+        int bucket = getBucket(featureName, key.toString());
+        for (int i = 0; i < variantBounds.length; i++) {
+            if (bucket < variantBounds[i]) {
+                return variantNames[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bucket of a key for a feature.
+     *
+     * @param featureName
+     *            current feature
+     * @param key
+     *            value to hash
+     * @return
+     *            bucket between 0 (inclusive) and {@link #BUCKET_COUNT} (exclusive)
+     */
+    public int getBucket(String featureName, String key) {
+        int featureSeed = featureName.equals(seedFeature) ? seed : Murmur3.hash32(featureName, 0);
+        return Math.floorMod(Murmur3.hash32(key, featureSeed), BUCKET_COUNT);
+    }
+
+    /**
+     * Single variant enabled for a ratio of keys.
+     *
+     * @param weight
+     *            ratio between 0 and 1
+     */
+    private void parseWeight(double weight) {
+        if (weight < 0 || weight > 1) {
+            throw new IllegalArgumentException("The weight value is a ratio and should be set between 0 and 1");
+        }
+        this.variantNames  = new String[] { DEFAULT_VARIANT };
+        this.variantBounds = new int[] { (int) Math.round(weight * BUCKET_COUNT) };
+    }
+
+    /**
+     * Parse variants expression <code>name:percentage,name:percentage</code>.
+     *
+     * @param expression
+     *            variants expression
+     */
+    private void parseVariants(String expression) {
+        String[] chunks = expression.split(VARIANT_SEPARATOR);
+        String[] names  = new String[chunks.length];
+        int[]    bounds = new int[chunks.length];
+        int upperBound  = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            String[] variant = chunks[i].split(WEIGHT_SEPARATOR);
+            if (variant.length != 2 || variant[0].trim().isEmpty()) {
+                throw new IllegalArgumentException("Invalid variant '" + chunks[i] + "' expected 'name:percentage'");
+            }
+            double percentage = Double.parseDouble(variant[1].trim());
+            if (percentage < 0) {
+                throw new IllegalArgumentException("Percentage of variant '" + variant[0].trim() + "' cannot be negative");
+            }
+            upperBound += (int) Math.round(percentage * BUCKET_COUNT / 100);
+            names[i]  = variant[0].trim();
+            bounds[i] = upperBound;
+        }
+        if (upperBound > BUCKET_COUNT) {
+            throw new IllegalArgumentException("Sum of variants percentages should not exceed 100 : " + expression);
+        }
+        this.variantNames  = names;
+        this.variantBounds = bounds;
+    }
+
+    /**
+     * Getter accessor for attribute 'bucketKey'.
+     * 
+     * @return current value of 'bucketKey'
+     */
+    public String getBucketKey() {
+        return bucketKey;
+    }
+
+    /**
+     * Percentage of keys for each variant.
+     * 
+     * @return variants names and percentages
+     */
+    public Map<String, Double> getVariants() {
+        Map<String, Double> variants = new LinkedHashMap<String, Double>();
+        int lowerBound = 0;
+        for (int i = 0; i < variantNames.length; i++) {
+            variants.put(variantNames[i], (variantBounds[i] - lowerBound) * 100.0 / BUCKET_COUNT);
+            lowerBound = variantBounds[i];
+        }
+        return variants;
+    }
+
+}
@@ -20,10 +20,7 @@ package org.ff4j.strategy;
  * #L%
  */
 
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 import org.ff4j.core.FeatureStore;
 import org.ff4j.core.FlippingExecutionContext;
@@ -31,6 +28,9 @@ import org.ff4j.core.FlippingExecutionContext;
 /**
  * This strategy will check hostName and flipped only if it's contained in expected list.
  * 
+ * The list is a {@link MembershipSet} shared between features, defined inline ('grantedClients'), in a file
+ * ('listFile') or registered by name ('listName'), see {@link MembershipSetRegistry}.
+ * 
  * @author Cedrick Lunven (@clunven)
  */
 public class ClientFilterStrategy extends AbstractFlipStrategy {
@@ -48,7 +48,10 @@ public class ClientFilterStrategy extends AbstractFlipStrategy {
     private static final String SPLITTER = ",";
 
     /** Validate the target client against the available hostname. */
-    private final Set<String> setOfGrantedClient = new HashSet<String>();
+    private MembershipSet grantedClients = MembershipSet.EMPTY;
+
+    /** Name of a registered set, resolved at evaluation. */
+    private String listName = null;
 
     /** raw client list. */
     private String rawClientList = null;
@@ -67,9 +70,7 @@ public class ClientFilterStrategy extends AbstractFlipStrategy {
     public ClientFilterStrategy(String clientList) {
         this.rawClientList = clientList;
         getInitParams().put(PARAM_CLIENTLIST, clientList);
-        for (String client : rawClientList.split(SPLITTER)) {
-            setOfGrantedClient.add(client.trim());
-        }
+        this.grantedClients = MembershipSetRegistry.parse(clientList, SPLITTER);
     }
     
     /** {@inheritDoc} */
@@ -79,7 +80,17 @@ public class ClientFilterStrategy extends AbstractFlipStrategy {
         if (initParams != null && initParams.containsKey(PARAM_CLIENTLIST)) {
             this.rawClientList = initParams.get(PARAM_CLIENTLIST);
         }
-        setOfGrantedClient.addAll(Arrays.asList(rawClientList.split(SPLITTER)));
+        this.listName = (initParams != null) ? initParams.get(MembershipSetRegistry.PARAM_LIST_NAME) : null;
+        MembershipSet set = MembershipSetRegistry.resolve(initParams, PARAM_CLIENTLIST, SPLITTER);
+        if (set == null && listName == null) {
+            if (rawClientList == null) {
+                throw new IllegalArgumentException("To work with " + getClass().getName() + " you must provide '"
+                        + PARAM_CLIENTLIST + "', '" + MembershipSetRegistry.PARAM_LIST_FILE + "' or '" 
+                        + MembershipSetRegistry.PARAM_LIST_NAME + "' parameter");
+            }
+            set = MembershipSetRegistry.parse(rawClientList, SPLITTER);
+        }
+        this.grantedClients = (set == null) ? MembershipSet.EMPTY : set;
     }
     
     /** {@inheritDoc} */
@@ -89,8 +100,17 @@ public class ClientFilterStrategy extends AbstractFlipStrategy {
             throw new IllegalArgumentException("To work with " + getClass().getName() + " you must provide '"
                     + CLIENT_HOSTNAME + "' parameter in execution context");
         }
-        return setOfGrantedClient.contains(executionContext.getString(CLIENT_HOSTNAME));
+        return grantedClients().contains(executionContext.getString(CLIENT_HOSTNAME));
     }
 
+    /**
+     * Current set of granted clients (not a bean property, the set is described by init params).
+     *
+     * @return
+     *       current set of granted clients
+     */
+    public MembershipSet grantedClients() {
+        return (listName != null) ? MembershipSetRegistry.getRequired(listName) : grantedClients;
+    }
 
 }
@@ -0,0 +1,90 @@
+package org.ff4j.strategy;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+
+import org.ff4j.core.FlippingStrategy;
+
+/**
+ * Create {@link FlippingStrategy} when features are deserialized (JDBC, XML, JSON...). 
+ * 
+ * No-arg constructors are resolved once for each class as {@link MethodHandle} instead of going through reflection at
+ * each read. Every call returns a new strategy: a strategy is mutable and belongs to a single feature. Constructors are
+ * attached to the class itself, so that a class name resolved by two class loaders gives two classes and a class loader
+ * is never kept after its classes have been unloaded.
+ */
+public final class FlippingStrategyCache {
+
+    /** No-arg constructors by class. */
+    private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<MethodHandle>() {
+        /** {@inheritDoc} */
+        @Override
+        protected MethodHandle computeValue(Class<?> clazz) {
+            try {
+                return MethodHandles.publicLookup().findConstructor(clazz, MethodType.methodType(void.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("No public default constructor for " + clazz.getName(), e);
+            }
+        }
+    };
+
+    /**
+     * Hide default constructor.
+     */
+    private FlippingStrategyCache() {
+    }
+
+    /**
+     * Create and initialize a new strategy, constructor is resolved only once for each class.
+     *
+     * @param uid
+     *      feature uid
+     * @param className
+     *      strategy class name
+     * @param initParams
+     *      init parameters
+     * @param classLoader
+     *      class loader to use, or null for the current one
+     * @return
+     *      initialized strategy
+     * @throws Exception
+     *      error when loading class or during initialization
+     */
+    public static FlippingStrategy newInstance(String uid, String className, Map<String, String> initParams, ClassLoader classLoader) 
+    throws Exception {
+        Class<?> clazz = (classLoader == null) ? Class.forName(className) : classLoader.loadClass(className);
+        if (!FlippingStrategy.class.isAssignableFrom(clazz)) {
+            throw new IllegalArgumentException("Invalid type " + className);
+        }
+        FlippingStrategy strategy;
+        try {
+            strategy = (FlippingStrategy) CONSTRUCTORS.get(clazz).invoke();
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot instantiate " + className, t);
+        }
+        strategy.init(uid, initParams);
+        return strategy;
+    }
+}
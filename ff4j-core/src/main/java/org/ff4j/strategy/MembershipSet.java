@@ -0,0 +1,272 @@
+package org.ff4j.strategy;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.ff4j.utils.Murmur3;
+
+/**
+ * Immutable and compact set of strings used by list based strategies (white list, black list, regions).
+ * 
+ * Values are sorted and packed into a single char array with offsets, membership is an exact binary search. A small
+ * Bloom filter (about 8 bits per value) is checked first so that most values which are not members are rejected
+ * without comparing strings. Sets are shared between features with {@link MembershipSetRegistry}.
+ */
+public final class MembershipSet implements Serializable {
+
+    /** Serial. */
+    private static final long serialVersionUID = 2883271458130939562L;
+
+    /** Empty set. */
+    public static final MembershipSet EMPTY = new MembershipSet(new String[0]);
+
+    /** Bits of Bloom filter for each value. */
+    private static final int BLOOM_BITS_PER_VALUE = 8;
+
+    /** Number of hash functions of Bloom filter. */
+    private static final int BLOOM_HASHES = 3;
+
+    /** Seed for Bloom filter hash. */
+    private static final int BLOOM_SEED = 0x5f3759df;
+
+    /** Sorted values, concatenated. */
+    private final char[] data;
+
+    /** Start of each value in data, last slot is data length. */
+    private final int[] offsets;
+
+    /** Bloom filter. */
+    private final long[] bloom;
+
+    /** Mask on bit index of Bloom filter (number of bits - 1). */
+    private final int bloomMask;
+
+    /**
+     * Constructor with sorted and deduplicated values.
+     *
+     * @param sorted
+     *      values
+     */
+    private MembershipSet(String[] sorted) {
+        int length = 0;
+        for (String value : sorted) {
+            length += value.length();
+        }
+        this.data    = new char[length];
+        this.offsets = new int[sorted.length + 1];
+        int bits = Integer.highestOneBit(Math.max(64, sorted.length * BLOOM_BITS_PER_VALUE - 1)) << 1;
+        if (bits <= 0) {
+            bits = 1 << 30;
+        }
+        this.bloom     = new long[bits >>> 6];
+        this.bloomMask = bits - 1;
+        int pos = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            offsets[i] = pos;
+            sorted[i].getChars(0, sorted[i].length(), data, pos);
+            pos += sorted[i].length();
+            int h1 = Murmur3.hash32(sorted[i], BLOOM_SEED);
+            int h2 = secondHash(h1);
+            for (int k = 0; k < BLOOM_HASHES; k++) {
+                int bit = (h1 + k * h2) & bloomMask;
+                bloom[bit >>> 6] |= 1L << bit;
+            }
+        }
+        offsets[sorted.length] = pos;
+    }
+
+    /**
+     * Build a set.
+     *
+     * @param values
+     *      values, null and empty values are ignored
+     * @return
+     *      immutable set
+     */
+    public static MembershipSet of(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return EMPTY;
+        }
+        String[] array = new String[values.size()];
+        int n = 0;
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                array[n++] = value;
+            }
+        }
+        Arrays.sort(array, 0, n);
+        // Deduplicate in place
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || !array[i].equals(array[distinct - 1])) {
+                array[distinct++] = array[i];
+            }
+        }
+        return (distinct == 0) ? EMPTY : new MembershipSet(Arrays.copyOf(array, distinct));
+    }
+
+    /**
+     * Build a set from a delimited expression (values are trimmed).
+     *
+     * @param expression
+     *      values separated with splitter
+     * @param splitter
+     *      separator
+     * @return
+     *      immutable set
+     */
+    public static MembershipSet parse(String expression, String splitter) {
+        if (expression == null || expression.isEmpty()) {
+            return EMPTY;
+        }
+        String[] chunks = expression.split(splitter);
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = chunks[i].trim();
+        }
+        return of(Arrays.asList(chunks));
+    }
+
+    /**
+     * Second hash for double hashing.
+     *
+     * @param h1
+     *      first hash
+     * @return
+     *      odd hash
+     */
+    private static int secondHash(int h1) {
+        return Integer.rotateLeft(h1 * 0x85ebca6b, 15) | 1;
+    }
+
+    /**
+     * Check membership.
+     *
+     * @param value
+     *      value to check
+     * @return
+     *      if value is in set
+     */
+    public boolean contains(CharSequence value) {
+        if (value == null || offsets.length == 1) {
+            return false;
+        }
+        int h1 = Murmur3.hash32(value, BLOOM_SEED);
+        int h2 = secondHash(h1);
+        for (int k = 0; k < BLOOM_HASHES; k++) {
+            int bit = (h1 + k * h2) & bloomMask;
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        int low  = 0;
+        int high = offsets.length - 2;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(mid, value);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compare value at index with expected value (same order as {@link String#compareTo(String)}).
+     *
+     * @param idx
+     *      index of value in set
+     * @param value
+     *      expected value
+     * @return
+     *      comparison
+     */
+    private int compare(int idx, CharSequence value) {
+        int start  = offsets[idx];
+        int len1   = offsets[idx + 1] - start;
+        int len2   = value.length();
+        int limit  = Math.min(len1, len2);
+        for (int i = 0; i < limit; i++) {
+            char c1 = data[start + i];
+            char c2 = value.charAt(i);
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /**
+     * Number of values.
+     *
+     * @return
+     *      size of set
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Check if the set is empty.
+     *
+     * @return
+     *      if set is empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Values as a read-only list (sorted), strings are created on access.
+     *
+     * @return
+     *      values
+     */
+    public List<String> values() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index);
+                }
+                return new String(data, offsets[index], offsets[index + 1] - offsets[index]);
+            }
+            @Override
+            public int size() {
+                return MembershipSet.this.size();
+            }
+        };
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "MembershipSet[size=" + size() + "]";
+    }
+}
@@ -0,0 +1,333 @@
+package org.ff4j.strategy;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared registry of {@link MembershipSet} so that features (and every cached copy of them) referencing the same
+ * list hold a single instance.
+ * 
+ * A list based strategy can reference its values in three ways :
+ * <ul>
+ * <li>inline, with the usual comma separated parameter (parsed once for a given expression)</li>
+ * <li>with parameter 'listFile', a classpath resource with one value per line ('#' for comments), or a file of the
+ * directory defined with {@link #setListDirectory(String)}</li>
+ * <li>with parameter 'listName', a set registered by the application with {@link #register(String, Collection)}
+ * (for instance from a property), resolved at each evaluation so that it can be replaced at runtime</li>
+ * </ul>
+ * 
+ * Init parameters can be edited remotely (console, REST api), so files are only read below the list directory, which
+ * is not defined by default.
+ */
+public final class MembershipSetRegistry {
+
+    /** Parameter to load values from a file or a classpath resource. */
+    public static final String PARAM_LIST_FILE = "listFile";
+
+    /** Parameter to use a set registered by name. */
+    public static final String PARAM_LIST_NAME = "listName";
+
+    /** Maximum number of inline expressions kept. */
+    public static final int MAXIMUM_INLINE_SETS = 1000;
+
+    /** Sets parsed from inline expressions, key is (splitter, expression). */
+    private static final ConcurrentMap<List<String>, MembershipSet> INLINE = new ConcurrentHashMap<List<String>, MembershipSet>();
+
+    /** Sets loaded from files or resources. */
+    private static final ConcurrentMap<String, MembershipSet> RESOURCES = new ConcurrentHashMap<String, MembershipSet>();
+
+    /** Sets registered by name. */
+    private static final ConcurrentMap<String, MembershipSet> NAMED = new ConcurrentHashMap<String, MembershipSet>();
+
+    /** Directory of list files, only classpath resources can be read if null. */
+    private static volatile Path listDirectory;
+
+    /**
+     * Hide default constructor.
+     */
+    private MembershipSetRegistry() {
+    }
+
+    /**
+     * Shared set for an inline expression.
+     *
+     * @param expression
+     *      values separated with splitter
+     * @param splitter
+     *      separator
+     * @return
+     *      shared set
+     */
+    public static MembershipSet parse(String expression, String splitter) {
+        if (expression == null || expression.isEmpty()) {
+            return MembershipSet.EMPTY;
+        }
+        List<String> key = Arrays.asList(splitter, expression);
+        MembershipSet set = INLINE.get(key);
+        if (set == null) {
+            if (INLINE.size() >= MAXIMUM_INLINE_SETS) {
+                INLINE.clear();
+            }
+            set = MembershipSet.parse(expression, splitter);
+            MembershipSet previous = INLINE.putIfAbsent(key, set);
+            if (previous != null) {
+                set = previous;
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Shared set for a file or a classpath resource, loaded once.
+     *
+     * @param location
+     *      file path (relative to list directory) or classpath resource
+     * @return
+     *      shared set
+     */
+    public static MembershipSet fromResource(String location) {
+        return RESOURCES.computeIfAbsent(location, MembershipSetRegistry::load);
+    }
+
+    /**
+     * Load again a file or a classpath resource, strategies using it see new values.
+     *
+     * @param location
+     *      file path (relative to list directory) or classpath resource
+     * @return
+     *      shared set
+     */
+    public static MembershipSet reloadResource(String location) {
+        MembershipSet set = load(location);
+        RESOURCES.put(location, set);
+        return set;
+    }
+
+    /**
+     * Define the directory where list files can be read.
+     *
+     * @param directory
+     *      directory of list files, null to read classpath resources only
+     */
+    public static void setListDirectory(String directory) {
+        listDirectory = (directory == null) ? null : Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Directory where list files can be read.
+     *
+     * @return
+     *      directory of list files, null if only classpath resources can be read
+     */
+    public static String getListDirectory() {
+        Path directory = listDirectory;
+        return (directory == null) ? null : directory.toString();
+    }
+
+    /**
+     * Read values from list directory, then classpath.
+     *
+     * @param location
+     *      file path (relative to list directory) or classpath resource
+     * @return
+     *      set of values
+     */
+    private static MembershipSet load(String location) {
+        if (location == null || location.isEmpty()) {
+            throw new IllegalArgumentException("Parameter '" + PARAM_LIST_FILE + "' must not be empty");
+        }
+        Path directory = listDirectory;
+        if (directory != null) {
+            Path path;
+            try {
+                path = directory.resolve(location).normalize();
+            } catch (RuntimeException invalidPath) {
+                throw new IllegalArgumentException("Invalid list file '" + location + "'", invalidPath);
+            }
+            if (!path.startsWith(directory)) {
+                throw new IllegalArgumentException("List file '" + location + "' is outside of list directory");
+            }
+            if (Files.isRegularFile(path)) {
+                try (InputStream in = Files.newInputStream(path)) {
+                    return MembershipSet.of(readValues(in));
+                } catch (IOException ioe) {
+                    throw new IllegalArgumentException("Cannot read values from '" + location + "'", ioe);
+                }
+            }
+        }
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = MembershipSetRegistry.class.getClassLoader();
+        }
+        try (InputStream in = cl.getResourceAsStream(location.startsWith("/") ? location.substring(1) : location)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Cannot find file or resource '" + location + "'");
+            }
+            return MembershipSet.of(readValues(in));
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Cannot read values from '" + location + "'", ioe);
+        }
+    }
+
+    /**
+     * Read one value per line.
+     *
+     * @param in
+     *      input stream
+     * @return
+     *      values
+     * @throws IOException
+     *      error when reading
+     */
+    private static List<String> readValues(InputStream in) throws IOException {
+        List<String> values = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                values.add(line);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Register (or replace) a named set.
+     *
+     * @param name
+     *      name of set
+     * @param values
+     *      values of set
+     * @return
+     *      registered set
+     */
+    public static MembershipSet register(String name, Collection<String> values) {
+        MembershipSet set = MembershipSet.of(values);
+        NAMED.put(name, set);
+        return set;
+    }
+
+    /**
+     * Register (or replace) a named set from a delimited expression, for instance the value of a property.
+     *
+     * @param name
+     *      name of set
+     * @param expression
+     *      values separated with splitter
+     * @param splitter
+     *      separator
+     * @return
+     *      registered set
+     */
+    public static MembershipSet register(String name, String expression, String splitter) {
+        MembershipSet set = MembershipSet.parse(expression, splitter);
+        NAMED.put(name, set);
+        return set;
+    }
+
+    /**
+     * Access a named set.
+     *
+     * @param name
+     *      name of set
+     * @return
+     *      set or null if not registered
+     */
+    public static MembershipSet get(String name) {
+        return NAMED.get(name);
+    }
+
+    /**
+     * Remove a named set.
+     *
+     * @param name
+     *      name of set
+     */
+    public static void unregister(String name) {
+        NAMED.remove(name);
+    }
+
+    /**
+     * Remove all sets.
+     */
+    public static void clear() {
+        INLINE.clear();
+        RESOURCES.clear();
+        NAMED.clear();
+    }
+
+    /**
+     * Values of a list based strategy from its init parameters.
+     *
+     * @param initParams
+     *      init parameters of strategy
+     * @param listParam
+     *      name of the parameter holding inline values
+     * @param splitter
+     *      separator of inline values
+     * @return
+     *      shared set, null if values are defined by name ({@link #PARAM_LIST_NAME}) or not defined at all
+     */
+    public static MembershipSet resolve(Map<String, String> initParams, String listParam, String splitter) {
+        if (initParams == null) {
+            return null;
+        }
+        if (initParams.containsKey(PARAM_LIST_FILE)) {
+            return fromResource(initParams.get(PARAM_LIST_FILE));
+        }
+        if (initParams.containsKey(listParam)) {
+            return parse(initParams.get(listParam), splitter);
+        }
+        return null;
+    }
+
+    /**
+     * Set referenced by name, failing if not registered.
+     *
+     * @param name
+     *      name of set
+     * @return
+     *      registered set
+     */
+    public static MembershipSet getRequired(String name) {
+        MembershipSet set = NAMED.get(name);
+        if (set == null) {
+            throw new IllegalArgumentException("Membership set '" + name + "' has not been registered");
+        }
+        return set;
+    }
+}
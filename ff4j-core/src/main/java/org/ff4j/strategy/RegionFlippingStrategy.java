@@ -21,10 +21,7 @@ package org.ff4j.strategy;
  */
 
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 import org.ff4j.core.FeatureStore;
 import org.ff4j.core.FlippingExecutionContext;
@@ -33,6 +30,8 @@ import org.ff4j.core.FlippingExecutionContext;
  * This strategy will check region
  * and flipped only if it's contained in expected list.
  * 
+ * Regions can also be read from a file ('listFile') or a registered set ('listName'), see {@link MembershipSetRegistry}.
+ * 
  * @author Cedrick Lunven (@clunven)
  */
 public class RegionFlippingStrategy extends AbstractFlipStrategy implements Serializable {
@@ -53,10 +52,14 @@ public class RegionFlippingStrategy extends AbstractFlipStrategy implements Seri
 	/**
 	 * Initial Granted Regions.
 	 */
-	private Set<String> setOfGrantedRegions;
+	private MembershipSet setOfGrantedRegions = MembershipSet.EMPTY;
+
+	/**
+	 * Name of a registered set, resolved at evaluation.
+	 */
+	private String listName = null;
 
 	public RegionFlippingStrategy() {
-		this.setOfGrantedRegions = new HashSet<String>();
 	}
 
 	/**
@@ -65,9 +68,12 @@ public class RegionFlippingStrategy extends AbstractFlipStrategy implements Seri
 	@Override
 	public void init(String featureName, Map<String, String> initValue) {
 		super.init(featureName, initValue);
-		assertRequiredParameter(INIT_PARAMNAME_REGIONS);
-		String[] arrayOfRegions = initValue.get(INIT_PARAMNAME_REGIONS).split(",");
-		setOfGrantedRegions.addAll(Arrays.asList(arrayOfRegions));
+		this.listName = initValue.get(MembershipSetRegistry.PARAM_LIST_NAME);
+		if (listName == null && !initValue.containsKey(MembershipSetRegistry.PARAM_LIST_FILE)) {
+			assertRequiredParameter(INIT_PARAMNAME_REGIONS);
+		}
+		MembershipSet regions = MembershipSetRegistry.resolve(initValue, INIT_PARAMNAME_REGIONS, ",");
+		this.setOfGrantedRegions = (regions == null) ? MembershipSet.EMPTY : regions;
 	}
 
 	/**
@@ -77,6 +83,7 @@ public class RegionFlippingStrategy extends AbstractFlipStrategy implements Seri
 	public boolean evaluate(String fName, FeatureStore fStore, FlippingExecutionContext ctx) {
 		// true means required here
 		String userRegion = ctx.getString(PARAMNAME_USER_REGION, true);
-		return setOfGrantedRegions.contains(userRegion);
+		MembershipSet regions = (listName != null) ? MembershipSetRegistry.getRequired(listName) : setOfGrantedRegions;
+		return regions.contains(userRegion);
 	}
 }
@@ -0,0 +1,131 @@
+package org.ff4j.strategy.el;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Expression parsed once and shared: syntax tree and the feature identifiers it references.
+ * 
+ * Instances are immutable and kept in a bounded concurrent cache, see {@link #compile(String)}.
+ */
+public final class CompiledExpression {
+
+    /** Maximum number of expressions kept in cache (expressions may come from execution context). */
+    public static final int MAX_CACHED_EXPRESSIONS = 1024;
+
+    /** Compiled expressions shared by all strategies. */
+    private static final ConcurrentMap<String, CompiledExpression> CACHE = new ConcurrentHashMap<String, CompiledExpression>();
+
+    /** Original expression. */
+    private final String expression;
+
+    /** Syntax tree. */
+    private final ExpressionNode rootNode;
+
+    /** Feature identifiers referenced in expression. */
+    private final Set<String> referencedFeatures;
+
+    /**
+     * Parse expression.
+     *
+     * @param expression
+     *      target expression
+     */
+    private CompiledExpression(String expression) {
+        this.expression = expression;
+        this.rootNode   = ExpressionParser.parseExpression(expression);
+        Set<String> sheets = new LinkedHashSet<String>();
+        rootNode.collectSheets(sheets);
+        this.referencedFeatures = Collections.unmodifiableSet(sheets);
+    }
+
+    /**
+     * Retrieve compiled expression from cache, parse it if needed.
+     *
+     * @param expression
+     *      target expression
+     * @return
+     *      compiled expression
+     */
+    public static CompiledExpression compile(String expression) {
+        CompiledExpression compiled = CACHE.get(expression);
+        if (compiled == null) {
+            compiled = new CompiledExpression(expression);
+            if (CACHE.size() >= MAX_CACHED_EXPRESSIONS) {
+                CACHE.clear();
+            }
+            CompiledExpression existing = CACHE.putIfAbsent(expression, compiled);
+            if (existing != null) {
+                compiled = existing;
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Evaluate expression, feature states are requested lazily (short-circuit on AND and OR).
+     *
+     * @param featureState
+     *      resolve state of a feature
+     * @return
+     *      expression evaluation value
+     */
+    public boolean evaluate(Predicate<String> featureState) {
+        return rootNode.evalue(featureState);
+    }
+
+    /**
+     * Getter accessor for attribute 'expression'.
+     *
+     * @return
+     *       current value of 'expression'
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Getter accessor for attribute 'rootNode'.
+     *
+     * @return
+     *       current value of 'rootNode'
+     */
+    public ExpressionNode getRootNode() {
+        return rootNode;
+    }
+
+    /**
+     * Getter accessor for attribute 'referencedFeatures'.
+     *
+     * @return
+     *       current value of 'referencedFeatures'
+     */
+    public Set<String> getReferencedFeatures() {
+        return referencedFeatures;
+    }
+
+}
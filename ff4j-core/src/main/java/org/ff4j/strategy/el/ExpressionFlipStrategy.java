@@ -21,20 +21,22 @@ package org.ff4j.strategy.el;
  */
 
 import java.io.Serializable;
-
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.strategy.AbstractFlipStrategy;
 
 /**
  * Allow to parse target expression.
  * 
+ * The expression is compiled once (see {@link CompiledExpression}) and only the features it references are read
+ * from the store, lazily, when operators need them.
+ * 
  * @author Cedrick Lunven (@clunven)
  */
 public class ExpressionFlipStrategy extends AbstractFlipStrategy implements Serializable {
@@ -45,11 +47,11 @@ public class ExpressionFlipStrategy extends AbstractFlipStrategy implements Seri
     /** Expected parameter. */
     public static final String PARAM_EXPRESSION = "expression";
 
-    /** Cached init value. */
-    private static Map<String, String> mapOfValue = new HashMap<String, String>();
+    /** Expression defined for the feature. */
+    private String expression;
 
-    /** Cached syntax trees. */
-    private static Map<String, ExpressionNode> cachedExpression = new HashMap<String, ExpressionNode>();
+    /** Compiled expression, rebuilt from cache when needed. */
+    private transient volatile CompiledExpression compiledExpression;
 
     /**
      * Default constructor using introspection.
@@ -58,7 +60,7 @@ public class ExpressionFlipStrategy extends AbstractFlipStrategy implements Seri
     
     public ExpressionFlipStrategy(String featureName, String expression) {
         getInitParams().put(PARAM_EXPRESSION, expression);
-        mapOfValue.put(featureName, expression);
+        this.expression = expression;
     }
 
     /** {@inheritDoc} */
@@ -66,7 +68,8 @@ public class ExpressionFlipStrategy extends AbstractFlipStrategy implements Seri
     public void init(String featureName, Map<String, String> initValue) {
         super.init(featureName, initValue);
         assertRequiredParameter(PARAM_EXPRESSION);
-        mapOfValue.put(featureName, initValue.get(PARAM_EXPRESSION));
+        this.expression         = initValue.get(PARAM_EXPRESSION);
+        this.compiledExpression = null;
     }
 
     /** {@inheritDoc} */
@@ -74,52 +77,87 @@ public class ExpressionFlipStrategy extends AbstractFlipStrategy implements Seri
     public boolean evaluate(String featureName, FeatureStore currentStore, FlippingExecutionContext executionContext) {
         // If execution context specified overriding initvalue
         if ((null != executionContext) && executionContext.containsKey(PARAM_EXPRESSION)) {
-            return evaluateExpression(executionContext.getString(PARAM_EXPRESSION), currentStore,executionContext);
-        } else if (mapOfValue.containsKey(featureName)) {
-            // Else, check initial value of featureName (if exist)
-            return evaluateExpression(mapOfValue.get(featureName), currentStore, executionContext);
+            String contextExpression = executionContext.getString(PARAM_EXPRESSION);
+            return evaluateExpression(CompiledExpression.compile(contextExpression), currentStore, executionContext);
         }
-        // FeatureName does not exit, no condition required
+        // Else, check initial value of featureName (if exist)
+        CompiledExpression compiled = getCompiledExpression();
+        if (compiled != null) {
+            return evaluateExpression(compiled, currentStore, executionContext);
+        }
+        // No expression defined, no condition required
         return true;
     }
 
     /**
-     * Evaluate expression, put it in cache is required.
+     * Access compiled expression of the feature.
+     *
+     * @return
+     *      compiled expression or null if no expression is defined
+     */
+    private CompiledExpression getCompiledExpression() {
+        if (expression == null) {
+            // Init parameters populated without init (introspection)
+            expression = getInitParams().get(PARAM_EXPRESSION);
+            if (expression == null) {
+                return null;
+            }
+        }
+        CompiledExpression compiled = compiledExpression;
+        if (compiled == null || !compiled.getExpression().equals(expression)) {
+            compiled = CompiledExpression.compile(expression);
+            compiledExpression = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Evaluate expression reading only the features it needs, each of them at most once.
      * 
-     * @param expression
+     * @param compiled
      *            target expression
      * @return expression evaluation value
      */
-    private boolean evaluateExpression(String expression, FeatureStore currentStore,
+    private boolean evaluateExpression(CompiledExpression compiled, FeatureStore currentStore,
                                        FlippingExecutionContext executionContext) {
-        if (!cachedExpression.containsKey(expression)) {
-            cachedExpression.put(expression, ExpressionParser.parseExpression(expression));
-        }
-        return cachedExpression.get(expression).evalue(getFeaturesStatus(currentStore, executionContext));
+        final Map<String, Boolean> states = new HashMap<String, Boolean>();
+        Predicate<String> featureState = uid -> {
+            Boolean state = states.get(uid);
+            if (state == null) {
+                state = getFeatureStatus(uid, currentStore, executionContext);
+                states.put(uid, state);
+            }
+            return state;
+        };
+        return compiled.evaluate(featureState);
     }
 
     /**
-     * Return status of all the features to calculate.
+     * Return status of a feature referenced in expression.
      * 
+     * @param uid
+     *            feature identifier
      * @param currentStore
      *            current store for features
-     * @return current statuses for stores
+     * @return current status of the feature, false if it does not exist
      */
-    private Map<String, Boolean> getFeaturesStatus(FeatureStore currentStore,
-                                                   FlippingExecutionContext executionContext) {
-        Map<String, Boolean> bools = new HashMap<String, Boolean>();
-        List<Feature> listOfFlip = new ArrayList<Feature>();
-        listOfFlip.addAll(currentStore.readAll().values());
-        for (Feature fp : listOfFlip) {
-            if (fp.isEnable() && 
-                null != fp.getFlippingStrategy() &&
-                !(fp.getFlippingStrategy() instanceof ExpressionFlipStrategy)) {
-                bools.put(fp.getUid(), fp.getFlippingStrategy().evaluate(fp.getUid(), currentStore, executionContext));
-            } else {
-                bools.put(fp.getUid(), fp.isEnable());
-            }
+    private boolean getFeatureStatus(String uid, FeatureStore currentStore, FlippingExecutionContext executionContext) {
+        // Single call to the store, no existence check before reading
+        Feature fp;
+        try {
+            fp = currentStore.read(uid);
+        } catch (FeatureNotFoundException fnfe) {
+            return false;
+        }
+        if (fp == null) {
+            return false;
+        }
+        if (fp.isEnable() && 
+            null != fp.getFlippingStrategy() &&
+            !(fp.getFlippingStrategy() instanceof ExpressionFlipStrategy)) {
+            return fp.getFlippingStrategy().evaluate(fp.getUid(), currentStore, executionContext);
         }
-        return bools;
+        return fp.isEnable();
     }
 
 }
@@ -21,8 +21,10 @@ package org.ff4j.strategy.el;
  */
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * Storage of an node in expression tree.
@@ -66,55 +68,42 @@ public class ExpressionNode {
      * @return constante will be substitue.
      */
     public boolean evalue(Map<String, Boolean> stateMap) {
-        if (value != null && !value.isEmpty()) {
-            return evaluateValue(stateMap);
-        } else if (ExpressionOperator.NOT.equals(operator)) {
-            return evaluateOperatorNot(stateMap);
-        } else if (ExpressionOperator.AND.equals(operator)) {
-            return evaluateOperatorAnd(stateMap);
-        } else {
-            // Only left
-            return evaluateOperatorOr(stateMap);
-        }
+        return evalue(uid -> Boolean.TRUE.equals(stateMap.get(uid)));
     }
 
     /**
-     * Evaluate map for substitutions.
+     * Evalue the whole expression tree, states of sheets are only requested when needed
+     * as operators AND and OR stop as soon as the result is known.
      * 
-     * @param stateMap
-     *            map with expression states
-     * @return state of target key is present
+     * @param featureState
+     *            resolve state of a sheet (feature id)
+     * @return expression evaluation value
      */
-    private boolean evaluateValue(Map<String, Boolean> stateMap) {
-        if (stateMap.containsKey(value)) {
-            return stateMap.get(value);
+    public boolean evalue(Predicate<String> featureState) {
+        if (value != null && !value.isEmpty()) {
+            return featureState.test(value);
+        } else if (ExpressionOperator.NOT.equals(operator)) {
+            return !subNodes.get(0).evalue(featureState);
+        } else if (ExpressionOperator.AND.equals(operator)) {
+            return evaluateOperatorAnd(featureState);
+        } else {
+            // Only left
+            return evaluateOperatorOr(featureState);
         }
-        return false;
-    }
-
-    /**
-     * Evaluate operator not.
-     * 
-     * @param stateMap
-     *            map of states
-     * @return state of target key is present
-     */
-    private boolean evaluateOperatorNot(Map<String, Boolean> stateMap) {
-        return !subNodes.get(0).evalue(stateMap);
     }
 
     /**
      * Evaluate operator AND.
      * 
-     * @param stateMap
-     *            map of states
+     * @param featureState
+     *            resolve state of a sheet
      * @return state of target key is present
      */
-    private boolean evaluateOperatorAnd(Map<String, Boolean> stateMap) {
+    private boolean evaluateOperatorAnd(Predicate<String> featureState) {
         boolean status = true;
         int idx = 0;
         while (status && idx < subNodes.size()) {
-            status = subNodes.get(idx).evalue(stateMap);
+            status = subNodes.get(idx).evalue(featureState);
             idx++;
         }
         return status;
@@ -123,22 +112,35 @@ public class ExpressionNode {
     /**
      * Evaluate operator OR.
      * 
-     * @param stateMap
-     *            map of states
+     * @param featureState
+     *            resolve state of a sheet
      * @return state of target key is present
      */
-    private boolean evaluateOperatorOr(Map<String, Boolean> stateMap) {
-        boolean status;
+    private boolean evaluateOperatorOr(Predicate<String> featureState) {
+        boolean status = false;
         int idx = 0;
-        // No ternaire expression, simplier
-        status = false;
         while (!status && idx < subNodes.size()) {
-            status = subNodes.get(idx).evalue(stateMap);
+            status = subNodes.get(idx).evalue(featureState);
             idx++;
         }
         return status;
     }
 
+    /**
+     * Collect feature identifiers (sheets) referenced in the tree.
+     * 
+     * @param target
+     *            collection to populate
+     */
+    public void collectSheets(Collection<String> target) {
+        if (value != null && !value.isEmpty()) {
+            target.add(value);
+        }
+        for (ExpressionNode subnode : subNodes) {
+            subnode.collectSheets(target);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
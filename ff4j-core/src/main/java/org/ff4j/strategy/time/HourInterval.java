@@ -152,6 +152,26 @@ public final class HourInterval {
        return from.before(cal) && to.after(cal);
    }
 
+   /**
+    * Lower bound as minute of day (0-1439).
+    *
+    * @return
+    *       minute of day of 'from'
+    */
+   public int getFromMinuteOfDay() {
+       return from.get(Calendar.HOUR_OF_DAY) * 60 + from.get(Calendar.MINUTE);
+   }
+
+   /**
+    * Upper bound as minute of day (0-1439).
+    *
+    * @return
+    *       minute of day of 'to'
+    */
+   public int getToMinuteOfDay() {
+       return to.get(Calendar.HOUR_OF_DAY) * 60 + to.get(Calendar.MINUTE);
+   }
+
    /**
     * Getter accessor for attribute 'from'.
     *
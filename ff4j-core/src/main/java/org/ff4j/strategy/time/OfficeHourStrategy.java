@@ -23,7 +23,16 @@ package org.ff4j.strategy.time;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
@@ -37,6 +46,11 @@ import org.ff4j.strategy.AbstractFlipStrategy;
  * Implementation of an office hour strategy.
  * 
  * Expression { "monday":["08:00-12:00", "13:30-18:00"], "tuesday":[], "wednesday":[], "thursday":[],"friday":[],"saturday":[] }
+ * 
+ * Schedules are compiled at init into one bitmap of minutes per day (an interval opens at its first minute and closes
+ * at its last one). The state and the instant of the next transition are cached, until then evaluation only compares
+ * current time with this instant. Days are computed in the time zone given by parameter 'timezone' (system default
+ * if absent).
  *
  * @author Cedrick Lunven (@clunven)
  */
@@ -46,7 +60,16 @@ public class OfficeHourStrategy extends AbstractFlipStrategy {
     private static final long serialVersionUID = -4384808702026232747L;
 
     /** Parsing date expression. */
-    private static final DateFormat SDF_DATE = new SimpleDateFormat("yyyy-MM-dd");
+    private static final String DATE_PATTERN = "yyyy-MM-dd";
+    
+    /** Minutes in a day. */
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    
+    /** Milliseconds in a minute. */
+    private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+    
+    /** Closed all day (never modified). */
+    private static final BitSet CLOSED = new BitSet(0);
     
     /** Constants. */
     private static final String MONDAY = "monday";
@@ -78,48 +101,88 @@ public class OfficeHourStrategy extends AbstractFlipStrategy {
     /** Contacts. */
     public static final String OVERRIDE_DATE = "overridedDate";
     
-    /** time table. */
-    private Map < Integer, List<HourInterval>> weekTimeTable = new HashMap<Integer, List<HourInterval>>();
+    /** Time zone of the schedule. */
+    public static final String PARAM_TIMEZONE = "timezone";
+    
+    /** time table, minutes bitmap indexed by ISO day of week (1 = monday). */
+    private BitSet[] weekTimeTable = new BitSet[8];
+    
+    /** openings, minutes bitmap by epoch day. */
+    private Map < Long, BitSet> specialTimeTable = new HashMap< Long, BitSet>();
+    
+    /** public holiday, sorted epoch days. */
+    private long[] publicHolidays = new long[0];
     
-    /** openings. */
-    private Map < String, List<HourInterval>> specialTimeTable = new HashMap< String, List<HourInterval>>();
+    /** Time zone, system default if null. */
+    private ZoneId timeZone;
     
-    /** public holiday. */
-    private List < String > publicHolidays = new ArrayList<String>();
+    /** State until next transition. */
+    private transient volatile OpeningWindow window;
+    
+    /**
+     * State of the strategy between two instants.
+     */
+    private static final class OpeningWindow {
+        
+        /** Start (inclusive) in epoch millis. */
+        private final long from;
+        
+        /** End (exclusive) in epoch millis, next transition. */
+        private final long until;
+        
+        /** Open or closed. */
+        private final boolean open;
+        
+        private OpeningWindow(long from, long until, boolean open) {
+            this.from  = from;
+            this.until = until;
+            this.open  = open;
+        }
+    }
     
     /** {@inheritDoc} */
     @Override
     public void init(String featureName, Map<String, String> initParam) {
         super.init(featureName, initParam);
         
+        // Time zone
+        timeZone = null;
+        String zone = initParam.get(PARAM_TIMEZONE);
+        if (zone != null && !"".equals(zone.trim())) {
+            try {
+                timeZone = ZoneId.of(zone.trim());
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException("Invalid time zone <" + zone + ">", e);
+            }
+        }
+        
         // Update week timetable
-        weekTimeTable.put(Calendar.MONDAY,      parseIntervalsExpression(initParam.get(MONDAY)));
-        weekTimeTable.put(Calendar.TUESDAY,     parseIntervalsExpression(initParam.get(TUESDAY)));
-        weekTimeTable.put(Calendar.WEDNESDAY,   parseIntervalsExpression(initParam.get(WEDNESDAY)));
-        weekTimeTable.put(Calendar.THURSDAY,    parseIntervalsExpression(initParam.get(THURSDAY)));
-        weekTimeTable.put(Calendar.FRIDAY,      parseIntervalsExpression(initParam.get(FRIDAY)));
-        weekTimeTable.put(Calendar.SATURDAY,    parseIntervalsExpression(initParam.get(SATURDAY)));
-        weekTimeTable.put(Calendar.SUNDAY,      parseIntervalsExpression(initParam.get(SUNDAY)));
+        BitSet[] week = new BitSet[8];
+        week[1] = compileIntervals(parseIntervalsExpression(initParam.get(MONDAY)));
+        week[2] = compileIntervals(parseIntervalsExpression(initParam.get(TUESDAY)));
+        week[3] = compileIntervals(parseIntervalsExpression(initParam.get(WEDNESDAY)));
+        week[4] = compileIntervals(parseIntervalsExpression(initParam.get(THURSDAY)));
+        week[5] = compileIntervals(parseIntervalsExpression(initParam.get(FRIDAY)));
+        week[6] = compileIntervals(parseIntervalsExpression(initParam.get(SATURDAY)));
+        week[7] = compileIntervals(parseIntervalsExpression(initParam.get(SUNDAY)));
         
         // Update publicHolidays
+        long[] holidays = new long[0];
         if (initParam.containsKey(PUBLICHOLIDAY)) {
             String[] days = initParam.get(PUBLICHOLIDAY).split(",");
-            for (String day : days) {
-               try {
-                   Calendar c = Calendar.getInstance();
-                   c.setTime(SDF_DATE.parse(day.trim()));
-                   c.set(Calendar.MILLISECOND, 0);
-                   c.set(Calendar.SECOND, 0);
-                   c.set(Calendar.MINUTE, 0);
-                   c.set(Calendar.HOUR_OF_DAY, 0);
-                   publicHolidays.add(SDF_DATE.format(c.getTime()));
+            holidays = new long[days.length];
+            for (int i = 0; i < days.length; i++) {
+                try {
+                    holidays[i] = parseEpochDay(days[i].trim());
                 } catch (ParseException e) {
-                   throw new IllegalArgumentException("Invalid Syntax for <" + day + "> expected 'yyyy-MM-dd'", e);
+                    throw new IllegalArgumentException("Invalid Syntax for <" + days[i] + "> expected 'yyyy-MM-dd'", e);
                 }
             }
+            Arrays.sort(holidays);
         }
         
         // Update exclusive openings
+        Map < Long, BitSet> specials = new HashMap< Long, BitSet>();
         if (initParam.containsKey(SPECIAL_OPENINGS)) {
             String[] days = initParam.get(SPECIAL_OPENINGS).split(";");
             for (String day : days) {
@@ -131,15 +194,55 @@ public class OfficeHourStrategy extends AbstractFlipStrategy {
               // Check format at loading
               String dateExpression = partDay[1].trim();
               try {
-                  SDF_DATE.parse(dateExpression);
+                  long epochDay = parseEpochDay(dateExpression);
                   String inter = partDay[0].trim();
                   String extractIntervals = inter.substring(1, inter.length() -1);
-                  specialTimeTable.put(dateExpression,  parseIntervalsExpression(extractIntervals));
+                  specials.put(epochDay, compileIntervals(parseIntervalsExpression(extractIntervals)));
                } catch (ParseException e) {
                    throw new IllegalArgumentException("Invalid Syntax for '" + dateExpression + "' expected 'yyyy-MM-dd'", e);
                }
            }
         }
+        
+        this.weekTimeTable    = week;
+        this.publicHolidays   = holidays;
+        this.specialTimeTable = specials;
+        this.window           = null;
+    }
+    
+    /**
+     * Parse a day expression.
+     *
+     * @param day
+     *      day as yyyy-MM-dd
+     * @return
+     *      epoch day
+     * @throws ParseException
+     *      invalid expression
+     */
+    private static long parseEpochDay(String day) throws ParseException {
+        DateFormat sdf = new SimpleDateFormat(DATE_PATTERN);
+        return sdf.parse(day).toInstant().atZone(sdf.getTimeZone().toZoneId()).toLocalDate().toEpochDay();
+    }
+    
+    /**
+     * Compile intervals into a bitmap of minutes of day.
+     *
+     * @param intervals
+     *      hour intervals
+     * @return
+     *      bit set for each opened minute
+     */
+    private static BitSet compileIntervals(List<HourInterval> intervals) {
+        BitSet minutes = new BitSet(MINUTES_PER_DAY);
+        for (HourInterval hi : intervals) {
+            int from = hi.getFromMinuteOfDay();
+            int to   = hi.getToMinuteOfDay();
+            if (from < to) {
+                minutes.set(from, to);
+            }
+        }
+        return minutes;
     }
     
     /**
@@ -185,26 +288,75 @@ public class OfficeHourStrategy extends AbstractFlipStrategy {
     /** {@inheritDoc} */
     @Override
     public boolean evaluate(String featureName, FeatureStore store, FlippingExecutionContext executionContext) {
-        // Check current date against interval
-        Calendar now = Calendar.getInstance();
+        // Date provided in context, no cache
         if (executionContext != null && executionContext.containsKey(OVERRIDE_DATE)) {
-            now = (Calendar) executionContext.getValue(OVERRIDE_DATE, false);
+            Calendar cal = (Calendar) executionContext.getValue(OVERRIDE_DATE, false);
+            ZoneId zone = (timeZone != null) ? timeZone : cal.getTimeZone().toZoneId();
+            ZonedDateTime time = cal.toInstant().atZone(zone);
+            return getTimeTable(time.toLocalDate()).get(time.getHour() * 60 + time.getMinute());
         }
         
-        // Priority 1 : Special Opening
-        String currentDate = SDF_DATE.format(now.getTime());
-        if (specialTimeTable.containsKey(currentDate)) {
-            // Today is in special openings, apply
-            return matches(now, specialTimeTable.get(currentDate));
+        // Current state is valid until next transition
+        long now = System.currentTimeMillis();
+        OpeningWindow current = window;
+        if (current == null || now < current.from || now >= current.until) {
+            current = computeWindow(now);
+            window = current;
         }
-        
-        // Priority 2 : Public Holiday => CLOSED
-        if (publicHolidays.contains(currentDate)) {
-            return false;
+        return current.open;
+    }
+    
+    /**
+     * Bitmap of minutes for a day.
+     * 
+     * Priority 1 : Special Opening, Priority 2 : Public Holiday => CLOSED, then day of week.
+     *
+     * @param day
+     *      target day
+     * @return
+     *      bitmap of opened minutes
+     */
+    private BitSet getTimeTable(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        BitSet special = specialTimeTable.get(epochDay);
+        if (special != null) {
+            return special;
         }
-        
-        // Default behavior, get current day, retrive intervals and check
-        return matches(now, weekTimeTable.get(now.get(Calendar.DAY_OF_WEEK)));
+        if (Arrays.binarySearch(publicHolidays, epochDay) >= 0) {
+            return CLOSED;
+        }
+        BitSet week = weekTimeTable[day.getDayOfWeek().getValue()];
+        return (week == null) ? CLOSED : week;
     }
-
+    
+    /**
+     * Compute state at an instant and the instant of next transition (at most next midnight).
+     *
+     * @param now
+     *      current time in epoch millis
+     * @return
+     *      opening window
+     */
+    private OpeningWindow computeWindow(long now) {
+        ZoneId zone = (timeZone != null) ? timeZone : ZoneId.systemDefault();
+        ZonedDateTime time = Instant.ofEpochMilli(now).atZone(zone);
+        LocalDate day = time.toLocalDate();
+        BitSet table = getTimeTable(day);
+        int minute = time.getHour() * 60 + time.getMinute();
+        boolean open = table.get(minute);
+        int next = open ? table.nextClearBit(minute) : table.nextSetBit(minute);
+        long until;
+        if (next < 0 || next >= MINUTES_PER_DAY) {
+            until = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        } else {
+            until = LocalDateTime.of(day, LocalTime.of(next / 60, next % 60)).atZone(zone).toInstant().toEpochMilli();
+        }
+        long from = now - Math.floorMod(now, MILLIS_PER_MINUTE);
+        if (until <= now) {
+            // Daylight saving overlap, evaluate again next minute
+            until = from + MILLIS_PER_MINUTE;
+        }
+        return new OpeningWindow(from, until, open);
+    }
+    
 }
@@ -20,6 +20,8 @@ package org.ff4j.strategy.time;
  * #L%
  */
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.Map;
@@ -33,6 +35,9 @@ import static org.ff4j.utils.TimeUtils.stringToDate;
 
 /**
  * The feature will be flipped after release date is reached.
+ * 
+ * The release date is kept as epoch millis, evaluation is a single comparison with current time. The date expression
+ * is read in the time zone given by parameter 'timezone' (system default if absent).
  *
  * @author Cedrick Lunven (@clunven)
  */
@@ -50,8 +55,11 @@ public class ReleaseDateFlipStrategy extends AbstractFlipStrategy {
     /** Constant for release Date. */
     public static final String PARAMNAME_RELEASEDATE = "releaseDate";
 
-    /** Release Date. */
-    private Date releaseDate = new Date();
+    /** Constant for time zone of release Date. */
+    public static final String PARAMNAME_TIMEZONE = "timezone";
+
+    /** Release Date (epoch millis). */
+    private long releaseTime = System.currentTimeMillis();
 
     /**
      * Default constructor for introspection.
@@ -64,11 +72,7 @@ public class ReleaseDateFlipStrategy extends AbstractFlipStrategy {
      * @param strDate
      */
     public ReleaseDateFlipStrategy(String strDate) {
-        try {
-            this.releaseDate = stringToDate(strDate,SDF);
-        } catch (Throwable e) {
-            throw new IllegalArgumentException("Cannot parse release date, invalid format correct is '" + DATE_PATTERN + "'", e);
-        }
+        this.releaseTime = parseReleaseDate(strDate, null);
         getInitParams().put(PARAMNAME_RELEASEDATE, strDate);
     }
 
@@ -78,7 +82,7 @@ public class ReleaseDateFlipStrategy extends AbstractFlipStrategy {
      * @param releaseDate
      */
     public ReleaseDateFlipStrategy(Date releaseDate) {
-        this.releaseDate = releaseDate;
+        this.releaseTime = releaseDate.getTime();
         getInitParams().put(PARAMNAME_RELEASEDATE,
                 dateToString(releaseDate,SDF));
     }
@@ -88,9 +92,25 @@ public class ReleaseDateFlipStrategy extends AbstractFlipStrategy {
     public void init(String featureName, Map<String, String> initParam) {
         super.init(featureName, initParam);
         assertRequiredParameter(PARAMNAME_RELEASEDATE);
+        this.releaseTime = parseReleaseDate(initParam.get(PARAMNAME_RELEASEDATE), initParam.get(PARAMNAME_TIMEZONE));
+    }
+
+    /**
+     * Parse release date expression.
+     *
+     * @param strDate
+     *            date as 'yyyy-MM-dd-HH:mm'
+     * @param zone
+     *            time zone identifier, system default if null
+     * @return
+     *            release date as epoch millis
+     */
+    private static long parseReleaseDate(String strDate, String zone) {
         try {
-            this.releaseDate = stringToDate(
-                    initParam.get(PARAMNAME_RELEASEDATE), SDF);
+            if (zone == null || "".equals(zone.trim())) {
+                return stringToDate(strDate, SDF).getTime();
+            }
+            return LocalDateTime.parse(strDate, SDF).atZone(ZoneId.of(zone.trim())).toInstant().toEpochMilli();
         } catch (Throwable e) {
             throw new IllegalArgumentException("Cannot parse release date, invalid format correct is '" + DATE_PATTERN + "'", e);
         }
@@ -102,7 +122,7 @@ public class ReleaseDateFlipStrategy extends AbstractFlipStrategy {
         // No use of featureName
         // No use of featureStore
         // No use of executionContext
-        return new Date().after(releaseDate);
+        return System.currentTimeMillis() > releaseTime;
     }
 
     /**
@@ -112,7 +132,8 @@ public class ReleaseDateFlipStrategy extends AbstractFlipStrategy {
      *            new value for 'releaseDate '
      */
     public void setReleaseDate(Date releaseDate) {
-        this.releaseDate = releaseDate;
+        this.releaseTime = releaseDate.getTime();
+        getInitParams().put(PARAMNAME_RELEASEDATE, dateToString(releaseDate, SDF));
     }
 
 }
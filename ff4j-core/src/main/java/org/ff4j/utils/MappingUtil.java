@@ -41,6 +41,7 @@ import org.ff4j.property.PropertyInt;
 import org.ff4j.property.PropertyLogLevel;
 import org.ff4j.property.PropertyLong;
 import org.ff4j.property.PropertyShort;
+import org.ff4j.strategy.FlippingStrategyCache;
 
 /**
  * Utility class to work with parameters.
@@ -170,23 +171,16 @@ public class MappingUtil {
     }
     
     /**
-     * Instanciate flipping strategy from its class name.
+     * Instanciate flipping strategy from its class name, constructors are resolved once by {@link FlippingStrategyCache}.
      *
      * @param className
      *      current class name
      * @return
      *      the flipping strategy
      */
-    @SuppressWarnings("unchecked")
 	public static FlippingStrategy instanceFlippingStrategy(String uid, String className,  Map<String, String> initparams) {
         try {
-            Class<FlippingStrategy> clazz = (Class<FlippingStrategy>) (classLoader == null ? Class.forName(className) : classLoader.loadClass(className));
-            if (!FlippingStrategy.class.isAssignableFrom(clazz)) {
-                throw new IllegalArgumentException("Invalid type " + className );
-            }
-            FlippingStrategy flipStrategy = clazz.newInstance();
-            flipStrategy.init(uid, initparams);
-            return flipStrategy;
+            return FlippingStrategyCache.newInstance(uid, className, initparams, classLoader);
         } catch (Exception ie) {
             throw new FeatureAccessException("Cannot instantiate Strategy, no default constructor available", ie);
         } 
@@ -133,20 +133,32 @@ public class Util {
     }
 
     /**
-     * Check that string is not null
+     * Check that a single string is not null nor empty, without allocating an array as the varargs version.
+     * 
+     * @param param
+     *            target string
+     */
+    public static void assertHasLength(String param) {
+        if (null == param || param.isEmpty()) {
+            throw new IllegalArgumentException("[Assertion failed] - Parameter #0 (string) must not be null nor empty");
+        }
+    }
+    
+    /**
+     * Check that strings are not null
      * 
      * @param object
      *            target object
      */
     public static void assertHasLength(String... params) {
         if (params == null) {
-            throw new IllegalArgumentException("[Assertion failed] - Parameter #0 (string)  must not be null nor empty");
+            throw new IllegalArgumentException("[Assertion failed] - Parameter #0 (string) must not be null nor empty");
         }
         if (params != null) {
             for (int idx = 0; idx < params.length ;idx++) {
                 String currentparam = params[idx];
                 if (null == currentparam || currentparam.isEmpty()) {
-                    throw new IllegalArgumentException("[Assertion failed] - Parameter #" + idx + "(string)  must not be null nor empty");
+                    throw new IllegalArgumentException("[Assertion failed] - Parameter #" + idx + " (string) must not be null nor empty");
                 }
             }
         }
@@ -0,0 +1,187 @@
+package org.ff4j.test;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ff4j.FF4j;
+import org.ff4j.FeatureCheckResult;
+import org.ff4j.audit.Event;
+import org.ff4j.audit.repository.InMemoryEventRepository;
+import org.ff4j.core.Feature;
+import org.ff4j.exception.GroupNotFoundException;
+import org.ff4j.store.InMemoryFeatureStore;
+import org.ff4j.strategy.PonderationStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Testing of {@link FF4j#checkAll(Collection)} and {@link FF4j#checkGroup(String)}.
+ */
+public class FF4jBulkCheckTest {
+
+    /** Security manager counting calls. */
+    private static final class CountingAuthorizationsManager extends DefinedPermissionSecurityManager {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private CountingAuthorizationsManager(Set<String> permissions) {
+            super(permissions);
+        }
+
+        @Override
+        public boolean isAllowed(Set<String> permissions) {
+            calls.incrementAndGet();
+            return super.isAllowed(permissions);
+        }
+    }
+
+    /** Event repository counting batches. */
+    private static final class CountingEventRepository extends InMemoryEventRepository {
+
+        private final AtomicInteger batches = new AtomicInteger();
+
+        private final AtomicInteger events = new AtomicInteger();
+
+        @Override
+        public boolean saveEvents(Collection<Event> evts) {
+            batches.incrementAndGet();
+            events.addAndGet(evts.size());
+            return super.saveEvents(evts);
+        }
+    }
+
+    private FF4j initFF4j() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("f1", true));
+        ff4j.createFeature(new Feature("f2", false));
+        ff4j.createFeature(new Feature("f3", true, null, "g1"));
+        ff4j.createFeature(new Feature("f4", true, null, "g1"));
+        ff4j.getFeatureStore().disable("f4");
+        Feature f5 = new Feature("f5", true);
+        f5.setFlippingStrategy(new PonderationStrategy(0));
+        ff4j.createFeature(f5);
+        return ff4j;
+    }
+
+    @Test
+    public void testCheckAll() {
+        FF4j ff4j = initFF4j();
+        FeatureCheckResult res = ff4j.checkAll(Arrays.asList("f1", "f2", "f5", "unknown", "f1"));
+        Assert.assertEquals(4, res.size());
+        Assert.assertEquals(Arrays.asList("f1", "f2", "f5", "unknown"), res.getFeatureIds());
+        Assert.assertTrue(res.isFlipped("f1"));
+        Assert.assertTrue(res.isFlipped(0));
+        Assert.assertFalse(res.isFlipped("f2"));
+        Assert.assertFalse(res.isFlipped("f5"));
+        Assert.assertFalse(res.isFlipped("unknown"));
+        Assert.assertFalse(res.exist("unknown"));
+        Assert.assertTrue(res.exist("f2"));
+        Assert.assertEquals(1, res.countFlipped());
+        Assert.assertEquals(1, res.toBitSet().cardinality());
+        Assert.assertEquals(Boolean.FALSE, res.toMap().get("unknown"));
+        // Same answers as check
+        for (String uid : Arrays.asList("f1", "f2", "f5")) {
+            Assert.assertEquals(ff4j.check(uid), res.isFlipped(uid));
+        }
+    }
+
+    @Test
+    public void testCheckAllReadsOnlyRequestedFeatures() {
+        FF4j ff4j = new FF4j();
+        ff4j.setFeatureStore(new InMemoryFeatureStore() {
+            @Override
+            public Map<String, Feature> readAll() {
+                throw new UnsupportedOperationException("whole store should not be read");
+            }
+        });
+        ff4j.createFeature(new Feature("f1", true));
+        ff4j.createFeature(new Feature("f2", false));
+        FeatureCheckResult res = ff4j.checkAll(Arrays.asList("f1", "f2", "unknown"));
+        Assert.assertTrue(res.isFlipped("f1"));
+        Assert.assertFalse(res.isFlipped("f2"));
+        Assert.assertFalse(res.exist("unknown"));
+    }
+
+    @Test
+    public void testCheckAllWithSnapshotAndAutocreate() {
+        FF4j ff4j = initFF4j().snapshot().autoCreate();
+        FeatureCheckResult res = ff4j.checkAll(Arrays.asList("f1", "created"));
+        Assert.assertTrue(res.isFlipped("f1"));
+        Assert.assertTrue(res.exist("created"));
+        Assert.assertFalse(res.isFlipped("created"));
+        Assert.assertTrue(ff4j.exist("created"));
+        ff4j.enable("created");
+        Assert.assertTrue(ff4j.checkAll(Collections.singleton("created")).isFlipped("created"));
+    }
+
+    @Test
+    public void testCheckGroup() {
+        FF4j ff4j = initFF4j();
+        FeatureCheckResult res = ff4j.checkGroup("g1");
+        Assert.assertEquals(Arrays.asList("f3", "f4"), res.getFeatureIds());
+        Assert.assertTrue(res.isFlipped("f3"));
+        Assert.assertFalse(res.isFlipped("f4"));
+        ff4j.snapshot();
+        Assert.assertEquals(res.toMap(), ff4j.checkGroup("g1").toMap());
+    }
+
+    @Test(expected = GroupNotFoundException.class)
+    public void testCheckGroupNotFound() {
+        initFF4j().checkGroup("invalid");
+    }
+
+    @Test
+    public void testSecurityAppliedOncePerPermissions() {
+        FF4j ff4j = new FF4j();
+        Set<String> perms = new HashSet<String>(Arrays.asList("USER"));
+        for (int i = 0; i < 10; i++) {
+            ff4j.createFeature(new Feature("s" + i, true, null, null, perms));
+        }
+        ff4j.createFeature(new Feature("admin", true, null, null, Collections.singleton("ADMIN")));
+        CountingAuthorizationsManager auth = new CountingAuthorizationsManager(Collections.singleton("USER"));
+        ff4j.setAuthorizationsManager(auth);
+        FeatureCheckResult res = ff4j.checkAll(ff4j.getFeatures().keySet());
+        Assert.assertEquals(10, res.countFlipped());
+        Assert.assertFalse(res.isFlipped("admin"));
+        Assert.assertEquals(2, auth.calls.get());
+    }
+
+    @Test
+    public void testAuditPublishedAsBatch() {
+        FF4j ff4j = new FF4j();
+        CountingEventRepository repo = new CountingEventRepository();
+        ff4j.setEventRepository(repo);
+        ff4j.createFeature(new Feature("f1", true));
+        ff4j.createFeature(new Feature("f2", false));
+        ff4j.audit(true);
+        ff4j.checkAll(Arrays.asList("f1", "f2", "unknown"));
+        Assert.assertEquals(1, repo.batches.get());
+        Assert.assertEquals(2, repo.events.get());
+        ff4j.stop();
+    }
+}
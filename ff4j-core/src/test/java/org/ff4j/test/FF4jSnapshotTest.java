@@ -0,0 +1,134 @@
+package org.ff4j.test;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.ff4j.FF4j;
+import org.ff4j.core.Feature;
+import org.ff4j.store.FeatureStoreSnapshot;
+import org.ff4j.strategy.el.ExpressionFlipStrategy;
+import org.junit.Test;
+
+/**
+ * Evaluation of features against a {@link FeatureStoreSnapshot}.
+ */
+public class FF4jSnapshotTest {
+    
+    @Test
+    public void testSnapshotIsUpdatedThroughFF4j() {
+        FF4j ff4j = new FF4j().snapshot();
+        ff4j.createFeature(new Feature("f1", true, "", "g1"));
+        FeatureStoreSnapshot first = ff4j.getFeatureSnapshot();
+        assertTrue(ff4j.check("f1"));
+        ff4j.disable("f1");
+        assertNotSame(first, ff4j.getFeatureSnapshot());
+        assertFalse(ff4j.check("f1"));
+        // previous snapshot is immutable
+        assertTrue(first.read("f1").isEnable());
+        ff4j.enableGroup("g1");
+        assertTrue(ff4j.check("f1"));
+        ff4j.delete("f1");
+        assertFalse(ff4j.getFeatureSnapshot().exist("f1"));
+    }
+    
+    @Test
+    public void testExternalChangesVisibleAfterRefresh() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("f1", true));
+        ff4j.snapshot();
+        // direct access to the store
+        ff4j.getFeatureStore().disable("f1");
+        assertTrue(ff4j.check("f1"));
+        ff4j.refreshSnapshot();
+        assertFalse(ff4j.check("f1"));
+    }
+    
+    @Test
+    public void testPolling() throws InterruptedException {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("f1", true));
+        ff4j.snapshot(10);
+        ff4j.getFeatureStore().disable("f1");
+        long end = System.currentTimeMillis() + 5000;
+        while (ff4j.check("f1") && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertFalse(ff4j.check("f1"));
+        ff4j.stop();
+    }
+    
+    @Test
+    public void testStrategyReadsSnapshot() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("A", true));
+        Feature fb = new Feature("B", true);
+        fb.setFlippingStrategy(new ExpressionFlipStrategy("B", "A"));
+        ff4j.createFeature(fb);
+        ff4j.snapshot();
+        assertTrue(ff4j.check("B"));
+        ff4j.getFeatureStore().disable("A");
+        // not refreshed yet, strategy evaluated against the snapshot
+        assertTrue(ff4j.check("B"));
+        ff4j.refreshSnapshot();
+        assertFalse(ff4j.check("B"));
+    }
+    
+    @Test
+    public void testAutocreateWithSnapshot() {
+        FF4j ff4j = new FF4j().autoCreate().snapshot();
+        assertFalse(ff4j.check("new"));
+        assertTrue(ff4j.getFeatureSnapshot().exist("new"));
+    }
+    
+    @Test
+    public void testGroupIndex() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("f1", true, "", "g1"));
+        ff4j.createFeature(new Feature("f2", true, "", "g1"));
+        ff4j.createFeature(new Feature("f3", true));
+        FeatureStoreSnapshot snap = ff4j.snapshot().getFeatureSnapshot();
+        assertEquals(2, snap.readGroup("g1").size());
+        assertTrue(snap.existGroup("g1"));
+        assertEquals(1, snap.readAllGroups().size());
+        assertSame(snap.read("f1"), snap.readAll().get("f1"));
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsReadOnly() {
+        new FF4j().snapshot().getFeatureSnapshot().create(new Feature("f1"));
+    }
+    
+    @Test
+    public void testDisableSnapshot() {
+        FF4j ff4j = new FF4j().snapshot();
+        assertTrue(ff4j.isEnableSnapshot());
+        ff4j.setEnableSnapshot(false);
+        assertNull(ff4j.getFeatureSnapshot());
+        ff4j.createFeature(new Feature("f1", true));
+        assertTrue(ff4j.check("f1"));
+    }
+}
@@ -24,6 +24,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.Flushable;
 import java.io.IOException;
 import java.util.*;
 
@@ -460,4 +461,80 @@ public class FF4jTest extends AbstractFf4jTest {
         Assert.assertNotNull(ff4j);
     }
 
+    /** Feature store holding a resource. */
+    private static class ClosableFeatureStore extends InMemoryFeatureStore implements AutoCloseable {
+        private boolean closed;
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /** Cache manager holding a resource. */
+    private static class ClosableCacheManager extends InMemoryCacheManager implements AutoCloseable {
+        private boolean closed;
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /** Event repository holding a resource and buffering events. */
+    private static class ClosableEventRepository extends InMemoryEventRepository implements AutoCloseable, Flushable {
+        private boolean closed;
+        private boolean flushed;
+        @Override
+        public void close() {
+            closed = true;
+        }
+        @Override
+        public void flush() {
+            flushed = true;
+        }
+    }
+
+    @Test
+    public void stopKeepsStoresOpenByDefault() {
+        ClosableFeatureStore store = new ClosableFeatureStore();
+        ClosableCacheManager cacheManager = new ClosableCacheManager();
+        ClosableEventRepository repository = new ClosableEventRepository();
+        FF4j ff4j = new FF4j();
+        ff4j.setFeatureStore(store);
+        ff4j.cache(cacheManager);
+        ff4j.setEventRepository(repository);
+        ff4j.stop();
+        Assert.assertFalse(store.closed);
+        Assert.assertFalse(cacheManager.closed);
+        Assert.assertFalse(repository.closed);
+        // Buffered events are sent anyway
+        Assert.assertTrue(repository.flushed);
+    }
+
+    @Test
+    public void stopClosesStoresWhenEnabled() {
+        ClosableFeatureStore store = new ClosableFeatureStore();
+        ClosableCacheManager cacheManager = new ClosableCacheManager();
+        ClosableEventRepository repository = new ClosableEventRepository();
+        FF4j ff4j = new FF4j().shutdownStores();
+        ff4j.setFeatureStore(store);
+        ff4j.cache(cacheManager);
+        ff4j.setEventRepository(repository);
+        ff4j.createFeature(new Feature(F1, true));
+        ff4j.audit().check(F1);
+        ff4j.stop();
+        Assert.assertTrue(store.closed);
+        Assert.assertTrue(cacheManager.closed);
+        Assert.assertTrue(repository.closed);
+    }
+
+    @Test
+    public void stopKeepsRepositoryOfInjectedPublisher() {
+        ClosableEventRepository repository = new ClosableEventRepository();
+        FF4j ff4j = new FF4j().shutdownStores();
+        ff4j.setEventRepository(repository);
+        ff4j.setEventPublisher(new EventPublisher(repository));
+        ff4j.stop();
+        Assert.assertFalse(repository.closed);
+    }
+
 }
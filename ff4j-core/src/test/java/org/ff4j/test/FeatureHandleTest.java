@@ -0,0 +1,92 @@
+package org.ff4j.test;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.FF4j;
+import org.ff4j.FeatureHandle;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.strategy.BucketingStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Testing of {@link FeatureHandle}.
+ */
+public class FeatureHandleTest {
+
+    @Test
+    public void testHandleWithoutSnapshot() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("f1", true));
+        FeatureHandle f1 = ff4j.handle("f1");
+        Assert.assertEquals("f1", f1.getUid());
+        Assert.assertTrue(f1.check());
+        ff4j.getFeatureStore().disable("f1");
+        Assert.assertFalse(f1.check());
+    }
+
+    @Test
+    public void testHandleIsRepointedOnUpdate() {
+        FF4j ff4j = new FF4j().snapshot();
+        ff4j.createFeature(new Feature("f1", true));
+        FeatureHandle f1 = ff4j.handle("f1");
+        Assert.assertTrue(f1.check());
+        ff4j.disable("f1");
+        Assert.assertFalse(f1.check());
+        ff4j.enable("f1");
+        Assert.assertTrue(f1.check());
+        // External change visible after refresh
+        ff4j.getFeatureStore().disable("f1");
+        Assert.assertTrue(f1.check());
+        ff4j.refreshSnapshot();
+        Assert.assertFalse(f1.check());
+    }
+
+    @Test
+    public void testHandleWithStrategyAndContext() {
+        FF4j ff4j = new FF4j().snapshot();
+        ff4j.createFeature(new Feature("f1", true, null, null, null, new BucketingStrategy("userId", 1)));
+        FeatureHandle f1 = ff4j.handle("f1");
+        Assert.assertFalse(f1.check(null));
+        FlippingExecutionContext context = new FlippingExecutionContext();
+        context.putString("userId", "u1");
+        Assert.assertTrue(f1.check(context));
+        ff4j.setCurrentContext(context);
+        Assert.assertTrue(f1.check());
+    }
+
+    @Test
+    public void testHandleAutocreate() {
+        FF4j ff4j = new FF4j().snapshot().autoCreate();
+        FeatureHandle f2 = ff4j.handle("f2");
+        Assert.assertFalse(f2.check());
+        Assert.assertTrue(ff4j.exist("f2"));
+        ff4j.enable("f2");
+        Assert.assertTrue(f2.check());
+    }
+
+    @Test(expected = FeatureNotFoundException.class)
+    public void testHandleNotFound() {
+        new FF4j().snapshot().handle("invalid").check();
+    }
+}
@@ -0,0 +1,129 @@
+package org.ff4j.test;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ff4j.core.FlippingExecutionContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Testing of {@link FlippingExecutionContext}.
+ */
+public class FlippingExecutionContextTest {
+
+    @Test
+    public void testPrimitiveSlots() {
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        ctx.putInt("i", 12);
+        ctx.putLong("l", 1L << 40);
+        ctx.putDouble("d", 1.5);
+        ctx.putBoolean("b", true);
+        Assert.assertEquals(12, ctx.getIntValue("i", 0));
+        Assert.assertEquals(1L << 40, ctx.getLongValue("l", 0));
+        Assert.assertEquals(1.5, ctx.getDoubleValue("d", 0), 0.0);
+        Assert.assertTrue(ctx.getBooleanValue("b", false));
+        // Boxed API still available
+        Assert.assertEquals(Integer.valueOf(12), ctx.getInt("i"));
+        Assert.assertEquals(Double.valueOf(1.5), ctx.getDouble("d"));
+        Assert.assertEquals(Boolean.TRUE, ctx.getBoolean("b"));
+        Assert.assertEquals(Long.valueOf(1L << 40), ctx.getValue("l", true));
+        // Defaults
+        Assert.assertEquals(7, ctx.getIntValue("absent", 7));
+        Assert.assertFalse(ctx.getBooleanValue("absent", false));
+    }
+
+    @Test
+    public void testBoxedValues() {
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        Date now = new Date();
+        ctx.putInt("i", Integer.valueOf(3));
+        ctx.putString("s", "hello");
+        ctx.putDate("date", now);
+        Assert.assertEquals(3, ctx.getIntValue("i", 0));
+        Assert.assertEquals("hello", ctx.getString("s"));
+        Assert.assertEquals(now, ctx.getDate("date"));
+        Assert.assertTrue(ctx.containsKey("s"));
+        Assert.assertFalse(ctx.containsKey("x"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequiredParameter() {
+        new FlippingExecutionContext().getString("absent", true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConversion() {
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        ctx.putString("i", "abc");
+        ctx.getIntValue("i", 0);
+    }
+
+    @Test
+    public void testOverrideValue() {
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        ctx.putInt("k", 1);
+        ctx.putString("k", "v");
+        Assert.assertEquals("v", ctx.getString("k"));
+        ctx.putBoolean("k", false);
+        Assert.assertFalse(ctx.getBooleanValue("k", true));
+        Assert.assertEquals(1, ctx.toMap().size());
+    }
+
+    @Test
+    public void testGrowAndReset() {
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        for (int i = 0; i < 100; i++) {
+            ctx.putInt("key" + i, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, ctx.getIntValue("key" + i, -1));
+        }
+        Assert.assertEquals(100, ctx.toMap().size());
+        ctx.reset();
+        Assert.assertTrue(ctx.isEmpty());
+        Assert.assertFalse(ctx.containsKey("key1"));
+        ctx.putString("key1", "again");
+        Assert.assertEquals("again", ctx.getString("key1"));
+    }
+
+    @Test
+    public void testCopyAndEquals() {
+        Map<String, Object> init = new HashMap<String, Object>();
+        init.put("a", 1);
+        init.put("b", "x");
+        FlippingExecutionContext ctx = new FlippingExecutionContext(init);
+        FlippingExecutionContext ctx2 = new FlippingExecutionContext();
+        ctx2.putString("b", "x");
+        ctx2.putInt("a", 1);
+        Assert.assertEquals(ctx, ctx2);
+        Assert.assertEquals(ctx.hashCode(), ctx2.hashCode());
+        Assert.assertEquals(init.hashCode(), ctx.hashCode());
+        FlippingExecutionContext copy = new FlippingExecutionContext(ctx);
+        copy.putInt("c", 2);
+        Assert.assertFalse(ctx.containsKey("c"));
+        Assert.assertNotEquals(ctx, copy);
+        Assert.assertTrue(new FlippingExecutionContext((Map<String, Object>) null).isEmpty());
+    }
+}
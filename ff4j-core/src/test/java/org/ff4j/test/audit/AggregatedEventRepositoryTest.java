@@ -0,0 +1,140 @@
+package org.ff4j.test.audit;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.ff4j.audit.EventConstants.ACTION_CHECK_OFF;
+import static org.ff4j.audit.EventConstants.ACTION_CHECK_OK;
+import static org.ff4j.audit.EventConstants.ACTION_CREATE;
+import static org.ff4j.audit.EventConstants.SOURCE_JAVA;
+import static org.ff4j.audit.EventConstants.TARGET_FEATURE;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.ff4j.FF4j;
+import org.ff4j.audit.Event;
+import org.ff4j.audit.EventQueryDefinition;
+import org.ff4j.audit.MutableHitCount;
+import org.ff4j.audit.chart.TimeSeriesChart;
+import org.ff4j.audit.repository.AggregatedEventRepository;
+import org.ff4j.audit.repository.EventRepository;
+import org.ff4j.core.Feature;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link AggregatedEventRepository}, counters replace usage events.
+ */
+public class AggregatedEventRepositoryTest extends AbstractEventRepositoryTest {
+    
+    /** {@inheritDoc} */
+    @Override
+    protected EventRepository initRepository() {
+        return new AggregatedEventRepository();
+    }
+    
+    /** Usage events are not stored. */
+    @Override
+    @Test
+    public void testSearchFeatureUsageEvents() {
+        repo.saveEvent(new Event(SOURCE_JAVA, TARGET_FEATURE, "f1", ACTION_CHECK_OK));
+        Assert.assertTrue(repo.searchFeatureUsageEvents(new EventQueryDefinition()).isEmpty());
+        Assert.assertEquals(1, repo.getFeatureUsageTotalHitCount(new EventQueryDefinition()));
+    }
+    
+    /** Usage is purged from counters. */
+    @Override
+    @Test
+    public void testPurgeEvents() throws InterruptedException {
+        long topStart = System.currentTimeMillis();
+        Event evtAudit = new Event(SOURCE_JAVA, TARGET_FEATURE, "f1", ACTION_CREATE);
+        evtAudit.setUuid("1234-5678-9012-3456");
+        repo.saveEvent(evtAudit);
+        repo.saveEvent(new Event(SOURCE_JAVA, TARGET_FEATURE, "f2", ACTION_CHECK_OK));
+        Thread.sleep(100);
+        EventQueryDefinition testQuery = new EventQueryDefinition(topStart-100, System.currentTimeMillis());
+        Assert.assertEquals(1, repo.getFeatureUsageTotalHitCount(testQuery));
+        Assert.assertNotNull(repo.getEventByUUID(evtAudit.getUuid(), System.currentTimeMillis()));
+        // When
+        repo.purgeFeatureUsage(testQuery);
+        repo.purgeAuditTrail(testQuery);
+        // Then
+        Assert.assertEquals(0, repo.getFeatureUsageTotalHitCount(testQuery));
+        Assert.assertNull(repo.getEventByUUID(evtAudit.getUuid(), System.currentTimeMillis()));
+    }
+    
+    @Test
+    public void testCheckOffCounters() {
+        AggregatedEventRepository aggRepo = (AggregatedEventRepository) repo;
+        aggRepo.saveEvent(new Event(SOURCE_JAVA, TARGET_FEATURE, "f1", ACTION_CHECK_OFF));
+        aggRepo.hit("f1", false, SOURCE_JAVA, null);
+        aggRepo.hit("f1", true, SOURCE_JAVA, "JOHN");
+        EventQueryDefinition q = new EventQueryDefinition();
+        Assert.assertEquals(2, aggRepo.getFeatureCheckOffHitCount(q).get("f1").get());
+        Assert.assertEquals(1, aggRepo.getFeatureUsageHitCount(q).get("f1").get());
+        Assert.assertEquals(1, aggRepo.getUserHitCount(q).get("JOHN").get());
+    }
+    
+    @Test
+    public void testHistoryReadFromCounters() {
+        long now = System.currentTimeMillis();
+        AggregatedEventRepository aggRepo = (AggregatedEventRepository) repo;
+        for (int i = 0; i < 5; i++) {
+            aggRepo.hit("f1", true, SOURCE_JAVA, null);
+        }
+        EventQueryDefinition q = new EventQueryDefinition(now - 10, System.currentTimeMillis() + 10);
+        TimeSeriesChart tsc = aggRepo.getFeatureUsageHistory(q, TimeUnit.HOURS);
+        int total = 0;
+        for (MutableHitCount mhc : tsc.getSeries().get("f1").getValue().values()) {
+            total += mhc.get();
+        }
+        Assert.assertEquals(5, total);
+    }
+    
+    @Test
+    public void testOldCountersUseHourBuckets() {
+        long twoDaysAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2);
+        AggregatedEventRepository aggRepo = (AggregatedEventRepository) repo;
+        aggRepo.hit("f1", true, SOURCE_JAVA, "host1", null, twoDaysAgo);
+        aggRepo.hit("f1", true, SOURCE_JAVA, "host1", null, System.currentTimeMillis());
+        Map<String, MutableHitCount> hits = aggRepo.getHostHitCount(
+                new EventQueryDefinition(twoDaysAgo - 1000, System.currentTimeMillis()));
+        Assert.assertEquals(2, hits.get("host1").get());
+    }
+    
+    @Test
+    public void testFF4jCountsWithoutEvents() {
+        FF4j ff4j = new FF4j();
+        ff4j.setEventRepository(new AggregatedEventRepository());
+        ff4j.audit(true);
+        ff4j.createFeature(new Feature("f1", true));
+        for (int i = 0; i < 10; i++) {
+            ff4j.check("f1");
+        }
+        EventQueryDefinition q = new EventQueryDefinition();
+        Assert.assertEquals(10, ff4j.getEventRepository().getFeatureUsageTotalHitCount(q));
+        // Audit trail still kept as events
+        Assert.assertEquals(1, ff4j.getEventRepository().getAuditTrail(q).size());
+        Assert.assertEquals(ACTION_CREATE, ff4j.getEventRepository().getAuditTrail(q).first().getAction());
+        ff4j.stop();
+    }
+    
+}
@@ -0,0 +1,173 @@
+package org.ff4j.test.audit;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.ff4j.audit.EventConstants.ACTION_CHECK_OK;
+import static org.ff4j.audit.EventConstants.SOURCE_JAVA;
+import static org.ff4j.audit.EventConstants.TARGET_FEATURE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.ff4j.FF4j;
+import org.ff4j.audit.AsyncEventPublisher;
+import org.ff4j.audit.Event;
+import org.ff4j.audit.EventOverflowPolicy;
+import org.ff4j.audit.EventQueryDefinition;
+import org.ff4j.audit.EventRingBuffer;
+import org.ff4j.audit.repository.InMemoryEventRepository;
+import org.ff4j.core.Feature;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit testing of {@link AsyncEventPublisher}.
+ */
+public class AsyncEventPublisherTest {
+    
+    /** Repository waiting for a signal before saving events. */
+    private static class LockedEventRepository extends InMemoryEventRepository {
+        
+        private final CountDownLatch latch = new CountDownLatch(1);
+        
+        @Override
+        public boolean saveEvent(Event e) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return super.saveEvent(e);
+        }
+        
+        public void release() {
+            latch.countDown();
+        }
+    }
+    
+    private Event newEvent(String uid) {
+        return new Event(SOURCE_JAVA, TARGET_FEATURE, uid, ACTION_CHECK_OK);
+    }
+    
+    @Test
+    public void testRingBufferCapacity() {
+        EventRingBuffer rb = new EventRingBuffer(3);
+        Assert.assertEquals(4, rb.capacity());
+        Assert.assertTrue(rb.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(rb.offer(newEvent("f" + i)));
+        }
+        Assert.assertFalse(rb.offer(newEvent("f4")));
+        Assert.assertEquals(4, rb.size());
+        Assert.assertEquals("f0", rb.poll().getName());
+        List<Event> target = new ArrayList<Event>();
+        Assert.assertEquals(2, rb.drainTo(target, 2));
+        Assert.assertEquals("f2", target.get(1).getName());
+        Assert.assertEquals(1, rb.size());
+        Assert.assertNotNull(rb.poll());
+        Assert.assertNull(rb.poll());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRingBufferInvalidCapacity() {
+        new EventRingBuffer(0);
+    }
+    
+    @Test
+    public void testPublishAndFlushOnStop() {
+        InMemoryEventRepository repo = new InMemoryEventRepository();
+        AsyncEventPublisher publisher = new AsyncEventPublisher(repo);
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(newEvent("f1"));
+        }
+        publisher.stop();
+        Assert.assertEquals(100, publisher.getPublishedEventCount());
+        Assert.assertEquals(100, publisher.getSavedEventCount());
+        Assert.assertEquals(0, publisher.getDroppedEventCount());
+        Assert.assertEquals(0, publisher.getPendingEventCount());
+        Assert.assertEquals(100, repo.getFeatureUsageTotalHitCount(new EventQueryDefinition()));
+        // Publisher is stopped
+        publisher.publish(newEvent("f1"));
+        Assert.assertEquals(1, publisher.getDroppedEventCount());
+    }
+    
+    @Test
+    public void testOverflowDropNewest() {
+        LockedEventRepository repo = new LockedEventRepository();
+        AsyncEventPublisher publisher = new AsyncEventPublisher(repo, 4, 1, EventOverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 20; i++) {
+            publisher.publish(newEvent("f" + i));
+        }
+        // at most one event hold by the drain thread, 4 in buffer
+        Assert.assertTrue(publisher.getDroppedEventCount() >= 15);
+        Assert.assertEquals(20, publisher.getPublishedEventCount() + publisher.getDroppedEventCount());
+        repo.release();
+        publisher.stop();
+        Assert.assertEquals(publisher.getPublishedEventCount(), publisher.getSavedEventCount());
+    }
+    
+    @Test
+    public void testOverflowDropOldest() {
+        LockedEventRepository repo = new LockedEventRepository();
+        AsyncEventPublisher publisher = new AsyncEventPublisher(repo, 4, 1, EventOverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 20; i++) {
+            publisher.publish(newEvent("f" + i));
+        }
+        Assert.assertEquals(20, publisher.getPublishedEventCount());
+        Assert.assertTrue(publisher.getDroppedEventCount() >= 15);
+        repo.release();
+        publisher.stop();
+        // Most recent event is always kept
+        Assert.assertEquals(1, repo.getFeatureUsageHitCount(new EventQueryDefinition()).get("f19").get());
+    }
+    
+    @Test
+    public void testOverflowBlock() {
+        InMemoryEventRepository repo = new InMemoryEventRepository();
+        AsyncEventPublisher publisher = new AsyncEventPublisher(repo, 2, 1, EventOverflowPolicy.BLOCK);
+        for (int i = 0; i < 50; i++) {
+            publisher.publish(newEvent("f1"));
+        }
+        publisher.stop();
+        Assert.assertEquals(0, publisher.getDroppedEventCount());
+        Assert.assertEquals(50, publisher.getSavedEventCount());
+    }
+    
+    @Test
+    public void testFF4jAuditAsync() {
+        FF4j ff4j = new FF4j().auditAsync();
+        ff4j.createFeature(new Feature("f1", true));
+        Assert.assertTrue(ff4j.isEnableAuditAsync());
+        Assert.assertTrue(ff4j.getEventPublisher() instanceof AsyncEventPublisher);
+        for (int i = 0; i < 10; i++) {
+            ff4j.check("f1");
+        }
+        ff4j.stop();
+        Assert.assertEquals(10, ff4j.getEventRepository().getFeatureUsageTotalHitCount(new EventQueryDefinition()));
+        // Switch back to synchronous publisher
+        ff4j.setEnableAuditAsync(false);
+        Assert.assertFalse(ff4j.getEventPublisher() instanceof AsyncEventPublisher);
+        ff4j.stop();
+    }
+    
+}
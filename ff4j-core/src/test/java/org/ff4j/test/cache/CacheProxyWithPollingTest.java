@@ -26,11 +26,14 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.ff4j.cache.FF4JCacheManager;
 import org.ff4j.cache.FF4jCacheProxy;
 import org.ff4j.cache.InMemoryCacheManager;
 import org.ff4j.cache.Store2CachePollingScheduler;
+import org.ff4j.cache.Store2CachePollingWorker;
+import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.property.Property;
 import org.ff4j.property.store.InMemoryPropertyStore;
@@ -134,6 +137,115 @@ public class CacheProxyWithPollingTest {
         }
     }
     
+    @Test
+    public void testPollingSkippedWhenVersionUnchanged() {
+        AtomicInteger reads = new AtomicInteger();
+        InMemoryFeatureStore fs = new InMemoryFeatureStore("ff4j.xml") {
+            @Override
+            public java.util.Map<String, Feature> readAll() {
+                reads.incrementAndGet();
+                return super.readAll();
+            }
+        };
+        InMemoryCacheManager cm = new InMemoryCacheManager();
+        Store2CachePollingWorker worker = new Store2CachePollingWorker(fs, null, cm);
+        Assert.assertTrue(worker.poll());
+        Assert.assertEquals(1, reads.get());
+        Assert.assertFalse(worker.poll());
+        Assert.assertEquals(1, reads.get());
+        // Only the modified feature is written to cache
+        Feature cached = cm.getFeature("first");
+        fs.disable("AwesomeFeature");
+        Assert.assertTrue(worker.poll());
+        Assert.assertEquals(2, reads.get());
+        Assert.assertSame(cached, cm.getFeature("first"));
+        Assert.assertFalse(cm.getFeature("AwesomeFeature").isEnable());
+        fs.delete("AwesomeFeature");
+        Assert.assertTrue(worker.poll());
+        Assert.assertNull(cm.getFeature("AwesomeFeature"));
+    }
+    
+    @Test
+    public void testPollingWithoutVersionComparesContent() {
+        // Store without change token
+        FeatureStore fs = new FF4jCacheProxy(new InMemoryFeatureStore("ff4j.xml"), null, new InMemoryCacheManager());
+        InMemoryCacheManager cm = new InMemoryCacheManager();
+        Store2CachePollingWorker worker = new Store2CachePollingWorker(fs, null, cm);
+        Assert.assertTrue(worker.poll());
+        Assert.assertFalse(worker.poll());
+        fs.disable("forth");
+        Assert.assertTrue(worker.poll());
+        Assert.assertFalse(cm.getFeature("forth").isEnable());
+    }
+    
+    @Test
+    public void testPollingBackoff() throws InterruptedException {
+        FeatureStore fs = new InMemoryFeatureStore("ff4j.xml");
+        Store2CachePollingScheduler scheduler = new Store2CachePollingScheduler(fs, null, new InMemoryCacheManager());
+        scheduler.setMaxPollingDelay(80);
+        scheduler.start(10);
+        Thread.sleep(300);
+        Assert.assertEquals(80, scheduler.getCurrentDelay());
+        fs.disable("first");
+        long end = System.currentTimeMillis() + 2000;
+        while (scheduler.getCurrentDelay() != 10 && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(10, scheduler.getCurrentDelay());
+        scheduler.stop();
+    }
     
+    @Test
+    public void testBulkReadsFromCompleteSnapshot() {
+        AtomicInteger reads = new AtomicInteger();
+        InMemoryFeatureStore fs = new InMemoryFeatureStore("ff4j.xml") {
+            @Override
+            public java.util.Map<String, Feature> readAll() {
+                reads.incrementAndGet();
+                return super.readAll();
+            }
+        };
+        FF4jCacheProxy proxy = new FF4jCacheProxy(fs, new InMemoryPropertyStore("ff4j.xml"), new InMemoryCacheManager());
+        Assert.assertNull(proxy.getFeatureSnapshot());
+        Store2CachePollingWorker worker = new Store2CachePollingWorker(proxy);
+        worker.poll();
+        Assert.assertNotNull(proxy.getFeatureSnapshot());
+        int readsAfterPoll = reads.get();
+        
+        // Served from memory
+        Assert.assertEquals(fs.readAllGroups(), proxy.readAllGroups());
+        Assert.assertTrue(proxy.readAll().containsKey("first"));
+        Assert.assertTrue(proxy.existGroup("GRP1"));
+        Assert.assertFalse(proxy.existGroup("invalid"));
+        Assert.assertEquals(2, proxy.readGroup("GRP1").size());
+        Assert.assertEquals(readsAfterPoll, reads.get());
+        
+        // Write through proxy, back to the target store until next poll
+        proxy.disable("first");
+        Assert.assertNull(proxy.getFeatureSnapshot());
+        Assert.assertFalse(proxy.readAll().get("first").isEnable());
+        Assert.assertEquals(readsAfterPoll + 1, reads.get());
+        worker.poll();
+        Assert.assertFalse(proxy.readAll().get("first").isEnable());
+        
+        // Snapshot read before a write is discarded
+        long writeCount = proxy.getFeatureWriteCount();
+        proxy.enable("first");
+        Assert.assertFalse(proxy.publishFeatureSnapshot(proxy.getFeatureSnapshot(), writeCount));
+    }
 
+    @Test
+    public void testPollUsesCurrentCacheManagerOfProxy() {
+        InMemoryCacheManager first = new InMemoryCacheManager();
+        FF4jCacheProxy proxy = new FF4jCacheProxy(new InMemoryFeatureStore("ff4j.xml"), 
+                new InMemoryPropertyStore("ff4j.xml"), first);
+        Store2CachePollingWorker worker = new Store2CachePollingWorker(proxy.getTargetFeatureStore(), 
+                proxy.getTargetPropertyStore(), first, proxy);
+        worker.poll();
+        Assert.assertNotNull(first.getFeature("first"));
+        InMemoryCacheManager second = new InMemoryCacheManager();
+        proxy.setCacheManager(second);
+        worker.poll();
+        Assert.assertNotNull(second.getFeature("first"));
+    }
 }
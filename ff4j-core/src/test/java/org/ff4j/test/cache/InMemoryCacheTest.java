@@ -20,10 +20,21 @@ package org.ff4j.test.cache;
  * #L%
  */
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.ff4j.cache.FF4jCacheProxy;
 import org.ff4j.cache.InMemoryCacheManager;
+import org.ff4j.cache.InMemoryCacheStats;
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.property.PropertyString;
 import org.ff4j.property.store.InMemoryPropertyStore;
 import org.ff4j.store.InMemoryFeatureStore;
@@ -228,4 +239,141 @@ public class InMemoryCacheTest extends CoreFeatureStoreTestSupport {
         imcm.putProperty(p1, 1);
     }
    
+    @Test
+    public void testSingleFlightLoading() throws Exception {
+        InMemoryCacheManager imcm = new InMemoryCacheManager();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Feature>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return imcm.getFeature("cold", uid -> {
+                    loads.incrementAndGet();
+                    sleep(200);
+                    return new Feature(uid, true);
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<Feature> result : results) {
+            Assert.assertEquals("cold", result.get(5, TimeUnit.SECONDS).getUid());
+        }
+        pool.shutdown();
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(1, imcm.getFeatureStats().getLoadSuccessCount());
+    }
+    
+    @Test
+    public void testEvictDuringLoadDropsLoadedValue() throws Exception {
+        InMemoryCacheManager imcm = new InMemoryCacheManager();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<Feature> result = pool.submit(() -> imcm.getFeature("f1", uid -> {
+            loading.countDown();
+            try {
+                evicted.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Feature(uid, false);
+        }));
+        loading.await();
+        imcm.evictFeature("f1");
+        evicted.countDown();
+        // Caller still gets the loaded value, but it is not cached
+        Assert.assertFalse(result.get(5, TimeUnit.SECONDS).isEnable());
+        Assert.assertNull(imcm.getFeature("f1"));
+        pool.shutdown();
+    }
+
+    @Test
+    public void testPutDuringLoadKeepsPutValue() throws Exception {
+        InMemoryCacheManager imcm = new InMemoryCacheManager();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<Feature> result = pool.submit(() -> imcm.getFeature("f1", uid -> {
+            loading.countDown();
+            try {
+                written.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Feature(uid, false);
+        }));
+        loading.await();
+        imcm.putFeature(new Feature("f1", true));
+        written.countDown();
+        result.get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(imcm.getFeature("f1").isEnable());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testLoaderErrorPropagated() {
+        InMemoryCacheManager imcm = new InMemoryCacheManager();
+        try {
+            imcm.getFeature("f1", uid -> { throw new FeatureNotFoundException(uid); });
+            Assert.fail();
+        } catch(FeatureNotFoundException fnf) {
+            Assert.assertEquals(1, imcm.getFeatureStats().getLoadFailureCount());
+        }
+        Assert.assertNull(imcm.getFeature("f1"));
+    }
+    
+    @Test
+    public void testMaximumSize() {
+        InMemoryCacheManager imcm = new InMemoryCacheManager(100, 0, 10);
+        for (int i = 0; i < 100; i++) {
+            imcm.putFeature(new Feature("f" + i));
+            // rewrite same key, does not evict others
+            imcm.putFeature(new Feature("f0"));
+        }
+        Assert.assertTrue(imcm.listCachedFeatureNames().size() <= 10);
+        Assert.assertNotNull(imcm.getFeature("f99"));
+        Assert.assertNotNull(imcm.getFeature("f0"));
+        Assert.assertTrue(imcm.getFeatureStats().getEvictionCount() >= 90);
+    }
+    
+    @Test
+    public void testRefreshAfterWrite() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        InMemoryCacheManager imcm = new InMemoryCacheManager(100, 1, 100, Runnable::run);
+        imcm.getFeature("f1", uid -> new Feature(uid, loads.incrementAndGet() > 1));
+        Assert.assertFalse(imcm.getFeature("f1", uid -> new Feature(uid, loads.incrementAndGet() > 1)).isEnable());
+        Assert.assertEquals(1, loads.get());
+        Thread.sleep(1100);
+        // stale value served, refreshed in background (here same thread)
+        Assert.assertFalse(imcm.getFeature("f1", uid -> new Feature(uid, loads.incrementAndGet() > 1)).isEnable());
+        Assert.assertEquals(2, loads.get());
+        Assert.assertTrue(imcm.getFeature("f1").isEnable());
+        Assert.assertEquals(1, imcm.getFeatureStats().getRefreshCount());
+    }
+    
+    @Test
+    public void testStats() {
+        InMemoryCacheManager imcm = new InMemoryCacheManager();
+        FF4jCacheProxy proxy = new FF4jCacheProxy(new InMemoryFeatureStore("ff4j.xml"), null, imcm);
+        proxy.read("first");
+        proxy.read("first");
+        proxy.read("first");
+        InMemoryCacheStats stats = imcm.getFeatureStats();
+        Assert.assertEquals(2, stats.getHitCount());
+        Assert.assertEquals(1, stats.getMissCount());
+        Assert.assertEquals(3, stats.getRequestCount());
+        Assert.assertEquals(2.0 / 3, stats.getHitRate(), 0.001);
+        Assert.assertTrue(stats.getAverageLoadPenalty() >= 0);
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+   
 }
@@ -21,6 +21,7 @@ package org.ff4j.test.store;
  */
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -115,7 +116,7 @@ public abstract class CoreFeatureStoreTestSupport implements TestConstantsFF4j {
     public void testReadNull() {
         // Given
         // When
-        testedStore.read(null);
+        testedStore.read((String) null);
         // Then, expected error...
     }
 
@@ -154,6 +155,29 @@ public abstract class CoreFeatureStoreTestSupport implements TestConstantsFF4j {
         testedStore.read("INVALID");
     }
 
+    /**
+     * TDD.
+     */
+    @Test
+    public void testReadSeveralFeatures() {
+        // Given
+        assertFf4j.assertThatFeatureExist(F1);
+        assertFf4j.assertThatFeatureExist(F4);
+        assertFf4j.assertThatFeatureDoesNotExist("INVALID");
+        // When
+        Map<String, Feature> features = testedStore.read(Arrays.asList(F4, "INVALID", F1, F4));
+        // Then
+        Assert.assertEquals(2, features.size());
+        Assert.assertFalse(features.containsKey("INVALID"));
+        Feature f = features.get(F4);
+        Assert.assertEquals(F4, f.getUid());
+        Assert.assertEquals(G1, f.getGroup());
+        Assert.assertTrue(f.getPermissions().contains(ROLE_ADMIN));
+        Assert.assertEquals(testedStore.read(F4).getCustomProperties().keySet(), f.getCustomProperties().keySet());
+        Assert.assertTrue(features.get(F1).isEnable());
+        Assert.assertTrue(testedStore.read(Collections.<String>emptyList()).isEmpty());
+    }
+
     /**
      * TDD.
      */
@@ -0,0 +1,157 @@
+package org.ff4j.test.store;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ff4j.core.Feature;
+import org.ff4j.property.PropertyString;
+import org.ff4j.store.JdbcFeatureBatch;
+import org.ff4j.store.JdbcQueryBuilder;
+import org.ff4j.strategy.PonderationStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Rows produced by {@link JdbcFeatureBatch} when importing features.
+ */
+public class JdbcFeatureBatchTest {
+    
+    private final JdbcQueryBuilder qb = new JdbcQueryBuilder();
+    
+    private List<Object[]> rows(JdbcFeatureBatch batch, String query) {
+        return batch.getBatches().get(query);
+    }
+    
+    private Feature feature(String uid) {
+        Feature f = new Feature(uid, true, "desc", "GRP", Arrays.asList("ADMIN", "USER"));
+        f.setFlippingStrategy(new PonderationStrategy(0.5));
+        f.addProperty(new PropertyString("p1", "v1"));
+        f.addProperty(new PropertyString("p2", "v2"));
+        return f;
+    }
+    
+    @Test
+    public void testCreate() {
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(qb);
+        batch.writeAll(Collections.<String, Feature>emptyMap(), Arrays.asList(feature("f1"), feature("f2")));
+        Assert.assertEquals(2, rows(batch, qb.createFeature()).size());
+        Assert.assertEquals(4, rows(batch, qb.addRoleToFeature()).size());
+        Assert.assertEquals(4, rows(batch, qb.createFeatureProperty()).size());
+        Assert.assertTrue(rows(batch, qb.updateFeature()).isEmpty());
+        Assert.assertEquals("f1", rows(batch, qb.createFeature()).get(0)[0]);
+        Assert.assertEquals(PonderationStrategy.class.getName(), rows(batch, qb.createFeature()).get(0)[3]);
+    }
+    
+    @Test
+    public void testUnchangedFeatureWritesNothing() {
+        Map<String, Feature> current = new HashMap<String, Feature>();
+        current.put("f1", feature("f1"));
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(qb);
+        batch.writeAll(current, Arrays.asList(feature("f1")));
+        Assert.assertTrue(batch.isEmpty());
+    }
+    
+    @Test
+    public void testOnlyDifferencesAreWritten() {
+        Map<String, Feature> current = new HashMap<String, Feature>();
+        current.put("f1", feature("f1"));
+        Feature f1 = feature("f1");
+        f1.getPermissions().remove("USER");
+        f1.getPermissions().add("BETA");
+        f1.getCustomProperties().remove("p1");
+        f1.addProperty(new PropertyString("p2", "v2bis"));
+        f1.addProperty(new PropertyString("p3", "v3"));
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(qb);
+        batch.writeAll(current, Arrays.asList(f1));
+        // Feature row untouched
+        Assert.assertTrue(rows(batch, qb.createFeature()).isEmpty());
+        Assert.assertTrue(rows(batch, qb.updateFeature()).isEmpty());
+        // Roles
+        Assert.assertEquals(1, rows(batch, qb.deleteFeatureRole()).size());
+        Assert.assertEquals("USER", rows(batch, qb.deleteFeatureRole()).get(0)[1]);
+        Assert.assertEquals(1, rows(batch, qb.addRoleToFeature()).size());
+        Assert.assertEquals("BETA", rows(batch, qb.addRoleToFeature()).get(0)[1]);
+        // Properties : p1 removed, p2 modified, p3 created
+        Assert.assertEquals(2, rows(batch, qb.deleteFeatureProperty()).size());
+        Assert.assertEquals(2, rows(batch, qb.createFeatureProperty()).size());
+    }
+    
+    @Test
+    public void testFeatureRowUpdated() {
+        Map<String, Feature> current = new HashMap<String, Feature>();
+        current.put("f1", feature("f1"));
+        Feature f1 = feature("f1");
+        f1.setFlippingStrategy(new PonderationStrategy(0.2));
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(qb);
+        batch.writeAll(current, Arrays.asList(f1));
+        Assert.assertEquals(1, rows(batch, qb.updateFeature()).size());
+        Assert.assertEquals("f1", rows(batch, qb.updateFeature()).get(0)[5]);
+        Assert.assertTrue(rows(batch, qb.addRoleToFeature()).isEmpty());
+        Assert.assertTrue(rows(batch, qb.createFeatureProperty()).isEmpty());
+    }
+    
+    @Test
+    public void testExecutionOrder() {
+        String[] keys = new JdbcFeatureBatch(qb).getBatches().keySet().toArray(new String[0]);
+        Assert.assertEquals(qb.deleteFeatureProperty(), keys[0]);
+        Assert.assertEquals(qb.deleteFeatureRole(), keys[1]);
+        Assert.assertEquals(qb.createFeature(), keys[2]);
+        Assert.assertEquals(qb.createFeatureProperty(), keys[keys.length - 1]);
+    }
+
+    @Test
+    public void testNullsAreBoundAsVarchar() throws SQLException {
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(qb);
+        batch.writeAll(Collections.<String, Feature>emptyMap(), Arrays.asList(new Feature("f1", true)));
+        // Record parameters set on statements
+        final List<String> calls = new ArrayList<String>();
+        final PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), 
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    if ("setNull".equals(method.getName())) {
+                        calls.add("null:" + args[0] + ":" + args[1]);
+                    } else if ("setObject".equals(method.getName())) {
+                        calls.add("object:" + args[0]);
+                    } else if ("executeBatch".equals(method.getName())) {
+                        return new int[0];
+                    }
+                    return null;
+                });
+        Connection sqlConn = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), 
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> 
+                    "prepareStatement".equals(method.getName()) ? ps : null);
+        batch.execute(sqlConn);
+        // uid, enable, description, strategy, expression, group
+        Assert.assertEquals(Arrays.asList("object:1", "object:2", "null:3:" + Types.VARCHAR, 
+                "null:4:" + Types.VARCHAR, "null:5:" + Types.VARCHAR, "null:6:" + Types.VARCHAR), calls);
+    }
+    
+}
@@ -20,14 +20,19 @@ package org.ff4j.test.store;
  * #L%
  */
 
+import java.util.Arrays;
+import java.util.Map;
+
 import org.ff4j.audit.EventQueryDefinition;
 
+import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.exception.GroupNotFoundException;
 import org.ff4j.store.JdbcFeatureStore;
 import org.ff4j.store.JdbcQueryBuilder;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
@@ -111,6 +116,39 @@ public class JdbcFeatureStoreCoreTest extends CoreFeatureStoreTestSupport {
     public void readGroupDoesNotExist() {
         testedStore.readGroup("dont-exist");
     }
+
+    @Test
+    public void testWritesReadOnlyWrittenFeatures() {
+        // Current rows are read within the write transaction, not through read(uid) nor readAll()
+        JdbcFeatureStore store = new JdbcFeatureStore(((JdbcFeatureStore) testedStore).getDataSource()) {
+            @Override
+            public Feature read(String uid) {
+                throw new UnsupportedOperationException("read outside of transaction");
+            }
+            @Override
+            public Map<String, Feature> readAll() {
+                throw new UnsupportedOperationException("whole store should not be read");
+            }
+        };
+        Feature f1 = testedStore.read(F1);
+        f1.setDescription("updated");
+        store.update(f1);
+        Feature f2 = testedStore.read(F2);
+        f2.getPermissions().add("NEW_ROLE");
+        store.importFeatures(Arrays.asList(f2, new Feature("imported", true)));
+        Assert.assertEquals("updated", testedStore.read(F1).getDescription());
+        Assert.assertTrue(testedStore.read(F2).getPermissions().contains("NEW_ROLE"));
+        Assert.assertTrue(testedStore.read("imported").isEnable());
+    }
+    
+    @Test(expected = FeatureNotFoundException.class)
+    public void testUpdateDoesNotExistWritesNothing() {
+        try {
+            testedStore.update(new Feature("dont-exist", true));
+        } finally {
+            Assert.assertFalse(testedStore.exist("dont-exist"));
+        }
+    }
     
     
 }
@@ -0,0 +1,134 @@
+package org.ff4j.test.strategy;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ff4j.FF4j;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.strategy.BucketingStrategy;
+import org.ff4j.utils.Murmur3;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Testing of {@link BucketingStrategy}.
+ */
+public class BucketingStrategyTest {
+
+    /**
+     * Context for a user.
+     */
+    private FlippingExecutionContext user(int idx) {
+        FlippingExecutionContext context = new FlippingExecutionContext();
+        context.putString(BucketingStrategy.DEFAULT_BUCKET_KEY, "user-" + idx);
+        return context;
+    }
+
+    @Test
+    public void testMurmur3() {
+        // reference values, murmur3_x86_32 of UTF-16LE bytes
+        Assert.assertEquals(0, Murmur3.hash32("", 0));
+        Assert.assertEquals(-675079799, Murmur3.hash32("hello", 0));
+        Assert.assertEquals(1118836419, Murmur3.hash32("abc", 0));
+        Assert.assertEquals(789703548, Murmur3.hash32("feature-A", 42));
+    }
+
+    @Test
+    public void testStickyAndRatio() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(new Feature("f1", true, null, null, null, new BucketingStrategy("userId", 0.3)));
+        int enabled = 0;
+        for (int i = 0; i < 10000; i++) {
+            boolean first = ff4j.check("f1", user(i));
+            Assert.assertEquals(first, ff4j.check("f1", user(i)));
+            if (first) {
+                enabled++;
+            }
+        }
+        Assert.assertTrue("Got " + enabled, enabled > 2800 && enabled < 3200);
+    }
+
+    @Test
+    public void testBounds() {
+        BucketingStrategy none = new BucketingStrategy("userId", 0);
+        BucketingStrategy all  = new BucketingStrategy("userId", 1);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertFalse(none.evaluate("f1", null, user(i)));
+            Assert.assertTrue(all.evaluate("f1", null, user(i)));
+        }
+        // no key in context
+        Assert.assertFalse(all.evaluate("f1", null, null));
+        Assert.assertFalse(all.evaluate("f1", null, new FlippingExecutionContext()));
+    }
+
+    @Test
+    public void testVariants() {
+        Map<String, Double> variants = new LinkedHashMap<String, Double>();
+        variants.put("control", 50.0);
+        variants.put("blue", 25.0);
+        variants.put("green", 20.0);
+        BucketingStrategy bs = new BucketingStrategy("userId", variants);
+        Assert.assertEquals(variants, bs.getVariants());
+
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (int i = 0; i < 20000; i++) {
+            String variant = bs.getVariant("f1", user(i));
+            Assert.assertEquals(variant != null, bs.evaluate("f1", null, user(i)));
+            Integer count = counts.get(variant);
+            counts.put(variant, count == null ? 1 : count + 1);
+        }
+        Assert.assertEquals(10000, counts.get("control"), 400);
+        Assert.assertEquals(5000, counts.get("blue"), 300);
+        Assert.assertEquals(4000, counts.get("green"), 300);
+        Assert.assertEquals(1000, counts.get(null), 200);
+    }
+
+    @Test
+    public void testInitParams() {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(BucketingStrategy.PARAM_BUCKET_KEY, "tenant");
+        params.put(BucketingStrategy.PARAM_VARIANTS, "A:50, B:50");
+        BucketingStrategy bs = new BucketingStrategy();
+        bs.init("f1", params);
+        Assert.assertEquals("tenant", bs.getBucketKey());
+        FlippingExecutionContext context = new FlippingExecutionContext();
+        context.putString("tenant", "acme");
+        Assert.assertNotNull(bs.getVariant("f1", context));
+        // same buckets whether the seed is cached or not
+        Assert.assertEquals(bs.getBucket("f1", "acme"), new BucketingStrategy("tenant", 1).getBucket("f1", "acme"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVariantsOverflow() {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(BucketingStrategy.PARAM_VARIANTS, "A:60,B:50");
+        new BucketingStrategy().init("f1", params);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWeight() {
+        new BucketingStrategy("userId", 1.5);
+    }
+}
@@ -0,0 +1,137 @@
+package org.ff4j.test.strategy;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ff4j.conf.XmlParser;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingStrategy;
+import org.ff4j.exception.FeatureAccessException;
+import org.ff4j.strategy.FlippingStrategyCache;
+import org.ff4j.strategy.PonderationStrategy;
+import org.ff4j.strategy.el.ExpressionFlipStrategy;
+import org.ff4j.utils.MappingUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Testing of {@link FlippingStrategyCache}.
+ */
+public class FlippingStrategyCacheTest {
+
+    /** Class name. */
+    private static final String PONDERATION = PonderationStrategy.class.getName();
+
+    /**
+     * Parameters of a {@link PonderationStrategy}.
+     */
+    private Map<String, String> weight(String weight) {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("weight", weight);
+        return params;
+    }
+
+    /**
+     * Loader defining its own {@link PonderationStrategy} class.
+     */
+    private static final class ChildFirstClassLoader extends ClassLoader {
+
+        private ChildFirstClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!PONDERATION.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        byte[] buffer = new byte[4096];
+                        int n;
+                        while ((n = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, n);
+                        }
+                        clazz = defineClass(name, out.toByteArray(), 0, out.size());
+                    } catch (IOException ioe) {
+                        throw new ClassNotFoundException(name, ioe);
+                    }
+                }
+                return clazz;
+            }
+        }
+    }
+
+    @Test
+    public void testEachFeatureGetsItsOwnInstance() {
+        PonderationStrategy fs1 = (PonderationStrategy) MappingUtil.instanceFlippingStrategy("f1", PONDERATION, weight("0.3"));
+        PonderationStrategy fs2 = (PonderationStrategy) MappingUtil.instanceFlippingStrategy("f1", PONDERATION, weight("0.3"));
+        Assert.assertNotSame(fs1, fs2);
+        // Editing the strategy of a feature does not change others
+        fs1.setWeight(1);
+        Assert.assertEquals("0.3", fs2.getInitParams().get("weight"));
+        Assert.assertEquals("0.3", MappingUtil.instanceFlippingStrategy("f1", PONDERATION, weight("0.3")).getInitParams().get("weight"));
+    }
+
+    @Test
+    public void testCopyIsNotShared() {
+        Feature f = new Feature("f1", true);
+        f.setFlippingStrategy(MappingUtil.instanceFlippingStrategy("f1", PONDERATION, weight("0.3")));
+        Assert.assertNotSame(f.getFlippingStrategy(), new Feature(f).getFlippingStrategy());
+    }
+
+    @Test
+    public void testClassLoaderIsUsed() throws Exception {
+        ClassLoader loader = new ChildFirstClassLoader(getClass().getClassLoader());
+        FlippingStrategy fs1 = FlippingStrategyCache.newInstance("f1", PONDERATION, weight("0.3"), null);
+        FlippingStrategy fs2 = FlippingStrategyCache.newInstance("f1", PONDERATION, weight("0.3"), loader);
+        FlippingStrategy fs3 = FlippingStrategyCache.newInstance("f1", PONDERATION, weight("0.3"), null);
+        Assert.assertSame(PonderationStrategy.class, fs1.getClass());
+        Assert.assertSame(loader, fs2.getClass().getClassLoader());
+        Assert.assertNotSame(PonderationStrategy.class, fs2.getClass());
+        Assert.assertSame(PonderationStrategy.class, fs3.getClass());
+    }
+
+    @Test
+    public void testXmlParserCreatesStrategies() {
+        XmlParser parser = new XmlParser();
+        Feature f1 = parser.parseConfigurationFile(getClass().getClassLoader()
+                .getResourceAsStream("test-expressionFlipStategy-ok.xml")).getFeatures().get("D");
+        Feature f2 = parser.parseConfigurationFile(getClass().getClassLoader()
+                .getResourceAsStream("test-expressionFlipStategy-ok.xml")).getFeatures().get("D");
+        Assert.assertTrue(f1.getFlippingStrategy() instanceof ExpressionFlipStrategy);
+        Assert.assertNotSame(f1.getFlippingStrategy(), f2.getFlippingStrategy());
+    }
+
+    @Test(expected = FeatureAccessException.class)
+    public void testInvalidType() {
+        MappingUtil.instanceFlippingStrategy("f1", String.class.getName(), weight("0.3"));
+    }
+}
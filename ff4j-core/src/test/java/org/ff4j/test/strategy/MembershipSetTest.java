@@ -0,0 +1,219 @@
+package org.ff4j.test.strategy;
+
+/*-
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.strategy.BlackListStrategy;
+import org.ff4j.strategy.ClientFilterStrategy;
+import org.ff4j.strategy.MembershipSet;
+import org.ff4j.strategy.MembershipSetRegistry;
+import org.ff4j.strategy.RegionFlippingStrategy;
+import org.ff4j.strategy.WhiteListStrategy;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit Testing of {@link MembershipSet} and {@link MembershipSetRegistry}.
+ */
+public class MembershipSetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        MembershipSetRegistry.clear();
+        MembershipSetRegistry.setListDirectory(null);
+    }
+
+    private FlippingExecutionContext client(String name) {
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        ctx.putString(ClientFilterStrategy.CLIENT_HOSTNAME, name);
+        return ctx;
+    }
+
+    @Test
+    public void testMembership() {
+        MembershipSet set = MembershipSet.of(Arrays.asList("c", "a", "b", "a", "", null, "ab"));
+        Assert.assertEquals(4, set.size());
+        Assert.assertEquals(Arrays.asList("a", "ab", "b", "c"), set.values());
+        for (String v : Arrays.asList("a", "ab", "b", "c")) {
+            Assert.assertTrue(set.contains(v));
+        }
+        Assert.assertFalse(set.contains("abc"));
+        Assert.assertFalse(set.contains(""));
+        Assert.assertFalse(set.contains(null));
+        Assert.assertTrue(set.contains(new StringBuilder("ab")));
+        Assert.assertTrue(MembershipSet.of(null).isEmpty());
+        Assert.assertFalse(MembershipSet.EMPTY.contains("a"));
+    }
+
+    @Test
+    public void testLargeSet() {
+        List<String> values = new ArrayList<String>();
+        for (int i = 0; i < 100000; i += 2) {
+            values.add("user-" + i);
+        }
+        MembershipSet set = MembershipSet.of(values);
+        Assert.assertEquals(50000, set.size());
+        for (int i = 0; i < 100000; i++) {
+            Assert.assertEquals(i % 2 == 0, set.contains("user-" + i));
+        }
+    }
+
+    @Test
+    public void testInlineSetsAreShared() {
+        MembershipSet s1 = MembershipSetRegistry.parse("a, b ,c", ",");
+        MembershipSet s2 = MembershipSetRegistry.parse("a, b ,c", ",");
+        Assert.assertSame(s1, s2);
+        Assert.assertTrue(s1.contains("b"));
+        WhiteListStrategy w1 = new WhiteListStrategy("a, b ,c");
+        WhiteListStrategy w2 = new WhiteListStrategy("a, b ,c");
+        Assert.assertSame(w1.grantedClients(), w2.grantedClients());
+    }
+
+    @Test
+    public void testClientListFromFile() {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(MembershipSetRegistry.PARAM_LIST_FILE, "test-membership-list.txt");
+        WhiteListStrategy white = new WhiteListStrategy();
+        white.init("f1", params);
+        Assert.assertEquals(3, white.grantedClients().size());
+        Assert.assertTrue(white.evaluate("f1", null, client("user2")));
+        Assert.assertFalse(white.evaluate("f1", null, client("# Beta cohort")));
+        BlackListStrategy black = new BlackListStrategy();
+        black.init("f2", params);
+        Assert.assertSame(white.grantedClients(), black.grantedClients());
+        Assert.assertFalse(black.evaluate("f2", null, client("user1")));
+        Assert.assertTrue(black.evaluate("f2", null, client("user4")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testClientListFileNotFound() {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(MembershipSetRegistry.PARAM_LIST_FILE, "does-not-exist.txt");
+        new WhiteListStrategy().init("f1", params);
+    }
+
+    @Test
+    public void testClientListFromListDirectory() throws IOException {
+        File listFile = folder.newFile("beta.txt");
+        Files.write(listFile.toPath(), Arrays.asList("user1", "user2"), StandardCharsets.UTF_8);
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(MembershipSetRegistry.PARAM_LIST_FILE, "beta.txt");
+        MembershipSetRegistry.setListDirectory(folder.getRoot().getAbsolutePath());
+        WhiteListStrategy white = new WhiteListStrategy();
+        white.init("f1", params);
+        Assert.assertTrue(white.evaluate("f1", null, client("user2")));
+        Assert.assertFalse(white.evaluate("f1", null, client("user3")));
+    }
+
+    @Test
+    public void testFilesNotReadWithoutListDirectory() throws IOException {
+        File listFile = folder.newFile("beta.txt");
+        Files.write(listFile.toPath(), Arrays.asList("user1"), StandardCharsets.UTF_8);
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(MembershipSetRegistry.PARAM_LIST_FILE, listFile.getAbsolutePath());
+        try {
+            new WhiteListStrategy().init("f1", params);
+            Assert.fail("Files must not be read without list directory");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFilesOutsideListDirectoryRejected() throws IOException {
+        File secret = folder.newFile("secret.txt");
+        Files.write(secret.toPath(), Arrays.asList("user1"), StandardCharsets.UTF_8);
+        MembershipSetRegistry.setListDirectory(folder.newFolder("lists").getAbsolutePath());
+        for (String location : Arrays.asList("../secret.txt", secret.getAbsolutePath())) {
+            Map<String, String> params = new HashMap<String, String>();
+            params.put(MembershipSetRegistry.PARAM_LIST_FILE, location);
+            try {
+                new WhiteListStrategy().init("f1", params);
+                Assert.fail("File outside list directory must be rejected : " + location);
+            } catch (IllegalArgumentException iae) {
+                Assert.assertTrue(iae.getMessage().contains("outside"));
+            }
+        }
+    }
+
+    @Test
+    public void testNamedSet() {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(MembershipSetRegistry.PARAM_LIST_NAME, "beta");
+        ClientFilterStrategy cfs = new ClientFilterStrategy();
+        cfs.init("f1", params);
+        MembershipSetRegistry.register("beta", "u1,u2", ",");
+        Assert.assertTrue(cfs.evaluate("f1", null, client("u1")));
+        // Replaced at runtime
+        MembershipSetRegistry.register("beta", Arrays.asList("u3"));
+        Assert.assertFalse(cfs.evaluate("f1", null, client("u1")));
+        Assert.assertTrue(cfs.evaluate("f1", null, client("u3")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNamedSetNotRegistered() {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(MembershipSetRegistry.PARAM_LIST_NAME, "unknown");
+        ClientFilterStrategy cfs = new ClientFilterStrategy();
+        cfs.init("f1", params);
+        cfs.evaluate("f1", null, client("u1"));
+    }
+
+    @Test
+    public void testRegions() {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(RegionFlippingStrategy.INIT_PARAMNAME_REGIONS, "EU,US");
+        RegionFlippingStrategy rfs = new RegionFlippingStrategy();
+        rfs.init("f1", params);
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        ctx.putString(RegionFlippingStrategy.PARAMNAME_USER_REGION, "US");
+        Assert.assertTrue(rfs.evaluate("f1", null, ctx));
+        ctx.putString(RegionFlippingStrategy.PARAMNAME_USER_REGION, "ASIA");
+        Assert.assertFalse(rfs.evaluate("f1", null, ctx));
+        // Named
+        params.clear();
+        params.put(MembershipSetRegistry.PARAM_LIST_NAME, "regions");
+        MembershipSetRegistry.register("regions", Arrays.asList("ASIA"));
+        rfs.init("f1", params);
+        Assert.assertTrue(rfs.evaluate("f1", null, ctx));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegionsRequired() {
+        new RegionFlippingStrategy().init("f1", new HashMap<String, String>());
+    }
+}
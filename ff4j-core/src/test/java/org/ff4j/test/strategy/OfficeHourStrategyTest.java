@@ -20,10 +20,14 @@ package org.ff4j.test.strategy;
  * #L%
  */
 
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TimeZone;
 
 import org.ff4j.FF4j;
 import org.ff4j.conf.XmlParser;
@@ -223,6 +227,56 @@ public class OfficeHourStrategyTest extends AbstractFf4jTest {
          ohs.evaluate("f1", new InMemoryFeatureStore(), new FlippingExecutionContext());
      }
      
+     @Test
+     public void testOfficeHourTimeZone() {
+         OfficeHourStrategy ohs = new OfficeHourStrategy();
+         Map < String, String > initParams = new HashMap<String, String>();
+         initParams.put("monday", "08:00-12:00");
+         ohs.init("f1", initParams);
+         // Monday 07:30 UTC, calendar zone is used
+         Calendar c = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+         c.clear();
+         c.set(2015, Calendar.MARCH, 9, 7, 30);
+         FlippingExecutionContext fec = new FlippingExecutionContext();
+         fec.addValue(OfficeHourStrategy.OVERRIDE_DATE, c);
+         Assert.assertFalse(ohs.evaluate("f1", null, fec));
+         // Same instant is 08:30 in Paris
+         initParams.put("timezone", "Europe/Paris");
+         ohs.init("f1", initParams);
+         Assert.assertTrue(ohs.evaluate("f1", null, fec));
+         // Upper bound excluded
+         c.set(2015, Calendar.MARCH, 9, 11, 0);
+         Assert.assertFalse(ohs.evaluate("f1", null, fec));
+         c.set(2015, Calendar.MARCH, 9, 10, 59);
+         Assert.assertTrue(ohs.evaluate("f1", null, fec));
+     }
      
+     @Test
+     public void testOfficeHourCurrentTime() {
+         OfficeHourStrategy ohs = new OfficeHourStrategy();
+         Map < String, String > initParams = new HashMap<String, String>();
+         for (String day : new String[] {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"}) {
+             initParams.put(day, "00:00-23:59");
+         }
+         initParams.put("timezone", "UTC");
+         ohs.init("f1", initParams);
+         boolean lastMinute = ZonedDateTime.now(ZoneId.of("UTC")).getHour() == 23 
+                 && ZonedDateTime.now(ZoneId.of("UTC")).getMinute() == 59;
+         if (!lastMinute) {
+             Assert.assertTrue(ohs.evaluate("f1", null, null));
+             // Cached until next transition
+             Assert.assertTrue(ohs.evaluate("f1", null, new FlippingExecutionContext()));
+         }
+         initParams.put("publicHolidays", LocalDate.now(ZoneId.of("UTC")).toString());
+         ohs.init("f1", initParams);
+         Assert.assertFalse(ohs.evaluate("f1", null, null));
+     }
+     
+     @Test(expected = IllegalArgumentException.class)
+     public void testOfficeHourInvalidTimeZone() {
+         OfficeHourStrategy ohs = new OfficeHourStrategy();
+         Map < String, String > initParams = new HashMap<String, String>();
+         initParams.put("timezone", "invalid/zone");
+         ohs.init("f1", initParams);
+     }
 }
-
@@ -21,6 +21,9 @@ package org.ff4j.test.strategy;
  */
 
 import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -79,5 +82,43 @@ public class ReleaseDateFlipStrategyTest extends AbstractFf4jTest {
         params.put("releaseDate", "invalid");
         rds2.init("f1", params);
     }
+    
+    @Test
+    public void testTimeZone() {
+        ReleaseDateFlipStrategy rds = new ReleaseDateFlipStrategy();
+        Map < String, String > params = new HashMap<String, String>();
+        params.put("releaseDate", "2015-03-09-10:00");
+        params.put("timezone", "Asia/Tokyo");
+        rds.init("f1", params);
+        Assert.assertTrue(rds.evaluate("f1", null, null));
+        params.put("releaseDate", "2999-01-01-00:00");
+        rds.init("f1", params);
+        Assert.assertFalse(rds.evaluate("f1", null, null));
+    }
+    
+    @Test
+    public void testTimeZoneNearRelease() {
+        // Release 3 hours ahead of current UTC time: future in UTC, 6 hours past in Tokyo (UTC+9)
+        String releaseDate = LocalDateTime.now(ZoneOffset.UTC).plusHours(3)
+                .format(DateTimeFormatter.ofPattern(ReleaseDateFlipStrategy.DATE_PATTERN));
+        ReleaseDateFlipStrategy rds = new ReleaseDateFlipStrategy();
+        Map < String, String > params = new HashMap<String, String>();
+        params.put("releaseDate", releaseDate);
+        params.put("timezone", "UTC");
+        rds.init("f1", params);
+        Assert.assertFalse(rds.evaluate("f1", null, null));
+        params.put("timezone", "Asia/Tokyo");
+        rds.init("f1", params);
+        Assert.assertTrue(rds.evaluate("f1", null, null));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTimeZone() {
+        ReleaseDateFlipStrategy rds = new ReleaseDateFlipStrategy();
+        Map < String, String > params = new HashMap<String, String>();
+        params.put("releaseDate", "2015-03-09-10:00");
+        params.put("timezone", "invalid/zone");
+        rds.init("f1", params);
+    }
 
 }
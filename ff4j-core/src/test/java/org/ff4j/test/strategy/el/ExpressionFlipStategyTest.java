@@ -20,9 +20,16 @@ package org.ff4j.test.strategy.el;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.ff4j.FF4j;
 import org.ff4j.conf.XmlParser;
+import org.ff4j.core.Feature;
 import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.store.InMemoryFeatureStore;
+import org.ff4j.strategy.el.CompiledExpression;
 import org.ff4j.strategy.el.ExpressionFlipStrategy;
 import org.ff4j.test.AssertFf4j;
 import org.junit.Assert;
@@ -77,4 +84,40 @@ public class ExpressionFlipStategyTest {
         Assert.assertFalse(efs.evaluate("D", ff4j.getFeatureStore(), fex));
     }
 
+    @Test
+    public void testCompiledExpressionCached() {
+        CompiledExpression ce = CompiledExpression.compile("A & (B | !C)");
+        Assert.assertSame(ce, CompiledExpression.compile("A & (B | !C)"));
+        Assert.assertEquals(Arrays.asList("A", "B", "C"), new ArrayList<String>(ce.getReferencedFeatures()));
+    }
+
+    @Test
+    public void testReadOnlyReferencedFeatures() {
+        final List<String> reads = new ArrayList<String>();
+        InMemoryFeatureStore store = new InMemoryFeatureStore() {
+            public Feature read(String uid) {
+                reads.add(uid);
+                return super.read(uid);
+            }
+            public boolean exist(String uid) {
+                reads.add("exist:" + uid);
+                return super.exist(uid);
+            }
+        };
+        store.create(new Feature("A", false));
+        store.create(new Feature("B", true));
+        store.create(new Feature("C", true));
+        store.create(new Feature("UNRELATED", true));
+        reads.clear();
+
+        // A is disabled : AND stops, B is read once even if referenced twice
+        Assert.assertTrue(new ExpressionFlipStrategy("X", "A & C | B | !B").evaluate("X", store, null));
+        Assert.assertEquals(Arrays.asList("A", "B"), reads);
+
+        // Unknown features are disabled, with a single call to the store
+        reads.clear();
+        Assert.assertFalse(new ExpressionFlipStrategy("X", "TOTO").evaluate("X", store, null));
+        Assert.assertEquals(Arrays.asList("TOTO"), reads);
+    }
+
 }
@@ -23,6 +23,7 @@ package org.ff4j.cassandra.store;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -65,6 +66,9 @@ public class EventRepositoryCassandra extends AbstractEventRepository implements
     /** logger for this store. */
     private static Logger LOGGER = LoggerFactory.getLogger(EventRepositoryCassandra.class);
     
+    /** Maximum number of events in a single unlogged batch. */
+    private static final int MAX_EVENTS_PER_BATCH = 100;
+    
     /** Driver Session. */
     private CqlSession cqlSession;
     
@@ -101,7 +105,44 @@ public class EventRepositoryCassandra extends AbstractEventRepository implements
         Util.assertEvent(e);
         CqlSession cqlSession = getCqlSession();
         BatchStatementBuilder batchBuilder = new BatchStatementBuilder(BatchType.LOGGED);
-        
+        addInsertStatements(batchBuilder, e);
+        cqlSession.execute(batchBuilder.build());
+        return true;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public boolean saveEvents(Collection<Event> events) {
+        if (events == null || events.isEmpty()) {
+            return true;
+        }
+        CqlSession cqlSession = getCqlSession();
+        // Events are independent, unlogged batches avoid the batchlog overhead
+        BatchStatementBuilder batchBuilder = new BatchStatementBuilder(BatchType.UNLOGGED);
+        int count = 0;
+        for (Event e : events) {
+            Util.assertEvent(e);
+            addInsertStatements(batchBuilder, e);
+            if (++count % MAX_EVENTS_PER_BATCH == 0) {
+                cqlSession.execute(batchBuilder.build());
+                batchBuilder = new BatchStatementBuilder(BatchType.UNLOGGED);
+            }
+        }
+        if (count % MAX_EVENTS_PER_BATCH != 0) {
+            cqlSession.execute(batchBuilder.build());
+        }
+        return true;
+    }
+    
+    /**
+     * Add statements to insert event in main table and (for hits) in table by type.
+     *
+     * @param batchBuilder
+     *      current batch
+     * @param e
+     *      current event
+     */
+    private void addInsertStatements(BatchStatementBuilder batchBuilder, Event e) {
         BoundStatement bsInsertEvent = psInsertEvent.bind();
         bsInsertEvent = bsInsertEvent.setUuid(AUDIT_ATT_UID, UUID.fromString(e.getUuid()));
         bsInsertEvent = bsInsertEvent.setString(AUDIT_ATT_TYPE, e.getType());
@@ -129,10 +170,7 @@ public class EventRepositoryCassandra extends AbstractEventRepository implements
             bsInsertEventByType = bsInsertEventByType.setMap(AUDIT_ATT_CUSTOM, e.getCustomKeys(), String.class, String.class);
             batchBuilder.addStatement(bsInsertEventByType);
         }
-        
-        cqlSession.execute(batchBuilder.build());
-        return true;
-    }   
+    }
 
     /** {@inheritDoc} */
     @Override
@@ -20,6 +20,7 @@ package org.ff4j.hbase;
  * #L%
  */
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Set;
@@ -32,18 +33,27 @@ import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.client.Table;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Connection to Cassandra.
+ * Connection to HBase.
+ * 
+ * A single {@link Connection}, heavy to create and thread-safe, is opened on first use and shared by all stores
+ * using this object. Tables and mutators are lightweight and taken from it for each operation. Stores do not close
+ * the connection unless they own it (<code>closeConnection</code> flag of stores, closed by
+ * {@link org.ff4j.FF4j#stop()} with {@link org.ff4j.FF4j#shutdownStores()}), otherwise its owner closes it once
+ * they are no longer used.
  *
  * @author Cedrick Lunven (@clunven)
  */
-public class HBaseConnection {
+public class HBaseConnection implements Closeable {
     
     /** logger for this store. */
     private static Logger LOGGER = LoggerFactory.getLogger(HBaseConnection.class);
@@ -51,6 +61,12 @@ public class HBaseConnection {
     /** Hbase configuration. */
     private Configuration config = null;
     
+    /** Shared connection, created on first use. */
+    private volatile Connection connection;
+    
+    /** Closed by owner, connection is not opened again. */
+    private volatile boolean closed;
+    
     /**
      * Default Settings.
      */
@@ -128,16 +144,14 @@ public class HBaseConnection {
      *      list of column families
      */
     public void createTable(String tableName, Set<String> columnFamilies) {
-        try (Connection hbConn = ConnectionFactory.createConnection(config)) {
-            try(Admin hbAdmin = hbConn.getAdmin()) {
-                TableName hTableName = TableName.valueOf(tableName);
-                if (!hbAdmin.tableExists(hTableName)) {
-                    HTableDescriptor tableDesc = new HTableDescriptor(hTableName);
-                    columnFamilies.stream().map(HColumnDescriptor::new).forEach(tableDesc::addFamily);
-                    hbAdmin.createTable(tableDesc);
-                } else {
-                    LOGGER.info("Table " + tableName + " already exists.");
-                }
+        try (Admin hbAdmin = getConnection().getAdmin()) {
+            TableName hTableName = TableName.valueOf(tableName);
+            if (!hbAdmin.tableExists(hTableName)) {
+                HTableDescriptor tableDesc = new HTableDescriptor(hTableName);
+                columnFamilies.stream().map(HColumnDescriptor::new).forEach(tableDesc::addFamily);
+                hbAdmin.createTable(tableDesc);
+            } else {
+                LOGGER.info("Table " + tableName + " already exists.");
             }
         } catch (IOException e) {
             throw new IllegalArgumentException("Cannot create table " + tableName + " please check name", e);
@@ -151,22 +165,12 @@ public class HBaseConnection {
      *      table name
      */
     public void truncateTable(String tableName) {
-        Connection hbConn = null;
-        Admin hbAdmin     = null;
-        try {
-            hbConn = ConnectionFactory.createConnection(config);
-            hbAdmin = hbConn.getAdmin();
+        try (Admin hbAdmin = getConnection().getAdmin()) {
             TableName target = TableName.valueOf(tableName);
             hbAdmin.disableTable(target);
             hbAdmin.truncateTable(target, false);
         } catch (IOException e) {
             throw new IllegalArgumentException("Cannot truncate table " + tableName + " please check name", e);
-        } finally {
-            // Closing connection
-            try {
-                if (hbAdmin != null) hbAdmin.close();
-                if (hbConn != null)  hbConn.close();
-            } catch (IOException e) {}
         }
     }
     
@@ -178,15 +182,86 @@ public class HBaseConnection {
      * @throws IOException
      */
     public Stream<String> listTablesName() throws IOException {
-        try (Connection hbConn = ConnectionFactory.createConnection(config)) {
-            try(Admin hbAdmin = hbConn.getAdmin()) {
-                return Arrays.stream(hbAdmin.listTables()).map(HTableDescriptor::getNameAsString);
-            }
+        try (Admin hbAdmin = getConnection().getAdmin()) {
+            return Arrays.stream(hbAdmin.listTables()).map(HTableDescriptor::getNameAsString);
         } catch (IOException e) {
             throw new IllegalArgumentException("Cannot list table names", e);
         }
     }
 
+    /**
+     * Access the shared connection, opened on first call (or again if HBase client closed it after an error).
+     *
+     * @return
+     *      shared connection
+     * @throws IOException
+     *      cannot connect to HBase or {@link #close()} has been called
+     */
+    public Connection getConnection() throws IOException {
+        Connection current = connection;
+        if (current == null || current.isClosed()) {
+            synchronized (this) {
+                if (closed) {
+                    throw new IOException("HBase connection has been closed");
+                }
+                current = connection;
+                if (current == null || current.isClosed()) {
+                    current = ConnectionFactory.createConnection(config);
+                    connection = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Access a table from the shared connection, to be closed after use.
+     *
+     * @param tableName
+     *      current table name
+     * @return
+     *      table
+     * @throws IOException
+     *      cannot connect to HBase
+     */
+    public Table getTable(TableName tableName) throws IOException {
+        return getConnection().getTable(tableName);
+    }
+    
+    /**
+     * Create a mutator buffering writes on a table from the shared connection.
+     *
+     * @param tableName
+     *      current table name
+     * @param flushPeriod
+     *      buffered mutations are sent at least every period (milliseconds)
+     * @return
+     *      mutator, thread-safe
+     * @throws IOException
+     *      cannot connect to HBase
+     */
+    public BufferedMutator getBufferedMutator(TableName tableName, long flushPeriod) throws IOException {
+        BufferedMutatorParams params = new BufferedMutatorParams(tableName);
+        params.setWriteBufferPeriodicFlushTimeoutMs(flushPeriod);
+        return getConnection().getBufferedMutator(params);
+    }
+    
+    /**
+     * Close the shared connection, stores using it cannot access HBase anymore.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                LOGGER.warn("Cannot close HBase connection", e);
+            }
+            connection = null;
+        }
+    }
+
     /**
      * Getter accessor for attribute 'config'.
      *
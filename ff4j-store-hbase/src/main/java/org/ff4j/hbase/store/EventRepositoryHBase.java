@@ -47,8 +47,10 @@ import static org.ff4j.hbase.HBaseConstants.COL_EVENT_SOURCE;
 import static org.ff4j.hbase.HBaseConstants.COL_EVENT_USER;
 import static org.ff4j.hbase.HBaseConstants.COL_EVENT_UID;
 
+import java.io.Flushable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -56,8 +58,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
-import org.apache.hadoop.hbase.client.Connection;
-import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.BufferedMutator;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
@@ -87,14 +88,29 @@ import org.ff4j.utils.Util;
  * 
  * @author Cedrick LUNVEN (@clunven)
  */
-public class EventRepositoryHBase extends AbstractEventRepository {
+public class EventRepositoryHBase extends AbstractEventRepository implements AutoCloseable, Flushable {
     
     /** Mapper. */
     private static final HBaseEventMapper MAPPER = new HBaseEventMapper();
     
+    /** Default period to send buffered events (milliseconds). */
+    public static final long DEFAULT_FLUSH_PERIOD = 1000L;
+    
     /** Connection to store Cassandra. */
     private HBaseConnection conn;
     
+    /** Connection is owned by this repository and closed with it. */
+    private boolean closeConnection = false;
+    
+    /** Buffered events are sent at least every period (milliseconds). */
+    private long flushPeriod = DEFAULT_FLUSH_PERIOD;
+    
+    /** Writes of events are buffered and sent in batches. */
+    private volatile BufferedMutator mutator;
+    
+    /** No mutator is created once closed. */
+    private volatile boolean closed;
+    
     /**
      * Default constructor.
      */
@@ -112,95 +128,112 @@ public class EventRepositoryHBase extends AbstractEventRepository {
     }
     
     /**
-     * Utility to insert data into events.
+     * Access mutator buffering events, created on first write.
      *
-     * @param putQuery
-     *      query to update DB.
+     * @return
+     *      current mutator
+     * @throws IOException
+     *      cannot connect to HBase
      */
-    private void executePutCommand(Put putQuery) {
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(AUDIT_TABLENAME)) {
-                table.put(putQuery);
+    private BufferedMutator getMutator() throws IOException {
+        BufferedMutator m = mutator;
+        if (m == null) {
+            synchronized (this) {
+                if (closed) {
+                    throw new AuditAccessException("Event repository has been closed");
+                }
+                m = mutator;
+                if (m == null) {
+                    m = conn.getBufferedMutator(AUDIT_TABLENAME, flushPeriod);
+                    mutator = m;
+                }
+            }
+        }
+        return m;
+    }
+    
+    /**
+     * Send buffered events, called before reading so that searches see every saved event.
+     */
+    @Override
+    public void flush() {
+        BufferedMutator m = mutator;
+        if (m != null) {
+            try {
+                m.flush();
+            } catch (IOException e) {
+                throw new AuditAccessException("Cannot flush events", e);
             }
-        } catch (IOException e) {
-            throw new AuditAccessException("Cannot execute command", e);
         }
     }
     
     private Scan buildQuery(EventQueryDefinition qDef, Set< String > columnNames, String type) {
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(AUDIT_TABLENAME)) {
-                
-                // Columns to retrieve dynamically
-                Scan s = new Scan();
-                for (String col : columnNames) {
-                    s.addColumn(B_AUDIT_CF, Bytes.toBytes(col));
-                }
-                
-                /*
-                s.addColumn(B_AUDIT_CF, B_EVENT_UID);
-                s.addColumn(B_AUDIT_CF, B_EVENT_SOURCE);
-                s.addColumn(B_AUDIT_CF, B_EVENT_NAME);
-                s.addColumn(B_AUDIT_CF, B_EVENT_ACTION);
-                s.addColumn(B_AUDIT_CF, B_EVENT_TYPE);
-                s.addColumn(B_AUDIT_CF, B_EVENT_DURATION);
-                s.addColumn(B_AUDIT_CF, B_EVENT_HOSTNAME);
-                s.addColumn(B_AUDIT_CF, B_EVENT_USER);
-                s.addColumn(B_AUDIT_CF, B_EVENT_VALUE);
-                s.addColumn(B_AUDIT_CF, B_EVENT_DATE);
-                s.addColumn(B_AUDIT_CF, B_EVENT_TIME);
-                s.addColumn(B_AUDIT_CF, B_EVENT_KEYS);
-                */
-               
-                // Filters
-                FilterList filterList = new FilterList(FilterList.Operator.MUST_PASS_ALL);
+        // Columns to retrieve dynamically
+        Scan s = new Scan();
+        for (String col : columnNames) {
+            s.addColumn(B_AUDIT_CF, Bytes.toBytes(col));
+        }
+        
+        /*
+        s.addColumn(B_AUDIT_CF, B_EVENT_UID);
+        s.addColumn(B_AUDIT_CF, B_EVENT_SOURCE);
+        s.addColumn(B_AUDIT_CF, B_EVENT_NAME);
+        s.addColumn(B_AUDIT_CF, B_EVENT_ACTION);
+        s.addColumn(B_AUDIT_CF, B_EVENT_TYPE);
+        s.addColumn(B_AUDIT_CF, B_EVENT_DURATION);
+        s.addColumn(B_AUDIT_CF, B_EVENT_HOSTNAME);
+        s.addColumn(B_AUDIT_CF, B_EVENT_USER);
+        s.addColumn(B_AUDIT_CF, B_EVENT_VALUE);
+        s.addColumn(B_AUDIT_CF, B_EVENT_DATE);
+        s.addColumn(B_AUDIT_CF, B_EVENT_TIME);
+        s.addColumn(B_AUDIT_CF, B_EVENT_KEYS);
+        */
+           
+        // Filters
+        FilterList filterList = new FilterList(FilterList.Operator.MUST_PASS_ALL);
 
-                // from
-                SingleColumnValueFilter filterFrom = 
-                        new SingleColumnValueFilter(B_AUDIT_CF, B_EVENT_TIME, 
-                                CompareOp.GREATER_OR_EQUAL, Bytes.toBytes(qDef.getFrom()));
-                filterFrom.setFilterIfMissing(true);
-                filterList.addFilter(filterFrom);
-                
-                // To
-                SingleColumnValueFilter filterTo =
-                        new SingleColumnValueFilter(B_AUDIT_CF, B_EVENT_TIME, 
-                                CompareOp.LESS_OR_EQUAL, Bytes.toBytes(qDef.getTo()));
-                filterTo.setFilterIfMissing(true);
-                filterList.addFilter(filterTo);
-                
-                // Type
-                if (null != type) {
-                    filterList.addFilter(
-                            new SingleColumnValueFilter(B_AUDIT_CF, B_EVENT_TYPE, CompareOp.EQUAL, Bytes.toBytes(type)));
-                }
-                
-                // Actions
-                if (!qDef.getActionFilters().isEmpty()) {
-                    filterList.addFilter(
-                            createFilterListOR(B_EVENT_ACTION, qDef.getActionFilters()));
-                }
-                // Host
-                if (!qDef.getHostFilters().isEmpty()) {
-                    filterList.addFilter(
-                            createFilterListOR(B_EVENT_HOSTNAME, qDef.getHostFilters()));
-                }
-                // Names
-                if (!qDef.getNamesFilter().isEmpty()) {
-                    filterList.addFilter(
-                            createFilterListOR(B_EVENT_NAME, qDef.getNamesFilter()));
-                }
-                // Sources
-                if (!qDef.getSourceFilters().isEmpty()) {
-                    filterList.addFilter(
-                            createFilterListOR(B_EVENT_SOURCE, qDef.getSourceFilters()));
-                }
-                s.setFilter(filterList);
-                return s;
-            }
-        } catch (IOException e) {
-            throw new AuditAccessException("Cannot execute command", e);
+        // from
+        SingleColumnValueFilter filterFrom = 
+                new SingleColumnValueFilter(B_AUDIT_CF, B_EVENT_TIME, 
+                        CompareOp.GREATER_OR_EQUAL, Bytes.toBytes(qDef.getFrom()));
+        filterFrom.setFilterIfMissing(true);
+        filterList.addFilter(filterFrom);
+        
+        // To
+        SingleColumnValueFilter filterTo =
+                new SingleColumnValueFilter(B_AUDIT_CF, B_EVENT_TIME, 
+                        CompareOp.LESS_OR_EQUAL, Bytes.toBytes(qDef.getTo()));
+        filterTo.setFilterIfMissing(true);
+        filterList.addFilter(filterTo);
+        
+        // Type
+        if (null != type) {
+            filterList.addFilter(
+                    new SingleColumnValueFilter(B_AUDIT_CF, B_EVENT_TYPE, CompareOp.EQUAL, Bytes.toBytes(type)));
+        }
+        
+        // Actions
+        if (!qDef.getActionFilters().isEmpty()) {
+            filterList.addFilter(
+                    createFilterListOR(B_EVENT_ACTION, qDef.getActionFilters()));
+        }
+        // Host
+        if (!qDef.getHostFilters().isEmpty()) {
+            filterList.addFilter(
+                    createFilterListOR(B_EVENT_HOSTNAME, qDef.getHostFilters()));
+        }
+        // Names
+        if (!qDef.getNamesFilter().isEmpty()) {
+            filterList.addFilter(
+                    createFilterListOR(B_EVENT_NAME, qDef.getNamesFilter()));
         }
+        // Sources
+        if (!qDef.getSourceFilters().isEmpty()) {
+            filterList.addFilter(
+                    createFilterListOR(B_EVENT_SOURCE, qDef.getSourceFilters()));
+        }
+        s.setFilter(filterList);
+        return s;
     }
         
     private Filter createFilterListOR(byte[] columnName, Set<String> values) {
@@ -223,7 +256,32 @@ public class EventRepositoryHBase extends AbstractEventRepository {
     @Override
     public boolean saveEvent(Event evt) {
         Util.assertEvent(evt);
-        executePutCommand(MAPPER.toStore(evt));
+        try {
+            getMutator().mutate(MAPPER.toStore(evt));
+        } catch (IOException e) {
+            throw new AuditAccessException("Cannot save event", e);
+        }
+        return true;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public boolean saveEvents(Collection<Event> events) {
+        if (events == null || events.isEmpty()) {
+            return true;
+        }
+        List<Put> puts = new ArrayList<Put>(events.size());
+        for (Event evt : events) {
+            Util.assertEvent(evt);
+            puts.add(MAPPER.toStore(evt));
+        }
+        try {
+            BufferedMutator m = getMutator();
+            m.mutate(puts);
+            m.flush();
+        } catch (IOException e) {
+            throw new AuditAccessException("Cannot save events", e);
+        }
         return true;
     }
 
@@ -231,11 +289,10 @@ public class EventRepositoryHBase extends AbstractEventRepository {
     @Override
     public Event getEventByUUID(String uuid, Long timestamp) {
         Util.assertHasLength(new String[]{uuid});
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(AUDIT_TABLENAME)) {
-                Get queryGetById = new Get(Bytes.toBytes(uuid));
-                return MAPPER.fromStore(table.get(queryGetById));
-            }
+        flush();
+        try (Table table = conn.getTable(AUDIT_TABLENAME)) {
+            Get queryGetById = new Get(Bytes.toBytes(uuid));
+            return MAPPER.fromStore(table.get(queryGetById));
         } catch (IOException e) {
             throw new AuditAccessException("Cannot check feature existence", e);
         }
@@ -268,20 +325,19 @@ public class EventRepositoryHBase extends AbstractEventRepository {
     /** {@inheritDoc} */
     private Map<String, MutableHitCount> computeHitCount(EventQueryDefinition query, String pColName) {
         Map < String, MutableHitCount > hitCount = new HashMap<String, MutableHitCount>();
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(AUDIT_TABLENAME)) {
-                query.getActionFilters().add(ACTION_CHECK_OK);
-                Scan scanQuery = buildQuery(query, Util.set(pColName), EventConstants.TARGET_FEATURE);
-                try(ResultScanner scanner = table.getScanner(scanQuery)) {
-                    for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
-                        String colValue = Bytes.toString(rr.getValue(B_AUDIT_CF, Bytes.toBytes(pColName)));
-                        if (hitCount.containsKey(colValue)) {
-                            hitCount.get(colValue).inc();
-                        } else {
-                            hitCount.put(colValue, new MutableHitCount(1));
-                        }
-                     }
-                }
+        flush();
+        try (Table table = conn.getTable(AUDIT_TABLENAME)) {
+            query.getActionFilters().add(ACTION_CHECK_OK);
+            Scan scanQuery = buildQuery(query, Util.set(pColName), EventConstants.TARGET_FEATURE);
+            try(ResultScanner scanner = table.getScanner(scanQuery)) {
+                for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
+                    String colValue = Bytes.toString(rr.getValue(B_AUDIT_CF, Bytes.toBytes(pColName)));
+                    if (hitCount.containsKey(colValue)) {
+                        hitCount.get(colValue).inc();
+                    } else {
+                        hitCount.put(colValue, new MutableHitCount(1));
+                    }
+                 }
             }
         } catch (IOException e) {
             throw new AuditAccessException("Compute hitcount based on " + pColName, e);
@@ -307,16 +363,15 @@ public class EventRepositoryHBase extends AbstractEventRepository {
     @Override
     public EventSeries searchFeatureUsageEvents(EventQueryDefinition query) {
         EventSeries es = new EventSeries();
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(AUDIT_TABLENAME)) {
-                query.getActionFilters().add(ACTION_CHECK_OK);
-                
-                Scan scanQuery = buildQuery(query, COLS_EVENT, EventConstants.TARGET_FEATURE);
-                try(ResultScanner scanner = table.getScanner(scanQuery)) {
-                    for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
-                        es.add(MAPPER.fromStore(rr));
-                     }
-                }
+        flush();
+        try (Table table = conn.getTable(AUDIT_TABLENAME)) {
+            query.getActionFilters().add(ACTION_CHECK_OK);
+            
+            Scan scanQuery = buildQuery(query, COLS_EVENT, EventConstants.TARGET_FEATURE);
+            try(ResultScanner scanner = table.getScanner(scanQuery)) {
+                for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
+                    es.add(MAPPER.fromStore(rr));
+                 }
             }
         } catch (IOException e) {
             throw new AuditAccessException("Cannot search feature usage ", e);
@@ -328,22 +383,21 @@ public class EventRepositoryHBase extends AbstractEventRepository {
     @Override
     public EventSeries getAuditTrail(EventQueryDefinition query) {
         EventSeries es = new EventSeries();
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(AUDIT_TABLENAME)) {
-                query.getActionFilters().add(ACTION_CHECK_OK);
-                Scan scanQuery = buildQuery(query, COLS_EVENT, null);
-                Set < String > candidates = Util.set(ACTION_DISCONNECT, 
-                        ACTION_TOGGLE_ON, ACTION_TOGGLE_OFF,
-                        ACTION_CREATE, ACTION_DELETE,
-                        ACTION_UPDATE, ACTION_CLEAR);
-                try(ResultScanner scanner = table.getScanner(scanQuery)) {
-                    for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
-                        String action = Bytes.toString(rr.getValue(B_AUDIT_CF, B_EVENT_ACTION));
-                        if (candidates.contains(action)) {
-                            es.add(MAPPER.fromStore(rr));
-                        }
-                     }
-                }
+        flush();
+        try (Table table = conn.getTable(AUDIT_TABLENAME)) {
+            query.getActionFilters().add(ACTION_CHECK_OK);
+            Scan scanQuery = buildQuery(query, COLS_EVENT, null);
+            Set < String > candidates = Util.set(ACTION_DISCONNECT, 
+                    ACTION_TOGGLE_ON, ACTION_TOGGLE_OFF,
+                    ACTION_CREATE, ACTION_DELETE,
+                    ACTION_UPDATE, ACTION_CLEAR);
+            try(ResultScanner scanner = table.getScanner(scanQuery)) {
+                for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
+                    String action = Bytes.toString(rr.getValue(B_AUDIT_CF, B_EVENT_ACTION));
+                    if (candidates.contains(action)) {
+                        es.add(MAPPER.fromStore(rr));
+                    }
+                 }
             }
         } catch (IOException e) {
             throw new AuditAccessException("Cannot search audit trail ", e);
@@ -360,24 +414,45 @@ public class EventRepositoryHBase extends AbstractEventRepository {
     /** {@inheritDoc} */
     @Override
     public void purgeAuditTrail(EventQueryDefinition query) {
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(AUDIT_TABLENAME)) {
-                query.getActionFilters().add(ACTION_CHECK_OK);
-                // Scan for ids
-                Scan scanQuery = buildQuery(query, Util.set(COL_EVENT_UID), null);
-                List < Delete > list = new ArrayList<Delete>();
-                try(ResultScanner scanner = table.getScanner(scanQuery)) {
-                    for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
-                        list.add(new Delete(rr.getValue(B_AUDIT_CF, B_EVENT_UID)));
-                    }
+        flush();
+        try (Table table = conn.getTable(AUDIT_TABLENAME)) {
+            query.getActionFilters().add(ACTION_CHECK_OK);
+            // Scan for ids
+            Scan scanQuery = buildQuery(query, Util.set(COL_EVENT_UID), null);
+            List < Delete > list = new ArrayList<Delete>();
+            try(ResultScanner scanner = table.getScanner(scanQuery)) {
+                for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
+                    list.add(new Delete(rr.getValue(B_AUDIT_CF, B_EVENT_UID)));
                 }
-                table.delete(list);
             }
+            table.delete(list);
         } catch (IOException e) {
             throw new AuditAccessException("Cannot search audit trail ", e);
         }
     }
 
+    /**
+     * Send buffered events and release the mutator, the connection is closed only if owned by this repository
+     * ({@link #setCloseConnection(boolean)}).
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        BufferedMutator m = mutator;
+        mutator = null;
+        try {
+            if (m != null) {
+                m.close();
+            }
+        } catch (IOException e) {
+            throw new AuditAccessException("Cannot flush events", e);
+        } finally {
+            if (closeConnection && conn != null) {
+                conn.close();
+            }
+        }
+    }
+
     /**
      * Getter accessor for attribute 'conn'.
      *
@@ -397,5 +472,45 @@ public class EventRepositoryHBase extends AbstractEventRepository {
     public void setConn(HBaseConnection conn) {
         this.conn = conn;
     }
+
+    /**
+     * Getter accessor for attribute 'flushPeriod'.
+     *
+     * @return
+     *       current value of 'flushPeriod'
+     */
+    public long getFlushPeriod() {
+        return flushPeriod;
+    }
+
+    /**
+     * Setter accessor for attribute 'flushPeriod', applies to mutator created afterwards.
+     *
+     * @param flushPeriod
+     *      new value for 'flushPeriod '
+     */
+    public void setFlushPeriod(long flushPeriod) {
+        this.flushPeriod = flushPeriod;
+    }
+
+    /**
+     * Getter accessor for attribute 'closeConnection'.
+     *
+     * @return
+     *       current value of 'closeConnection'
+     */
+    public boolean isCloseConnection() {
+        return closeConnection;
+    }
+
+    /**
+     * Setter accessor for attribute 'closeConnection', the connection is closed with the store when it owns it.
+     *
+     * @param closeConnection
+     *      new value for 'closeConnection '
+     */
+    public void setCloseConnection(boolean closeConnection) {
+        this.closeConnection = closeConnection;
+    }
     
 }
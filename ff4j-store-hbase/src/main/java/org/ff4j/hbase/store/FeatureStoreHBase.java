@@ -32,13 +32,14 @@ import static org.ff4j.hbase.HBaseConstants.FEATURES_TABLENAME_ID;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.hadoop.hbase.client.Connection;
-import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
@@ -50,6 +51,7 @@ import org.apache.hadoop.hbase.util.Bytes;
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.exception.FeatureAccessException;
+import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.hbase.HBaseConnection;
 import org.ff4j.hbase.mapper.HBaseFeatureMapper;
 import org.ff4j.store.AbstractFeatureStore;
@@ -60,7 +62,7 @@ import org.ff4j.utils.Util;
  *
  * @author Cedrick Lunven (@clunven)
  */
-public class FeatureStoreHBase extends AbstractFeatureStore {
+public class FeatureStoreHBase extends AbstractFeatureStore implements AutoCloseable {
     
     /** Mapper. */
     private static final HBaseFeatureMapper MAPPER = new HBaseFeatureMapper();
@@ -68,6 +70,9 @@ public class FeatureStoreHBase extends AbstractFeatureStore {
     /** Connection to store Cassandra. */
     private HBaseConnection conn;
     
+    /** Connection is owned by this store and closed with it. */
+    private boolean closeConnection = false;
+    
     /**
      * Default constructor.
      */
@@ -95,21 +100,17 @@ public class FeatureStoreHBase extends AbstractFeatureStore {
     @Override
     public boolean exist(String featId) {
         Util.assertHasLength(featId);
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(FEATURES_TABLENAME)) {
-                Get queryByIdQuery = new Get(Bytes.toBytes(featId));
-                return !table.get(queryByIdQuery).isEmpty();
-            }
+        try (Table table = conn.getTable(FEATURES_TABLENAME)) {
+            Get queryByIdQuery = new Get(Bytes.toBytes(featId));
+            return !table.get(queryByIdQuery).isEmpty();
         } catch (IOException e) {
             throw new FeatureAccessException("Cannot check feature existence", e);
         }
     }
     
     private void executePutCommand(Put putQuery) {
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(FEATURES_TABLENAME)) {
-                table.put(putQuery);
-            }
+        try (Table table = conn.getTable(FEATURES_TABLENAME)) {
+            table.put(putQuery);
         } catch (IOException e) {
             throw new FeatureAccessException("Cannot execute command", e);
         }
@@ -146,37 +147,57 @@ public class FeatureStoreHBase extends AbstractFeatureStore {
     /** {@inheritDoc} */
     @Override
     public Feature read(String uid) {
-        assertFeatureExist(uid);
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(FEATURES_TABLENAME)) {
-                Get queryByIdQuery = new Get(Bytes.toBytes(uid));
-                Result result = table.get(queryByIdQuery);
-                return MAPPER.fromStore(result);
+        Util.assertHasLength(uid);
+        try (Table table = conn.getTable(FEATURES_TABLENAME)) {
+            Result result = table.get(new Get(Bytes.toBytes(uid)));
+            if (result.isEmpty()) {
+                throw new FeatureNotFoundException(uid);
             }
+            return MAPPER.fromStore(result);
         } catch (IOException e) {
             throw new FeatureAccessException("Cannot check feature existence", e);
         }
     }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> read(Collection<String> uids) {
+        Util.assertNotNull(uids);
+        Map<String, Feature> mapOfFeature = new HashMap<>();
+        List<Get> gets = new ArrayList<Get>();
+        for (String uid : uids) {
+            gets.add(new Get(Bytes.toBytes(uid)));
+        }
+        try (Table table = conn.getTable(FEATURES_TABLENAME)) {
+            for (Result result : table.get(gets)) {
+                if (!result.isEmpty()) {
+                    Feature f = MAPPER.fromStore(result);
+                    mapOfFeature.put(f.getUid(), f);
+                }
+            }
+        } catch (IOException e) {
+            throw new FeatureAccessException("Cannot read features", e);
+        }
+        return mapOfFeature;
+    }
 
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
         Map<String, Feature> mapOfFeature = new HashMap<>();
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(FEATURES_TABLENAME)) {
-                
-                Scan scan = new Scan();
-                scan.setCaching(100);
-                scan.setBatch(100);
-                scan.addFamily(B_FEATURES_CF_CORE);
-                scan.addFamily(B_FEATURES_CF_PROPERTIES);
-                
-                try(ResultScanner resultScanner = table.getScanner(scan)) {
-                    Iterator<Result> iterator = resultScanner.iterator();
-                    while (iterator.hasNext()) {
-                        Feature f = MAPPER.fromStore(iterator.next());
-                        mapOfFeature.put(f.getUid(), f);
-                    }
+        try (Table table = conn.getTable(FEATURES_TABLENAME)) {
+            
+            Scan scan = new Scan();
+            scan.setCaching(100);
+            scan.setBatch(100);
+            scan.addFamily(B_FEATURES_CF_CORE);
+            scan.addFamily(B_FEATURES_CF_PROPERTIES);
+            
+            try(ResultScanner resultScanner = table.getScanner(scan)) {
+                Iterator<Result> iterator = resultScanner.iterator();
+                while (iterator.hasNext()) {
+                    Feature f = MAPPER.fromStore(iterator.next());
+                    mapOfFeature.put(f.getUid(), f);
                 }
             }
         } catch (IOException e) {
@@ -189,13 +210,11 @@ public class FeatureStoreHBase extends AbstractFeatureStore {
     @Override
     public void delete(String uid) {
         assertFeatureExist(uid);
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(FEATURES_TABLENAME)) {
-                List<Delete> list = new ArrayList<Delete>();
-                Delete del = new Delete(uid.getBytes());
-                list.add(del);
-                table.delete(list);
-            }
+        try (Table table = conn.getTable(FEATURES_TABLENAME)) {
+            List<Delete> list = new ArrayList<Delete>();
+            Delete del = new Delete(uid.getBytes());
+            list.add(del);
+            table.delete(list);
         } catch (IOException e) {
             throw new FeatureAccessException("Cannot delete feature ", e);
         }
@@ -205,9 +224,86 @@ public class FeatureStoreHBase extends AbstractFeatureStore {
     @Override
     public void update(Feature fp) {
         assertFeatureNotNull(fp);
-        assertFeatureExist(fp.getUid());
-        delete(fp.getUid());
-        create(fp);
+        try (Table table = conn.getTable(FEATURES_TABLENAME)) {
+            Result current = table.get(new Get(Bytes.toBytes(fp.getUid())));
+            if (current.isEmpty()) {
+                throw new FeatureNotFoundException(fp.getUid());
+            }
+            Put put = MAPPER.toStore(fp);
+            table.put(put);
+            Delete stale = staleColumns(current, put);
+            if (stale != null) {
+                table.delete(stale);
+            }
+        } catch (IOException e) {
+            throw new FeatureAccessException("Cannot update feature ", e);
+        }
+    }
+    
+    /**
+     * Import features: existing values are read with a single batch of GET, then features are written with a batch
+     * of PUT and the columns they do not have anymore are removed with a batch of DELETE.
+     *
+     * @param features
+     *      features to import
+     */
+    @Override
+    public void importFeatures(Collection<Feature> features) {
+        if (features == null || features.isEmpty()) {
+            return;
+        }
+        List<Get> gets = new ArrayList<Get>();
+        List<Put> puts = new ArrayList<Put>();
+        for (Feature fp : features) {
+            assertFeatureNotNull(fp);
+            gets.add(new Get(Bytes.toBytes(fp.getUid())));
+            puts.add(MAPPER.toStore(fp));
+        }
+        try (Table table = conn.getTable(FEATURES_TABLENAME)) {
+            Result[] currents = table.get(gets);
+            List<Delete> deletes = new ArrayList<Delete>();
+            for (int i = 0; i < currents.length; i++) {
+                Delete stale = staleColumns(currents[i], puts.get(i));
+                if (stale != null) {
+                    deletes.add(stale);
+                }
+            }
+            table.put(puts);
+            if (!deletes.isEmpty()) {
+                table.delete(deletes);
+            }
+        } catch (IOException e) {
+            throw new FeatureAccessException("Cannot import features ", e);
+        }
+    }
+    
+    /**
+     * Columns of the current row not written by the new value. Deleting only these columns (instead of the whole
+     * row before the put) avoids a delete marker hiding a put issued within the same millisecond.
+     *
+     * @param current
+     *      current row, may be empty
+     * @param put
+     *      new value
+     * @return
+     *      delete command or null if there is nothing to remove
+     */
+    private Delete staleColumns(Result current, Put put) {
+        if (current == null || current.isEmpty()) {
+            return null;
+        }
+        Delete delete = null;
+        for (Cell cell : current.rawCells()) {
+            byte[] family    = CellUtil.cloneFamily(cell);
+            byte[] qualifier = CellUtil.cloneQualifier(cell);
+            if (!put.has(family, qualifier)) {
+                if (delete == null) {
+                    delete = new Delete(put.getRow());
+                }
+                delete.addColumns(family, qualifier);
+            }
+        }
+        return delete;
     }
 
     /** {@inheritDoc} */
@@ -216,6 +312,16 @@ public class FeatureStoreHBase extends AbstractFeatureStore {
         conn.truncateTable(FEATURES_TABLENAME_ID);
     }
     
+    /**
+     * Close the connection if owned by this store ({@link #setCloseConnection(boolean)}), otherwise its owner closes it.
+     */
+    @Override
+    public void close() {
+        if (closeConnection && conn != null) {
+            conn.close();
+        }
+    }
+    
     /**
      * Getter accessor for attribute 'conn'.
      *
@@ -235,4 +341,24 @@ public class FeatureStoreHBase extends AbstractFeatureStore {
     public void setConn(HBaseConnection conn) {
         this.conn = conn;
     }
+
+    /**
+     * Getter accessor for attribute 'closeConnection'.
+     *
+     * @return
+     *       current value of 'closeConnection'
+     */
+    public boolean isCloseConnection() {
+        return closeConnection;
+    }
+
+    /**
+     * Setter accessor for attribute 'closeConnection', the connection is closed with the store when it owns it.
+     *
+     * @param closeConnection
+     *      new value for 'closeConnection '
+     */
+    public void setCloseConnection(boolean closeConnection) {
+        this.closeConnection = closeConnection;
+    }
 }
@@ -34,8 +34,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.hadoop.hbase.client.Connection;
-import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
@@ -45,6 +43,7 @@ import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.ff4j.exception.PropertyAccessException;
+import org.ff4j.exception.PropertyNotFoundException;
 import org.ff4j.hbase.HBaseConnection;
 import org.ff4j.hbase.mapper.HBasePropertyMapper;
 import org.ff4j.property.Property;
@@ -57,7 +56,7 @@ import org.ff4j.utils.Util;
  *
  * @author Cedrick Lunven (@clunven)
  */
-public class PropertyStoreHBase extends AbstractPropertyStore {
+public class PropertyStoreHBase extends AbstractPropertyStore implements AutoCloseable {
     
     /** Mapper. */
     private static final HBasePropertyMapper MAPPER = new HBasePropertyMapper();
@@ -65,6 +64,9 @@ public class PropertyStoreHBase extends AbstractPropertyStore {
     /** Connection to store Cassandra. */
     private HBaseConnection conn;
     
+    /** Connection is owned by this store and closed with it. */
+    private boolean closeConnection = false;
+    
     /**
      * Default constructor.
      */
@@ -91,10 +93,8 @@ public class PropertyStoreHBase extends AbstractPropertyStore {
     @Override
     public boolean existProperty(String name) {
         Util.assertHasLength(name);
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(PROPERTIES_TABLENAME)) {
-                return !table.get(new Get(Bytes.toBytes(name))).isEmpty();
-            }
+        try (Table table = conn.getTable(PROPERTIES_TABLENAME)) {
+            return !table.get(new Get(Bytes.toBytes(name))).isEmpty();
         } catch (IOException e) {
             throw new PropertyAccessException("Cannot check property existence", e);
         }
@@ -111,12 +111,13 @@ public class PropertyStoreHBase extends AbstractPropertyStore {
     /** {@inheritDoc} */
     @Override
     public Property<?> readProperty(String name) {
-        assertPropertyExist(name);
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(PROPERTIES_TABLENAME)) {
-                Result result = table.get(new Get(Bytes.toBytes(name)));
-                return MAPPER.fromStore(result);
+        Util.assertHasLength(name);
+        try (Table table = conn.getTable(PROPERTIES_TABLENAME)) {
+            Result result = table.get(new Get(Bytes.toBytes(name)));
+            if (result.isEmpty()) {
+                throw new PropertyNotFoundException(name);
             }
+            return MAPPER.fromStore(result);
         } catch (IOException e) {
             throw new PropertyAccessException("Cannot read property", e);
         }
@@ -126,13 +127,11 @@ public class PropertyStoreHBase extends AbstractPropertyStore {
     @Override
     public void deleteProperty(String name) {
         assertPropertyExist(name);
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(PROPERTIES_TABLENAME)) {
-                List<Delete> list = new ArrayList<Delete>();
-                Delete del = new Delete(name.getBytes());
-                list.add(del);
-                table.delete(list);
-            }
+        try (Table table = conn.getTable(PROPERTIES_TABLENAME)) {
+            List<Delete> list = new ArrayList<Delete>();
+            Delete del = new Delete(name.getBytes());
+            list.add(del);
+            table.delete(list);
         } catch (IOException e) {
             throw new PropertyAccessException("Cannot delete property ", e);
         }
@@ -142,20 +141,18 @@ public class PropertyStoreHBase extends AbstractPropertyStore {
     @Override
     public Map<String, Property<?>> readAllProperties() {
         Map<String, Property<?>> mapOfProperty = new HashMap<>();
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(PROPERTIES_TABLENAME)) {
-                
-                Scan scan = new Scan();
-                scan.setCaching(100);
-                scan.setBatch(100);
-                scan.addFamily(B_FEATURES_CF_PROPERTIES);
-                
-                try(ResultScanner resultScanner = table.getScanner(scan)) {
-                    Iterator<Result> iterator = resultScanner.iterator();
-                    while (iterator.hasNext()) {
-                        Property<?> p = MAPPER.fromStore(iterator.next());
-                        mapOfProperty.put(p.getName(), p);
-                    }
+        try (Table table = conn.getTable(PROPERTIES_TABLENAME)) {
+            
+            Scan scan = new Scan();
+            scan.setCaching(100);
+            scan.setBatch(100);
+            scan.addFamily(B_FEATURES_CF_PROPERTIES);
+            
+            try(ResultScanner resultScanner = table.getScanner(scan)) {
+                Iterator<Result> iterator = resultScanner.iterator();
+                while (iterator.hasNext()) {
+                    Property<?> p = MAPPER.fromStore(iterator.next());
+                    mapOfProperty.put(p.getName(), p);
                 }
             }
         } catch (IOException e) {
@@ -176,6 +173,16 @@ public class PropertyStoreHBase extends AbstractPropertyStore {
         conn.truncateTable(PROPERTIES_TABLENAME_ID);
     }
     
+    /**
+     * Close the connection if owned by this store ({@link #setCloseConnection(boolean)}), otherwise its owner closes it.
+     */
+    @Override
+    public void close() {
+        if (closeConnection && conn != null) {
+            conn.close();
+        }
+    }
+    
     /**
      * PUT query.
      *
@@ -183,13 +190,31 @@ public class PropertyStoreHBase extends AbstractPropertyStore {
      *      query to insert into data
      */
     private void executePutCommand(Put putQuery) {
-        try (Connection hbConn = ConnectionFactory.createConnection(conn.getConfig())) {
-            try(Table table = hbConn.getTable(PROPERTIES_TABLENAME)) {
-                table.put(putQuery);
-            }
+        try (Table table = conn.getTable(PROPERTIES_TABLENAME)) {
+            table.put(putQuery);
         } catch (IOException e) {
             throw new PropertyAccessException("Cannot execute command", e);
         }
     }
-    
+
+    /**
+     * Getter accessor for attribute 'closeConnection'.
+     *
+     * @return
+     *       current value of 'closeConnection'
+     */
+    public boolean isCloseConnection() {
+        return closeConnection;
+    }
+
+    /**
+     * Setter accessor for attribute 'closeConnection', the connection is closed with the store when it owns it.
+     *
+     * @param closeConnection
+     *      new value for 'closeConnection '
+     */
+    public void setCloseConnection(boolean closeConnection) {
+        this.closeConnection = closeConnection;
+    }
+
 }
@@ -0,0 +1,137 @@
+package org.ff4j.hbase;
+
+/*-
+ * #%L
+ * ff4j-store-hbase
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.ff4j.hbase.HBaseConstants.FEATURES_TABLENAME;
+
+import java.util.Arrays;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Table;
+import org.ff4j.FF4j;
+import org.ff4j.core.Feature;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.hbase.store.FeatureStoreHBase;
+import org.ff4j.property.PropertyString;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Update and import of {@link FeatureStoreHBase} replace the previous value of features without cluster.
+ */
+public class FeatureStoreHBaseUpdateTest {
+
+    /** Features table. */
+    private InMemoryHBaseTable table;
+
+    /** Tested store. */
+    private FeatureStoreHBase store;
+
+    /** Closes of the connection. */
+    private int connectionCloses;
+
+    @Before
+    public void initStore() {
+        table = new InMemoryHBaseTable(FEATURES_TABLENAME);
+        store = new FeatureStoreHBase(new HBaseConnection(new Configuration(false), false) {
+            @Override
+            public Table getTable(TableName tableName) {
+                return table;
+            }
+            @Override
+            public synchronized void close() {
+                connectionCloses++;
+                super.close();
+            }
+        });
+        Feature f1 = new Feature("f1", true, "description", "group1");
+        f1.addProperty(new PropertyString("p1", "v1"));
+        f1.addProperty(new PropertyString("p2", "v2"));
+        store.create(f1);
+    }
+
+    @Test
+    public void testUpdateRemovesStaleColumns() {
+        Feature f1 = new Feature("f1", false, "description", "group2");
+        f1.addProperty(new PropertyString("p1", "v1bis"));
+        store.update(f1);
+        Feature read = store.read("f1");
+        Assert.assertFalse(read.isEnable());
+        Assert.assertEquals("group2", read.getGroup());
+        Assert.assertEquals("v1bis", read.getProperty("p1").asString());
+        Assert.assertFalse(read.getCustomProperties().containsKey("p2"));
+        // Only the removed property is deleted, the row is kept
+        Assert.assertEquals(Arrays.asList("f1/p:p2"), table.getDeletedColumns());
+    }
+
+    @Test
+    public void testUpdateWithoutStaleColumns() {
+        Feature f1 = store.read("f1");
+        f1.setDescription("new description");
+        int deletes = table.getDeleteCommands();
+        store.update(f1);
+        Assert.assertEquals(deletes, table.getDeleteCommands());
+        Assert.assertEquals("new description", store.read("f1").getDescription());
+        Assert.assertEquals(2, store.read("f1").getCustomProperties().size());
+    }
+
+    @Test(expected = FeatureNotFoundException.class)
+    public void testUpdateUnknownFeature() {
+        store.update(new Feature("unknown", true));
+    }
+
+    @Test
+    public void testImportFeatures() {
+        Feature f1 = new Feature("f1", true, "imported", "group3");
+        f1.addProperty(new PropertyString("p2", "v2bis"));
+        Feature f2 = new Feature("f2", true);
+        f2.addProperty(new PropertyString("p3", "v3"));
+        int puts    = table.getPutCommands();
+        int deletes = table.getDeleteCommands();
+        store.importFeatures(Arrays.asList(f1, f2));
+        // One batch of PUT and one batch of DELETE
+        Assert.assertEquals(puts + 1, table.getPutCommands());
+        Assert.assertEquals(deletes + 1, table.getDeleteCommands());
+        Feature read1 = store.read("f1");
+        Assert.assertEquals("group3", read1.getGroup());
+        Assert.assertEquals(1, read1.getCustomProperties().size());
+        Assert.assertEquals("v2bis", read1.getProperty("p2").asString());
+        Assert.assertEquals("v3", store.read("f2").getProperty("p3").asString());
+        Assert.assertEquals(2, store.read(Arrays.asList("f1", "f2", "f3")).size());
+    }
+
+    @Test
+    public void testCloseKeepsSharedConnection() {
+        store.close();
+        Assert.assertEquals(0, connectionCloses);
+    }
+
+    @Test
+    public void testCloseOwnedConnection() {
+        store.setCloseConnection(true);
+        FF4j ff4j = new FF4j();
+        ff4j.setFeatureStore(store);
+        ff4j.shutdownStores().stop();
+        Assert.assertEquals(1, connectionCloses);
+    }
+}
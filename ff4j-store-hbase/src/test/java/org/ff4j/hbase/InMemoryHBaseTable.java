@@ -0,0 +1,212 @@
+package org.ff4j.hbase;
+
+/*-
+ * #%L
+ * ff4j-store-hbase
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.TableDescriptor;
+import org.apache.hadoop.hbase.client.TableDescriptorBuilder;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Table keeping rows in memory, supports single and batch GET, PUT and DELETE to test stores without cluster.
+ */
+public class InMemoryHBaseTable implements Table {
+
+    /** Cells by row and column (family:qualifier). */
+    private final Map<String, Map<String, Cell>> rows = new HashMap<String, Map<String, Cell>>();
+
+    /** Current table name. */
+    private final TableName tableName;
+
+    /** Number of PUT commands (single or batch). */
+    private int putCommands;
+
+    /** Number of DELETE commands (single or batch). */
+    private int deleteCommands;
+
+    /** Columns removed by DELETE commands. */
+    private final List<String> deletedColumns = new ArrayList<String>();
+
+    /**
+     * Empty table.
+     *
+     * @param tableName
+     *      current table name
+     */
+    public InMemoryHBaseTable(TableName tableName) {
+        this.tableName = tableName;
+    }
+
+    private static String column(Cell cell) {
+        return Bytes.toString(CellUtil.cloneFamily(cell)) + ":" + Bytes.toString(CellUtil.cloneQualifier(cell));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TableName getName() {
+        return tableName;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Configuration getConfiguration() {
+        return new Configuration(false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TableDescriptor getDescriptor() {
+        return TableDescriptorBuilder.newBuilder(tableName).build();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RegionLocator getRegionLocator() {
+        throw new UnsupportedOperationException("No region in memory");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized Result get(Get get) {
+        Map<String, Cell> row = rows.get(Bytes.toString(get.getRow()));
+        if (row == null) {
+            return Result.EMPTY_RESULT;
+        }
+        List<Cell> cells = new ArrayList<Cell>(row.values());
+        cells.sort(CellComparator.getInstance());
+        return Result.create(cells);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized Result[] get(List<Get> gets) {
+        Result[] results = new Result[gets.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = get(gets.get(i));
+        }
+        return results;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void put(Put put) {
+        putCommands++;
+        apply(put);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void put(List<Put> puts) {
+        putCommands++;
+        puts.forEach(this::apply);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void delete(Delete delete) {
+        deleteCommands++;
+        apply(delete);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void delete(List<Delete> deletes) {
+        deleteCommands++;
+        deletes.forEach(this::apply);
+    }
+
+    private void apply(Put put) {
+        Map<String, Cell> row = rows.computeIfAbsent(Bytes.toString(put.getRow()), k -> new TreeMap<String, Cell>());
+        for (List<Cell> cells : put.getFamilyCellMap().values()) {
+            for (Cell cell : cells) {
+                row.put(column(cell), cell);
+            }
+        }
+    }
+
+    private void apply(Delete delete) {
+        String key = Bytes.toString(delete.getRow());
+        if (delete.getFamilyCellMap().isEmpty()) {
+            rows.remove(key);
+            return;
+        }
+        Map<String, Cell> row = rows.get(key);
+        for (List<Cell> cells : delete.getFamilyCellMap().values()) {
+            for (Cell cell : cells) {
+                deletedColumns.add(key + "/" + column(cell));
+                if (row != null) {
+                    row.remove(column(cell));
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Getter accessor for attribute 'putCommands'.
+     *
+     * @return
+     *       current value of 'putCommands'
+     */
+    public int getPutCommands() {
+        return putCommands;
+    }
+
+    /**
+     * Getter accessor for attribute 'deleteCommands'.
+     *
+     * @return
+     *       current value of 'deleteCommands'
+     */
+    public int getDeleteCommands() {
+        return deleteCommands;
+    }
+
+    /**
+     * Getter accessor for attribute 'deletedColumns'.
+     *
+     * @return
+     *       current value of 'deletedColumns'
+     */
+    public List<String> getDeletedColumns() {
+        return deletedColumns;
+    }
+}
@@ -146,7 +146,7 @@ public class FeatureStoreJCacheTest {
     public void testReadNull() {
         // Given
         // When
-        testedStore.read(null);
+        testedStore.read((String) null);
         // Then, expected error...
     }
 
@@ -26,6 +26,8 @@ import static org.ff4j.audit.EventConstants.ATTRIBUTE_SOURCE;
 import static org.ff4j.audit.EventConstants.ATTRIBUTE_USER;
 import static org.ff4j.mongo.MongoDbConstants.EVENT_UUID;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -50,6 +52,7 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
 
 /**
  * Implementation of EventRepository for Mongo.
@@ -185,6 +188,26 @@ public class EventRepositoryMongo extends AbstractEventRepository {
         return true;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saveEvents(Collection<Event> events) {
+        if (events == null || events.isEmpty()) {
+            return true;
+        }
+        List<Document> documents = new ArrayList<>(events.size());
+        for (Event e : events) {
+            if (e == null) {
+                throw new IllegalArgumentException("Event cannot be null nor empty");
+            }
+            documents.add(eventMapper.toStore(e));
+        }
+        // Unordered : a failing document does not prevent the others to be inserted
+        eventsCollection.insertMany(documents, new InsertManyOptions().ordered(false));
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
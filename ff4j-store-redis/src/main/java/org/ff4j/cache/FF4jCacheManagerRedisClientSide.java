@@ -0,0 +1,224 @@
+package org.ff4j.cache;
+
+/*-
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.ff4j.cache.InMemoryCacheEntry.DEFAULT_TTL;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ff4j.redis.RedisKeysBuilder;
+import org.ff4j.redis.clientsidecache.RedisClientSideCache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+
+/**
+ * Local cache kept in sync with a REDIS store through server-assisted client side caching (Lettuce).
+ * 
+ * Features and properties are held in memory (bounded, with statistics, see {@link InMemoryCacheManager}). The
+ * connection enables CLIENT TRACKING in broadcast mode on the feature and property key prefixes of the
+ * {@link RedisKeysBuilder} (FEATURE_MAP and PROPERTY_MAP keys are ignored, stores reject the name 'MAP'). Any write
+ * on these keys, from any node, sends an invalidation message and the matching entries are evicted: nodes see changes
+ * in near real time without polling. A value being loaded when its key is invalidated is not kept (see
+ * {@link InMemoryCacheManager}). Use it with {@link FF4jCacheProxy} on top of the REDIS stores.
+ */
+public class FF4jCacheManagerRedisClientSide extends InMemoryCacheManager implements AutoCloseable {
+    
+    /** Invalidation message type. */
+    private static final String INVALIDATE = "invalidate";
+
+    /** Connection receiving invalidation messages. */
+    private final StatefulRedisConnection<String, String> redisConnection;
+    
+    /** Default key builder. */
+    private final RedisKeysBuilder keyBuilder;
+    
+    /** Prefix of feature keys. */
+    private final String featurePrefix;
+    
+    /** Prefix of property keys. */
+    private final String propertyPrefix;
+    
+    /** Invalidated features. */
+    private final LongAdder featureInvalidationCount = new LongAdder();
+    
+    /** Invalidated properties. */
+    private final LongAdder propertyInvalidationCount = new LongAdder();
+
+    /**
+     * Default constructor.
+     */
+    public FF4jCacheManagerRedisClientSide(RedisClient redisClient) {
+        this(redisClient, new RedisKeysBuilder());
+    }
+    
+    /**
+     * Parameterized constructor.
+     */
+    public FF4jCacheManagerRedisClientSide(RedisClient redisClient, RedisKeysBuilder keyBuilder) {
+        this(redisClient, keyBuilder, DEFAULT_TTL, DEFAULT_MAXIMUM_SIZE);
+    }
+    
+    /**
+     * Parameterized constructor.
+     *
+     * @param redisClient
+     *      client to open the tracking connection (RESP3)
+     * @param keyBuilder
+     *      keys used by the stores
+     * @param timeToLive
+     *      time to live in seconds, safety net if an invalidation is lost
+     * @param maximumSize
+     *      maximum number of features and properties kept (each)
+     */
+    public FF4jCacheManagerRedisClientSide(RedisClient redisClient, RedisKeysBuilder keyBuilder, long timeToLive, int maximumSize) {
+        this(redisClient.connect(), keyBuilder, timeToLive, maximumSize);
+    }
+    
+    /**
+     * Parameterized constructor.
+     *
+     * @param redisConnection
+     *      dedicated connection (RESP3) receiving invalidation messages, closed with the cache manager
+     * @param keyBuilder
+     *      keys used by the stores
+     * @param timeToLive
+     *      time to live in seconds, safety net if an invalidation is lost
+     * @param maximumSize
+     *      maximum number of features and properties kept (each)
+     */
+    public FF4jCacheManagerRedisClientSide(StatefulRedisConnection<String, String> redisConnection, 
+            RedisKeysBuilder keyBuilder, long timeToLive, int maximumSize) {
+        super(timeToLive, 0, maximumSize);
+        this.keyBuilder      = keyBuilder;
+        this.featurePrefix   = keyBuilder.getKeyPrefix() + "FEATURE_";
+        this.propertyPrefix  = keyBuilder.getKeyPrefix() + "PROPERTY_";
+        this.redisConnection = redisConnection;
+        setupClientTracking();
+    }
+    
+    private void setupClientTracking() {
+        // New connection : tracking is enabled again and entries are not tracked anymore
+        RedisClientSideCache.enableClientTracking(redisConnection, 
+                TrackingArgs.Builder.enabled().bcast().prefixes(featurePrefix, propertyPrefix), this::invalidateAll);
+        // Listen for invalidation messages
+        redisConnection.addListener(this::onPushMessage);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void onPushMessage(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        List<Object> keys = (content.size() > 1) ? (List<Object>) content.get(1) : null;
+        if (keys == null) {
+            // Database has been flushed
+            invalidateAll();
+            return;
+        }
+        for (Object key : keys) {
+            invalidate((String) key);
+        }
+    }
+    
+    /**
+     * Evict entry matching an invalidated redis key.
+     *
+     * @param key
+     *      redis key
+     */
+    protected void invalidate(String key) {
+        String suffix = keyBuilder.getKeySuffix();
+        if (key == null || !key.endsWith(suffix)) {
+            return;
+        }
+        // Index of names share the prefixes, they are not entries (name rejected by stores)
+        if (key.equals(keyBuilder.getKeyFeatureMap()) || key.equals(keyBuilder.getKeyPropertyMap())) {
+            return;
+        }
+        if (key.startsWith(featurePrefix)) {
+            super.evictFeature(key.substring(featurePrefix.length(), key.length() - suffix.length()));
+            featureInvalidationCount.increment();
+        } else if (key.startsWith(propertyPrefix)) {
+            super.evictProperty(key.substring(propertyPrefix.length(), key.length() - suffix.length()));
+            propertyInvalidationCount.increment();
+        }
+    }
+    
+    /**
+     * Evict everything, entries are not tracked anymore.
+     */
+    protected void invalidateAll() {
+        clearFeatures();
+        clearProperties();
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String getCacheProviderName() {
+        return "REDIS-CLIENT-SIDE";
+    }
+    
+    /**
+     * Close tracking connection.
+     */
+    @Override
+    public void close() {
+        redisConnection.close();
+        invalidateAll();
+    }
+    
+    /**
+     * Number of features evicted by an invalidation message.
+     *
+     * @return
+     *       current value of 'featureInvalidationCount'
+     */
+    public long getFeatureInvalidationCount() {
+        return featureInvalidationCount.sum();
+    }
+    
+    /**
+     * Number of properties evicted by an invalidation message.
+     *
+     * @return
+     *       current value of 'propertyInvalidationCount'
+     */
+    public long getPropertyInvalidationCount() {
+        return propertyInvalidationCount.sum();
+    }
+
+    /**
+     * Getter accessor for attribute 'keyBuilder'.
+     *
+     * @return
+     *       current value of 'keyBuilder'
+     */
+    public RedisKeysBuilder getKeyBuilder() {
+        return keyBuilder;
+    }
+    
+}
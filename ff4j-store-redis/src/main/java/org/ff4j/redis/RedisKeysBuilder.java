@@ -40,6 +40,9 @@ public class RedisKeysBuilder {
     /** prefix of keys. */
     public static final String KEY_EVENT = "FF4J_EVENT_AUDITRAIL_";
     
+    /** Name of the index keys (FEATURE_MAP, PROPERTY_MAP), not available for features and properties. */
+    public static final String RESERVED_NAME = "MAP";
+    
     /** key prefix. */
     public String keyPrefix = DEFAULT_KEY_PREFIX;
     
@@ -95,11 +98,31 @@ public class RedisKeysBuilder {
     public String getKeyFeatureMap() {
         return getKeyPrefix() + "FEATURE_MAP" + getKeySuffix();
     }
+    
+    /**
+     * A feature or a property cannot be named as the index keys, it would share their key.
+     *
+     * @param name
+     *      feature identifier or property name
+     */
+    public static void assertNotReserved(String name) {
+        if (RESERVED_NAME.equals(name)) {
+            throw new IllegalArgumentException("'" + name + "' is reserved by REDIS stores, please use another name");
+        }
+    }
         
     public String getKeyFeature(String id) {
         return getKeyPrefix() + "FEATURE_" + id + getKeySuffix() ;
     }
     
+    public String getKeyGroupMap() {
+        return getKeyPrefix() + "GROUPS" + getKeySuffix();
+    }
+    
+    public String getKeyGroup(String groupName) {
+        return getKeyPrefix() + "GROUP_" + groupName + getKeySuffix();
+    }
+    
     public String getKeyPropertyMap() {
         return getKeyPrefix() + "PROPERTY_MAP" + getKeySuffix();
     }
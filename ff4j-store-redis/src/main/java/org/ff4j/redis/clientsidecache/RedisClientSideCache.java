@@ -71,8 +71,8 @@ public class RedisClientSideCache<K, V> {
         StatefulRedisConnectionImpl<K, V> connectionImpl = (StatefulRedisConnectionImpl<K, V>) redisConnection;
         RedisCodec<K, V> codec = connectionImpl.getCodec();
 
-        // Enable Redis client tracking
-        redisConnection.sync().clientTracking(TrackingArgs.Builder.enabled());
+        // Enable Redis client tracking, flush local cache on reconnection
+        enableClientTracking(redisConnection, TrackingArgs.Builder.enabled(), localCache::clear);
 
         // Listen for invalidation message to keep local cache in "near-realtime" sync with server
         redisConnection.addListener(message -> {
@@ -83,17 +83,28 @@ public class RedisClientSideCache<K, V> {
                 keys.forEach(localCache::remove);
             }
         });
+    }
 
-        // Handle reconnection event : re-enable client tracking and flush local cache
+    /**
+     * Enable client tracking on a connection and handle reconnection events : client tracking is enabled again on the
+     * freshly created connection and entries stored before are flushed as they are not tracked anymore by Redis server.
+     *
+     * @param redisConnection
+     *      connection receiving invalidation messages
+     * @param trackingArgs
+     *      tracking mode
+     * @param onReconnect
+     *      flush of local entries
+     */
+    public static void enableClientTracking(StatefulRedisConnection<?, ?> redisConnection, TrackingArgs trackingArgs, Runnable onReconnect) {
+        redisConnection.sync().clientTracking(trackingArgs);
         redisConnection.addListener(new RedisConnectionStateListener() {
             @Override
             public void onRedisConnected(RedisChannelHandler<?, ?> channelHandler, SocketAddress socketAddress) {
-                // Setup tracking on freshly created connection
                 if (channelHandler instanceof StatefulRedisConnection<?, ?> connection) {
-                    connection.async().clientTracking(TrackingArgs.Builder.enabled());
+                    connection.async().clientTracking(trackingArgs);
                 }
-                // Remove previously stored entries that are not tracked anymore by Redis server since we're on a new connection.
-                localCache.clear();
+                onReconnect.run();
             }
         });
     }
@@ -26,6 +26,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -41,6 +42,7 @@ import org.ff4j.redis.RedisConnection;
 import org.ff4j.redis.RedisKeysBuilder;
 import org.ff4j.utils.Util;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
 
 /**
  * Persist audit events into REDIS storage technology.
@@ -130,6 +132,36 @@ public class EventRepositoryRedis extends AbstractEventRepository {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public boolean saveEvents(Collection<Event> events) {
+        if (events == null || events.isEmpty()) {
+            return true;
+        }
+        Jedis jedis = null;
+        try {
+            jedis = getJedis();
+            // Single round trip for the whole batch
+            Pipeline pipe = jedis.pipelined();
+            for (Event evt : events) {
+                if (evt == null) {
+                    throw new IllegalArgumentException("Event cannot be null nor empty");
+                }
+                long timeStamp = evt.getTimestamp();
+                evt.setUuid(String.valueOf(timeStamp));
+                pipe.zadd(keyBuilder.getHashKey(timeStamp), timeStamp, objectMapper.writeValueAsString(evt));
+            }
+            pipe.sync();
+            return true;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot save events : invalid object", e);
+        } finally {
+            if (jedis != null) {
+                jedis.close();
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public Event getEventByUUID(String uuid, Long timestamp) {
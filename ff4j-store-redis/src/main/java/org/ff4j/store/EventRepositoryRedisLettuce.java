@@ -21,6 +21,8 @@ package org.ff4j.store;
  */
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -45,6 +47,7 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScoredValue;
 import io.lettuce.core.api.sync.RedisSortedSetCommands;
 import io.lettuce.core.cluster.RedisClusterClient;
 
@@ -123,6 +126,35 @@ public class EventRepositoryRedisLettuce extends AbstractEventRepository {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public boolean saveEvents(Collection<Event> events) {
+        if (events == null || events.isEmpty()) {
+            return true;
+        }
+        // Group events per day to issue a single ZADD per key
+        Map<String, List<ScoredValue<String>>> eventsPerKey = new HashMap<>();
+        try {
+            for (Event evt : events) {
+                if (evt == null) {
+                    throw new IllegalArgumentException("Event cannot be null nor empty");
+                }
+                long timeStamp = evt.getTimestamp();
+                evt.setUuid(String.valueOf(timeStamp));
+                eventsPerKey.computeIfAbsent(keyBuilder.getHashKey(timeStamp), k -> new ArrayList<>())
+                            .add(ScoredValue.just(timeStamp, objectMapper.writeValueAsString(evt)));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot save events : invalid object", e);
+        }
+        for (Map.Entry<String, List<ScoredValue<String>>> entry : eventsPerKey.entrySet()) {
+            @SuppressWarnings("unchecked")
+            ScoredValue<String>[] values = entry.getValue().toArray(new ScoredValue[0]);
+            redisSortedSetCommands.zadd(entry.getKey(), values);
+        }
+        return true;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Event getEventByUUID(String uuid, Long timestamp) {
@@ -20,8 +20,12 @@ package org.ff4j.store;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,6 +41,7 @@ import org.ff4j.utils.Util;
 import org.ff4j.utils.json.FeatureJsonParser;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Transaction;
 
 /**
  * {@link FeatureStore} to persist data into
@@ -52,6 +57,9 @@ public class FeatureStoreRedis extends AbstractFeatureStore {
     /** Default key builder. */
     private RedisKeysBuilder keyBuilder = new RedisKeysBuilder();
     
+    /** Group sets have been checked (and built if needed). */
+    private volatile boolean groupIndexChecked = false;
+    
     /**
      * Constructors
      */
@@ -86,13 +94,15 @@ public class FeatureStoreRedis extends AbstractFeatureStore {
     /** {@inheritDoc} */
     @Override
     public Feature read(String uid) {
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
+        Util.assertParamHasLength(uid, "Feature identifier");
         Jedis jedis = null;
         try {
             jedis = getJedis();
-            return FeatureJsonParser.parseFeature(jedis.get(keyBuilder.getKeyFeature(uid)));
+            String json = jedis.get(keyBuilder.getKeyFeature(uid));
+            if (json == null) {
+                throw new FeatureNotFoundException(uid);
+            }
+            return FeatureJsonParser.parseFeature(json);
         } finally {
             if (jedis != null) {
                 jedis.close();
@@ -104,14 +114,10 @@ public class FeatureStoreRedis extends AbstractFeatureStore {
     @Override
     public void update(Feature fp) {
         Util.assertNotNull("Feature" , fp);
-        if (!exist(fp.getUid())) {
-            throw new FeatureNotFoundException(fp.getUid());
-        }
         Jedis jedis = null;
         try {
             jedis = getJedis();
-            jedis.set(keyBuilder.getKeyFeature(fp.getUid()), fp.toJson());
-            jedis.persist(keyBuilder.getKeyFeature(fp.getUid()));
+            writeFeature(jedis, fp.getUid(), fp, true);
         } finally {
             if (jedis != null) {
                 jedis.close();
@@ -145,18 +151,11 @@ public class FeatureStoreRedis extends AbstractFeatureStore {
     @Override
     public void create(Feature fp) {
         Util.assertNotNull("Feature", fp);
-        if (exist(fp.getUid())) {
-            throw new FeatureAlreadyExistException(fp.getUid());
-        }
+        RedisKeysBuilder.assertNotReserved(fp.getUid());
         Jedis jedis = null;
         try {
-            String id = fp.getUid();
             jedis = getJedis();
-
-            // Store the feature in the mapping bucket.
-            jedis.sadd(keyBuilder.getKeyFeatureMap(), id);
-            jedis.set(keyBuilder.getKeyFeature(id), fp.toJson());
-            jedis.persist(keyBuilder.getKeyFeature(id) + id);
+            writeFeature(jedis, fp.getUid(), fp, false);
         } finally {
             if (jedis != null) {
                 jedis.close();
@@ -170,34 +169,68 @@ public class FeatureStoreRedis extends AbstractFeatureStore {
         Jedis jedis = null;
         try {
             jedis = getJedis();
-
-            Set<String> features = jedis.smembers(keyBuilder.getKeyFeatureMap());
-
-            Map<String, Feature> featuresMap = new HashMap<>();
-            if (features != null) {
-                for (String key : features) {
-                    featuresMap.put(key, read(key));
-                }
+            return readFeatures(jedis, jedis.smembers(keyBuilder.getKeyFeatureMap()));
+        } finally {
+            if (jedis != null) {
+                jedis.close();
             }
-            return featuresMap;
+        }
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> read(Collection<String> featureUids) {
+        Util.assertNotNull(featureUids);
+        Set<String> uids = new LinkedHashSet<String>(featureUids);
+        uids.remove(null);
+        Jedis jedis = null;
+        try {
+            jedis = getJedis();
+            return readFeatures(jedis, uids);
         } finally {
             if (jedis != null) {
                 jedis.close();
             }
         }
     }
+    
+    /**
+     * Read a set of features with a single MGET.
+     *
+     * @param jedis
+     *      current connection
+     * @param uids
+     *      feature identifiers
+     * @return
+     *      features by uid, features removed in the meantime are skipped
+     */
+    private Map<String, Feature> readFeatures(Jedis jedis, Set<String> uids) {
+        Map<String, Feature> featuresMap = new HashMap<>();
+        if (uids == null || uids.isEmpty()) {
+            return featuresMap;
+        }
+        String[] ids  = uids.toArray(new String[0]);
+        String[] keys = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            keys[i] = keyBuilder.getKeyFeature(ids[i]);
+        }
+        List<String> jsons = jedis.mget(keys);
+        for (int i = 0; i < ids.length; i++) {
+            String json = jsons.get(i);
+            if (json != null) {
+                featuresMap.put(ids[i], FeatureJsonParser.parseFeature(json));
+            }
+        }
+        return featuresMap;
+    }
 
     /** {@inheritDoc} */
     public void delete(String fpId) {
-        if (!exist(fpId)) {
-            throw new FeatureNotFoundException(fpId);
-        }
+        Util.assertParamHasLength(fpId, "Feature identifier");
         Jedis jedis = null;
         try {
             jedis = getJedis();
-            // Store the feature in the mapping bucket.
-            jedis.srem(keyBuilder.getKeyFeatureMap(), fpId);
-            jedis.del(keyBuilder.getKeyFeature(fpId));
+            writeFeature(jedis, fpId, null, true);
         } finally {
             if (jedis != null) {
                 jedis.close();
@@ -232,31 +265,39 @@ public class FeatureStoreRedis extends AbstractFeatureStore {
     @Override
     public Map<String, Feature> readGroup(String groupName) {
         Util.assertParamHasLength(groupName, "groupName");
-        Map < String, Feature > features = readAll();
-        Map < String, Feature > group = new HashMap<String, Feature>();
-        for (Map.Entry<String,Feature> uid : features.entrySet()) {
-            if (groupName.equals(uid.getValue().getGroup())) {
-                group.put(uid.getKey(), uid.getValue());
+        Jedis jedis = null;
+        try {
+            jedis = getJedis();
+            assertGroupIndex(jedis);
+            Set < String > uids = jedis.smembers(keyBuilder.getKeyGroup(groupName));
+            Map < String, Feature > group = readFeatures(jedis, uids);
+            // Features written between SMEMBERS and MGET are skipped, sets are not modified when reading
+            group.values().removeIf(f -> !groupName.equals(f.getGroup()));
+            if (group.isEmpty()) {
+                throw new GroupNotFoundException(groupName);
+            }
+            return group;
+        } finally {
+            if (jedis != null) {
+                jedis.close();
             }
         }
-        if (group.isEmpty()) {
-            throw new GroupNotFoundException(groupName);
-        }
-        return group;
     }
     
     /** {@inheritDoc} */
     @Override
     public boolean existGroup(String groupName) {
         Util.assertParamHasLength(groupName, "groupName");
-        Map < String, Feature > features = readAll();
-        Map < String, Feature > group = new HashMap<String, Feature>();
-        for (Map.Entry<String,Feature> uid : features.entrySet()) {
-            if (groupName.equals(uid.getValue().getGroup())) {
-                group.put(uid.getKey(), uid.getValue());
+        Jedis jedis = null;
+        try {
+            jedis = getJedis();
+            assertGroupIndex(jedis);
+            return jedis.exists(keyBuilder.getKeyGroup(groupName));
+        } finally {
+            if (jedis != null) {
+                jedis.close();
             }
         }
-        return !group.isEmpty();
     }
 
     /** {@inheritDoc} */
@@ -307,15 +348,99 @@ public class FeatureStoreRedis extends AbstractFeatureStore {
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
-        Map < String, Feature > features = readAll();
-        Set < String > groups = new HashSet<String>();
-        for (Map.Entry<String,Feature> uid : features.entrySet()) {
-            groups.add(uid.getValue().getGroup());
+        Jedis jedis = null;
+        try {
+            jedis = getJedis();
+            assertGroupIndex(jedis);
+            return new HashSet<String>(jedis.smembers(keyBuilder.getKeyGroupMap()));
+        } finally {
+            if (jedis != null) {
+                jedis.close();
+            }
+        }
+    }
+    
+    /**
+     * Write a feature, or delete it, with the feature set and the group sets in a single MULTI/EXEC transaction.
+     * Keys read to prepare the transaction are watched, it is prepared again if one of them changed before EXEC.
+     * A group is listed as long as its set is not empty.
+     *
+     * @param jedis
+     *      current connection
+     * @param uid
+     *      feature identifier
+     * @param feature
+     *      new value of the feature, null to delete it
+     * @param exists
+     *      the feature is expected to exist (update, delete) or not (create)
+     */
+    private void writeFeature(Jedis jedis, String uid, Feature feature, boolean exists) {
+        assertGroupIndex(jedis);
+        String key      = keyBuilder.getKeyFeature(uid);
+        String newGroup = (feature == null) ? null : feature.getGroup();
+        List < Object > result = null;
+        while (result == null) {
+            jedis.watch(key);
+            String previous = jedis.get(key);
+            if (exists && previous == null) {
+                jedis.unwatch();
+                throw new FeatureNotFoundException(uid);
+            }
+            if (!exists && previous != null) {
+                jedis.unwatch();
+                throw new FeatureAlreadyExistException(uid);
+            }
+            String previousGroup = (previous == null) ? null : FeatureJsonParser.parseFeature(previous).getGroup();
+            boolean leaveGroup  = previousGroup != null && !previousGroup.equals(newGroup);
+            boolean lastOfGroup = false;
+            if (leaveGroup) {
+                String previousGroupKey = keyBuilder.getKeyGroup(previousGroup);
+                jedis.watch(previousGroupKey);
+                lastOfGroup = jedis.scard(previousGroupKey) == 1 && jedis.sismember(previousGroupKey, uid);
+            }
+            Transaction tx = jedis.multi();
+            if (feature == null) {
+                tx.srem(keyBuilder.getKeyFeatureMap(), uid);
+                tx.del(key);
+            } else {
+                tx.sadd(keyBuilder.getKeyFeatureMap(), uid);
+                tx.set(key, feature.toJson());
+            }
+            if (leaveGroup) {
+                tx.srem(keyBuilder.getKeyGroup(previousGroup), uid);
+                if (lastOfGroup) {
+                    tx.srem(keyBuilder.getKeyGroupMap(), previousGroup);
+                }
+            }
+            if (newGroup != null) {
+                tx.sadd(keyBuilder.getKeyGroup(newGroup), uid);
+                tx.sadd(keyBuilder.getKeyGroupMap(), newGroup);
+            }
+            // Null when a watched key has been modified
+            result = tx.exec();
         }
-        groups.remove(null);
-        return groups;
     }
     
+    /**
+     * Group sets are not there for features created by previous versions, build them once from features.
+     *
+     * @param jedis
+     *      current connection
+     */
+    private void assertGroupIndex(Jedis jedis) {
+        if (groupIndexChecked) {
+            return;
+        }
+        if (!jedis.exists(keyBuilder.getKeyGroupMap())) {
+            for (Feature f : readFeatures(jedis, jedis.smembers(keyBuilder.getKeyFeatureMap())).values()) {
+                if (f.getGroup() != null) {
+                    jedis.sadd(keyBuilder.getKeyGroup(f.getGroup()), f.getUid());
+                    jedis.sadd(keyBuilder.getKeyGroupMap(), f.getGroup());
+                }
+            }
+        }
+        groupIndexChecked = true;
+    }
 
     /** {@inheritDoc} */
     @Override
@@ -323,10 +448,16 @@ public class FeatureStoreRedis extends AbstractFeatureStore {
         Jedis jedis = null;
         try {
             jedis = getJedis();
-            Set<String> myKeys = jedis.smembers(keyBuilder.getKeyFeatureMap());
-            for (String key : myKeys) {
-                delete(key);
+            List<String> keys = new ArrayList<String>();
+            for (String uid : jedis.smembers(keyBuilder.getKeyFeatureMap())) {
+                keys.add(keyBuilder.getKeyFeature(uid));
+            }
+            for (String group : jedis.smembers(keyBuilder.getKeyGroupMap())) {
+                keys.add(keyBuilder.getKeyGroup(group));
             }
+            keys.add(keyBuilder.getKeyFeatureMap());
+            keys.add(keyBuilder.getKeyGroupMap());
+            jedis.del(keys.toArray(new String[0]));
         } finally {
             if (jedis != null) {
                 jedis.close();
@@ -20,11 +20,17 @@ package org.ff4j.store;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.TransactionResult;
 import io.lettuce.core.api.sync.RedisKeyCommands;
 import io.lettuce.core.api.sync.RedisSetCommands;
 import io.lettuce.core.api.sync.RedisStringCommands;
@@ -57,8 +63,14 @@ public class FeatureStoreRedisLettuce extends AbstractFeatureStore {
     /** Access to Redis Set based commands */
     private final RedisSetCommands<String, String> redisSetCommands;
 
+    /** Dedicated connection for MULTI/EXEC transactions, not available with Redis Cluster. */
+    private final RedisCommands<String, String> redisTransactionCommands;
+
     /** Default key builder. */
     private final RedisKeysBuilder keyBuilder;
+    
+    /** Group sets have been checked (and built if needed). */
+    private volatile boolean groupIndexChecked = false;
 
     /**
      * Public void.
@@ -70,6 +82,7 @@ public class FeatureStoreRedisLettuce extends AbstractFeatureStore {
         this.redisKeyCommands = redisClient.connect().sync();
         this.redisStringCommands = redisClient.connect().sync();
         this.redisSetCommands = redisClient.connect().sync();
+        this.redisTransactionCommands = redisClient.connect().sync();
         this.keyBuilder    = keyBuilder;
     }
     public FeatureStoreRedisLettuce(RedisClusterClient redisClusterClient) {
@@ -79,6 +92,7 @@ public class FeatureStoreRedisLettuce extends AbstractFeatureStore {
         this.redisKeyCommands = redisClusterClient.connect().sync();
         this.redisStringCommands = redisClusterClient.connect().sync();
         this.redisSetCommands = redisClusterClient.connect().sync();
+        this.redisTransactionCommands = null;
         this.keyBuilder    = keyBuilder;
     }
     
@@ -93,23 +107,19 @@ public class FeatureStoreRedisLettuce extends AbstractFeatureStore {
     /** {@inheritDoc} */
     @Override
     public Feature read(String uid) {
-        if (!exist(uid)) {
+        Util.assertParamHasLength(uid, "Feature identifier");
+        String json = redisStringCommands.get(keyBuilder.getKeyFeature(uid));
+        if (json == null) {
             throw new FeatureNotFoundException(uid);
         }
-        String key = keyBuilder.getKeyFeature(uid);
-        return FeatureJsonParser.parseFeature(redisStringCommands.get(key));
+        return FeatureJsonParser.parseFeature(json);
     }
     
     /** {@inheritDoc} */
     @Override
     public void update(Feature fp) {
         Util.assertNotNull("Feature" , fp);
-        if (!exist(fp.getUid())) {
-            throw new FeatureNotFoundException(fp.getUid());
-        }
-        String key = keyBuilder.getKeyFeature(fp.getUid());
-        redisStringCommands.set(key, fp.toJson());
-        redisKeyCommands.persist(key);
+        writeFeature(fp.getUid(), fp, true);
     }
     
     /** {@inheritDoc} */
@@ -138,22 +148,48 @@ public class FeatureStoreRedisLettuce extends AbstractFeatureStore {
     @Override
     public void create(Feature fp) {
         Util.assertNotNull("Feature", fp);
-        if (exist(fp.getUid())) {
-            throw new FeatureAlreadyExistException(fp.getUid());
-        }
-        redisSetCommands.sadd(keyBuilder.getKeyFeatureMap(), fp.getUid());
-        redisStringCommands.set(keyBuilder.getKeyFeature(fp.getUid()), fp.toJson());
-        redisKeyCommands.persist(fp.getUid());
+        RedisKeysBuilder.assertNotReserved(fp.getUid());
+        writeFeature(fp.getUid(), fp, false);
     }
 
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
-        Set<String> features = redisSetCommands.smembers(keyBuilder.getKeyFeatureMap());
+        return readFeatures(redisSetCommands.smembers(keyBuilder.getKeyFeatureMap()));
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> read(Collection<String> featureUids) {
+        Util.assertNotNull(featureUids);
+        Set<String> uids = new LinkedHashSet<String>(featureUids);
+        uids.remove(null);
+        return readFeatures(uids);
+    }
+    
+    /**
+     * Read a set of features with a single MGET.
+     *
+     * @param uids
+     *      feature identifiers
+     * @return
+     *      features by uid, features removed in the meantime are skipped
+     */
+    private Map<String, Feature> readFeatures(Set<String> uids) {
         Map<String, Feature> featuresMap = new HashMap<>();
-        if (features != null) {
-            for (String key : features) {
-                featuresMap.put(key, read(key));
+        if (uids == null || uids.isEmpty()) {
+            return featuresMap;
+        }
+        String[] ids  = uids.toArray(new String[0]);
+        String[] keys = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            keys[i] = keyBuilder.getKeyFeature(ids[i]);
+        }
+        List<KeyValue<String, String>> jsons = redisStringCommands.mget(keys);
+        for (int i = 0; i < ids.length; i++) {
+            KeyValue<String, String> json = jsons.get(i);
+            if (json.hasValue()) {
+                featuresMap.put(ids[i], FeatureJsonParser.parseFeature(json.getValue()));
             }
         }
         return featuresMap;
@@ -162,11 +198,8 @@ public class FeatureStoreRedisLettuce extends AbstractFeatureStore {
     /** {@inheritDoc} */
     @Override
     public void delete(String fpId) {
-        if (!exist(fpId)) {
-            throw new FeatureNotFoundException(fpId);
-        }
-        redisSetCommands.srem(keyBuilder.getKeyFeatureMap(), fpId);
-        redisKeyCommands.del(keyBuilder.getKeyFeature(fpId));
+        Util.assertParamHasLength(fpId, "Feature identifier");
+        writeFeature(fpId, null, true);
     }
     
     /** {@inheritDoc} */
@@ -196,13 +229,10 @@ public class FeatureStoreRedisLettuce extends AbstractFeatureStore {
     @Override
     public Map<String, Feature> readGroup(String groupName) {
         Util.assertParamHasLength(groupName, "groupName");
-        Map < String, Feature > features = readAll();
-        Map < String, Feature > group = new HashMap<String, Feature>();
-        for (Map.Entry<String,Feature> uid : features.entrySet()) {
-            if (groupName.equals(uid.getValue().getGroup())) {
-                group.put(uid.getKey(), uid.getValue());
-            }
-        }
+        assertGroupIndex();
+        Map < String, Feature > group = readFeatures(redisSetCommands.smembers(keyBuilder.getKeyGroup(groupName)));
+        // Features written between SMEMBERS and MGET are skipped, sets are not modified when reading
+        group.values().removeIf(f -> !groupName.equals(f.getGroup()));
         if (group.isEmpty()) {
             throw new GroupNotFoundException(groupName);
         }
@@ -213,14 +243,8 @@ public class FeatureStoreRedisLettuce extends AbstractFeatureStore {
     @Override
     public boolean existGroup(String groupName) {
         Util.assertParamHasLength(groupName, "groupName");
-        Map < String, Feature > features = readAll();
-        Map < String, Feature > group = new HashMap<String, Feature>();
-        for (Map.Entry<String,Feature> uid : features.entrySet()) {
-            if (groupName.equals(uid.getValue().getGroup())) {
-                group.put(uid.getKey(), uid.getValue());
-            }
-        }
-        return !group.isEmpty();
+        assertGroupIndex();
+        return 1 == redisKeyCommands.exists(keyBuilder.getKeyGroup(groupName));
     }
 
     /** {@inheritDoc} */
@@ -271,22 +295,130 @@ public class FeatureStoreRedisLettuce extends AbstractFeatureStore {
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
-        Map < String, Feature > features = readAll();
-        Set < String > groups = new HashSet<String>();
-        for (Map.Entry<String,Feature> uid : features.entrySet()) {
-            groups.add(uid.getValue().getGroup());
+        assertGroupIndex();
+        return new HashSet<String>(redisSetCommands.smembers(keyBuilder.getKeyGroupMap()));
+    }
+    
+    /**
+     * Write a feature, or delete it, with the feature set and the group sets in a single MULTI/EXEC transaction.
+     * Keys read to prepare the transaction are watched, it is prepared again if one of them changed before EXEC.
+     * A group is listed as long as its set is not empty.
+     * 
+     * Redis Cluster does not run transactions on keys of different slots, commands are sent one by one.
+     *
+     * @param uid
+     *      feature identifier
+     * @param feature
+     *      new value of the feature, null to delete it
+     * @param exists
+     *      the feature is expected to exist (update, delete) or not (create)
+     */
+    private synchronized void writeFeature(String uid, Feature feature, boolean exists) {
+        assertGroupIndex();
+        // Watched keys and transaction are bound to the connection, writes are serialized on it
+        RedisCommands<String, String> tx = redisTransactionCommands;
+        RedisKeyCommands<String, String> keyCommands       = (tx != null) ? tx : redisKeyCommands;
+        RedisStringCommands<String, String> stringCommands = (tx != null) ? tx : redisStringCommands;
+        RedisSetCommands<String, String> setCommands       = (tx != null) ? tx : redisSetCommands;
+        String key      = keyBuilder.getKeyFeature(uid);
+        String newGroup = (feature == null) ? null : feature.getGroup();
+        boolean written = false;
+        while (!written) {
+            if (tx != null) {
+                tx.watch(key);
+            }
+            String previous = stringCommands.get(key);
+            if (exists && previous == null) {
+                unwatch(tx);
+                throw new FeatureNotFoundException(uid);
+            }
+            if (!exists && previous != null) {
+                unwatch(tx);
+                throw new FeatureAlreadyExistException(uid);
+            }
+            String previousGroup = (previous == null) ? null : FeatureJsonParser.parseFeature(previous).getGroup();
+            boolean leaveGroup  = previousGroup != null && !previousGroup.equals(newGroup);
+            boolean lastOfGroup = false;
+            if (leaveGroup) {
+                String previousGroupKey = keyBuilder.getKeyGroup(previousGroup);
+                if (tx != null) {
+                    tx.watch(previousGroupKey);
+                }
+                lastOfGroup = setCommands.scard(previousGroupKey) == 1 && setCommands.sismember(previousGroupKey, uid);
+            }
+            if (tx != null) {
+                tx.multi();
+            }
+            if (feature == null) {
+                setCommands.srem(keyBuilder.getKeyFeatureMap(), uid);
+                keyCommands.del(key);
+            } else {
+                setCommands.sadd(keyBuilder.getKeyFeatureMap(), uid);
+                stringCommands.set(key, feature.toJson());
+            }
+            if (leaveGroup) {
+                setCommands.srem(keyBuilder.getKeyGroup(previousGroup), uid);
+                if (lastOfGroup) {
+                    setCommands.srem(keyBuilder.getKeyGroupMap(), previousGroup);
+                }
+            }
+            if (newGroup != null) {
+                setCommands.sadd(keyBuilder.getKeyGroup(newGroup), uid);
+                setCommands.sadd(keyBuilder.getKeyGroupMap(), newGroup);
+            }
+            if (tx != null) {
+                // Discarded when a watched key has been modified
+                TransactionResult result = tx.exec();
+                written = !result.wasDiscarded();
+            } else {
+                written = true;
+            }
         }
-        groups.remove(null);
-        return groups;
+    }
+    
+    /**
+     * Release watched keys when no transaction is run.
+     *
+     * @param tx
+     *      transaction connection (if any)
+     */
+    private void unwatch(RedisCommands<String, String> tx) {
+        if (tx != null) {
+            tx.unwatch();
+        }
+    }
+    
+    /**
+     * Group sets are not there for features created by previous versions, build them once from features.
+     */
+    private void assertGroupIndex() {
+        if (groupIndexChecked) {
+            return;
+        }
+        if (0 == redisKeyCommands.exists(keyBuilder.getKeyGroupMap())) {
+            for (Feature f : readAll().values()) {
+                if (f.getGroup() != null) {
+                    redisSetCommands.sadd(keyBuilder.getKeyGroup(f.getGroup()), f.getUid());
+                    redisSetCommands.sadd(keyBuilder.getKeyGroupMap(), f.getGroup());
+                }
+            }
+        }
+        groupIndexChecked = true;
     }
 
     /** {@inheritDoc} */
     @Override
     public void clear() {
-        Set<String> myKeys = redisSetCommands.smembers(keyBuilder.getKeyFeatureMap());
-        for (String key : myKeys) {
-            delete(key);
+        List<String> keys = new ArrayList<String>();
+        for (String uid : redisSetCommands.smembers(keyBuilder.getKeyFeatureMap())) {
+            keys.add(keyBuilder.getKeyFeature(uid));
+        }
+        for (String group : redisSetCommands.smembers(keyBuilder.getKeyGroupMap())) {
+            keys.add(keyBuilder.getKeyGroup(group));
         }
+        keys.add(keyBuilder.getKeyFeatureMap());
+        keys.add(keyBuilder.getKeyGroupMap());
+        redisKeyCommands.del(keys.toArray(new String[0]));
     }
 
 }
@@ -85,6 +85,7 @@ public class PropertyStoreRedis extends AbstractPropertyStore {
      */
     public <T> void createProperty(Property<T> prop) {
         Util.assertNotNull(prop);
+        RedisKeysBuilder.assertNotReserved(prop.getName());
         if (existProperty(prop.getName())) {
             throw new PropertyAlreadyExistException(prop.getName());
         }
@@ -95,6 +95,7 @@ public class PropertyStoreRedisLettuce extends AbstractPropertyStore {
      */
     public <T> void createProperty(Property<T> prop) {
         Util.assertNotNull(prop);
+        RedisKeysBuilder.assertNotReserved(prop.getName());
         if (existProperty(prop.getName())) {
             throw new PropertyAlreadyExistException(prop.getName());
         }
@@ -0,0 +1,132 @@
+package org.ff4j.cache;
+
+/*-
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Proxy;
+
+import org.ff4j.core.Feature;
+import org.ff4j.property.PropertyString;
+import org.ff4j.redis.RedisConnection;
+import org.ff4j.redis.RedisKeysBuilder;
+import org.ff4j.store.FeatureStoreRedis;
+import org.ff4j.store.PropertyStoreRedis;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+
+/**
+ * Mapping of invalidated keys to features and properties in {@link FF4jCacheManagerRedisClientSide}, without server.
+ */
+public class FF4jCacheManagerRedisClientSideTest {
+
+    /** Keys with prefix and suffix. */
+    private final RedisKeysBuilder keyBuilder = new RedisKeysBuilder("APP_", "_V1");
+
+    /** Tested cache. */
+    private FF4jCacheManagerRedisClientSide cache;
+
+    /**
+     * Connection accepting tracking and listeners, no server.
+     */
+    @SuppressWarnings("unchecked")
+    private static StatefulRedisConnection<String, String> offlineConnection() {
+        RedisCommands<String, String> commands = (RedisCommands<String, String>) Proxy.newProxyInstance(
+                RedisCommands.class.getClassLoader(), new Class<?>[] { RedisCommands.class }, (proxy, method, args) -> "OK");
+        return (StatefulRedisConnection<String, String>) Proxy.newProxyInstance(
+                StatefulRedisConnection.class.getClassLoader(), new Class<?>[] { StatefulRedisConnection.class }, 
+                (proxy, method, args) -> "sync".equals(method.getName()) ? commands : null);
+    }
+
+    @Before
+    public void initCache() {
+        cache = new FF4jCacheManagerRedisClientSide(offlineConnection(), keyBuilder, 60, 100);
+        cache.putFeature(new Feature("f1"));
+        cache.putFeature(new Feature("my_feature"));
+        cache.putProperty(new PropertyString("p1", "v1"));
+    }
+
+    @Test
+    public void testInvalidateFeature() {
+        cache.invalidate(keyBuilder.getKeyFeature("f1"));
+        cache.invalidate(keyBuilder.getKeyFeature("my_feature"));
+        Assert.assertNull(cache.getFeature("f1"));
+        Assert.assertNull(cache.getFeature("my_feature"));
+        Assert.assertEquals(2, cache.getFeatureInvalidationCount());
+        Assert.assertNotNull(cache.getProperty("p1"));
+        Assert.assertEquals(0, cache.getPropertyInvalidationCount());
+    }
+
+    @Test
+    public void testInvalidateProperty() {
+        cache.invalidate(keyBuilder.getKeyProperty("p1"));
+        Assert.assertNull(cache.getProperty("p1"));
+        Assert.assertEquals(1, cache.getPropertyInvalidationCount());
+        Assert.assertNotNull(cache.getFeature("f1"));
+    }
+
+    @Test
+    public void testMapKeysAreNotEntries() {
+        cache.invalidate(keyBuilder.getKeyFeatureMap());
+        cache.invalidate(keyBuilder.getKeyPropertyMap());
+        Assert.assertEquals(0, cache.getFeatureInvalidationCount());
+        Assert.assertEquals(0, cache.getPropertyInvalidationCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFeatureNamedAsMapKeyIsRejected() {
+        new FeatureStoreRedis(new RedisConnection(), keyBuilder).create(new Feature(RedisKeysBuilder.RESERVED_NAME));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPropertyNamedAsMapKeyIsRejected() {
+        new PropertyStoreRedis(new RedisConnection(), keyBuilder).createProperty(new PropertyString(RedisKeysBuilder.RESERVED_NAME, "v"));
+    }
+
+    @Test
+    public void testInvalidationOfAnotherKeyKeepsLoadedValue() {
+        Assert.assertEquals("f2", cache.getFeature("f2", uid -> {
+            cache.invalidate(keyBuilder.getKeyFeature("f1"));
+            return new Feature(uid);
+        }).getUid());
+        Assert.assertNotNull(cache.getFeature("f2"));
+    }
+
+    @Test
+    public void testInvalidationDuringLoadDropsLoadedValue() {
+        Assert.assertEquals("f2", cache.getFeature("f2", uid -> {
+            cache.invalidate(keyBuilder.getKeyFeature(uid));
+            return new Feature(uid);
+        }).getUid());
+        Assert.assertNull(cache.getFeature("f2"));
+    }
+
+    @Test
+    public void testKeysOfOtherApplicationsAreIgnored() {
+        cache.invalidate("APP_FEATURE_f1");
+        cache.invalidate("OTHER_FEATURE_f1_V1");
+        cache.invalidate(null);
+        Assert.assertNotNull(cache.getFeature("f1"));
+        Assert.assertEquals(0, cache.getFeatureInvalidationCount());
+    }
+}
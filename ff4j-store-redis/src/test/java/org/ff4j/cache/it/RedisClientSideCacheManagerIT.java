@@ -0,0 +1,127 @@
+package org.ff4j.cache.it;
+
+/*-
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.ff4j.cache.FF4jCacheManagerRedisClientSide;
+import org.ff4j.cache.FF4jCacheProxy;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.property.PropertyString;
+import org.ff4j.property.store.PropertyStore;
+import org.ff4j.store.FeatureStoreRedisLettuce;
+import org.ff4j.store.PropertyStoreRedisLettuce;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import io.lettuce.core.RedisClient;
+
+/**
+ * Writes from another node evict entries of {@link FF4jCacheManagerRedisClientSide}.
+ *
+ * Ignore because Redis may not be available in all cases.
+ */
+@Ignore
+public class RedisClientSideCacheManagerIT {
+
+    /** Client for both nodes. */
+    private RedisClient redisClient;
+
+    /** Cache of first node. */
+    private FF4jCacheManagerRedisClientSide cache;
+
+    /** Stores of first node, with cache. */
+    private FF4jCacheProxy cachedStore;
+
+    /** Stores of second node, without cache. */
+    private FeatureStore otherFeatureStore;
+
+    /** Stores of second node, without cache. */
+    private PropertyStore otherPropertyStore;
+
+    @Before
+    public void setUp() {
+        redisClient = RedisClient.create("redis://localhost");
+        otherFeatureStore  = new FeatureStoreRedisLettuce(redisClient);
+        otherPropertyStore = new PropertyStoreRedisLettuce(redisClient);
+        otherFeatureStore.clear();
+        otherPropertyStore.clear();
+        otherFeatureStore.create(new Feature("f1", false));
+        otherPropertyStore.createProperty(new PropertyString("p1", "v1"));
+        cache = new FF4jCacheManagerRedisClientSide(redisClient);
+        cachedStore = new FF4jCacheProxy(new FeatureStoreRedisLettuce(redisClient), 
+                new PropertyStoreRedisLettuce(redisClient), cache);
+    }
+
+    @After
+    public void tearDown() {
+        cache.close();
+        redisClient.shutdown();
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 50 && !condition.getAsBoolean(); i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    @Test
+    public void testFeatureWrittenByOtherNodeIsEvicted() throws InterruptedException {
+        Assert.assertFalse(cachedStore.read("f1").isEnable());
+        Assert.assertNotNull(cache.getFeature("f1"));
+        long invalidations = cache.getFeatureInvalidationCount();
+        // When
+        otherFeatureStore.enable("f1");
+        // Then
+        Assert.assertTrue(await(() -> cache.getFeature("f1") == null));
+        Assert.assertTrue(cache.getFeatureInvalidationCount() > invalidations);
+        Assert.assertTrue(cachedStore.read("f1").isEnable());
+    }
+
+    @Test
+    public void testPropertyWrittenByOtherNodeIsEvicted() throws InterruptedException {
+        Assert.assertEquals("v1", cachedStore.readProperty("p1").asString());
+        Assert.assertNotNull(cache.getProperty("p1"));
+        long invalidations = cache.getPropertyInvalidationCount();
+        // When
+        otherPropertyStore.updateProperty("p1", "v2");
+        // Then
+        Assert.assertTrue(await(() -> cache.getProperty("p1") == null));
+        Assert.assertTrue(cache.getPropertyInvalidationCount() > invalidations);
+        Assert.assertEquals("v2", cachedStore.readProperty("p1").asString());
+    }
+
+    @Test
+    public void testCreatingAnotherFeatureKeepsEntries() throws InterruptedException {
+        cachedStore.read("f1");
+        // When : FEATURE_MAP is written as well
+        otherFeatureStore.create(new Feature("f2", true));
+        TimeUnit.MILLISECONDS.sleep(200);
+        // Then
+        Assert.assertNotNull(cache.getFeature("f1"));
+    }
+}
@@ -0,0 +1,97 @@
+package org.ff4j.store.it;
+
+/*-
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Set;
+
+import org.ff4j.core.FeatureStore;
+import org.ff4j.redis.RedisConnection;
+import org.ff4j.store.FeatureStoreRedis;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+
+import redis.clients.jedis.Jedis;
+
+/**
+ * Group sets with {@link FeatureStoreRedis}.
+ */
+@Ignore
+public class FeatureStoreRedisGroupIndexIT extends FeatureStoreRedisGroupIndexSupport {
+    
+    /** Shared connection. */
+    private RedisConnection redisConnection;
+    
+    /** {@inheritDoc} */
+    @Override
+    @Before
+    public void initStore() {
+        redisConnection = new RedisConnection();
+        super.initStore();
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    @After
+    public void clearStore() {
+        super.clearStore();
+        redisConnection.destroyPool();
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    protected FeatureStore newStore() {
+        return new FeatureStoreRedis(redisConnection, keyBuilder);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Set<String> smembers(String key) {
+        try (Jedis jedis = redisConnection.getJedis()) {
+            return jedis.smembers(key);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void sadd(String key, String member) {
+        try (Jedis jedis = redisConnection.getJedis()) {
+            jedis.sadd(key, member);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void srem(String key, String member) {
+        try (Jedis jedis = redisConnection.getJedis()) {
+            jedis.srem(key, member);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void del(String... keys) {
+        try (Jedis jedis = redisConnection.getJedis()) {
+            jedis.del(keys);
+        }
+    }
+    
+}
@@ -0,0 +1,201 @@
+package org.ff4j.store.it;
+
+/*-
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.GroupNotFoundException;
+import org.ff4j.redis.RedisKeysBuilder;
+import org.ff4j.utils.Util;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Check the group sets maintained by Redis feature stores next to the features.
+ */
+public abstract class FeatureStoreRedisGroupIndexSupport {
+    
+    /** Keys used by the stores. */
+    protected final RedisKeysBuilder keyBuilder = new RedisKeysBuilder();
+    
+    /** Tested store. */
+    protected FeatureStore store;
+    
+    /**
+     * Create a new store working on the test Redis.
+     *
+     * @return
+     *      feature store
+     */
+    protected abstract FeatureStore newStore();
+    
+    /** Read a set without going through the store. */
+    protected abstract Set<String> smembers(String key);
+    
+    /** Add a member to a set without going through the store. */
+    protected abstract void sadd(String key, String member);
+    
+    /** Remove a member from a set without going through the store. */
+    protected abstract void srem(String key, String member);
+    
+    /** Delete keys without going through the store. */
+    protected abstract void del(String... keys);
+    
+    /** Initialize with 3 features, 2 groups. */
+    @Before
+    public void initStore() {
+        store = newStore();
+        store.clear();
+        store.create(new Feature("f1", true, null, "g1"));
+        store.create(new Feature("f2", true, null, "g1"));
+        store.create(new Feature("f3", true, null, "g2"));
+        store.create(new Feature("f4", true));
+    }
+    
+    /** Clear keys. */
+    @After
+    public void clearStore() {
+        store.clear();
+    }
+    
+    @Test
+    public void testCreateAddsToGroupSet() {
+        Assert.assertEquals(Util.set("f1", "f2"), smembers(keyBuilder.getKeyGroup("g1")));
+        Assert.assertEquals(Util.set("f3"), smembers(keyBuilder.getKeyGroup("g2")));
+        Assert.assertEquals(Util.set("g1", "g2"), smembers(keyBuilder.getKeyGroupMap()));
+    }
+    
+    @Test
+    public void testUpdateMovesToNewGroupSet() {
+        store.update(new Feature("f3", true, null, "g3"));
+        Assert.assertTrue(smembers(keyBuilder.getKeyGroup("g2")).isEmpty());
+        Assert.assertEquals(Util.set("f3"), smembers(keyBuilder.getKeyGroup("g3")));
+        Assert.assertEquals(Util.set("g1", "g3"), smembers(keyBuilder.getKeyGroupMap()));
+    }
+    
+    @Test
+    public void testDeleteRemovesFromGroupSet() {
+        store.delete("f1");
+        Assert.assertEquals(Util.set("f2"), smembers(keyBuilder.getKeyGroup("g1")));
+        store.delete("f3");
+        Assert.assertEquals(Util.set("g1"), smembers(keyBuilder.getKeyGroupMap()));
+        Assert.assertFalse(store.existGroup("g2"));
+    }
+    
+    @Test
+    public void testAddToGroup() {
+        store.addToGroup("f4", "g2");
+        Assert.assertEquals(Util.set("f3", "f4"), smembers(keyBuilder.getKeyGroup("g2")));
+        Assert.assertEquals(2, store.readGroup("g2").size());
+    }
+    
+    @Test
+    public void testRemoveFromGroup() {
+        store.removeFromGroup("f1", "g1");
+        Assert.assertEquals(Util.set("f2"), smembers(keyBuilder.getKeyGroup("g1")));
+        store.removeFromGroup("f3", "g2");
+        Assert.assertFalse(store.existGroup("g2"));
+        Assert.assertEquals(Util.set("g1"), store.readAllGroups());
+    }
+    
+    @Test
+    public void testReadGroupDoesNotWrite() {
+        // Given a deleted feature and a feature of another group in the set
+        sadd(keyBuilder.getKeyGroup("g1"), "ghost");
+        sadd(keyBuilder.getKeyGroup("g1"), "f3");
+        // When
+        Assert.assertEquals(Util.set("f1", "f2"), store.readGroup("g1").keySet());
+        // Then
+        Assert.assertEquals(Util.set("f1", "f2", "f3", "ghost"), smembers(keyBuilder.getKeyGroup("g1")));
+    }
+    
+    @Test
+    public void testReadGroupWithUnknownMembersOnly() {
+        sadd(keyBuilder.getKeyGroup("g9"), "ghost");
+        sadd(keyBuilder.getKeyGroupMap(), "g9");
+        try {
+            store.readGroup("g9");
+            Assert.fail("Group only holds unknown members");
+        } catch (GroupNotFoundException gnfe) {
+            // expected
+        }
+        Assert.assertEquals(Util.set("ghost"), smembers(keyBuilder.getKeyGroup("g9")));
+    }
+    
+    @Test
+    public void testConcurrentMovesKeepGroupListed() throws Exception {
+        store.create(new Feature("m1", true));
+        store.create(new Feature("m2", true));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> moves = new ArrayList<Future<?>>();
+            for (String uid : Arrays.asList("m1", "m2")) {
+                // Each thread has its own store, as separate clients
+                FeatureStore client = newStore();
+                moves.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        client.addToGroup(uid, "moving");
+                        client.removeFromGroup(uid, "moving");
+                    }
+                    client.addToGroup(uid, "moving");
+                }));
+            }
+            for (Future<?> move : moves) {
+                move.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(Util.set("m1", "m2"), smembers(keyBuilder.getKeyGroup("moving")));
+        Assert.assertTrue(smembers(keyBuilder.getKeyGroupMap()).contains("moving"));
+    }
+    
+    @Test
+    public void testUpdateRestoresMissingMember() {
+        srem(keyBuilder.getKeyGroup("g1"), "f1");
+        store.disable("f1");
+        Assert.assertEquals(Util.set("f1", "f2"), smembers(keyBuilder.getKeyGroup("g1")));
+    }
+    
+    @Test
+    public void testGroupSetsBuiltForPreviousVersions() {
+        // Given features written without group sets
+        del(keyBuilder.getKeyGroup("g1"), keyBuilder.getKeyGroup("g2"), keyBuilder.getKeyGroupMap());
+        // When
+        FeatureStore upgraded = newStore();
+        // Then
+        Assert.assertEquals(Util.set("g1", "g2"), upgraded.readAllGroups());
+        Assert.assertEquals(Util.set("f1", "f2"), upgraded.readGroup("g1").keySet());
+        Assert.assertEquals(Util.set("f1", "f2"), smembers(keyBuilder.getKeyGroup("g1")));
+        Assert.assertEquals(Util.set("f3"), smembers(keyBuilder.getKeyGroup("g2")));
+    }
+    
+}
@@ -0,0 +1,97 @@
+package org.ff4j.store.it;
+
+/*-
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Set;
+
+import org.ff4j.core.FeatureStore;
+import org.ff4j.store.FeatureStoreRedisLettuce;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import redis.clients.jedis.Protocol;
+
+/**
+ * Group sets with {@link FeatureStoreRedisLettuce}.
+ */
+@Ignore
+public class FeatureStoreRedisLettuceGroupIndexIT extends FeatureStoreRedisGroupIndexSupport {
+    
+    /** Client. */
+    private static RedisClient redisClient;
+    
+    /** Connection used to check keys. */
+    private static StatefulRedisConnection<String, String> connection;
+    
+    /** Open client. */
+    @BeforeClass
+    public static void openClient() {
+        redisClient = RedisClient.create("redis://localhost:" + Protocol.DEFAULT_PORT);
+        connection  = redisClient.connect();
+    }
+    
+    /** Close client. */
+    @AfterClass
+    public static void closeClient() {
+        connection.close();
+        redisClient.shutdown();
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    protected FeatureStore newStore() {
+        return new FeatureStoreRedisLettuce(redisClient, keyBuilder);
+    }
+    
+    /** Raw commands. */
+    private RedisCommands<String, String> commands() {
+        return connection.sync();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Set<String> smembers(String key) {
+        return commands().smembers(key);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void sadd(String key, String member) {
+        commands().sadd(key, member);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void srem(String key, String member) {
+        commands().srem(key, member);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void del(String... keys) {
+        commands().del(keys);
+    }
+    
+}
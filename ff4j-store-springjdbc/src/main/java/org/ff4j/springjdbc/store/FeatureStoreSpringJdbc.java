@@ -20,8 +20,15 @@ package org.ff4j.springjdbc.store;
  * #L%
  */
 
+import static org.ff4j.store.JdbcStoreConstants.COL_PROPERTY_FEATID;
+import static org.ff4j.store.JdbcStoreConstants.COL_ROLE_FEATID;
+import static org.ff4j.store.JdbcStoreConstants.COL_ROLE_ROLENAME;
+
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,14 +43,14 @@ import org.ff4j.exception.GroupNotFoundException;
 import org.ff4j.property.Property;
 import org.ff4j.springjdbc.store.rowmapper.CustomPropertyRowMapper;
 import org.ff4j.springjdbc.store.rowmapper.FeatureRowMapper;
-import org.ff4j.springjdbc.store.rowmapper.RoleRowMapper;
 import org.ff4j.store.AbstractFeatureStore;
+import org.ff4j.store.JdbcFeatureBatch;
 import org.ff4j.store.JdbcQueryBuilder;
 import org.ff4j.utils.JdbcUtils;
-import org.ff4j.utils.MappingUtil;
 import org.ff4j.utils.Util;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -68,6 +75,9 @@ public class FeatureStoreSpringJdbc extends AbstractFeatureStore {
     /** Error message. */
     public static final String GROUPNAME_CANNOT_BE_NULL_NOR_EMPTY = "Groupname cannot be null nor empty";
 
+    /** Maximum number of uids bound in a single IN clause. */
+    private static final int MAX_IN_PARAMETERS = 500;
+
     /** SQL DataSource. */
     private DataSource dataSource;
 
@@ -160,59 +170,45 @@ public class FeatureStoreSpringJdbc extends AbstractFeatureStore {
         if (exist(fp.getUid())) {
             throw new FeatureAlreadyExistException(fp.getUid());
         }
-        createCoreFeature(fp);
-        createPermissions(fp);
-        createProperties(fp);
-    }
-    
-    private void createCoreFeature(Feature fp) {
-        // Transaction wraps the method, could pipe several sql queries
-        String strategyColumn   = null;
-        String expressionColumn = null;
-        if (fp.getFlippingStrategy() != null) {
-            strategyColumn = fp.getFlippingStrategy().getClass().getName();
-            expressionColumn = MappingUtil.fromMap(fp.getFlippingStrategy().getInitParams());
-        }
-        getJdbcTemplate().update(getQueryBuilder().createFeature(), 
-                fp.getUid(), fp.isEnable() ? 1 : 0, 
-                fp.getDescription(), strategyColumn,
-                expressionColumn, fp.getGroup());
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(getQueryBuilder());
+        batch.write(null, fp);
+        executeBatch(batch);
     }
-    
+
     /**
-     * Remove all existing permissions and create new.
+     * Import features in a single transaction, features already present are updated with their differences only.
      *
-     * @param fp
+     * @param features
+     *      features to import
      */
-    private void createPermissions(Feature fp) {
-        if (fp.getPermissions() != null) {
-            getJdbcTemplate().update(getQueryBuilder().deleteRoles(), fp.getUid());
-            for (String role : fp.getPermissions()) {
-                getJdbcTemplate().update(getQueryBuilder().addRoleToFeature(), fp.getUid(), role);
-            }
-        }
+    @Override
+    @Transactional
+    public void importFeatures(Collection<Feature> features) {
+        if (features == null || features.isEmpty()) {
+            return;
+        }
+        // Current rows of imported features only
+        List<String> uids = new ArrayList<String>();
+        for (Feature fp : features) {
+            uids.add(fp.getUid());
+        }
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(getQueryBuilder());
+        batch.writeAll(read(uids), features);
+        executeBatch(batch);
     }
-    
+
     /**
-     * Remove all existing permissions and create new.
+     * Execute each statement of the batch with a single JDBC batch.
      *
-     * @param fp
+     * @param batch
+     *      rows to write
      */
-    private void createProperties(Feature fp) {
-        if (fp.getCustomProperties() != null) {
-            getJdbcTemplate().update(getQueryBuilder().deleteAllFeatureCustomProperties(), fp.getUid());
-            for (String propertyName : fp.getCustomProperties().keySet()) {
-                Property<?> ap = fp.getCustomProperties().get(propertyName);
-                String fixedValues = null;
-                if (ap.getFixedValues() != null && ap.getFixedValues().size() > 0) {
-                    fixedValues = ap.getFixedValues().toString();
-                    fixedValues = fixedValues.substring(1, fixedValues.length() - 1);
-                }
-                getJdbcTemplate().update(getQueryBuilder().createFeatureProperty(), 
-                        ap.getName(), ap.getType(), ap.asString(), 
-                        ap.getDescription(), fixedValues, fp.getUid());
+    private void executeBatch(JdbcFeatureBatch batch) {
+        for (Map.Entry<String, List<Object[]>> statement : batch.getBatches().entrySet()) {
+            if (!statement.getValue().isEmpty()) {
+                getJdbcTemplate().batchUpdate(statement.getKey(), statement.getValue());
             }
-        } 
+        }
     }
 
     /** {@inheritDoc} */
@@ -324,14 +320,11 @@ public class FeatureStoreSpringJdbc extends AbstractFeatureStore {
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException(GROUPNAME_CANNOT_BE_NULL_NOR_EMPTY);
         }
-        List<Feature> lFp = getJdbcTemplate().query(getQueryBuilder().getFeatureOfGroup(), FMAPPER, groupName);
-        if (lFp.isEmpty()) {
+        Map<String, Feature> mapFP = readFeatures(getQueryBuilder().getFeatureOfGroup(), 
+                getQueryBuilder().getRolesOfGroup(), getQueryBuilder().getFeaturePropertiesOfGroup(), groupName);
+        if (mapFP.isEmpty()) {
             throw new GroupNotFoundException(groupName);
         }
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
-        for (Feature flipPoint : lFp) {
-            mapFP.put(flipPoint.getUid(), flipPoint);
-        }
         return mapFP;
     }
 
@@ -370,23 +363,66 @@ public class FeatureStoreSpringJdbc extends AbstractFeatureStore {
 
     /** {@inheritDoc} */
     public Map<String, Feature> readAll() {
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
-        List<Feature> lFp = getJdbcTemplate().query(getQueryBuilder().getAllFeatures(), FMAPPER);
-        for (Feature flipPoint : lFp) {
-            mapFP.put(flipPoint.getUid(), flipPoint);
-        }
-        // Populating Roles
-        RoleRowMapper rrm = new RoleRowMapper();
-        getJdbcTemplate().query(getQueryBuilder().getAllRoles(), rrm);
-        Map<String, Set<String>> roles = rrm.getRoles();
-        for (Map.Entry<String,Set<String>> featId : roles.entrySet()) {
-            if (mapFP.containsKey(featId.getKey())) {
-                mapFP.get(featId.getKey()).getPermissions().addAll(featId.getValue());
-            }
+        return readFeatures(getQueryBuilder().getAllFeatures(), 
+                getQueryBuilder().getAllRoles(), getQueryBuilder().getAllFeatureProperties());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> read(Collection<String> featureUids) {
+        Util.assertNotNull(featureUids);
+        List<String> uids = new ArrayList<String>(new LinkedHashSet<String>(featureUids));
+        uids.remove(null);
+        Map<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        for (int from = 0; from < uids.size(); from += MAX_IN_PARAMETERS) {
+            Object[] chunk = uids.subList(from, Math.min(from + MAX_IN_PARAMETERS, uids.size())).toArray();
+            mapFP.putAll(readFeatures(getQueryBuilder().getFeatures(chunk.length), 
+                    getQueryBuilder().getRolesOfFeatures(chunk.length), 
+                    getQueryBuilder().getFeaturePropertiesOfFeatures(chunk.length), chunk));
         }
         return mapFP;
     }
 
+    /**
+     * Read a set of features with a fixed number of queries (features, roles then custom properties), rows are
+     * mapped directly into the features.
+     *
+     * @param featuresQuery
+     *      query to select features
+     * @param rolesQuery
+     *      query to select roles of these features
+     * @param propertiesQuery
+     *      query to select custom properties of these features
+     * @param args
+     *      parameters of the queries
+     * @return
+     *      features by uid
+     */
+    private Map<String, Feature> readFeatures(String featuresQuery, String rolesQuery, String propertiesQuery, Object... args) {
+        final Map<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        getJdbcTemplate().query(featuresQuery, (RowCallbackHandler) rs -> {
+            Feature f = FMAPPER.mapRow(rs, 0);
+            mapFP.put(f.getUid(), f);
+        }, args);
+        if (mapFP.isEmpty()) {
+            return mapFP;
+        }
+        getJdbcTemplate().query(rolesQuery, (RowCallbackHandler) rs -> {
+            Feature f = mapFP.get(rs.getString(COL_ROLE_FEATID));
+            if (f != null) {
+                f.getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
+            }
+        }, args);
+        getJdbcTemplate().query(propertiesQuery, (RowCallbackHandler) rs -> {
+            Feature f = mapFP.get(rs.getString(COL_PROPERTY_FEATID));
+            if (f != null) {
+                Property<?> ap = PMAPPER.mapRow(rs, 0);
+                f.getCustomProperties().put(ap.getName(), ap);
+            }
+        }, args);
+        return mapFP;
+    }
+
     /** {@inheritDoc} */
     public Set<String> readAllGroups() {
         Set<String> setOfGroup = new HashSet<String>();
@@ -401,8 +437,9 @@ public class FeatureStoreSpringJdbc extends AbstractFeatureStore {
     @Transactional
     public void update(Feature newFeature) {
         Util.assertNotNull(newFeature);
-        delete(newFeature.getUid());
-        create(newFeature);
+        JdbcFeatureBatch batch = new JdbcFeatureBatch(getQueryBuilder());
+        batch.write(read(newFeature.getUid()), newFeature);
+        executeBatch(batch);
     }
 
     /** {@inheritDoc} */
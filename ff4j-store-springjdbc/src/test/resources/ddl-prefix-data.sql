@@ -49,7 +49,7 @@ INSERT INTO T_FF4J_CUSTOM_PROPERTIES_01(PROPERTY_ID, CLAZZ, CURRENTVALUE, FIXEDV
 VALUES('myLogLevel', 'org.ff4j.property.PropertyLogLevel', 'DEBUG', 'FATAL,WARN,TRACE,ERROR,INFO,DEBUG', 'first');
 
 INSERT INTO T_FF4J_CUSTOM_PROPERTIES_01(PROPERTY_ID, CLAZZ, CURRENTVALUE, FIXEDVALUES, FEAT_UID) 
-VALUES('date', 'org.ff4j.property.PropertyDate', '2015-08-15 12:00', NULL, 'AwesomeFeature');
+VALUES('date', 'org.ff4j.property.PropertyDate', '2015-08-15 12:00:00', NULL, 'AwesomeFeature');
 
 -- Second
 INSERT INTO T_FF4J_FEATURES_01(FEAT_UID, ENABLE, DESCRIPTION, GROUPNAME) VALUES('second', 0, 'description', 'GRP0');
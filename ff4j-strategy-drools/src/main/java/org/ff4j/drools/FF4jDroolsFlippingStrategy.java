@@ -21,11 +21,15 @@ package org.ff4j.drools;
  */
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.ff4j.core.FeatureStore;
 import org.ff4j.core.FlippingExecutionContext;
@@ -56,6 +60,10 @@ import org.ff4j.strategy.AbstractFlipStrategy;
  *     };
  *  end
  * </pre>
+ * 
+ * <p>Compiled rules are shared by all features using the same kbase name or the same rule files (see
+ * {@link FF4jDroolsService#forBaseName(String)}). Results can be memoized for a duration ('memoizeTtl', in
+ * milliseconds) by listing the execution context parameters they depend on ('memoizeOn', comma separated).
  *
  * @author Cedrick Lunven (@clunven)</a>
  */
@@ -70,11 +78,52 @@ public class FF4jDroolsFlippingStrategy extends AbstractFlipStrategy {
     /** key to be used in map initParam. */
     private static final String KEY_RULES_FILES = "ruleFiles";
     
+    /** key to be used in map initParam, context parameters used as memoization key. */
+    public static final String KEY_MEMOIZE_ON = "memoizeOn";
+    
+    /** key to be used in map initParam, time to live of memoized results (milliseconds). */
+    public static final String KEY_MEMOIZE_TTL = "memoizeTtl";
+    
+    /** Default time to live of memoized results. */
+    public static final long DEFAULT_MEMOIZE_TTL = 60000L;
+    
+    /** Maximum number of memoized results, cleared when full. */
+    private static final int MAX_MEMOIZED_RESULTS = 10000;
+    
     /** (If initialized with the kmodule.xml file) State as the kSession name. */
     private String basename;
 
     /** (If initialized with drl rule files), State as the kSession name. */
     private Set<String> ruleFiles = new HashSet<>();
+    
+    /** Context parameters used as memoization key, null if disabled. */
+    private String[] memoizeOn;
+    
+    /** Time to live of memoized results. */
+    private long memoizeTtl = DEFAULT_MEMOIZE_TTL;
+    
+    /** Shared compiled rules. */
+    private transient volatile FF4jDroolsService service;
+    
+    /** Memoized results. */
+    private transient ConcurrentMap<List<Object>, MemoizedResult> memoizedResults;
+    
+    /**
+     * Result with expiration time.
+     */
+    private static final class MemoizedResult {
+        
+        /** Result. */
+        private final boolean toggled;
+        
+        /** Expiration time. */
+        private final long expiresAt;
+        
+        private MemoizedResult(boolean toggled, long expiresAt) {
+            this.toggled   = toggled;
+            this.expiresAt = expiresAt;
+        }
+    }
 
     /**
      * Keep default constructor to allow dependency injection.
@@ -93,10 +142,9 @@ public class FF4jDroolsFlippingStrategy extends AbstractFlipStrategy {
     public FF4jDroolsFlippingStrategy(String baseName) {
        this.basename = baseName;
        initParams.put(KEY_BASE_NAME, basename);
-       // Do not initialize for each feature, it's a static contexte to be initialized once
-       if (!FF4jDroolsService.isInitialized()) {
-           FF4jDroolsService.initFromBaseName(basename);
-       }
+       // Rules are compiled once for all features using this base
+       this.service = FF4jDroolsService.forBaseName(basename);
+       FF4jDroolsService.initDefault(service);
     }
     
     /**
@@ -108,9 +156,8 @@ public class FF4jDroolsFlippingStrategy extends AbstractFlipStrategy {
     public FF4jDroolsFlippingStrategy(Set<String> files) {
         this.ruleFiles = files;
         initParams.put(KEY_RULES_FILES, getRulesFileAsString());
-        if (!FF4jDroolsService.isInitialized()) {
-            FF4jDroolsService.initFromRulesFiles(files);
-        }
+        this.service = FF4jDroolsService.forRuleFiles(files);
+        FF4jDroolsService.initDefault(service);
     }
 
     /**
@@ -153,21 +200,64 @@ public class FF4jDroolsFlippingStrategy extends AbstractFlipStrategy {
     public void init(String featureName, Map<String, String> initParam) {
         super.init(featureName, initParam);
         
-        if (!FF4jDroolsService.isInitialized()) {
-            
-            if (initParams.containsKey(KEY_BASE_NAME)) {
-                this.basename = initParams.get(KEY_BASE_NAME);
-                FF4jDroolsService.initFromBaseName(basename);
-            
-            } else if (initParams.containsKey(KEY_RULES_FILES)) {
-                String exp = initParams.get(KEY_RULES_FILES);
-                this.ruleFiles = new HashSet <> (Arrays.asList(exp.split(",")));
-                FF4jDroolsService.initFromRulesFiles(ruleFiles);
-            
+        if (initParams.containsKey(KEY_BASE_NAME) && initParams.get(KEY_BASE_NAME) != null) {
+            this.basename = initParams.get(KEY_BASE_NAME);
+            this.service  = FF4jDroolsService.forBaseName(basename);
+        
+        } else if (initParams.containsKey(KEY_RULES_FILES) && initParams.get(KEY_RULES_FILES) != null 
+                && !initParams.get(KEY_RULES_FILES).isEmpty()) {
+            String exp = initParams.get(KEY_RULES_FILES);
+            this.ruleFiles = new HashSet <> (Arrays.asList(exp.split(",")));
+            this.service   = FF4jDroolsService.forRuleFiles(ruleFiles);
+        
+        } else if (FF4jDroolsService.isInitialized()) {
+            // No settings, use rules initialized before
+            this.service = FF4jDroolsService.getInstance();
+        
+        } else {
+            throw new IllegalArgumentException("Init param '" + KEY_BASE_NAME + "' is required to fetch Drools settings");
+        }
+        FF4jDroolsService.initDefault(service);
+        
+        // Optional memoization
+        this.memoizeOn       = null;
+        this.memoizedResults = null;
+        String memoKeys = initParams.get(KEY_MEMOIZE_ON);
+        if (memoKeys != null && !memoKeys.trim().isEmpty()) {
+            String[] keys = memoKeys.split(",");
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = keys[i].trim();
+            }
+            this.memoizeOn = keys;
+            this.memoizedResults = new ConcurrentHashMap<>();
+            String ttl = initParams.get(KEY_MEMOIZE_TTL);
+            try {
+                this.memoizeTtl = (ttl == null) ? DEFAULT_MEMOIZE_TTL : Long.parseLong(ttl.trim());
+            } catch (NumberFormatException nfe) {
+                throw new IllegalArgumentException("Init param '" + KEY_MEMOIZE_TTL + "' must be a number of milliseconds", nfe);
+            }
+        }
+    }
+    
+    /**
+     * Shared service (resolved again after deserialization).
+     *
+     * @return
+     *      service holding compiled rules
+     */
+    private FF4jDroolsService getService() {
+        FF4jDroolsService current = service;
+        if (current == null) {
+            if (basename != null) {
+                current = FF4jDroolsService.forBaseName(basename);
+            } else if (ruleFiles != null && !ruleFiles.isEmpty()) {
+                current = FF4jDroolsService.forRuleFiles(ruleFiles);
             } else {
-                throw new IllegalArgumentException("Init param '" + KEY_BASE_NAME + "' is required to fetch Drools settings");
+                current = FF4jDroolsService.getInstance();
             }
+            service = current;
         }
+        return current;
     }
 
     /**
@@ -180,7 +270,25 @@ public class FF4jDroolsFlippingStrategy extends AbstractFlipStrategy {
      */
     @Override
     public boolean evaluate(String uid, FeatureStore store, FlippingExecutionContext ctx) {
-        return FF4jDroolsService.getInstance().evaluate(new FF4jDroolsRequest(uid, store, ctx));
+        ConcurrentMap<List<Object>, MemoizedResult> results = memoizedResults;
+        if (results == null) {
+            return getService().evaluate(new FF4jDroolsRequest(uid, store, ctx));
+        }
+        List<Object> key = new ArrayList<>(memoizeOn.length + 1);
+        key.add(uid);
+        for (String param : memoizeOn) {
+            key.add((ctx == null) ? null : ctx.getValue(param, false));
+        }
+        long now = System.currentTimeMillis();
+        MemoizedResult result = results.get(key);
+        if (result == null || result.expiresAt <= now) {
+            result = new MemoizedResult(getService().evaluate(new FF4jDroolsRequest(uid, store, ctx)), now + memoizeTtl);
+            if (results.size() >= MAX_MEMOIZED_RESULTS) {
+                results.clear();
+            }
+            results.put(key, result);
+        }
+        return result.toggled;
     }
 
     /**
@@ -24,26 +24,43 @@ package org.ff4j.drools;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
 import org.drools.core.ClockType;
-import org.drools.kiesession.rulebase.KnowledgeBaseFactory;
+import org.kie.api.KieBase;
 import org.kie.api.KieServices;
+import org.kie.api.builder.model.ChannelModel;
+import org.kie.api.builder.model.KieSessionModel;
+import org.kie.api.builder.model.KieSessionModel.KieSessionType;
+import org.kie.api.builder.model.ListenerModel;
 import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.event.process.ProcessEventListener;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
 import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.Channel;
 import org.kie.api.runtime.KieContainer;
-import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.StatelessKieSession;
 import org.kie.api.runtime.conf.ClockTypeOption;
-import org.kie.api.runtime.rule.FactHandle;
 import org.kie.internal.utils.KieHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Singleton pattern to instanciate drool Session once and be reused for each feature.
+ * Compiled rules shared by every feature using the same kbase name or the same set of drl files.
+ * 
+ * <p>The {@link KieBase} is built once for each rule set ({@link #forBaseName(String)}, {@link #forRuleFiles(Set)})
+ * and evaluations use stateless sessions taken from a pool, so that features can be evaluated concurrently.
  * 
- * <p>It can be initialized in 2 ways, from kbase name or a list of drl files.
+ * <p>The historical singleton ({@link #initFromBaseName(String)}, {@link #initFromRulesFiles(Set)},
+ * {@link #getInstance()}) is kept and points to the first service initialized.
  *
  * @author Cedrick Lunven (@clunven)</a>
  */
@@ -55,28 +72,44 @@ public final class FF4jDroolsService implements Serializable {
     /** logger provide by drools. */
     private static final Logger LOGGER = LoggerFactory.getLogger(FF4jDroolsFlippingStrategy.class);
 
+    /** Default number of idle sessions kept for each rule set. */
+    public static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    /** Global expected in rules. */
+    private static final String GLOBAL_STORE = "store";
+
+    /** Services by rule set. */
+    private static final ConcurrentMap<String, FF4jDroolsService> SERVICES = new ConcurrentHashMap<>();
+
     /** Protected instance. */
     private static FF4jDroolsService _instance;
     
     /** Drools services first level. */
-    private KieServices kieServices;
+    private transient KieServices kieServices;
+
+    /** Compiled rules. */
+    private transient KieBase kieBase;
 
-    /** Container for sessions. */
-    private KieContainer kieContainer;
+    /** Create sessions when the pool is empty. */
+    private transient Supplier<StatelessKieSession> sessionFactory;
 
-    /** Working Session. */
-    private KieSession ksession;
+    /** Idle sessions. */
+    private transient BlockingQueue<StatelessKieSession> sessionPool;
 
     /**  base name coming from strategy. */
     private String basename;
 
     /** drl files coming from strategy. */
-    private Set<String> ruleFiles = new HashSet<>();
+    private Set<String> ruleFiles = new TreeSet<>();
     
     /**
-     * Implementation of singleton pattern (Hide Constructor).
+     * Hide Constructor, use {@link #forBaseName(String)} or {@link #forRuleFiles(Set)}.
      */
-    private FF4jDroolsService() {
+    private FF4jDroolsService(KieServices kieServices, KieBase kieBase, Supplier<StatelessKieSession> sessionFactory) {
+        this.kieServices    = kieServices;
+        this.kieBase        = kieBase;
+        this.sessionFactory = sessionFactory;
+        this.sessionPool    = new ArrayBlockingQueue<>(Math.max(1, DEFAULT_POOL_SIZE));
     }
     
     /**
@@ -86,7 +119,7 @@ public final class FF4jDroolsService implements Serializable {
      *      singleton already created.
      */
     public static synchronized boolean isInitialized() {
-        return _instance != null && _instance.ksession != null;
+        return _instance != null;
     }
     
     /**
@@ -102,6 +135,18 @@ public final class FF4jDroolsService implements Serializable {
         return _instance;
     }
     
+    /**
+     * Define default service if not already set.
+     *
+     * @param service
+     *      service initialized by a strategy
+     */
+    static synchronized void initDefault(FF4jDroolsService service) {
+        if (_instance == null) {
+            _instance = service;
+        }
+    }
+    
     /**
      * Drools expects to find the 'kmodule.xml' file in src/main/resources/META-INF.
      * It must contain a definition of kbase and kession with same base name exemple :
@@ -117,19 +162,11 @@ public final class FF4jDroolsService implements Serializable {
         if (isInitialized()) {
             throw new IllegalStateException("This Factory has already be initialized once");
         }
-        _instance               = new FF4jDroolsService();
-        _instance.basename      = baseName; 
-        _instance.kieServices   = KieServices.Factory.get();
-        _instance.kieContainer  = _instance.kieServices.newKieClasspathContainer();
-        _instance.ksession      = _instance.kieContainer.newKieSession(baseName);
-        
-        if (_instance.ksession == null) {
-            throw new IllegalArgumentException("Cannot find kName " + baseName + " , check kmodule.xml file.");
-        }
+        _instance = forBaseName(baseName);
     }
     
     /**
-     * Initialisation of Drools stateful session without convention and kodmule files.
+     * Initialisation of Drools session without convention and kodmule files.
      *
      * @param ruleFiles
      *      DRL files
@@ -138,20 +175,151 @@ public final class FF4jDroolsService implements Serializable {
         if (isInitialized()) {
             throw new IllegalStateException("This Factory has already be initialized once");
         }
-        _instance               = new FF4jDroolsService();
-        _instance.ruleFiles     = ruleFiles; 
-        
+        _instance = forRuleFiles(ruleFiles);
+    }
+    
+    /**
+     * Shared service for a ksession name of kmodule.xml, rules are compiled at first call.
+     *
+     * @param baseName
+     *      ksession name
+     * @return
+     *      shared service
+     */
+    public static FF4jDroolsService forBaseName(String baseName) {
+        return SERVICES.computeIfAbsent("kbase:" + baseName, key -> buildFromBaseName(baseName));
+    }
+    
+    /**
+     * Shared service for a set of rule files, rules are compiled at first call.
+     *
+     * @param ruleFiles
+     *      DRL files
+     * @return
+     *      shared service
+     */
+    public static FF4jDroolsService forRuleFiles(Set < String > ruleFiles) {
+        Set<String> files = new TreeSet<>();
+        for (String file : ruleFiles) {
+            files.add(file.trim());
+        }
+        return SERVICES.computeIfAbsent("drl:" + String.join(",", files), key -> buildFromRulesFiles(files));
+    }
+    
+    /**
+     * Compile rules of a kbase declared in kmodule.xml, sessions are configured as the ksession (clock type,
+     * listeners, channels).
+     *
+     * @param baseName
+     *      ksession name
+     * @return
+     *      service
+     */
+    private static FF4jDroolsService buildFromBaseName(String baseName) {
+        KieServices kieServices = KieServices.Factory.get();
+        KieContainer container  = kieServices.getKieClasspathContainer();
+        KieSessionModel model   = container.getKieSessionModel(baseName);
+        if (model == null) {
+            throw new IllegalArgumentException("Cannot find kName " + baseName + " , check kmodule.xml file.");
+        }
+        KieBase kieBase = container.getKieBase(model.getKieBaseModel().getName());
+        Supplier<StatelessKieSession> sessionFactory;
+        if (model.getType() == KieSessionType.STATELESS) {
+            // Drools applies the whole ksession definition
+            sessionFactory = () -> container.newStatelessKieSession(baseName);
+        } else {
+            // Stateful ksession (default type) is evaluated with stateless sessions having the same definition
+            KieSessionConfiguration sessionConfig = container.getKieSessionConfiguration(baseName);
+            sessionFactory = () -> wireSession(kieBase.newStatelessKieSession(sessionConfig), model, container.getClassLoader());
+        }
+        FF4jDroolsService service = new FF4jDroolsService(kieServices, kieBase, sessionFactory);
+        service.basename = baseName;
+        LOGGER.debug("Rules of kbase " + baseName + " compiled");
+        return service;
+    }
+    
+    /**
+     * Compile rules from files without convention and kodmule files.
+     *
+     * @param ruleFiles
+     *      DRL files
+     * @return
+     *      service
+     */
+    private static FF4jDroolsService buildFromRulesFiles(Set < String > ruleFiles) {
+        KieServices kieServices = KieServices.Factory.get();
         KieHelper helper = new KieHelper();
-        KieSessionConfiguration sessionConfig = KnowledgeBaseFactory.newKnowledgeBase()
-            .getSessionConfiguration();
+        KieSessionConfiguration sessionConfig = kieServices.newKieSessionConfiguration();
         sessionConfig.setOption(ClockTypeOption.get(ClockType.PSEUDO_CLOCK.getId()));
-        //ruleFiles.stream().forEach(drlFile -> helper.addContent(loadResourceAsString(drlFile), ResourceType.determineResourceType(drlFile)));
         for (String drlFile : ruleFiles) {
             String fileContent    = loadResourceAsString(drlFile);            
             ResourceType typeFile = ResourceType.determineResourceType(drlFile);
             helper.addContent(fileContent, typeFile);
         }
-        _instance.ksession = helper.build(EventProcessingOption.STREAM).newKieSession(sessionConfig, null);
+        KieBase kieBase = helper.build(EventProcessingOption.STREAM);
+        FF4jDroolsService service = new FF4jDroolsService(kieServices, kieBase, 
+                () -> kieBase.newStatelessKieSession(sessionConfig));
+        service.ruleFiles = ruleFiles;
+        LOGGER.debug("Rules of files " + ruleFiles + " compiled");
+        return service;
+    }
+    
+    /**
+     * Register listeners and channels declared on a ksession of kmodule.xml.
+     *
+     * @param session
+     *      new session
+     * @param model
+     *      ksession definition
+     * @param classLoader
+     *      class loader of the kmodule
+     * @return
+     *      the session
+     */
+    private static StatelessKieSession wireSession(StatelessKieSession session, KieSessionModel model, ClassLoader classLoader) {
+        for (ListenerModel listener : model.getListenerModels()) {
+            Object instance = newInstance(listener.getType(), classLoader);
+            switch (listener.getKind()) {
+                case AGENDA_EVENT_LISTENER:
+                    session.addEventListener((AgendaEventListener) instance);
+                break;
+                case RULE_RUNTIME_EVENT_LISTENER:
+                    session.addEventListener((RuleRuntimeEventListener) instance);
+                break;
+                case PROCESS_EVENT_LISTENER:
+                    session.addEventListener((ProcessEventListener) instance);
+                break;
+            }
+        }
+        for (ChannelModel channel : model.getChannelModels()) {
+            session.registerChannel(channel.getName(), (Channel) newInstance(channel.getType(), classLoader));
+        }
+        return session;
+    }
+    
+    /**
+     * Instantiate a class declared in kmodule.xml.
+     *
+     * @param className
+     *      class name
+     * @param classLoader
+     *      class loader of the kmodule
+     * @return
+     *      new instance
+     */
+    private static Object newInstance(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, true, classLoader).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot instantiate " + className + " , check kmodule.xml file.", e);
+        }
+    }
+    
+    /**
+     * Remove compiled rules (rules are compiled again at next use), the default service is kept.
+     */
+    public static void clear() {
+        SERVICES.clear();
     }
     
     /** {@inheritDoc} */
@@ -162,18 +330,18 @@ public final class FF4jDroolsService implements Serializable {
          * 
          * FF4J expects the fact {@link FF4JDroolsRequest} to be modified by the target rules. By default the status is 'false'.
          */
-        _instance.ksession.setGlobal("store", request.getFeatureStore());
-
-        // FactHandle drHandler = ksession.insert(droolsRequest);
-        FactHandle requestHandle = _instance.ksession.insert(request);
-
-        // Execute the rules
-        ksession.fireAllRules();
-
-        // clean session, note that retract() is deprecated
-        _instance.ksession.delete(requestHandle);
-        //_instance.ksession.dispose();
-
+        StatelessKieSession session = sessionPool.poll();
+        if (session == null) {
+            session = sessionFactory.get();
+        }
+        try {
+            // Global is set on a session used by current thread only
+            session.setGlobal(GLOBAL_STORE, request.getFeatureStore());
+            // Insert the request as fact and execute the rules
+            session.execute(request);
+        } finally {
+            sessionPool.offer(session);
+        }
         LOGGER.debug("Evaluating feature " + request.getFeatureName() + " to " + request.isToggled());        
         return request.isToggled();
     }
@@ -231,6 +399,16 @@ public final class FF4jDroolsService implements Serializable {
         return kieServices;
     }
 
+    /**
+     * Getter accessor for attribute 'kieBase'.
+     *
+     * @return
+     *       current value of 'kieBase'
+     */
+    public KieBase getKieBase() {
+        return kieBase;
+    }
+
     /**
      * Getter accessor for attribute 'ruleFiles'.
      *
@@ -0,0 +1,146 @@
+package org.ff4j.drools;
+
+/*-
+ * #%L
+ * ff4j-strategy-drools
+ * %%
+ * Copyright (C) 2013 - 2024 FF4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ff4j.FF4j;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingExecutionContext;
+import org.ff4j.store.InMemoryFeatureStore;
+import org.ff4j.utils.Util;
+import org.junit.Assert;
+import org.junit.Test;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+
+/**
+ * Compiled rules are shared between features and results can be memoized.
+ */
+public class FF4jDroolsSharedKBaseTest {
+
+    @Test
+    public void testRulesCompiledOnce() {
+        Set<String> files = Util.set("ff4jDroolsSample.drl");
+        FF4jDroolsService s1 = FF4jDroolsService.forRuleFiles(files);
+        FF4jDroolsService s2 = FF4jDroolsService.forRuleFiles(Util.set(" ff4jDroolsSample.drl"));
+        Assert.assertSame(s1, s2);
+        Assert.assertSame(s1.getKieBase(), s2.getKieBase());
+        Assert.assertSame(FF4jDroolsService.forBaseName("ff4jDroolsStrategy"), 
+                FF4jDroolsService.forBaseName("ff4jDroolsStrategy"));
+    }
+
+    @Test
+    public void testSessionsUseKSessionDefinition() {
+        FF4jDroolsService service = FF4jDroolsService.forBaseName("ff4jDroolsListened");
+        int fired = FiredRulesCounter.FIRED.get();
+        FF4jDroolsRequest request = new FF4jDroolsRequest("f1", new InMemoryFeatureStore(), new FlippingExecutionContext());
+        Assert.assertTrue(service.evaluate(request));
+        // Listener declared in kmodule.xml is registered on pooled sessions
+        Assert.assertEquals(fired + 1, FiredRulesCounter.FIRED.get());
+    }
+
+    /** Listener declared in kmodule.xml. */
+    public static class FiredRulesCounter extends DefaultAgendaEventListener {
+        private static final AtomicInteger FIRED = new AtomicInteger();
+        @Override
+        public void afterMatchFired(AfterMatchFiredEvent event) {
+            FIRED.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void testMemoizedEvaluation() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(memoizedFeature("60000"));
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        ctx.putString("userId", "u1");
+        ctx.putString("region", "EU");
+        Assert.assertTrue(ff4j.check("memo", ctx));
+        // Rules would now say false, result is kept for the same user
+        ctx.putString("region", "US");
+        Assert.assertTrue(ff4j.check("memo", ctx));
+        // Another user is evaluated on its own
+        ctx.putString("userId", "u2");
+        Assert.assertFalse(ff4j.check("memo", ctx));
+        ctx.putString("region", "EU");
+        Assert.assertFalse(ff4j.check("memo", ctx));
+    }
+
+    @Test
+    public void testMemoizedEvaluationExpires() throws InterruptedException {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(memoizedFeature("1"));
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        ctx.putString("userId", "u1");
+        ctx.putString("region", "EU");
+        Assert.assertTrue(ff4j.check("memo", ctx));
+        Thread.sleep(20);
+        ctx.putString("region", "US");
+        Assert.assertFalse(ff4j.check("memo", ctx));
+    }
+
+    @Test
+    public void testEvaluationWithoutMemoization() {
+        FF4j ff4j = new FF4j();
+        ff4j.createFeature(memoizedFeature(null));
+        FlippingExecutionContext ctx = new FlippingExecutionContext();
+        ctx.putString("userId", "u1");
+        ctx.putString("region", "EU");
+        Assert.assertTrue(ff4j.check("memo", ctx));
+        ctx.putString("region", "US");
+        Assert.assertFalse(ff4j.check("memo", ctx));
+    }
+    
+    /**
+     * Feature toggled for region 'EU', result memoized on 'userId'.
+     *
+     * @param ttl
+     *      time to live of results, memoization disabled if null
+     * @return
+     *      feature
+     */
+    private Feature memoizedFeature(String ttl) {
+        FF4jDroolsFlippingStrategy strategy = new FF4jDroolsFlippingStrategy();
+        Map<String, String> params = new HashMap<>();
+        params.put("ruleFiles", "ff4jDroolsMemoize.drl");
+        if (ttl != null) {
+            params.put(FF4jDroolsFlippingStrategy.KEY_MEMOIZE_ON, "userId");
+            params.put(FF4jDroolsFlippingStrategy.KEY_MEMOIZE_TTL, ttl);
+        }
+        strategy.init("memo", params);
+        Feature memo = new Feature("memo", true);
+        memo.setFlippingStrategy(strategy);
+        return memo;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMemoizeTtl() {
+        Map<String, String> params = new HashMap<>();
+        params.put("ruleFiles", "ff4jDroolsSample.drl");
+        params.put(FF4jDroolsFlippingStrategy.KEY_MEMOIZE_ON, "userId");
+        params.put(FF4jDroolsFlippingStrategy.KEY_MEMOIZE_TTL, "soon");
+        new FF4jDroolsFlippingStrategy().init("f1", params);
+    }
+}
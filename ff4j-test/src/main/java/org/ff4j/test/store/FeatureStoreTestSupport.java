@@ -127,7 +127,7 @@ public abstract class FeatureStoreTestSupport {
 	public void testReadNull() {
 		// Given
 		// When
-		testedStore.read(null);
+		testedStore.read((String) null);
 		// Then, expected error...
 	}
 
@@ -153,6 +153,25 @@ public abstract class FeatureStoreTestSupport {
 		// Then, expected error...
 	}
 
+	/**
+	 * TDD.
+	 */
+	@Test
+	public void testReadSeveralFeatures() {
+		// Given
+		assertFf4j.assertThatFeatureExist(F1);
+		assertFf4j.assertThatFeatureExist(F4);
+		// When
+		Map<String, Feature> features = testedStore.read(Arrays.asList(F4, "I-DONT-EXIST", F1, F4));
+		// Then
+		Assert.assertEquals(2, features.size());
+		Assert.assertFalse(features.containsKey("I-DONT-EXIST"));
+		Assert.assertEquals(F4, features.get(F4).getUid());
+		Assert.assertEquals(G1, features.get(F4).getGroup());
+		Assert.assertTrue(features.get(F4).getPermissions().contains(ROLE_ADMIN));
+		Assert.assertEquals(F1, features.get(F1).getUid());
+	}
+
 	/**
 	 * TDD.
 	 */
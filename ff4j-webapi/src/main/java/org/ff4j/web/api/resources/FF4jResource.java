@@ -21,9 +21,11 @@ package org.ff4j.web.api.resources;
  */
 
 import static org.ff4j.web.FF4jWebConstants.OPERATION_CHECK;
+import static org.ff4j.web.FF4jWebConstants.RESOURCE_GROUPS;
 import static org.ff4j.web.FF4jWebConstants.RESOURCE_SECURITY;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -39,6 +41,7 @@ import javax.ws.rs.core.Response.Status;
 
 import org.ff4j.core.FlippingExecutionContext;
 import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.exception.GroupNotFoundException;
 import org.ff4j.security.AuthorizationsManager;
 import org.ff4j.web.FF4jWebConstants;
 import org.ff4j.web.api.resources.domain.AuthorizationsManagerApiBean;
@@ -61,6 +64,25 @@ import io.swagger.annotations.ApiResponses;
 @Api(value = "/ff4j")
 public class FF4jResource extends AbstractResource {
     
+    /**
+     * Create the execution context of a request from its parameters, never shared with other requests.
+     *
+     * @param params
+     *      form or query parameters
+     * @return
+     *      execution context
+     */
+    private static FlippingExecutionContext requestContext(MultivaluedMap<String, String> params) {
+        FlippingExecutionContext flipExecCtx = new FlippingExecutionContext();
+        if (params != null) {
+            for (Map.Entry<String, List<String>> param : params.entrySet()) {
+                List<String> values = param.getValue();
+                flipExecCtx.putString(param.getKey(), (values == null || values.isEmpty()) ? null : values.get(0));
+            }
+        }
+        return flipExecCtx;
+    }
+    
     /**
      * Provide core information on ff4J and available sub resources.
      * @return
@@ -151,10 +173,7 @@ public class FF4jResource extends AbstractResource {
        }
 
        // Flipping Strategy may expected some dedicated parameters if not present, will return 400
-       FlippingExecutionContext flipExecCtx = new FlippingExecutionContext();
-       for (String key : formParams.keySet()) {
-           flipExecCtx.putString(key, formParams.getFirst(key));
-       }
+       FlippingExecutionContext flipExecCtx = requestContext(formParams);
        try {
            boolean flipped = ff4j.check(uid, flipExecCtx);
            return Response.ok(String.valueOf(flipped)).build();
@@ -182,22 +201,43 @@ public class FF4jResource extends AbstractResource {
             @ApiResponse(code = 400, message= "Invalid parameter")})
     public Response checkMulti(@Context HttpHeaders headers, @Context UriInfo uriInfo, Set<String> featureUIDs) {
         FF4JSecurityContextHolder.save(securityContext);
-        final Map<String, Boolean> featureFlippedMap = new HashMap<String, Boolean>();
         final MultivaluedMap<String, String> formParams = uriInfo.getQueryParameters();
-        final FlippingExecutionContext flipExecCtx = new FlippingExecutionContext();
-        for (String key : formParams.keySet()) {
-            flipExecCtx.putString(key, formParams.getFirst(key));
-        }
-        if (featureUIDs != null) {
-            for (final String featureUID : featureUIDs) {
-                try {
-                    featureFlippedMap.put(featureUID,  ff4j.check(featureUID, flipExecCtx));
-                } catch (FeatureNotFoundException e) {
-                    featureFlippedMap.put(featureUID, false);
-                }
-            }
+        final FlippingExecutionContext flipExecCtx = requestContext(formParams);
+        if (featureUIDs == null) {
+            return Response.ok(new HashMap<String, Boolean>()).build();
         }
+        // Features are read, secured and audited once for the whole set
+        final Map<String, Boolean> featureFlippedMap = ff4j.checkAll(featureUIDs, flipExecCtx).toMap();
         return Response.ok(featureFlippedMap).build();
     }
     
+    /**
+     * Check all features of a group.
+     *
+     * @return
+     *      Map<String,Boolean> with featureUID and flipped
+     */
+    @GET
+    @Path("/" + OPERATION_CHECK + "/" + RESOURCE_GROUPS + "/{groupName}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value= "<b>Check</b> all feature toggles of a group", response=Boolean.class)
+    @ApiResponses({
+            @ApiResponse(code = 200, message= "Map of feature / flipped"),
+            @ApiResponse(code = 400, message= "Invalid parameter"),
+            @ApiResponse(code = 404, message= "group has not been found")})
+    public Response checkGroup(@Context HttpHeaders headers, @Context UriInfo uriInfo, @PathParam("groupName") String groupName) {
+        FF4JSecurityContextHolder.save(securityContext);
+        if (!ff4j.getFeatureStore().existGroup(groupName)) {
+            String errMsg = new GroupNotFoundException(groupName).getMessage();
+            return Response.status(Response.Status.NOT_FOUND).entity(errMsg).build();
+        }
+        try {
+            FlippingExecutionContext flipExecCtx = requestContext(uriInfo.getQueryParameters());
+            return Response.ok(ff4j.checkGroup(groupName, flipExecCtx).toMap()).build();
+        } catch(IllegalArgumentException iae) {
+            String errMsg = "Invalid parameter " + iae.getMessage();
+            return Response.status(Response.Status.BAD_REQUEST).entity(errMsg).build();
+        }
+    }
+    
 }